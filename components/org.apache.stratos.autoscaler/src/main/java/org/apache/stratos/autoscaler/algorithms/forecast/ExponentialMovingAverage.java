@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.algorithms.forecast;
+
+/**
+ * Exponentially weighted moving average. Smooths out the noise of the statistic and
+ * forecasts the smoothed level, hence does not extrapolate trends.
+ */
+public class ExponentialMovingAverage implements ForecastingAlgorithm {
+
+    private final double alpha;
+
+    /**
+     * @param alpha smoothing factor of the level, between 0 and 1
+     */
+    public ExponentialMovingAverage(double alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public double forecast(float[] values, double steps) {
+        double level = values[0];
+        for (int i = 1; i < values.length; i++) {
+            level = alpha * values[i] + (1 - alpha) * level;
+        }
+        return level;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.algorithms.forecast;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) forecasting. Tracks the level, trend and
+ * seasonal component of the statistic so that predictable peaks, such as daily peaks, are
+ * forecast ahead of time. Holt's linear trend method is used until two seasons of samples
+ * are available.
+ */
+public class HoltWinters implements ForecastingAlgorithm {
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int seasonLength;
+
+    /**
+     * @param alpha        smoothing factor of the level, between 0 and 1
+     * @param beta         smoothing factor of the trend, between 0 and 1
+     * @param gamma        smoothing factor of the seasonal component, between 0 and 1
+     * @param seasonLength number of samples in a season
+     */
+    public HoltWinters(double alpha, double beta, double gamma, int seasonLength) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonLength = seasonLength;
+    }
+
+    @Override
+    public double forecast(float[] values, double steps) {
+        if (values.length < 2) {
+            return values[0];
+        }
+        if ((seasonLength < 2) || (values.length < 2 * seasonLength)) {
+            return forecastTrend(values, steps);
+        }
+        return forecastSeasonal(values, steps);
+    }
+
+    private double forecastTrend(float[] values, double steps) {
+        double level = values[0];
+        double trend = values[1] - values[0];
+        for (int i = 1; i < values.length; i++) {
+            double previousLevel = level;
+            level = alpha * values[i] + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        return level + steps * trend;
+    }
+
+    private double forecastSeasonal(float[] values, double steps) {
+        // Initialize the components from the first two seasons
+        double firstSeasonAverage = average(values, 0);
+        double secondSeasonAverage = average(values, seasonLength);
+        double level = firstSeasonAverage;
+        double trend = (secondSeasonAverage - firstSeasonAverage) / seasonLength;
+        double[] seasonals = new double[seasonLength];
+        for (int i = 0; i < seasonLength; i++) {
+            seasonals[i] = values[i] - firstSeasonAverage;
+        }
+
+        for (int i = seasonLength; i < values.length; i++) {
+            int season = i % seasonLength;
+            double previousLevel = level;
+            level = alpha * (values[i] - seasonals[season]) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            seasonals[season] = gamma * (values[i] - level) + (1 - gamma) * seasonals[season];
+        }
+
+        int forecastSteps = Math.max(1, (int) Math.ceil(steps));
+        return level + forecastSteps * trend + seasonals[(values.length - 1 + forecastSteps) % seasonLength];
+    }
+
+    private double average(float[] values, int offset) {
+        double sum = 0;
+        for (int i = offset; i < offset + seasonLength; i++) {
+            sum += values[i];
+        }
+        return sum / seasonLength;
+    }
+}
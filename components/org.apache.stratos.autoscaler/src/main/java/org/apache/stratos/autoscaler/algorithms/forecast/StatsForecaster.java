@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.algorithms.forecast;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.autoscaler.util.ConfUtil;
+
+/**
+ * Forecasts cluster instance statistics from their recent history using the forecasting model
+ * of the autoscaling policy. The derivative model uses the gradient and second derivative
+ * computed by CEP, hence does not keep any history.
+ */
+public class StatsForecaster {
+
+    private static final Log log = LogFactory.getLog(StatsForecaster.class);
+
+    // minimum number of samples required to forecast
+    private static final int MIN_SAMPLE_COUNT = 3;
+    // history kept when seasonality is disabled
+    private static final int DEFAULT_CAPACITY = 60;
+
+    private static volatile StatsForecaster instance;
+
+    private final long sampleInterval;
+    private final int capacity;
+    private final double horizonSteps;
+    private final ForecastingAlgorithm exponentialMovingAverage;
+    private final ForecastingAlgorithm holtWinters;
+
+    private StatsForecaster() {
+        XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
+        sampleInterval = Math.max(1, conf.getLong(AutoscalerConstants.FORECASTING_SAMPLE_INTERVAL, 300000));
+        long seasonPeriod = conf.getLong(AutoscalerConstants.FORECASTING_SEASON_PERIOD, 86400000);
+        long horizon = conf.getLong(AutoscalerConstants.FORECASTING_HORIZON, 300000);
+        double alpha = conf.getDouble(AutoscalerConstants.FORECASTING_ALPHA, 0.5);
+        double beta = conf.getDouble(AutoscalerConstants.FORECASTING_BETA, 0.1);
+        double gamma = conf.getDouble(AutoscalerConstants.FORECASTING_GAMMA, 0.3);
+
+        int seasonLength = (int) (seasonPeriod / sampleInterval);
+        // Two seasons are required to initialize the seasonal component
+        capacity = Math.max(DEFAULT_CAPACITY, 2 * seasonLength);
+        horizonSteps = (double) horizon / sampleInterval;
+        exponentialMovingAverage = new ExponentialMovingAverage(alpha);
+        holtWinters = new HoltWinters(alpha, beta, gamma, seasonLength);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Stats forecaster initialized: [sample-interval] %d ms [season-length] %d " +
+                            "[capacity] %d [horizon] %d ms [alpha] %s [beta] %s [gamma] %s", sampleInterval,
+                    seasonLength, capacity, horizon, alpha, beta, gamma));
+        }
+    }
+
+    public static StatsForecaster getInstance() {
+        if (instance == null) {
+            synchronized (StatsForecaster.class) {
+                if (instance == null) {
+                    instance = new StatsForecaster();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns whether the given forecasting model requires the history of the statistics.
+     *
+     * @param forecastingModel forecasting model of the autoscaling policy
+     */
+    public static boolean isHistoryRequired(String forecastingModel) {
+        return AutoscalerConstants.FORECASTING_MODEL_EWMA.equals(forecastingModel)
+                || AutoscalerConstants.FORECASTING_MODEL_HOLT_WINTERS.equals(forecastingModel);
+    }
+
+    /**
+     * @return time series to keep the history of a statistic
+     */
+    public StatsTimeSeries createTimeSeries() {
+        return new StatsTimeSeries(sampleInterval, capacity);
+    }
+
+    /**
+     * Forecast the statistic using the given forecasting model.
+     *
+     * @param forecastingModel forecasting model of the autoscaling policy
+     * @param timeSeries       history of the statistic
+     * @return forecast value or null if the model does not use the history or there is not enough history
+     */
+    public Double forecast(String forecastingModel, StatsTimeSeries timeSeries) {
+        ForecastingAlgorithm forecastingAlgorithm = getForecastingAlgorithm(forecastingModel);
+        if ((forecastingAlgorithm == null) || (timeSeries == null) || (timeSeries.size() < MIN_SAMPLE_COUNT)) {
+            return null;
+        }
+        // Statistics are never negative
+        return Math.max(0, forecastingAlgorithm.forecast(timeSeries.getValues(), horizonSteps));
+    }
+
+    private ForecastingAlgorithm getForecastingAlgorithm(String forecastingModel) {
+        if (AutoscalerConstants.FORECASTING_MODEL_EWMA.equals(forecastingModel)) {
+            return exponentialMovingAverage;
+        } else if (AutoscalerConstants.FORECASTING_MODEL_HOLT_WINTERS.equals(forecastingModel)) {
+            return holtWinters;
+        }
+        return null;
+    }
+}
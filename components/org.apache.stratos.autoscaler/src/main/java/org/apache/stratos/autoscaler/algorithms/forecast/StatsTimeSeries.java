@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.algorithms.forecast;
+
+import java.io.Serializable;
+
+/**
+ * Fixed size ring buffer keeping the recent history of a statistic. Samples are aggregated
+ * into buckets of the sample interval, the average of the samples received within an interval
+ * is kept. Intervals without samples repeat the previous value so that the buckets stay
+ * aligned with the time of the day.
+ */
+public class StatsTimeSeries implements Serializable {
+
+    private static final long serialVersionUID = -3104468424578466514L;
+
+    private final long sampleInterval;
+    private final float[] values;
+    // index of the next bucket to be written
+    private int head;
+    private int size;
+    private long lastBucket;
+    private double bucketSum;
+    private int bucketSampleCount;
+
+    /**
+     * @param sampleInterval time interval (ms) aggregated into a bucket
+     * @param capacity       maximum number of buckets kept
+     */
+    public StatsTimeSeries(long sampleInterval, int capacity) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("Sample interval should be positive: " + sampleInterval);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+        }
+        this.sampleInterval = sampleInterval;
+        this.values = new float[capacity];
+    }
+
+    /**
+     * Add a sample of the statistic. Samples older than the latest bucket are ignored.
+     *
+     * @param value     value of the statistic
+     * @param timestamp time (ms) the statistic was received
+     */
+    public synchronized void addSample(float value, long timestamp) {
+        long bucket = timestamp / sampleInterval;
+        if (size > 0) {
+            if (bucket < lastBucket) {
+                return;
+            }
+            if (bucket == lastBucket) {
+                bucketSum += value;
+                bucketSampleCount++;
+                values[lastIndex()] = (float) (bucketSum / bucketSampleCount);
+                return;
+            }
+            // Fill the intervals without samples, no need to fill more than the capacity
+            float lastValue = values[lastIndex()];
+            long missedBuckets = Math.min(bucket - lastBucket - 1, values.length);
+            for (long i = 0; i < missedBuckets; i++) {
+                append(lastValue);
+            }
+        }
+        append(value);
+        lastBucket = bucket;
+        bucketSum = value;
+        bucketSampleCount = 1;
+    }
+
+    /**
+     * @return values of the buckets in chronological order
+     */
+    public synchronized float[] getValues() {
+        float[] copy = new float[size];
+        int start = (head - size + values.length) % values.length;
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(start + i) % values.length];
+        }
+        return copy;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public int getCapacity() {
+        return values.length;
+    }
+
+    private void append(float value) {
+        values[head] = value;
+        head = (head + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    private int lastIndex() {
+        return (head - 1 + values.length) % values.length;
+    }
+}
@@ -99,50 +99,74 @@ public class AutoscalerCloudControllerClient {
         return InstanceHolder.INSTANCE;
     }
 
-    public synchronized MemberContext startInstance(PartitionRef partition,
-                                                    String clusterId, String clusterInstanceId,
-                                                    String networkPartitionId, int minMemberCount,
-                                                    String scalingDecisionId) throws SpawningException {
-        try {
-            if (log.isInfoEnabled()) {
-                log.info(String.format("Trying to spawn an instance via cloud controller: " +
-                                "[cluster] %s [partition] %s [network-partition-id] %s",
-                        clusterId, partition.getId(), networkPartitionId));
-            }
+    public MemberContext startInstance(PartitionRef partition,
+                                       String clusterId, String clusterInstanceId,
+                                       String networkPartitionId, int minMemberCount,
+                                       String scalingDecisionId) throws SpawningException {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Trying to spawn an instance via cloud controller: " +
+                            "[cluster] %s [partition] %s [network-partition-id] %s",
+                    clusterId, partition.getId(), networkPartitionId));
+        }
+        InstanceContext instanceContext = createInstanceContext(partition, clusterId, clusterInstanceId,
+                networkPartitionId, minMemberCount, scalingDecisionId);
+        MemberContext[] memberContexts = startInstances(new InstanceContext[]{instanceContext});
+        return ((memberContexts != null) && (memberContexts.length > 0)) ? memberContexts[0] : null;
+    }
 
-            XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
-            long expiryTime = conf.getLong(StratosConstants.OBSOLETED_MEMBER_EXPIRY_TIMEOUT, 86400000);
-            if (log.isDebugEnabled()) {
-                log.debug("Member obsolete expiry time is set to: " + expiryTime);
-            }
+    /**
+     * Create the instance context to be sent to cloud controller for starting an instance.
+     */
+    public InstanceContext createInstanceContext(PartitionRef partition, String clusterId, String clusterInstanceId,
+                                                 String networkPartitionId, int minMemberCount,
+                                                 String scalingDecisionId) {
+        XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
+        long expiryTime = conf.getLong(StratosConstants.OBSOLETED_MEMBER_EXPIRY_TIMEOUT, 86400000);
+        if (log.isDebugEnabled()) {
+            log.debug("Member obsolete expiry time is set to: " + expiryTime);
+        }
 
-            InstanceContext instanceContext = new InstanceContext();
-            instanceContext.setClusterId(clusterId);
-            instanceContext.setClusterInstanceId(clusterInstanceId);
-            instanceContext.setPartition(AutoscalerObjectConverter.convertPartitionToCCPartition(partition));
-            instanceContext.setInitTime(System.currentTimeMillis());
-            instanceContext.setObsoleteExpiryTime(expiryTime);
-            instanceContext.setNetworkPartitionId(networkPartitionId);
+        InstanceContext instanceContext = new InstanceContext();
+        instanceContext.setClusterId(clusterId);
+        instanceContext.setClusterInstanceId(clusterInstanceId);
+        instanceContext.setPartition(AutoscalerObjectConverter.convertPartitionToCCPartition(partition));
+        instanceContext.setInitTime(System.currentTimeMillis());
+        instanceContext.setObsoleteExpiryTime(expiryTime);
+        instanceContext.setNetworkPartitionId(networkPartitionId);
 
-            Properties memberContextProps = new Properties();
-            Property minCountProp = new Property();
-            minCountProp.setName(StratosConstants.MIN_COUNT);
-            minCountProp.setValue(String.valueOf(minMemberCount));
-            memberContextProps.addProperty(minCountProp);
-            Property scalingDecisionIdProp = new Property();
-            scalingDecisionIdProp.setName(StratosConstants.SCALING_DECISION_ID);
-            scalingDecisionIdProp.setValue(String.valueOf(scalingDecisionId));
-            memberContextProps.addProperty(scalingDecisionIdProp);
-            instanceContext.setProperties(AutoscalerUtil.toStubProperties(memberContextProps));
+        Properties memberContextProps = new Properties();
+        Property minCountProp = new Property();
+        minCountProp.setName(StratosConstants.MIN_COUNT);
+        minCountProp.setValue(String.valueOf(minMemberCount));
+        memberContextProps.addProperty(minCountProp);
+        Property scalingDecisionIdProp = new Property();
+        scalingDecisionIdProp.setName(StratosConstants.SCALING_DECISION_ID);
+        scalingDecisionIdProp.setValue(String.valueOf(scalingDecisionId));
+        memberContextProps.addProperty(scalingDecisionIdProp);
+        instanceContext.setProperties(AutoscalerUtil.toStubProperties(memberContextProps));
+        return instanceContext;
+    }
 
+    /**
+     * Start a set of instances with a single cloud controller service call. Either all of the
+     * instances are started or none of them.
+     *
+     * @param instanceContexts instance contexts of the instances to be started
+     * @return member contexts of the instances started
+     * @throws SpawningException if the instances could not be started
+     */
+    public MemberContext[] startInstances(InstanceContext[] instanceContexts) throws SpawningException {
+        try {
             long startTime = System.currentTimeMillis();
-            MemberContext memberContext = stub.startInstance(instanceContext);
+            MemberContext[] memberContexts = stub.startInstances(instanceContexts);
 
             if (log.isDebugEnabled()) {
                 long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call startInstance() returned in %dms", (endTime - startTime)));
+                log.debug(String.format("Service call startInstances() returned in %dms: [requested] %d [started] %d",
+                        (endTime - startTime), instanceContexts.length,
+                        (memberContexts == null) ? 0 : memberContexts.length));
             }
-            return memberContext;
+            return memberContexts;
         } catch (CloudControllerServiceCartridgeNotFoundExceptionException e) {
             String message = e.getFaultMessage().getCartridgeNotFoundException().getMessage();
             log.error(message, e);
@@ -161,8 +185,7 @@ public class AutoscalerCloudControllerClient {
         }
     }
 
-    public synchronized void createApplicationClusters(String appId,
-                                                       ApplicationClusterContext[] applicationClusterContexts) {
+    public void createApplicationClusters(String appId, ApplicationClusterContext[] applicationClusterContexts) {
         List<org.apache.stratos.cloud.controller.stub.domain.ApplicationClusterContext> contextDTOs =
                 new ArrayList<org.apache.stratos.cloud.controller.stub.domain.ApplicationClusterContext>();
         if (applicationClusterContexts != null) {
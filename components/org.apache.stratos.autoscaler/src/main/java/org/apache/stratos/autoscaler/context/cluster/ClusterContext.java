@@ -274,6 +274,11 @@ public class ClusterContext extends AbstractClusterContext {
                     clusterLevelNetworkPartitionContext.getPartitionAlgorithm(),
                     minInstances, maxInstances, nPartitionId, clusterId, hasScalingDependents,
                     groupScalingEnabledSubtree);
+            AutoscalePolicy autoscalePolicy = getAutoscalePolicy();
+            if (autoscalePolicy != null) {
+                clusterInstanceContext.setScalingDecisionEngine(autoscalePolicy.getScalingDecisionEngine());
+                clusterInstanceContext.setForecastingModel(autoscalePolicy.getForecastingModel());
+            }
         }
         String partitionId;
         if (partition != null) {
@@ -20,16 +20,17 @@ package org.apache.stratos.autoscaler.context.cluster;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.algorithms.forecast.StatsForecaster;
+import org.apache.stratos.autoscaler.algorithms.forecast.StatsTimeSeries;
 import org.apache.stratos.autoscaler.context.InstanceContext;
 import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;
 import org.apache.stratos.autoscaler.pojo.policy.autoscale.LoadAverage;
 import org.apache.stratos.autoscaler.pojo.policy.autoscale.MemoryConsumption;
 import org.apache.stratos.autoscaler.pojo.policy.autoscale.RequestsInFlight;
-import org.apache.stratos.autoscaler.rule.AutoscalerRuleEvaluator;
+import org.apache.stratos.autoscaler.rule.RuleSession;
+import org.apache.stratos.autoscaler.rule.ScalingDecisionEngineFactory;
 import org.apache.stratos.common.constants.StratosConstants;
 import org.apache.stratos.messaging.domain.topology.Member;
-import org.drools.runtime.StatefulKnowledgeSession;
-import org.drools.runtime.rule.FactHandle;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -55,6 +56,8 @@ public class ClusterInstanceContext extends InstanceContext {
             secondDerivativeLoadAverageRest;
     //boolean values to keep whether average requests served per instance parameters are reset or not
     private boolean averageRequestServedPerInstanceReset;
+    //boolean value to keep whether the request latency is reset or not
+    private boolean requestLatencyReset;
     //Following information will keep events details
     private RequestsInFlight requestsInFlight;
     private MemoryConsumption memoryConsumption;
@@ -62,6 +65,7 @@ public class ClusterInstanceContext extends InstanceContext {
     private int scaleDownRequestsCount = 0;
     private float averageRequestsServedPerInstance;
     private float requestsServedPerInstance;
+    private float averageRequestLatency;
     private int minInstanceCount = 0, maxInstanceCount = 0;
     private int requiredInstanceCountBasedOnStats;
     private int requiredInstanceCountBasedOnDependencies;
@@ -73,17 +77,18 @@ public class ClusterInstanceContext extends InstanceContext {
 
     private boolean hasScalingDependants;
     private boolean groupScalingEnabledSubtree;
-    private StatefulKnowledgeSession minCheckKnowledgeSession;
-    private StatefulKnowledgeSession maxCheckKnowledgeSession;
-    private StatefulKnowledgeSession obsoleteCheckKnowledgeSession;
-    private StatefulKnowledgeSession scaleCheckKnowledgeSession;
-    private StatefulKnowledgeSession dependentScaleCheckKnowledgeSession;
-    private AutoscalerRuleEvaluator autoscalerRuleEvaluator;
-    private FactHandle minCheckFactHandle;
-    private FactHandle maxCheckFactHandle;
-    private FactHandle obsoleteCheckFactHandle;
-    private FactHandle scaleCheckFactHandle;
-    private FactHandle dependentScaleCheckFactHandle;
+    private RuleSession minCheckRuleSession;
+    private RuleSession maxCheckRuleSession;
+    private RuleSession obsoleteCheckRuleSession;
+    private RuleSession scaleCheckRuleSession;
+    private RuleSession dependentScaleCheckRuleSession;
+    //scaling decision engine of the autoscaling policy, rule sessions are created on first use
+    private String scalingDecisionEngine;
+    //forecasting model of the autoscaling policy, history is kept only if required by the model
+    private String forecastingModel;
+    private StatsTimeSeries requestsInFlightHistory;
+    private StatsTimeSeries memoryConsumptionHistory;
+    private StatsTimeSeries loadAverageHistory;
 
     public ClusterInstanceContext(String clusterInstanceId, String partitionAlgo,
                                   int min, int max, String networkPartitionId, String clusterId,
@@ -103,19 +108,6 @@ public class ClusterInstanceContext extends InstanceContext {
         requiredInstanceCountBasedOnDependencies = minInstanceCount;
         this.hasScalingDependants = hasScalingDependants;
         this.groupScalingEnabledSubtree = groupScalingEnabledSubtree;
-
-        autoscalerRuleEvaluator = AutoscalerRuleEvaluator.getInstance();
-
-        this.obsoleteCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
-                StratosConstants.OBSOLETE_CHECK_DROOL_FILE);
-        this.scaleCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
-                StratosConstants.SCALE_CHECK_DROOL_FILE);
-        this.minCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
-                StratosConstants.MIN_CHECK_DROOL_FILE);
-        this.maxCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
-                StratosConstants.MAX_CHECK_DROOL_FILE);
-        this.dependentScaleCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
-                StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE);
     }
 
     public List<ClusterLevelPartitionContext> getPartitionCtxts() {
@@ -174,7 +166,7 @@ public class ClusterInstanceContext extends InstanceContext {
         int activeMemberCount = 0;
         for (ClusterLevelPartitionContext partitionContext : partitionCtxts.values()) {
 
-            activeMemberCount += partitionContext.getPendingMembers().size();
+            activeMemberCount += partitionContext.getPendingMemberCount();
         }
         return activeMemberCount;
     }
@@ -244,6 +236,9 @@ public class ClusterInstanceContext extends InstanceContext {
 
     public void setAverageRequestsInFlight(float averageRequestsInFlight) {
         requestsInFlight.setAverage(averageRequestsInFlight);
+        if (requestsInFlightHistory != null) {
+            requestsInFlightHistory.addSample(averageRequestsInFlight, System.currentTimeMillis());
+        }
         averageRifReset = true;
         if (secondDerivativeRifRest && gradientRifReset) {
             rifReset = true;
@@ -298,12 +293,37 @@ public class ClusterInstanceContext extends InstanceContext {
     }
 
 
+    public float getAverageRequestLatency() {
+        return averageRequestLatency;
+    }
+
+    public void setAverageRequestLatency(float averageRequestLatency) {
+        this.averageRequestLatency = averageRequestLatency;
+        // Only the average is published for request latency, hence it is ready as soon as it is received
+        requestLatencyReset = true;
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Request latency stats are reset, ready to do scale check [network partition] %s"
+                    , this.id));
+        }
+    }
+
+    public boolean isRequestLatencyReset() {
+        return requestLatencyReset;
+    }
+
+    public void setRequestLatencyReset(boolean requestLatencyReset) {
+        this.requestLatencyReset = requestLatencyReset;
+    }
+
     public float getAverageMemoryConsumption() {
         return memoryConsumption.getAverage();
     }
 
     public void setAverageMemoryConsumption(float averageMemoryConsumption) {
         memoryConsumption.setAverage(averageMemoryConsumption);
+        if (memoryConsumptionHistory != null) {
+            memoryConsumptionHistory.addSample(averageMemoryConsumption, System.currentTimeMillis());
+        }
         averageMemoryConsumptionReset = true;
         if (secondDerivativeMemoryConsumptionRest && gradientMemoryConsumptionReset) {
             memoryConsumptionReset = true;
@@ -364,6 +384,9 @@ public class ClusterInstanceContext extends InstanceContext {
 
     public void setAverageLoadAverage(float averageLoadAverage) {
         loadAverage.setAverage(averageLoadAverage);
+        if (loadAverageHistory != null) {
+            loadAverageHistory.addSample(averageLoadAverage, System.currentTimeMillis());
+        }
         averageLoadAverageReset = true;
         if (secondDerivativeLoadAverageRest && gradientLoadAverageReset) {
             loadAverageReset = true;
@@ -503,82 +526,80 @@ public class ClusterInstanceContext extends InstanceContext {
         return groupScalingEnabledSubtree;
     }
 
-    public StatefulKnowledgeSession getMinCheckKnowledgeSession() {
-        return minCheckKnowledgeSession;
-    }
-
-    public void setMinCheckKnowledgeSession(
-            StatefulKnowledgeSession minCheckKnowledgeSession) {
-        this.minCheckKnowledgeSession = minCheckKnowledgeSession;
+    public String getScalingDecisionEngine() {
+        return scalingDecisionEngine;
     }
 
-    public StatefulKnowledgeSession getMaxCheckKnowledgeSession() {
-        return maxCheckKnowledgeSession;
+    public void setScalingDecisionEngine(String scalingDecisionEngine) {
+        this.scalingDecisionEngine = scalingDecisionEngine;
     }
 
-    public StatefulKnowledgeSession getObsoleteCheckKnowledgeSession() {
-        return obsoleteCheckKnowledgeSession;
+    public String getForecastingModel() {
+        return forecastingModel;
     }
 
-    public void setObsoleteCheckKnowledgeSession(
-            StatefulKnowledgeSession obsoleteCheckKnowledgeSession) {
-        this.obsoleteCheckKnowledgeSession = obsoleteCheckKnowledgeSession;
-    }
-
-    public StatefulKnowledgeSession getScaleCheckKnowledgeSession() {
-        return scaleCheckKnowledgeSession;
-    }
-
-    public void setScaleCheckKnowledgeSession(
-            StatefulKnowledgeSession scaleCheckKnowledgeSession) {
-        this.scaleCheckKnowledgeSession = scaleCheckKnowledgeSession;
-    }
-
-    public StatefulKnowledgeSession getDependentScaleCheckKnowledgeSession() {
-        return dependentScaleCheckKnowledgeSession;
-    }
-
-    public void setDependentScaleCheckKnowledgeSession(StatefulKnowledgeSession dependentScaleCheckKnowledgeSession) {
-        this.dependentScaleCheckKnowledgeSession = dependentScaleCheckKnowledgeSession;
-    }
-
-    public FactHandle getMinCheckFactHandle() {
-        return minCheckFactHandle;
+    public void setForecastingModel(String forecastingModel) {
+        this.forecastingModel = forecastingModel;
+        if (StatsForecaster.isHistoryRequired(forecastingModel)) {
+            StatsForecaster statsForecaster = StatsForecaster.getInstance();
+            requestsInFlightHistory = statsForecaster.createTimeSeries();
+            memoryConsumptionHistory = statsForecaster.createTimeSeries();
+            loadAverageHistory = statsForecaster.createTimeSeries();
+        } else {
+            requestsInFlightHistory = null;
+            memoryConsumptionHistory = null;
+            loadAverageHistory = null;
+        }
     }
 
-    public void setMinCheckFactHandle(FactHandle minCheckFactHandle) {
-        this.minCheckFactHandle = minCheckFactHandle;
+    public StatsTimeSeries getRequestsInFlightHistory() {
+        return requestsInFlightHistory;
     }
 
-    public FactHandle getObsoleteCheckFactHandle() {
-        return obsoleteCheckFactHandle;
+    public StatsTimeSeries getMemoryConsumptionHistory() {
+        return memoryConsumptionHistory;
     }
 
-    public void setObsoleteCheckFactHandle(FactHandle obsoleteCheckFactHandle) {
-        this.obsoleteCheckFactHandle = obsoleteCheckFactHandle;
+    public StatsTimeSeries getLoadAverageHistory() {
+        return loadAverageHistory;
     }
 
-    public FactHandle getScaleCheckFactHandle() {
-        return scaleCheckFactHandle;
+    public synchronized RuleSession getMinCheckRuleSession() {
+        if (minCheckRuleSession == null) {
+            minCheckRuleSession = createRuleSession(StratosConstants.MIN_CHECK_DROOL_FILE);
+        }
+        return minCheckRuleSession;
     }
 
-    public void setScaleCheckFactHandle(FactHandle scaleCheckFactHandle) {
-        this.scaleCheckFactHandle = scaleCheckFactHandle;
+    public synchronized RuleSession getMaxCheckRuleSession() {
+        if (maxCheckRuleSession == null) {
+            maxCheckRuleSession = createRuleSession(StratosConstants.MAX_CHECK_DROOL_FILE);
+        }
+        return maxCheckRuleSession;
     }
 
-    public FactHandle getMaxCheckFactHandle() {
-        return maxCheckFactHandle;
+    public synchronized RuleSession getObsoleteCheckRuleSession() {
+        if (obsoleteCheckRuleSession == null) {
+            obsoleteCheckRuleSession = createRuleSession(StratosConstants.OBSOLETE_CHECK_DROOL_FILE);
+        }
+        return obsoleteCheckRuleSession;
     }
 
-    public void setMaxCheckFactHandle(FactHandle maxCheckFactHandle) {
-        this.maxCheckFactHandle = maxCheckFactHandle;
+    public synchronized RuleSession getScaleCheckRuleSession() {
+        if (scaleCheckRuleSession == null) {
+            scaleCheckRuleSession = createRuleSession(StratosConstants.SCALE_CHECK_DROOL_FILE);
+        }
+        return scaleCheckRuleSession;
     }
 
-    public FactHandle getDependentScaleCheckFactHandle() {
-        return dependentScaleCheckFactHandle;
+    public synchronized RuleSession getDependentScaleCheckRuleSession() {
+        if (dependentScaleCheckRuleSession == null) {
+            dependentScaleCheckRuleSession = createRuleSession(StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE);
+        }
+        return dependentScaleCheckRuleSession;
     }
 
-    public void setDependentScaleCheckFactHandle(FactHandle dependentScaleCheckFactHandle) {
-        this.dependentScaleCheckFactHandle = dependentScaleCheckFactHandle;
+    private RuleSession createRuleSession(String drlFileName) {
+        return ScalingDecisionEngineFactory.createRuleSession(scalingDecisionEngine, drlFileName);
     }
 }
@@ -23,6 +23,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.client.AutoscalerCloudControllerClient;
 import org.apache.stratos.autoscaler.context.member.MemberStatsContext;
+import org.apache.stratos.autoscaler.context.partition.MemberStateIndex.MemberState;
 import org.apache.stratos.autoscaler.util.ConfUtil;
 import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
 import org.apache.stratos.common.constants.StratosConstants;
@@ -35,7 +36,6 @@ import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 
 import java.io.Serializable;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -58,8 +58,6 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     private long pendingMemberExpiryTime = 900000;
     //
     private boolean spinTerminateParallel;
-    // pending members
-    private List<MemberContext> pendingMembers;
 
     // 1 day as default
     private long obsoltedMemberExpiryTime = 1 * 24 * 60 * 60 * 1000;
@@ -67,40 +65,29 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     // 30 mints as default
     private long terminationPendingMemberExpiryTime = 1800000;
 
-    // members to be terminated
-    private Map<String, MemberContext> obsoletedMembers;
-
-    // active members
-    private List<MemberContext> activeMembers;
-
-    // termination pending members, member is added to this when Autoscaler send grace fully shut down event
-    private List<MemberContext> terminationPendingMembers;
-
-
-    //member id: time that member is moved to termination pending status
-    private Map<String, Long> terminationPendingStartedTime;
+    // pending, active, termination pending and obsolete members keyed by member id
+    // member is moved to termination pending when Autoscaler send grace fully shut down event
+    private final MemberStateIndex memberStateIndex;
 
     //Keep statistics come from CEP
     private Map<String, MemberStatsContext> memberStatsContexts;
 
+    // number of instances requested from cloud controller which are not yet added as pending members
+    private transient int requestedMemberCount;
+
     // for the use of tests
     public ClusterLevelPartitionContext(long memberExpiryTime) {
         super(memberExpiryTime);
-        this.activeMembers = new ArrayList<MemberContext>();
-        this.terminationPendingMembers = new ArrayList<MemberContext>();
-        this.pendingMembers = new ArrayList<MemberContext>();
+        this.memberStateIndex = new MemberStateIndex();
+        this.memberStatsContexts = new ConcurrentHashMap<String, MemberStatsContext>();
     }
 
     public ClusterLevelPartitionContext(PartitionRef partition, String networkPartitionId, String deploymentPolicyId) {
 
         super(partition, networkPartitionId, deploymentPolicyId);
-        this.pendingMembers = new ArrayList<MemberContext>();
-        this.activeMembers = new ArrayList<MemberContext>();
-        this.terminationPendingMembers = new ArrayList<MemberContext>();
-        this.obsoletedMembers = new ConcurrentHashMap<String, MemberContext>();
+        this.memberStateIndex = new MemberStateIndex();
         memberStatsContexts = new ConcurrentHashMap<String, MemberStatsContext>();
 
-        terminationPendingStartedTime = new HashMap<String, Long>();
         // check if a different value has been set for expiryTime
         XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
         pendingMemberExpiryTime = conf.getLong(StratosConstants.PENDING_MEMBER_EXPIRY_TIMEOUT, 900000);
@@ -123,34 +110,14 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
 
     public void terminateAllRemainingInstances() {
 
-        // Forcefully deleting remaining active members
-        for (Iterator<MemberContext> iterator = activeMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
-        }
-
-        // Forcefully deleting remaining pending members
-        for (Iterator<MemberContext> iterator = pendingMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
-        }
-
-        /// Forcefully deleting remaining termination pending members
-        for (Iterator<MemberContext> iterator = terminationPendingMembers.iterator(); iterator.hasNext(); ) {
-            MemberContext member = iterator.next();
-            // Remove the current element from the iterator and the list.
-            iterator.remove();
-            terminateForcefully(member.getMemberId());
-        }
-
-
-        // Forcefully deleting remaining obsolete members
-        for (Map.Entry<String, MemberContext> entry : obsoletedMembers.entrySet()) {
-            MemberContext ObsoleteMemberContext = entry.getValue();
-            obsoletedMembers.remove(entry.getKey());
-            terminateForcefully(ObsoleteMemberContext.getMemberId());
+        // Forcefully deleting remaining active, pending, termination pending and obsolete members
+        for (MemberState state : new MemberState[]{MemberState.ACTIVE, MemberState.PENDING,
+                MemberState.TERMINATION_PENDING, MemberState.OBSOLETE}) {
+            for (String memberId : memberStateIndex.getMemberMap(state).keySet()) {
+                if (memberStateIndex.remove(memberId, state) != null) {
+                    terminateForcefully(memberId);
+                }
+            }
         }
     }
 
@@ -166,19 +133,26 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public long getTerminationPendingStartedTimeOfMember(String memberId) {
-        return terminationPendingStartedTime.get(memberId);
+        return memberStateIndex.getStateChangedTime(memberId);
     }
 
-    public List<MemberContext> getPendingMembers() {
-        return pendingMembers;
+    /**
+     * @return read only view of the pending members
+     */
+    public Collection<MemberContext> getPendingMembers() {
+        return memberStateIndex.getMembers(MemberState.PENDING);
     }
 
     public void setPendingMembers(List<MemberContext> pendingMembers) {
-        this.pendingMembers = pendingMembers;
+        setMembers(pendingMembers, MemberState.PENDING);
     }
 
     public int getActiveMemberCount() {
-        return activeMembers.size();
+        return memberStateIndex.getMemberCount(MemberState.ACTIVE);
+    }
+
+    public int getPendingMemberCount() {
+        return memberStateIndex.getMemberCount(MemberState.PENDING);
     }
 
     public int getMinimumMemberCount() {
@@ -190,106 +164,63 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void addPendingMember(MemberContext ctxt) {
-        this.pendingMembers.add(ctxt);
+        memberStateIndex.add(ctxt, MemberState.PENDING);
+    }
+
+    /**
+     * Reserve a member slot for an instance requested from cloud controller, so that partition
+     * algorithms take it into account until the instance is added as a pending member.
+     */
+    public synchronized void incrementRequestedMemberCount() {
+        requestedMemberCount++;
+    }
+
+    public synchronized void decrementRequestedMemberCount() {
+        if (requestedMemberCount > 0) {
+            requestedMemberCount--;
+        }
+    }
+
+    public synchronized int getRequestedMemberCount() {
+        return requestedMemberCount;
     }
 
     public void addTerminationPendingMember(MemberContext ctxt) {
-        this.terminationPendingMembers.add(ctxt);
+        memberStateIndex.add(ctxt, MemberState.TERMINATION_PENDING);
     }
 
     public boolean removePendingMember(String id) {
-        if (id == null) {
+        if (memberStateIndex.remove(id, MemberState.PENDING) == null) {
             return false;
         }
-        synchronized (pendingMembers) {
-            for (Iterator<MemberContext> iterator = pendingMembers.iterator(); iterator.hasNext(); ) {
-                MemberContext pendingMember = iterator.next();
-                if (id.equals(pendingMember.getMemberId())) {
-                    iterator.remove();
-                    if (memberStatsContexts.get(pendingMember.getMemberId()) != null) {
-                        memberStatsContexts.remove(pendingMember.getMemberId());
-                    }
-                    return true;
-                }
-
-            }
-        }
-        return false;
+        memberStatsContexts.remove(id);
+        return true;
     }
 
     public void movePendingMemberToActiveMembers(String memberId) {
-        if (memberId == null) {
-            return;
-        }
-        synchronized (pendingMembers) {
-            Iterator<MemberContext> iterator = pendingMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext pendingMember = iterator.next();
-                if (pendingMember == null) {
-                    iterator.remove();
-                    continue;
-                }
-                if (memberId.equals(pendingMember.getMemberId())) {
-                    // member is activated
-                    // remove from pending list
-                    iterator.remove();
-                    // add to the activated list
-                    this.activeMembers.add(pendingMember);
-                    pendingMembersFailureCount = 0;
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Pending member is removed and added to the " +
-                                "activated member list. [Member Id] %s", memberId));
-                    }
-                    break;
-                }
+        if (memberStateIndex.transition(memberId, MemberState.PENDING, MemberState.ACTIVE) != null) {
+            // member is activated
+            pendingMembersFailureCount = 0;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Pending member is removed and added to the " +
+                        "activated member list. [Member Id] %s", memberId));
             }
         }
     }
 
     public boolean activeMemberAvailable(String memberId) {
-        for (MemberContext activeMember : activeMembers) {
-            if (memberId.equals(activeMember.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return memberStateIndex.contains(memberId, MemberState.ACTIVE);
     }
 
     public boolean pendingMemberAvailable(String memberId) {
-
-        for (MemberContext pendingMember : pendingMembers) {
-            if (memberId.equals(pendingMember.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return memberStateIndex.contains(memberId, MemberState.PENDING);
     }
 
     public void moveActiveMemberToTerminationPendingMembers(String memberId) {
-        if (memberId == null) {
-            return;
-        }
-        synchronized (activeMembers) {
-            Iterator<MemberContext> iterator = activeMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext activeMember = iterator.next();
-                if (activeMember == null) {
-                    iterator.remove();
-                    continue;
-                }
-                if (memberId.equals(activeMember.getMemberId())) {
-                    // member is activated
-                    // remove from pending list
-                    iterator.remove();
-                    // add to the activated list
-                    this.terminationPendingMembers.add(activeMember);
-                    terminationPendingStartedTime.put(memberId, System.currentTimeMillis());
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Active member is removed and added to the " +
-                                "termination pending member list. [Member Id] %s", memberId));
-                    }
-                    break;
-                }
+        if (memberStateIndex.transition(memberId, MemberState.ACTIVE, MemberState.TERMINATION_PENDING) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Active member is removed and added to the " +
+                        "termination pending member list. [Member Id] %s", memberId));
             }
         }
     }
@@ -300,98 +231,31 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
      * @param memberId The member ID of the member to search
      */
     public void moveMemberToObsoleteList(String memberId) {
-        if (memberId == null) {
-            return;
-        }
-
-        // check active member list
-        Iterator<MemberContext> activeMemberIterator = activeMembers.listIterator();
-        MemberContext removedMember = this.removeMemberFrom(activeMemberIterator, memberId);
-        if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
-            removedMember.setObsoleteInitTime(System.currentTimeMillis());
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Active member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
-            }
-
+        MemberState state = memberStateIndex.getState(memberId);
+        if ((state == null) || (state == MemberState.OBSOLETE)) {
             return;
         }
 
-        // check pending member list
-        Iterator<MemberContext> pendingMemberIterator = pendingMembers.listIterator();
-        removedMember = this.removeMemberFrom(pendingMemberIterator, memberId);
+        MemberContext removedMember = memberStateIndex.transition(memberId, state, MemberState.OBSOLETE);
         if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
             removedMember.setObsoleteInitTime(System.currentTimeMillis());
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Pending member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
+                log.debug(String.format("Member is removed and added to the obsolete member list. " +
+                        "[Member Id] %s [previous state] %s", memberId, state));
             }
-
-            return;
         }
-
-        // check termination pending member list
-        Iterator<MemberContext> terminationPendingMembersIterator = terminationPendingMembers.listIterator();
-        removedMember = this.removeMemberFrom(terminationPendingMembersIterator, memberId);
-        if (removedMember != null) {
-            this.addObsoleteMember(removedMember);
-            removedMember.setObsoleteInitTime(System.currentTimeMillis());
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Termination Pending member is removed and added to the " +
-                        "obsolete member list. [Member Id] %s", memberId));
-            }
-        }
-    }
-
-    /**
-     * Removes the {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} object mapping
-     * to the specified member id from the specified MemberContext collection
-     *
-     * @param iterator The {@link java.util.Iterator} for the collection containing {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext}
-     *                 objects
-     * @param memberId Member Id {@link String} for the {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext}
-     *                 to be removed
-     * @return {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} object if
-     * object found and removed, null if otherwise.
-     */
-    private MemberContext removeMemberFrom(Iterator<MemberContext> iterator, String memberId) {
-        while (iterator.hasNext()) {
-            MemberContext activeMember = iterator.next();
-            if (activeMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(activeMember.getMemberId())) {
-                iterator.remove();
-                return activeMember;
-            }
-        }
-
-        return null;
     }
 
     public void addActiveMember(MemberContext ctxt) {
-        this.activeMembers.add(ctxt);
+        memberStateIndex.add(ctxt, MemberState.ACTIVE);
     }
 
     public void removeActiveMember(MemberContext ctxt) {
-        this.activeMembers.remove(ctxt);
+        memberStateIndex.remove(ctxt.getMemberId(), MemberState.ACTIVE);
     }
 
     public boolean removeTerminationPendingMember(String memberId) {
-        boolean terminationPendingMemberAvailable = false;
-        synchronized (terminationPendingMembers) {
-            for (MemberContext memberContext : terminationPendingMembers) {
-                if (memberContext.getMemberId().equals(memberId)) {
-                    terminationPendingMemberAvailable = true;
-                    terminationPendingMembers.remove(memberContext);
-                    break;
-                }
-            }
-        }
-        return terminationPendingMemberAvailable;
+        return memberStateIndex.remove(memberId, MemberState.TERMINATION_PENDING) != null;
     }
 
     public long getObsoltedMemberExpiryTime() {
@@ -403,14 +267,11 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void addObsoleteMember(MemberContext ctxt) {
-        this.obsoletedMembers.put(ctxt.getMemberId(), ctxt);
+        memberStateIndex.add(ctxt, MemberState.OBSOLETE);
     }
 
     public boolean removeObsoleteMember(String memberId) {
-        if (this.obsoletedMembers.remove(memberId) == null) {
-            return false;
-        }
-        return true;
+        return memberStateIndex.remove(memberId, MemberState.OBSOLETE) != null;
     }
 
     public long getPendingMemberExpiryTime() {
@@ -421,17 +282,20 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         this.pendingMemberExpiryTime = pendingMemberExpiryTime;
     }
 
+    /**
+     * @return read only view of the obsolete members keyed by member id
+     */
     public Map<String, MemberContext> getObsoletedMembers() {
-        return obsoletedMembers;
+        return memberStateIndex.getMemberMap(MemberState.OBSOLETE);
     }
 
     public void setObsoletedMembers(Map<String, MemberContext> obsoletedMembers) {
-        this.obsoletedMembers = obsoletedMembers;
+        setMembers(obsoletedMembers.values(), MemberState.OBSOLETE);
     }
 
     @Override
     public int getActiveInstanceCount() {
-        return this.activeMembers.size();
+        return memberStateIndex.getMemberCount(MemberState.ACTIVE);
     }
 
     public Map<String, MemberStatsContext> getMemberStatsContexts() {
@@ -474,70 +338,58 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         this.serviceName = serviceName;
     }
 
-    public List<MemberContext> getTerminationPendingMembers() {
-        return terminationPendingMembers;
+    /**
+     * @return read only view of the termination pending members
+     */
+    public Collection<MemberContext> getTerminationPendingMembers() {
+        return memberStateIndex.getMembers(MemberState.TERMINATION_PENDING);
     }
 
     public void setTerminationPendingMembers(List<MemberContext> terminationPendingMembers) {
-        this.terminationPendingMembers = terminationPendingMembers;
+        setMembers(terminationPendingMembers, MemberState.TERMINATION_PENDING);
     }
 
     public int getTotalMemberCount() {
 
-        return activeMembers.size() + pendingMembers.size() + terminationPendingMembers.size();
+        return memberStateIndex.getMemberCount(MemberState.ACTIVE)
+                + memberStateIndex.getMemberCount(MemberState.PENDING)
+                + memberStateIndex.getMemberCount(MemberState.TERMINATION_PENDING);
     }
 
     public int getNonTerminatedMemberCount() {
-        int nonTerminatedMemberCount = 0;
+        int nonTerminatedMemberCount = memberStateIndex.getMemberCount(MemberState.ACTIVE)
+                + memberStateIndex.getMemberCount(MemberState.PENDING);
         if (spinTerminateParallel) {
             // Returning all the pending members as there shouldn't be a spawning
             // before complete termination.
             // Will be applicable only when having min1*max1 situation
-            nonTerminatedMemberCount = activeMembers.size() + pendingMembers.size() +
-                    terminationPendingMembers.size() + obsoletedMembers.size();
-        } else {
-            nonTerminatedMemberCount = activeMembers.size() + pendingMembers.size();
+            nonTerminatedMemberCount += memberStateIndex.getMemberCount(MemberState.TERMINATION_PENDING)
+                    + memberStateIndex.getMemberCount(MemberState.OBSOLETE);
         }
-        return nonTerminatedMemberCount;
+        return nonTerminatedMemberCount + getRequestedMemberCount();
     }
 
-    public List<MemberContext> getActiveMembers() {
-        return activeMembers;
+    /**
+     * @return read only view of the active members
+     */
+    public Collection<MemberContext> getActiveMembers() {
+        return memberStateIndex.getMembers(MemberState.ACTIVE);
     }
 
     public void setActiveMembers(List<MemberContext> activeMembers) {
-        this.activeMembers = activeMembers;
+        setMembers(activeMembers, MemberState.ACTIVE);
     }
 
     public boolean removeActiveMemberById(String memberId) {
-        boolean removeActiveMember = false;
-        synchronized (activeMembers) {
-            Iterator<MemberContext> iterator = activeMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext memberContext = iterator.next();
-                if (memberId.equals(memberContext.getMemberId())) {
-                    iterator.remove();
-                    removeActiveMember = true;
-
-                    break;
-                }
-            }
-        }
-        return removeActiveMember;
+        return memberStateIndex.remove(memberId, MemberState.ACTIVE) != null;
     }
 
     public boolean activeMemberExist(String memberId) {
-
-        for (MemberContext memberContext : activeMembers) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return true;
-            }
-        }
-        return false;
+        return memberStateIndex.contains(memberId, MemberState.ACTIVE);
     }
 
     public int getAllMemberForTerminationCount() {
-        int count = activeMembers.size() + pendingMembers.size() + terminationPendingMembers.size();
+        int count = getTotalMemberCount();
         if (log.isDebugEnabled()) {
             log.debug("PartitionContext:getAllMemberForTerminationCount:size:" + count);
         }
@@ -547,79 +399,35 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     // Map<String, MemberStatsContext> getMemberStatsContexts().keySet()
     public Set<String> getAllMemberForTermination() {
 
-        List<MemberContext> merged = new ArrayList<MemberContext>();
-
-
-        merged.addAll(activeMembers);
-        merged.addAll(pendingMembers);
-        merged.addAll(terminationPendingMembers);
-
-        Set<String> results = new HashSet<String>(merged.size());
-
-        for (MemberContext ctx : merged) {
-            results.add(ctx.getMemberId());
-        }
-
+        Set<String> results = new HashSet<String>();
+        results.addAll(memberStateIndex.getMemberMap(MemberState.ACTIVE).keySet());
+        results.addAll(memberStateIndex.getMemberMap(MemberState.PENDING).keySet());
+        results.addAll(memberStateIndex.getMemberMap(MemberState.TERMINATION_PENDING).keySet());
 
         if (log.isDebugEnabled()) {
             log.debug("PartitionContext:getAllMemberForTermination:size:" + results.size());
         }
-
-        //MemberContext x = new MemberContext();
-        //x.getMemberId()
-
         return results;
     }
 
     public void movePendingTerminationMemberToObsoleteMembers(String memberId) {
 
         log.info("Starting the moving of termination pending to obsolete for [member] " + memberId);
-        if (memberId == null) {
-            return;
-        }
-        Iterator<MemberContext> iterator = terminationPendingMembers.listIterator();
-        while (iterator.hasNext()) {
-            MemberContext terminationPendingMember = iterator.next();
-            if (terminationPendingMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(terminationPendingMember.getMemberId())) {
-
-                log.info("Found termination pending member and trying to move [member] " + memberId + " to obsolete list");
-                // member is pending termination
-                // remove from pending termination list
-                iterator.remove();
-
-                // add to the obsolete list
-                this.obsoletedMembers.put(memberId, terminationPendingMember);
-
-
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Termination pending member is removed and added to the " +
-                            "obsolete member list. [Member Id] %s", memberId));
-                }
-                break;
+        if (memberStateIndex.transition(memberId, MemberState.TERMINATION_PENDING, MemberState.OBSOLETE) != null) {
+            log.info("Found termination pending member and moved [member] " + memberId + " to obsolete list");
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Termination pending member is removed and added to the " +
+                        "obsolete member list. [Member Id] %s", memberId));
             }
         }
     }
 
     public MemberContext getPendingTerminationMember(String memberId) {
-        for (MemberContext memberContext : terminationPendingMembers) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return memberContext;
-            }
-        }
-        return null;
+        return memberStateIndex.getMember(memberId, MemberState.TERMINATION_PENDING);
     }
 
     public MemberContext getObsoleteMember(String memberId) {
-        for (MemberContext memberContext : obsoletedMembers.values()) {
-            if (memberId.equals(memberContext.getMemberId())) {
-                return memberContext;
-            }
-        }
-        return null;
+        return memberStateIndex.getMember(memberId, MemberState.OBSOLETE);
     }
 
     public long getTerminationPendingMemberExpiryTime() {
@@ -627,30 +435,19 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void movePendingMemberToObsoleteMembers(String memberId) {
-        if (memberId == null) {
-            return;
-        }
-        Iterator<MemberContext> iterator = pendingMembers.listIterator();
-        while (iterator.hasNext()) {
-            MemberContext pendingMember = iterator.next();
-            if (pendingMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(pendingMember.getMemberId())) {
-
-                // remove from pending list
-                iterator.remove();
-                // add to the obsolete list
-                this.obsoletedMembers.put(memberId, pendingMember);
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Pending member is removed and added to the " +
-                            "obsolete member list. [Member Id] %s", memberId));
-                }
-                break;
+        if (memberStateIndex.transition(memberId, MemberState.PENDING, MemberState.OBSOLETE) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Pending member is removed and added to the " +
+                        "obsolete member list. [Member Id] %s", memberId));
             }
         }
+    }
 
+    private void setMembers(Collection<MemberContext> memberContexts, MemberState state) {
+        memberStateIndex.clear(state);
+        for (MemberContext memberContext : memberContexts) {
+            memberStateIndex.add(memberContext, state);
+        }
     }
 
     private class PendingMemberWatcher implements Runnable {
@@ -667,50 +464,42 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             while (true) {
 
                 long expiryTime = ctxt.getPendingMemberExpiryTime();
-                List<MemberContext> pendingMembers = ctxt.getPendingMembers();
-
-                synchronized (pendingMembers) {
-                    Iterator<MemberContext> iterator = pendingMembers.listIterator();
-                    while (iterator.hasNext()) {
-                        MemberContext pendingMember = iterator.next();
-                        String clusterInstanceId = pendingMember.getClusterInstanceId();
-                        String clusterId = pendingMember.getClusterId();
-                        String serviceName = pendingMember.getCartridgeType();
-                        Service service = TopologyManager.getTopology().
-                                getService(serviceName);
-
-                        ClusterStatus status = ClusterStatus.Terminated;
-                        if (service != null) {
-                            Cluster cluster = service.getCluster(clusterId);
-                            if (cluster != null) {
-                                ClusterInstance instance = cluster.
-                                        getInstanceContexts(clusterInstanceId);
-                                if (instance != null) {
-                                    status = instance.getStatus();
-                                }
+                for (MemberContext pendingMember : ctxt.getPendingMembers()) {
+                    String clusterInstanceId = pendingMember.getClusterInstanceId();
+                    String clusterId = pendingMember.getClusterId();
+                    String serviceName = pendingMember.getCartridgeType();
+                    Service service = TopologyManager.getTopology().
+                            getService(serviceName);
+
+                    ClusterStatus status = ClusterStatus.Terminated;
+                    if (service != null) {
+                        Cluster cluster = service.getCluster(clusterId);
+                        if (cluster != null) {
+                            ClusterInstance instance = cluster.
+                                    getInstanceContexts(clusterInstanceId);
+                            if (instance != null) {
+                                status = instance.getStatus();
                             }
                         }
+                    }
+
+                    long pendingTime = System.currentTimeMillis() - pendingMember.getInitTime();
+                    if (pendingTime >= expiryTime || status.equals(ClusterStatus.Terminating)) {
 
-                        if (pendingMember == null) {
+                        // member should be terminated, it may have been activated meanwhile
+                        if (memberStateIndex.transition(pendingMember.getMemberId(), MemberState.PENDING,
+                                MemberState.OBSOLETE) == null) {
                             continue;
                         }
-
-                        long pendingTime = System.currentTimeMillis() - pendingMember.getInitTime();
-                        if (pendingTime >= expiryTime || status.equals(ClusterStatus.Terminating)) {
-
-                            log.info(String.format("Pending state of member expired, member will be moved to obsolete list. " +
-                                            "[pending member] %s [expiry time] %s [cluster] %s " + "[cluster instance] %s",
-                                    pendingMember.getMemberId(), expiryTime, pendingMember.getClusterId(),
-                                    pendingMember.getClusterInstanceId()));
-                            iterator.remove();
-                            // member should be terminated
-                            ctxt.addObsoleteMember(pendingMember);
-                            pendingMembersFailureCount++;
-                            if (pendingMembersFailureCount > PENDING_MEMBER_FAILURE_THRESHOLD) {
-                                setPendingMemberExpiryTime(expiryTime * 2);//Doubles the expiry time after the threshold
-                                // of failure exceeded
-                                //TODO Implement an alerting system: STRATOS-369
-                            }
+                        log.info(String.format("Pending state of member expired, member will be moved to obsolete list. " +
+                                        "[pending member] %s [expiry time] %s [cluster] %s " + "[cluster instance] %s",
+                                pendingMember.getMemberId(), expiryTime, pendingMember.getClusterId(),
+                                pendingMember.getClusterInstanceId()));
+                        pendingMembersFailureCount++;
+                        if (pendingMembersFailureCount > PENDING_MEMBER_FAILURE_THRESHOLD) {
+                            setPendingMemberExpiryTime(expiryTime * 2);//Doubles the expiry time after the threshold
+                            // of failure exceeded
+                            //TODO Implement an alerting system: STRATOS-369
                         }
                     }
                 }
@@ -738,15 +527,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             while (true) {
 
                 long obsoletedMemberExpiryTime = ctxt.getObsoltedMemberExpiryTime();
-                Map<String, MemberContext> obsoletedMembers = ctxt.getObsoletedMembers();
-
-                Iterator<Entry<String, MemberContext>> iterator = obsoletedMembers.entrySet().iterator();
-                while (iterator.hasNext()) {
-                    Map.Entry<String, MemberContext> pairs = iterator.next();
-                    MemberContext obsoleteMember = pairs.getValue();
-                    if (obsoleteMember == null) {
-                        continue;
-                    }
+                for (MemberContext obsoleteMember : ctxt.getObsoletedMembers().values()) {
                     long obsoleteStartTime = (obsoleteMember.getObsoleteInitTime() == 0) ?
                             obsoleteMember.getInitTime() : obsoleteMember.getObsoleteInitTime();
                     long obsoleteTime = System.currentTimeMillis() - obsoleteStartTime;
@@ -769,10 +550,8 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
 
                         }
 
-                        iterator.remove();
-                        if (ctxt.getMemberStatsContexts().containsKey(obsoleteMemberId)) {
-                            ctxt.getMemberStatsContexts().remove(obsoleteMemberId);
-                        }
+                        ctxt.removeObsoleteMember(obsoleteMemberId);
+                        ctxt.removeMemberStatsContext(obsoleteMemberId);
                         log.info(String.format("Obsolete member is removed from autoscaler and cloud controller " +
                                         "[obsolete member] %s [cluster] %s " +
                                         "[cluster instance] %s",
@@ -808,25 +587,19 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             while (true) {
                 long terminationPendingMemberExpiryTime = ctxt.getTerminationPendingMemberExpiryTime();
 
-                Iterator<MemberContext> iterator = ctxt.getTerminationPendingMembers().listIterator();
-                while (iterator.hasNext()) {
-
-                    MemberContext terminationPendingMember = iterator.next();
-
-                    if (terminationPendingMember == null) {
-                        continue;
-                    }
+                for (MemberContext terminationPendingMember : ctxt.getTerminationPendingMembers()) {
                     long terminationPendingTime = System.currentTimeMillis()
                             - ctxt.getTerminationPendingStartedTimeOfMember(terminationPendingMember.getMemberId());
                     if (terminationPendingTime >= terminationPendingMemberExpiryTime) {
-
+                        if (memberStateIndex.transition(terminationPendingMember.getMemberId(),
+                                MemberState.TERMINATION_PENDING, MemberState.OBSOLETE) == null) {
+                            continue;
+                        }
                         log.info(String.format("Termination pending state of member is expired, member will be moved to " +
                                         "obsolete list [termination pending member] %s [expiry time] %s [cluster] %s " +
                                         "[cluster instance] %s",
                                 terminationPendingMember.getMemberId(), terminationPendingMemberExpiryTime,
                                 terminationPendingMember.getClusterId(), terminationPendingMember.getClusterInstanceId()));
-                        iterator.remove();
-                        obsoletedMembers.put(terminationPendingMember.getMemberId(), terminationPendingMember);
                     }
                 }
                 try {
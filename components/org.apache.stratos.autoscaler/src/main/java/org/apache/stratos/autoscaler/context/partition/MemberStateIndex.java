@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.context.partition;
+
+import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the members of a partition keyed by member id. Keeps the lifecycle state of each
+ * member and a map of the members in each state, hence lookups, state transitions and member
+ * counts do not scan member lists. Transitions lock only the member being moved.
+ * <p/>
+ * Members of a state are returned as weakly consistent live views, not snapshots. Iterating them
+ * while other members are being moved does not copy or throw, but may or may not reflect those
+ * transitions. A member being moved is added to its target state before it is removed from its
+ * current state, hence it could be seen in both states for a moment but is never missing.
+ */
+public class MemberStateIndex implements Serializable {
+
+    private static final long serialVersionUID = 4528790352896217283L;
+
+    /**
+     * Lifecycle states of a member in a partition.
+     */
+    public enum MemberState {
+        PENDING, ACTIVE, TERMINATION_PENDING, OBSOLETE
+    }
+
+    private final ConcurrentHashMap<String, IndexedMember> members;
+    private final Map<MemberState, Map<String, MemberContext>> membersByState;
+
+    public MemberStateIndex() {
+        members = new ConcurrentHashMap<String, IndexedMember>();
+        membersByState = new EnumMap<MemberState, Map<String, MemberContext>>(MemberState.class);
+        for (MemberState state : MemberState.values()) {
+            membersByState.put(state, new ConcurrentHashMap<String, MemberContext>());
+        }
+    }
+
+    /**
+     * Add the member in the given state. If the member is already indexed, it is moved to the given state.
+     *
+     * @param memberContext member to be added
+     * @param state         state of the member
+     */
+    public void add(MemberContext memberContext, MemberState state) {
+        String memberId = memberContext.getMemberId();
+        while (true) {
+            IndexedMember indexedMember = members.get(memberId);
+            if (indexedMember == null) {
+                IndexedMember newMember = new IndexedMember(memberContext, state);
+                synchronized (newMember) {
+                    if (members.putIfAbsent(memberId, newMember) == null) {
+                        membersByState.get(state).put(memberId, memberContext);
+                        return;
+                    }
+                }
+                continue;
+            }
+            synchronized (indexedMember) {
+                if (members.get(memberId) != indexedMember) {
+                    // Removed concurrently
+                    continue;
+                }
+                MemberState currentState = indexedMember.state;
+                indexedMember.memberContext = memberContext;
+                indexedMember.setState(state);
+                membersByState.get(state).put(memberId, memberContext);
+                if (currentState != state) {
+                    membersByState.get(currentState).remove(memberId);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Move the member from the given state to the target state.
+     *
+     * @param memberId    id of the member
+     * @param fromState   current state of the member
+     * @param targetState state to be moved to
+     * @return member moved or null if the member is not in the given state
+     */
+    public MemberContext transition(String memberId, MemberState fromState, MemberState targetState) {
+        IndexedMember indexedMember = (memberId == null) ? null : members.get(memberId);
+        if (indexedMember == null) {
+            return null;
+        }
+        synchronized (indexedMember) {
+            if ((indexedMember.state != fromState) || (members.get(memberId) != indexedMember)) {
+                return null;
+            }
+            indexedMember.setState(targetState);
+            membersByState.get(targetState).put(memberId, indexedMember.memberContext);
+            if (fromState != targetState) {
+                membersByState.get(fromState).remove(memberId);
+            }
+            return indexedMember.memberContext;
+        }
+    }
+
+    /**
+     * Remove the member if it is in the given state.
+     *
+     * @param memberId id of the member
+     * @param state    expected state of the member, member is removed in any state if null
+     * @return member removed or null if the member is not in the given state
+     */
+    public MemberContext remove(String memberId, MemberState state) {
+        IndexedMember indexedMember = (memberId == null) ? null : members.get(memberId);
+        if (indexedMember == null) {
+            return null;
+        }
+        synchronized (indexedMember) {
+            if (((state != null) && (indexedMember.state != state)) || !members.remove(memberId, indexedMember)) {
+                return null;
+            }
+            membersByState.get(indexedMember.state).remove(memberId);
+            return indexedMember.memberContext;
+        }
+    }
+
+    /**
+     * Remove all the members in the given state.
+     */
+    public void clear(MemberState state) {
+        for (String memberId : membersByState.get(state).keySet()) {
+            remove(memberId, state);
+        }
+    }
+
+    public MemberContext getMember(String memberId) {
+        IndexedMember indexedMember = (memberId == null) ? null : members.get(memberId);
+        return (indexedMember == null) ? null : indexedMember.memberContext;
+    }
+
+    public MemberContext getMember(String memberId, MemberState state) {
+        return (memberId == null) ? null : membersByState.get(state).get(memberId);
+    }
+
+    /**
+     * @return state of the member or null if the member is not indexed
+     */
+    public MemberState getState(String memberId) {
+        IndexedMember indexedMember = (memberId == null) ? null : members.get(memberId);
+        return (indexedMember == null) ? null : indexedMember.state;
+    }
+
+    /**
+     * @return time the member was moved to its current state or 0 if the member is not indexed
+     */
+    public long getStateChangedTime(String memberId) {
+        IndexedMember indexedMember = (memberId == null) ? null : members.get(memberId);
+        return (indexedMember == null) ? 0 : indexedMember.stateChangedTime;
+    }
+
+    /**
+     * Returns a weakly consistent read only view of the members in the given state. The view is not a
+     * snapshot, it may reflect concurrent transitions and never throws
+     * {@link java.util.ConcurrentModificationException}.
+     */
+    public Collection<MemberContext> getMembers(MemberState state) {
+        return Collections.unmodifiableCollection(membersByState.get(state).values());
+    }
+
+    /**
+     * Returns a weakly consistent read only view of the members in the given state keyed by member id.
+     */
+    public Map<String, MemberContext> getMemberMap(MemberState state) {
+        return Collections.unmodifiableMap(membersByState.get(state));
+    }
+
+    public int getMemberCount(MemberState state) {
+        return membersByState.get(state).size();
+    }
+
+    public boolean contains(String memberId, MemberState state) {
+        return (memberId != null) && membersByState.get(state).containsKey(memberId);
+    }
+
+    private static class IndexedMember implements Serializable {
+
+        private static final long serialVersionUID = -7460718296528446312L;
+
+        private volatile MemberContext memberContext;
+        private volatile MemberState state;
+        private volatile long stateChangedTime;
+
+        private IndexedMember(MemberContext memberContext, MemberState state) {
+            this.memberContext = memberContext;
+            setState(state);
+        }
+
+        private void setState(MemberState state) {
+            this.state = state;
+            this.stateChangedTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -106,6 +106,25 @@ public class AutoscalerHealthStatEventReceiver {
             }
         });
 
+        healthStatEventReceiver.addEventListener(new AverageRequestLatencyEventListener() {
+            @Override
+            protected void onEvent(org.apache.stratos.messaging.event.Event event) {
+                AverageRequestLatencyEvent averageRequestLatencyEvent = (AverageRequestLatencyEvent) event;
+                String clusterId = averageRequestLatencyEvent.getClusterId();
+                AutoscalerContext asCtx = AutoscalerContext.getInstance();
+                ClusterMonitor monitor;
+                monitor = asCtx.getClusterMonitor(clusterId);
+                if (null == monitor) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("A cluster monitor is not found in autoscaler context "
+                                + "[cluster] %s", clusterId));
+                    }
+                    return;
+                }
+                monitor.handleAverageRequestLatencyEvent(averageRequestLatencyEvent);
+            }
+        });
+
         healthStatEventReceiver.addEventListener(new AverageRequestsServingCapabilityEventListener() {
             @Override
             protected void onEvent(org.apache.stratos.messaging.event.Event event) {
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.monitor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Central scheduler for monitor ticks. A single dispatcher thread waits on a delay queue
+ * and hands due ticks over to a bounded worker pool, hence a large number of monitors can be
+ * executed periodically using a small, fixed number of threads. The next tick of a monitor is
+ * queued only after the current tick completes, so ticks of the same monitor never overlap.
+ * Each tick is shifted by a random jitter to avoid all monitors firing at the same instant.
+ */
+public class MonitorScheduler {
+
+    private static final Log log = LogFactory.getLog(MonitorScheduler.class);
+
+    private static volatile MonitorScheduler instance;
+
+    private final DelayQueue<ScheduledMonitor> delayQueue;
+    private final ExecutorService executorService;
+    private final int jitterPercentage;
+    private final Random random;
+    private final Thread dispatcher;
+
+    private MonitorScheduler() {
+        delayQueue = new DelayQueue<ScheduledMonitor>();
+        int threadPoolSize = Integer.getInteger(AutoscalerConstants.MONITOR_SCHEDULER_THREAD_POOL_SIZE,
+                AutoscalerConstants.MONITOR_SCHEDULER_DEFAULT_THREAD_POOL_SIZE);
+        executorService = StratosThreadPool.getExecutorService(
+                AutoscalerConstants.MONITOR_SCHEDULER_THREAD_POOL_ID, threadPoolSize);
+        jitterPercentage = Math.max(0, Math.min(100, Integer.getInteger(AutoscalerConstants.MONITOR_SCHEDULER_JITTER,
+                AutoscalerConstants.MONITOR_SCHEDULER_DEFAULT_JITTER)));
+        random = new Random();
+        dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "autoscaler-monitor-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Monitor scheduler started: [thread-pool-size] %d [jitter] %d%%",
+                    threadPoolSize, jitterPercentage));
+        }
+    }
+
+    public static MonitorScheduler getInstance() {
+        if (instance == null) {
+            synchronized (MonitorScheduler.class) {
+                if (instance == null) {
+                    instance = new MonitorScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule the given task to be executed periodically. The first tick is executed
+     * after a random jitter, subsequent ticks are executed at the given interval.
+     *
+     * @param monitorId              identifier of the monitor, used in logs
+     * @param task                   task to be executed on each tick
+     * @param intervalMilliseconds   interval between two ticks
+     * @return handle which can be used to cancel the task and to read lag metrics
+     */
+    public ScheduledMonitor schedule(String monitorId, Runnable task, long intervalMilliseconds) {
+        if (intervalMilliseconds <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid monitor interval: [monitor] %s " +
+                    "[interval] %d", monitorId, intervalMilliseconds));
+        }
+        ScheduledMonitor scheduledMonitor = new ScheduledMonitor(monitorId, task,
+                TimeUnit.MILLISECONDS.toNanos(intervalMilliseconds));
+        scheduledMonitor.schedule(System.nanoTime());
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Monitor scheduled: [monitor] %s [interval] %d ms", monitorId,
+                    intervalMilliseconds));
+        }
+        return scheduledMonitor;
+    }
+
+    /**
+     * Returns the monitors which are currently waiting for their next tick.
+     */
+    public Collection<ScheduledMonitor> getScheduledMonitors() {
+        List<ScheduledMonitor> scheduledMonitors = new ArrayList<ScheduledMonitor>(delayQueue);
+        return scheduledMonitors;
+    }
+
+    private void dispatch() {
+        while (true) {
+            try {
+                final ScheduledMonitor scheduledMonitor = delayQueue.take();
+                if (scheduledMonitor.isCancelled()) {
+                    continue;
+                }
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        scheduledMonitor.tick();
+                    }
+                });
+            } catch (InterruptedException e) {
+                log.warn("Monitor scheduler dispatcher interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Could not dispatch monitor tick", e);
+            }
+        }
+    }
+
+    private long nextJitter(long intervalNanos) {
+        long maxJitter = intervalNanos / 100 * jitterPercentage;
+        if (maxJitter <= 0) {
+            return 0;
+        }
+        synchronized (random) {
+            return (long) (random.nextDouble() * maxJitter);
+        }
+    }
+
+    /**
+     * A periodic task registered with the monitor scheduler.
+     */
+    public class ScheduledMonitor implements Delayed {
+
+        private final String monitorId;
+        private final Runnable task;
+        private final long intervalNanos;
+        // tick time without jitter, ticks are aligned to this to avoid drifting
+        private long baseTime;
+        private volatile long scheduledTime;
+        private volatile boolean cancelled;
+
+        private volatile long tickCount;
+        private volatile long skippedTickCount;
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile long totalLagNanos;
+
+        private ScheduledMonitor(String monitorId, Runnable task, long intervalNanos) {
+            this.monitorId = monitorId;
+            this.task = task;
+            this.intervalNanos = intervalNanos;
+        }
+
+        private void schedule(long baseTime) {
+            this.baseTime = baseTime;
+            this.scheduledTime = baseTime + nextJitter(intervalNanos);
+            if (!cancelled) {
+                delayQueue.offer(this);
+            }
+        }
+
+        private void tick() {
+            long startTime = System.nanoTime();
+            long lag = Math.max(0, startTime - scheduledTime);
+            lastLagNanos = lag;
+            totalLagNanos += lag;
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+            tickCount++;
+            if (lag > intervalNanos) {
+                log.warn(String.format("Monitor tick is lagging behind: [monitor] %s [lag] %d ms " +
+                        "[interval] %d ms", monitorId, TimeUnit.NANOSECONDS.toMillis(lag),
+                        TimeUnit.NANOSECONDS.toMillis(intervalNanos)));
+            }
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error(String.format("Monitor tick failed: [monitor] %s", monitorId), e);
+            } finally {
+                if (!cancelled) {
+                    // Skip the ticks missed while this tick was waiting or running
+                    long nextBaseTime = baseTime + intervalNanos;
+                    long now = System.nanoTime();
+                    if (nextBaseTime < now) {
+                        long missed = (now - nextBaseTime) / intervalNanos + 1;
+                        skippedTickCount += missed;
+                        nextBaseTime += missed * intervalNanos;
+                    }
+                    schedule(nextBaseTime);
+                }
+            }
+        }
+
+        /**
+         * Cancel the task, a tick which is already running is allowed to complete.
+         */
+        public void cancel() {
+            cancelled = true;
+            delayQueue.remove(this);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Monitor schedule cancelled: [monitor] %s", monitorId));
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public String getMonitorId() {
+            return monitorId;
+        }
+
+        public long getTickCount() {
+            return tickCount;
+        }
+
+        public long getSkippedTickCount() {
+            return skippedTickCount;
+        }
+
+        public long getLastLagMilliseconds() {
+            return TimeUnit.NANOSECONDS.toMillis(lastLagNanos);
+        }
+
+        public long getMaxLagMilliseconds() {
+            return TimeUnit.NANOSECONDS.toMillis(maxLagNanos);
+        }
+
+        public long getAverageLagMilliseconds() {
+            long ticks = tickCount;
+            return (ticks == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLagNanos / ticks);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(scheduledTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            if (other instanceof ScheduledMonitor) {
+                long diff = scheduledTime - ((ScheduledMonitor) other).scheduledTime;
+                return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+            }
+            long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+            return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+        }
+    }
+}
@@ -36,11 +36,12 @@ import org.apache.stratos.autoscaler.exception.InvalidArgumentException;
 import org.apache.stratos.autoscaler.exception.partition.PartitionValidationException;
 import org.apache.stratos.autoscaler.exception.policy.PolicyValidationException;
 import org.apache.stratos.autoscaler.monitor.Monitor;
+import org.apache.stratos.autoscaler.monitor.MonitorScheduler;
 import org.apache.stratos.autoscaler.monitor.events.MonitorStatusEvent;
 import org.apache.stratos.autoscaler.monitor.events.ScalingEvent;
 import org.apache.stratos.autoscaler.monitor.events.ScalingUpBeyondMaxEvent;
 import org.apache.stratos.autoscaler.monitor.events.builder.MonitorStatusEventBuilder;
-import org.apache.stratos.autoscaler.rule.RuleTasksDelegator;
+import org.apache.stratos.autoscaler.rule.RuleSession;
 import org.apache.stratos.autoscaler.statistics.publisher.AutoscalerPublisherFactory;
 import org.apache.stratos.autoscaler.statistics.publisher.ScalingDecisionPublisher;
 import org.apache.stratos.autoscaler.status.processor.cluster.ClusterStatusActiveProcessor;
@@ -70,8 +71,6 @@ import org.apache.stratos.messaging.event.topology.MemberMaintenanceModeEvent;
 import org.apache.stratos.messaging.event.topology.MemberReadyToShutdownEvent;
 import org.apache.stratos.messaging.event.topology.MemberTerminatedEvent;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
-import org.drools.runtime.StatefulKnowledgeSession;
-import org.drools.runtime.rule.FactHandle;
 
 import java.rmi.RemoteException;
 import java.util.*;
@@ -86,14 +85,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ClusterMonitor extends Monitor {
 
     private static final Log log = LogFactory.getLog(ClusterMonitor.class);
-    private final ScheduledExecutorService scheduler;
     private final ExecutorService executorService;
     protected boolean hasFaultyMember = false;
     protected ClusterContext clusterContext;
     protected String serviceType;
     protected String clusterId;
-    // future to cancel it when destroying monitors
-    private ScheduledFuture<?> schedulerFuture;
+    // scheduled task to cancel it when destroying monitors
+    private MonitorScheduler.ScheduledMonitor scheduledMonitor;
     private AtomicBoolean monitoringStarted;
     private Cluster cluster;
     private int monitoringIntervalMilliseconds;
@@ -101,18 +99,31 @@ public class ClusterMonitor extends Monitor {
     private boolean hasScalingDependents;
     private boolean groupScalingEnabledSubtree;
     private String deploymentPolicyId;
+    //event driven scaling configuration
+    private boolean eventDrivenScalingEnabled;
+    private long scaleCheckMinIntervalMilliseconds;
+    private long scaleCheckDebounceDelayMilliseconds;
+    private ScheduledExecutorService scaleCheckScheduler;
+    //cluster instance ids having a scheduled event driven scale check
+    private final Set<String> pendingScaleChecks =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    //last scale check time, key=cluster instance id
+    private final Map<String, Long> lastScaleCheckTimes = new ConcurrentHashMap<String, Long>();
     private ScalingDecisionPublisher scalingDecisionPublisher =
             AutoscalerPublisherFactory.createScalingDecisionPublisher(StatisticsPublisherType.WSO2DAS);
 
     public ClusterMonitor(Cluster cluster, boolean hasScalingDependents, boolean groupScalingEnabledSubtree,
                           String deploymentPolicyId) {
 
-        scheduler = StratosThreadPool.getScheduledExecutorService(AutoscalerConstants.CLUSTER_MONITOR_SCHEDULER_ID, 50);
         int threadPoolSize = Integer.getInteger(AutoscalerConstants.MONITOR_THREAD_POOL_SIZE, 100);
         executorService = StratosThreadPool.getExecutorService(
                 AutoscalerConstants.MONITOR_THREAD_POOL_ID, threadPoolSize);
         this.clusterId = cluster.getClusterId();
         readConfigurations();
+        if (eventDrivenScalingEnabled) {
+            scaleCheckScheduler = StratosThreadPool.getScheduledExecutorService(
+                    AutoscalerConstants.SCALE_CHECK_SCHEDULER_ID, 5);
+        }
         this.groupScalingEnabledSubtree = groupScalingEnabledSubtree;
         this.setCluster(new Cluster(cluster));
         this.serviceType = cluster.getServiceName();
@@ -148,8 +159,8 @@ public class ClusterMonitor extends Monitor {
     }
 
     public void startScheduler() {
-        schedulerFuture = scheduler.scheduleAtFixedRate(this, 0,
-                getMonitorIntervalMilliseconds(), TimeUnit.MILLISECONDS);
+        scheduledMonitor = MonitorScheduler.getInstance().schedule(clusterId, this,
+                getMonitorIntervalMilliseconds());
     }
 
     @Override
@@ -284,6 +295,7 @@ public class ClusterMonitor extends Monitor {
                 clusterInstanceId);
         if (null != clusterInstanceContext) {
             clusterInstanceContext.setAverageLoadAverage(value);
+            scheduleScaleCheck(clusterInstanceContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -302,10 +314,6 @@ public class ClusterMonitor extends Monitor {
         } catch (Exception e) {
             log.error("Cluster monitor: Monitor failed." + this.toString(), e);
         }
-        try {
-            Thread.sleep(getMonitorIntervalMilliseconds());
-        } catch (InterruptedException ignore) {
-        }
     }
 
     public synchronized void monitor() {
@@ -321,9 +329,7 @@ public class ClusterMonitor extends Monitor {
                     final ClusterInstance instance = (ClusterInstance) this.instanceIdToInstanceMap.
                             get(instanceContext.getId());
 
-                    if ((instance.getStatus().getCode() <= ClusterStatus.Active.getCode()) ||
-                            (instance.getStatus() == ClusterStatus.Inactive && !hasStartupDependents)
-                                    && !this.hasFaultyMember) {
+                    if (isScalingRulesApplicable(instance)) {
 
                         Runnable monitoringRunnable = new Runnable() {
                             @Override
@@ -334,15 +340,14 @@ public class ClusterMonitor extends Monitor {
                                             "%s [cluster-id]: %s", getAppId(), getClusterId()));
                                 }
 
-                                instanceContext.getMinCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
+                                Map<String, Object> minCheckGlobals = new HashMap<String, Object>();
+                                minCheckGlobals.put("clusterId", getClusterId());
                                 //FIXME when parent chosen the partition
                                 String paritionAlgo = instanceContext.getPartitionAlgorithm();
 
-                                instanceContext.getMinCheckKnowledgeSession().setGlobal("algorithmName",
-                                        paritionAlgo);
+                                minCheckGlobals.put("algorithmName", paritionAlgo);
 
-                                instanceContext.getMinCheckKnowledgeSession().setGlobal("scalingDecisionPublisher",
-                                        scalingDecisionPublisher);
+                                minCheckGlobals.put("scalingDecisionPublisher", scalingDecisionPublisher);
 
                                 if (log.isDebugEnabled()) {
                                     log.debug(String.format("Running minimum check for [cluster instance] %s, " +
@@ -350,60 +355,18 @@ public class ClusterMonitor extends Monitor {
                                             instanceContext.getId(), clusterId));
                                 }
 
-                                instanceContext.setMinCheckFactHandle(evaluate(instanceContext.
-                                                getMinCheckKnowledgeSession(),
-                                        instanceContext.getMinCheckFactHandle(), instanceContext));
-                                instanceContext.getMaxCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
+                                evaluate(instanceContext.getMinCheckRuleSession(), instanceContext, minCheckGlobals);
+                                Map<String, Object> maxCheckGlobals = new HashMap<String, Object>();
+                                maxCheckGlobals.put("clusterId", getClusterId());
 
                                 if (log.isDebugEnabled()) {
                                     log.debug(String.format("Running maximum check for [cluster instance] %s, " +
                                             "[cluster id] %s", instanceContext.getId(), clusterId));
                                 }
-                                instanceContext.setMaxCheckFactHandle(evaluate(instanceContext.
-                                                getMaxCheckKnowledgeSession(),
-                                        instanceContext.getMaxCheckFactHandle(), instanceContext));
-
+                                evaluate(instanceContext.getMaxCheckRuleSession(), instanceContext, maxCheckGlobals);
 
                                 //checking the status of the cluster
-                                boolean rifReset = instanceContext.isRifReset();
-                                boolean memoryConsumptionReset = instanceContext.isMemoryConsumptionReset();
-                                boolean loadAverageReset = instanceContext.isLoadAverageReset();
-                                boolean averageRequestServedPerInstanceReset
-                                        = instanceContext.isAverageRequestServedPerInstanceReset();
-
-                                if (rifReset || memoryConsumptionReset || loadAverageReset) {
-                                    ClusterContext clusterContext = ClusterMonitor.this.clusterContext;
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("applicationId", getAppId());
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("rifReset", rifReset);
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("mcReset", memoryConsumptionReset);
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("laReset", loadAverageReset);
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("algorithmName", paritionAlgo);
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("autoscalePolicy",
-                                            clusterContext.getAutoscalePolicy());
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("arspiReset",
-                                            averageRequestServedPerInstanceReset);
-                                    instanceContext.getScaleCheckKnowledgeSession().setGlobal("scalingDecisionPublisher",
-                                            scalingDecisionPublisher);
-                                    if (log.isDebugEnabled()) {
-                                        log.debug("Running scale check, [Is rif Reset] " + rifReset + ", " +
-                                                "[Is memoryConsumption Reset] " + memoryConsumptionReset + ", " +
-                                                "[Is loadAverage Reset] " + loadAverageReset + ", " +
-                                                "[cluster] " + clusterId + ", " +
-                                                "[cluster instance] " + instanceContext.getId());
-                                    }
-                                    instanceContext.setScaleCheckFactHandle(evaluate(
-                                            instanceContext.getScaleCheckKnowledgeSession()
-                                            , instanceContext.getScaleCheckFactHandle(), instanceContext));
-
-                                    instanceContext.setRifReset(false);
-                                    instanceContext.setMemoryConsumptionReset(false);
-                                    instanceContext.setLoadAverageReset(false);
-                                } else if (log.isDebugEnabled()) {
-                                    log.debug(String.format("Scale rule will not run since any type of statistics have not " +
-                                                    "received before this cycle for [cluster instance context] %s [cluster] %s",
-                                            instanceContext.getId(), clusterId));
-                                }
+                                runScaleCheck(instanceContext);
 
                             }
                         };
@@ -433,7 +396,8 @@ public class ClusterMonitor extends Monitor {
                         Runnable monitoringRunnable = new Runnable() {
                             @Override
                             public void run() {
-                                instanceContext.getObsoleteCheckKnowledgeSession().setGlobal("clusterId", clusterId);
+                                Map<String, Object> obsoleteCheckGlobals = new HashMap<String, Object>();
+                                obsoleteCheckGlobals.put("clusterId", clusterId);
 
                                 if (log.isDebugEnabled()) {
                                     log.debug(String.format("Running obsolete check for [partition id] %s, " +
@@ -441,12 +405,11 @@ public class ClusterMonitor extends Monitor {
                                             partitionContext.getPartitionId(), instanceContext.getId(), clusterId));
                                 }
 
-                                instanceContext.setObsoleteCheckFactHandle(evaluate(
-                                        instanceContext.getObsoleteCheckKnowledgeSession(),
-                                        instanceContext.getObsoleteCheckFactHandle(), partitionContext));
+                                evaluate(instanceContext.getObsoleteCheckRuleSession(), partitionContext,
+                                        obsoleteCheckGlobals);
 
                                 if (partitionContext.isObsoletePartition()
-                                        && partitionContext.getTerminationPendingMembers().size() == 0
+                                        && partitionContext.getTerminationPendingMembers().isEmpty()
                                         && partitionContext.getObsoletedMembers().size() == 0) {
 
                                     instanceContext.removePartitionCtxt(partitionContext.getPartition().getId());
@@ -462,18 +425,141 @@ public class ClusterMonitor extends Monitor {
         }
     }
 
-    private FactHandle evaluate(StatefulKnowledgeSession ksession, FactHandle handle, Object obj) {
-        if (handle == null) {
-            ksession.setGlobal("delegator", new RuleTasksDelegator());
-            handle = ksession.insert(obj);
-        } else {
-            ksession.update(handle, obj);
+    /**
+     * Run the scale check rules of the given cluster instance if any type of statistics
+     * have been received since the last scale check.
+     *
+     * @param instanceContext cluster instance context
+     */
+    private void runScaleCheck(ClusterInstanceContext instanceContext) {
+        // Scale check may be triggered by both the monitor and the statistics events
+        synchronized (instanceContext.getScaleCheckRuleSession()) {
+            boolean rifReset = instanceContext.isRifReset();
+            boolean memoryConsumptionReset = instanceContext.isMemoryConsumptionReset();
+            boolean loadAverageReset = instanceContext.isLoadAverageReset();
+            boolean requestLatencyReset = instanceContext.isRequestLatencyReset();
+            boolean averageRequestServedPerInstanceReset
+                    = instanceContext.isAverageRequestServedPerInstanceReset();
+
+            if (rifReset || memoryConsumptionReset || loadAverageReset || requestLatencyReset) {
+                Map<String, Object> scaleCheckGlobals = new HashMap<String, Object>();
+                scaleCheckGlobals.put("applicationId", getAppId());
+                scaleCheckGlobals.put("clusterId", getClusterId());
+                scaleCheckGlobals.put("rifReset", rifReset);
+                scaleCheckGlobals.put("mcReset", memoryConsumptionReset);
+                scaleCheckGlobals.put("laReset", loadAverageReset);
+                scaleCheckGlobals.put("rlReset", requestLatencyReset);
+                scaleCheckGlobals.put("algorithmName", instanceContext.getPartitionAlgorithm());
+                scaleCheckGlobals.put("autoscalePolicy", clusterContext.getAutoscalePolicy());
+                scaleCheckGlobals.put("arspiReset", averageRequestServedPerInstanceReset);
+                scaleCheckGlobals.put("scalingDecisionPublisher", scalingDecisionPublisher);
+                if (log.isDebugEnabled()) {
+                    log.debug("Running scale check, [Is rif Reset] " + rifReset + ", " +
+                            "[Is memoryConsumption Reset] " + memoryConsumptionReset + ", " +
+                            "[Is loadAverage Reset] " + loadAverageReset + ", " +
+                            "[Is requestLatency Reset] " + requestLatencyReset + ", " +
+                            "[cluster] " + clusterId + ", " +
+                            "[cluster instance] " + instanceContext.getId());
+                }
+                evaluate(instanceContext.getScaleCheckRuleSession(), instanceContext, scaleCheckGlobals);
+
+                instanceContext.setRifReset(false);
+                instanceContext.setMemoryConsumptionReset(false);
+                instanceContext.setLoadAverageReset(false);
+                instanceContext.setRequestLatencyReset(false);
+                lastScaleCheckTimes.put(instanceContext.getId(), System.currentTimeMillis());
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("Scale rule will not run since any type of statistics have not " +
+                                "received before this cycle for [cluster instance context] %s [cluster] %s",
+                        instanceContext.getId(), clusterId));
+            }
+        }
+    }
+
+    /**
+     * Schedule a scale check for the given cluster instance once a complete set of statistics
+     * (average, gradient and second derivative) of any type has been received. Statistics events
+     * arriving within the debounce delay are evaluated together and two scale checks of a cluster
+     * instance are kept at least the minimum interval apart. Only used when event driven scaling
+     * is enabled, otherwise the scale check is run by the monitor at every monitoring interval.
+     *
+     * @param instanceContext cluster instance context
+     */
+    private void scheduleScaleCheck(final ClusterInstanceContext instanceContext) {
+        if (!eventDrivenScalingEnabled) {
+            return;
+        }
+        if (!(instanceContext.isRifReset() || instanceContext.isMemoryConsumptionReset()
+                || instanceContext.isLoadAverageReset() || instanceContext.isRequestLatencyReset())) {
+            return;
+        }
+        final String instanceId = instanceContext.getId();
+        if (!pendingScaleChecks.add(instanceId)) {
+            // A scale check has already been scheduled for this cluster instance
+            return;
         }
-        ksession.fireAllRules();
+
+        long delay = scaleCheckDebounceDelayMilliseconds;
+        Long lastScaleCheckTime = lastScaleCheckTimes.get(instanceId);
+        if (lastScaleCheckTime != null) {
+            delay = Math.max(delay, lastScaleCheckTime + scaleCheckMinIntervalMilliseconds
+                    - System.currentTimeMillis());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Scheduling event driven scale check: [cluster] %s [cluster instance] %s " +
+                    "[delay] %d ms", clusterId, instanceId, delay));
+        }
+
+        final Runnable scaleCheckRunnable = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ClusterInstance instance = (ClusterInstance) instanceIdToInstanceMap.get(instanceId);
+                    if ((instance == null) || !isScalingRulesApplicable(instance)) {
+                        return;
+                    }
+                    runScaleCheck(instanceContext);
+                } catch (Exception e) {
+                    log.error(String.format("Event driven scale check failed: [cluster] %s " +
+                            "[cluster instance] %s", clusterId, instanceId), e);
+                }
+            }
+        };
+        try {
+            scaleCheckScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    pendingScaleChecks.remove(instanceId);
+                    if ((scheduledMonitor != null) && scheduledMonitor.isCancelled()) {
+                        // Monitor has been destroyed
+                        return;
+                    }
+                    try {
+                        executorService.execute(scaleCheckRunnable);
+                    } catch (RejectedExecutionException e) {
+                        log.warn(String.format("Event driven scale check rejected: [cluster] %s " +
+                                "[cluster instance] %s", clusterId, instanceId));
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingScaleChecks.remove(instanceId);
+            log.warn(String.format("Could not schedule event driven scale check: [cluster] %s " +
+                    "[cluster instance] %s", clusterId, instanceId));
+        }
+    }
+
+    private boolean isScalingRulesApplicable(ClusterInstance instance) {
+        return (instance.getStatus().getCode() <= ClusterStatus.Active.getCode()) ||
+                (instance.getStatus() == ClusterStatus.Inactive && !hasStartupDependents)
+                        && !this.hasFaultyMember;
+    }
+
+    private void evaluate(RuleSession ruleSession, Object obj, Map<String, Object> globals) {
+        ruleSession.evaluate(obj, globals);
         if (log.isDebugEnabled()) {
             log.debug(String.format("Rule executed for: %s ", obj));
         }
-        return handle;
     }
 
     private void readConfigurations() {
@@ -485,13 +571,23 @@ public class ClusterMonitor extends Monitor {
                     " [cluster] " + clusterId + " [monitor-interval] " +
                     getMonitorIntervalMilliseconds());
         }
+        eventDrivenScalingEnabled = conf.getBoolean(AutoscalerConstants.CLUSTER_EVENT_DRIVEN_SCALING_ENABLED, false);
+        scaleCheckMinIntervalMilliseconds = conf.getLong(
+                AutoscalerConstants.CLUSTER_EVENT_DRIVEN_SCALING_MIN_INTERVAL, 15000);
+        scaleCheckDebounceDelayMilliseconds = conf.getLong(
+                AutoscalerConstants.CLUSTER_EVENT_DRIVEN_SCALING_DEBOUNCE_DELAY, 1000);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Event driven scaling configuration: [cluster] %s [enabled] %s " +
+                            "[min-interval] %d [debounce-delay] %d", clusterId, eventDrivenScalingEnabled,
+                    scaleCheckMinIntervalMilliseconds, scaleCheckDebounceDelayMilliseconds));
+        }
     }
 
     @Override
     public void destroy() {
         //shutting down the scheduler
-        if (schedulerFuture != null) {
-            schedulerFuture.cancel(true);
+        if (scheduledMonitor != null) {
+            scheduledMonitor.cancel();
         }
 
         if (log.isDebugEnabled()) {
@@ -560,13 +656,11 @@ public class ClusterMonitor extends Monitor {
                 vmClusterContext.getAutoscalePolicy().getInstanceRoundingFactor());
         clusterInstanceContext.setRequiredInstanceCountBasedOnDependencies(roundedRequiredInstanceCount);
 
-        clusterInstanceContext.getDependentScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
-        clusterInstanceContext.getDependentScaleCheckKnowledgeSession().setGlobal("roundedRequiredInstanceCount",
-                roundedRequiredInstanceCount);
-        clusterInstanceContext.getDependentScaleCheckKnowledgeSession().setGlobal("algorithmName",
-                clusterInstanceContext.getPartitionAlgorithm());
-        clusterInstanceContext.getDependentScaleCheckKnowledgeSession().setGlobal("scalingDecisionPublisher",
-                scalingDecisionPublisher);
+        Map<String, Object> dependentScaleCheckGlobals = new HashMap<String, Object>();
+        dependentScaleCheckGlobals.put("clusterId", getClusterId());
+        dependentScaleCheckGlobals.put("roundedRequiredInstanceCount", roundedRequiredInstanceCount);
+        dependentScaleCheckGlobals.put("algorithmName", clusterInstanceContext.getPartitionAlgorithm());
+        dependentScaleCheckGlobals.put("scalingDecisionPublisher", scalingDecisionPublisher);
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Running dependent scale check for [cluster instance] %s, " +
@@ -574,9 +668,8 @@ public class ClusterMonitor extends Monitor {
                     clusterInstanceContext.getId(), clusterId));
         }
 
-        clusterInstanceContext.setDependentScaleCheckFactHandle(evaluate(
-                clusterInstanceContext.getDependentScaleCheckKnowledgeSession()
-                , clusterInstanceContext.getDependentScaleCheckFactHandle(), clusterInstanceContext));
+        evaluate(clusterInstanceContext.getDependentScaleCheckRuleSession(), clusterInstanceContext,
+                dependentScaleCheckGlobals);
 
     }
 
@@ -612,6 +705,7 @@ public class ClusterMonitor extends Monitor {
                 networkPartitionId, instanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setLoadAverageGradient(value);
+            scheduleScaleCheck(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -635,6 +729,7 @@ public class ClusterMonitor extends Monitor {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setLoadAverageSecondDerivative(value);
+            scheduleScaleCheck(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -658,6 +753,7 @@ public class ClusterMonitor extends Monitor {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setAverageMemoryConsumption(value);
+            scheduleScaleCheck(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String
@@ -682,6 +778,7 @@ public class ClusterMonitor extends Monitor {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setMemoryConsumptionGradient(value);
+            scheduleScaleCheck(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -705,6 +802,7 @@ public class ClusterMonitor extends Monitor {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setMemoryConsumptionSecondDerivative(value);
+            scheduleScaleCheck(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -768,6 +866,7 @@ public class ClusterMonitor extends Monitor {
                         float averageRequestsInFlight = value * clusterInstanceContext.getActiveMemberCount() /
                                 totalActiveMemberCount;
                         clusterInstanceContext.setAverageRequestsInFlight(averageRequestsInFlight);
+                        scheduleScaleCheck(clusterInstanceContext);
                         if (log.isDebugEnabled()) {
                             log.debug(String.format("Calculated average RIF: [cluster] %s [cluster-instance] %s " +
                                             "[network-partition] %s [average-rif] %s", clusterId,
@@ -786,6 +885,50 @@ public class ClusterMonitor extends Monitor {
                     networkPartitionId, clusterInstanceId);
             if (null != clusterInstanceContext) {
                 clusterInstanceContext.setAverageRequestsInFlight(value);
+                scheduleScaleCheck(clusterInstanceContext);
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Cluster instance context is not available for:" +
+                            " [cluster instance id] %s", clusterInstanceId));
+                }
+            }
+        }
+    }
+
+    public void handleAverageRequestLatencyEvent(AverageRequestLatencyEvent averageRequestLatencyEvent) {
+
+        String networkPartitionId = averageRequestLatencyEvent.getNetworkPartitionId();
+        String clusterId = averageRequestLatencyEvent.getClusterId();
+        String clusterInstanceId = averageRequestLatencyEvent.getClusterInstanceId();
+        float value = averageRequestLatencyEvent.getValue();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Average request latency event: [cluster] %s [cluster-instance] %s " +
+                            "[network-partition] %s [value] %s",
+                    clusterId, clusterInstanceId, networkPartitionId, value));
+        }
+        if (clusterInstanceId.equals(StratosConstants.NOT_DEFINED)) {
+            NetworkPartitionContext networkPartitionContext = getNetworkPartitionContext(networkPartitionId);
+            if (null != networkPartitionContext) {
+                // Latency is not shared among the members, every cluster instance sees the same value
+                for (InstanceContext instanceContext : networkPartitionContext.getInstanceIdToInstanceContextMap().values()) {
+                    if (instanceContext instanceof ClusterInstanceContext) {
+                        ClusterInstanceContext clusterInstanceContext = ((ClusterInstanceContext) instanceContext);
+                        clusterInstanceContext.setAverageRequestLatency(value);
+                        scheduleScaleCheck(clusterInstanceContext);
+                    }
+                }
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Network partition context is not available for :" +
+                            " [network partition] %s", networkPartitionId));
+                }
+            }
+        } else {
+            ClusterInstanceContext clusterInstanceContext = getClusterInstanceContext(
+                    networkPartitionId, clusterInstanceId);
+            if (null != clusterInstanceContext) {
+                clusterInstanceContext.setAverageRequestLatency(value);
+                scheduleScaleCheck(clusterInstanceContext);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Cluster instance context is not available for:" +
@@ -825,6 +968,7 @@ public class ClusterMonitor extends Monitor {
                         ClusterInstanceContext clusterInstanceContext = ((ClusterInstanceContext) instanceContext);
                         float requestsInFlightGradient = value * clusterInstanceContext.getActiveMemberCount() / totalActiveMemberCount;
                         clusterInstanceContext.setRequestsInFlightGradient(requestsInFlightGradient);
+                        scheduleScaleCheck(clusterInstanceContext);
                         log.debug(String.format("Calculated gradient RIF: [cluster] %s [cluster-instance] %s " +
                                         "[network-partition] %s [gradient-rif] %s", clusterId,
                                 clusterInstanceContext.getId(), networkPartitionId, requestsInFlightGradient));
@@ -841,6 +985,7 @@ public class ClusterMonitor extends Monitor {
                     networkPartitionId, clusterInstanceId);
             if (null != clusterLevelNetworkPartitionContext) {
                 clusterLevelNetworkPartitionContext.setRequestsInFlightGradient(value);
+                scheduleScaleCheck(clusterLevelNetworkPartitionContext);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Network partition context is not available for:" +
@@ -879,6 +1024,7 @@ public class ClusterMonitor extends Monitor {
                         float requestsInFlightSecondDerivative = value * clusterInstanceContext.getActiveMemberCount() /
                                 totalActiveMemberCount;
                         clusterInstanceContext.setRequestsInFlightSecondDerivative(requestsInFlightSecondDerivative);
+                        scheduleScaleCheck(clusterInstanceContext);
                         log.debug(String.format("Calculated second derivative RIF: [cluster] %s [cluster-instance] %s " +
                                         "[network-partition] %s [average-rif] %s", clusterId,
                                 clusterInstanceContext.getId(), networkPartitionId, requestsInFlightSecondDerivative));
@@ -895,6 +1041,7 @@ public class ClusterMonitor extends Monitor {
                     networkPartitionId, clusterInstanceId);
             if (null != clusterLevelNetworkPartitionContext) {
                 clusterLevelNetworkPartitionContext.setRequestsInFlightSecondDerivative(value);
+                scheduleScaleCheck(clusterLevelNetworkPartitionContext);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Network partition context is not available for :" +
@@ -1271,7 +1418,7 @@ public class ClusterMonitor extends Monitor {
                         InstanceNotificationPublisher.getInstance().sendInstanceCleanupEventForMember(memberId);
                     }
 
-                    Iterator<MemberContext> pendingIterator = partitionContext.getPendingMembers().listIterator();
+                    Iterator<MemberContext> pendingIterator = partitionContext.getPendingMembers().iterator();
                     List<String> pendingMemberIdList = new ArrayList<String>();
                     while (pendingIterator.hasNext()) {
                         MemberContext activeMemberCtxt = pendingIterator.next();
@@ -1331,7 +1478,7 @@ public class ClusterMonitor extends Monitor {
                             partitionContext.terminateAllRemainingInstances();
                         }
                         //Need to terminate pending members
-                        Iterator<MemberContext> pendingIterator = partitionContext.getPendingMembers().listIterator();
+                        Iterator<MemberContext> pendingIterator = partitionContext.getPendingMembers().iterator();
                         List<String> pendingMemberIdList = new ArrayList<String>();
                         while (pendingIterator.hasNext()) {
                             MemberContext pendingMemberContext = pendingIterator.next();
@@ -1383,7 +1530,7 @@ public class ClusterMonitor extends Monitor {
                         }
 
                         //Need to terminate pending members
-                        Iterator<MemberContext> activeIterator = partitionContext.getActiveMembers().listIterator();
+                        Iterator<MemberContext> activeIterator = partitionContext.getActiveMembers().iterator();
                         List<String> activeMemberIdList = new ArrayList<String>();
                         while (activeIterator.hasNext()) {
                             MemberContext activeMemberContext = activeIterator.next();
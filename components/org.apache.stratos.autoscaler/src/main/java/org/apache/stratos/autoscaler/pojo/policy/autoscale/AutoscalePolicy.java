@@ -34,6 +34,8 @@ public class AutoscalePolicy implements Serializable {
     private boolean isPublic;
     private int tenantId;
     private float instanceRoundingFactor;
+    private String scalingDecisionEngine;
+    private String forecastingModel;
 
     /**
      * Gets the value of the loadThresholds property.
@@ -160,4 +162,41 @@ public class AutoscalePolicy implements Serializable {
     public void setInstanceRoundingFactor(float instanceRoundingFactor) {
         this.instanceRoundingFactor = instanceRoundingFactor;
     }
+
+    /**
+     * Gets the name of the scaling decision engine, drools engine is used if not set. The java
+     * engine is used only if enabled in autoscaler.xml.
+     *
+     * @return drools or class name of a custom scaling decision engine
+     */
+    public String getScalingDecisionEngine() {
+        return scalingDecisionEngine;
+    }
+
+    /**
+     * Sets the name of the scaling decision engine.
+     *
+     * @param scalingDecisionEngine drools or class name of a custom scaling decision engine
+     */
+    public void setScalingDecisionEngine(String scalingDecisionEngine) {
+        this.scalingDecisionEngine = scalingDecisionEngine;
+    }
+
+    /**
+     * Gets the name of the model used to forecast the statistics, derivative model is used if not set.
+     *
+     * @return derivative, ewma or holt-winters
+     */
+    public String getForecastingModel() {
+        return forecastingModel;
+    }
+
+    /**
+     * Sets the name of the model used to forecast the statistics.
+     *
+     * @param forecastingModel derivative, ewma or holt-winters
+     */
+    public void setForecastingModel(String forecastingModel) {
+        this.forecastingModel = forecastingModel;
+    }
 }
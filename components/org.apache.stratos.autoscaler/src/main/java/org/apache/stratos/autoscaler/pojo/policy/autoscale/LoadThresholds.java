@@ -30,6 +30,7 @@ public class LoadThresholds implements Serializable {
     private float requestsInFlightThreshold;
     private float memoryConsumptionThreshold;
     private float loadAverageThreshold;
+    private float requestLatencyThreshold;
 
     /**
      * Gets the value of the requestsInFlightThreshold property.
@@ -91,4 +92,23 @@ public class LoadThresholds implements Serializable {
         this.loadAverageThreshold = value;
     }
 
+    /**
+     * Gets the value of the requestLatencyThreshold property, the 95th percentile request
+     * latency in milliseconds. Zero disables request latency based scaling.
+     *
+     * @return request latency threshold
+     */
+    public float getRequestLatencyThreshold() {
+        return requestLatencyThreshold;
+    }
+
+    /**
+     * Sets the value of the requestLatencyThreshold property.
+     *
+     * @param value request latency threshold in milliseconds
+     */
+    public void setRequestLatencyThreshold(float value) {
+        this.requestLatencyThreshold = value;
+    }
+
 }
\ No newline at end of file
@@ -104,4 +104,14 @@ public class AutoscalerRuleEvaluator {
         ksession.setGlobal("log", RuleLog.getInstance());
         return ksession;
     }
+
+    /**
+     * Returns a rule session for the given drools file backed by a new stateful knowledge session.
+     *
+     * @param drlFileName drools file name
+     * @return rule session
+     */
+    public RuleSession getRuleSession(String drlFileName) {
+        return new StatefulRuleSession(getStatefulSession(drlFileName));
+    }
 }
@@ -16,23 +16,21 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.stratos.load.balancer.statistics;
-
-import java.util.concurrent.Callable;
+package org.apache.stratos.autoscaler.rule;
 
 /**
- * In-flight request decrement callable definition.
+ * Scaling decision engine which evaluates the checks using the drools files
+ * found in the drools configuration directory.
  */
-public class InFlightRequestDecrementCallable implements Callable<Object> {
-    private String clusterId;
+public class DroolsScalingDecisionEngine implements ScalingDecisionEngine {
 
-    public InFlightRequestDecrementCallable(String clusterId) {
-        this.clusterId = clusterId;
+    @Override
+    public boolean isSupported(String drlFileName) {
+        return true;
     }
 
     @Override
-    public Object call() throws Exception {
-        LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
-        return null;
+    public RuleSession createRuleSession(String drlFileName) {
+        return AutoscalerRuleEvaluator.getInstance().getRuleSession(drlFileName);
     }
 }
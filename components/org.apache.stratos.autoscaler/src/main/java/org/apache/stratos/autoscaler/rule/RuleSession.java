@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.rule;
+
+import java.util.Map;
+
+/**
+ * A rule session used to evaluate a fact against the rules of a drools file.
+ */
+public interface RuleSession {
+
+    /**
+     * Evaluate the given fact against the rules and start the instances requested by the rules.
+     *
+     * @param fact    fact to be evaluated
+     * @param globals rule globals for this evaluation, key=global name
+     */
+    void evaluate(Object fact, Map<String, Object> globals);
+}
@@ -24,6 +24,8 @@ package org.apache.stratos.autoscaler.rule;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.algorithms.PartitionAlgorithm;
+import org.apache.stratos.autoscaler.algorithms.forecast.StatsForecaster;
+import org.apache.stratos.autoscaler.algorithms.forecast.StatsTimeSeries;
 import org.apache.stratos.autoscaler.algorithms.partition.OneAfterAnother;
 import org.apache.stratos.autoscaler.algorithms.partition.RoundRobin;
 import org.apache.stratos.autoscaler.client.AutoscalerCloudControllerClient;
@@ -34,10 +36,17 @@ import org.apache.stratos.autoscaler.context.member.MemberStatsContext;
 import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;
 import org.apache.stratos.autoscaler.context.partition.network.NetworkPartitionContext;
 import org.apache.stratos.autoscaler.event.publisher.InstanceNotificationPublisher;
+import org.apache.stratos.autoscaler.exception.cartridge.SpawningException;
 import org.apache.stratos.autoscaler.monitor.cluster.ClusterMonitor;
+import org.apache.stratos.cloud.controller.stub.domain.InstanceContext;
 import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
 import org.apache.stratos.common.constants.StratosConstants;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This will have utility methods that need to be executed from rule file...
  */
@@ -46,6 +55,9 @@ public class RuleTasksDelegator {
     private static final Log log = LogFactory.getLog(RuleTasksDelegator.class);
     private static boolean arspiIsSet = false;
 
+    // Instances requested by the rules, started once the rules are fired
+    private final List<SpawnRequest> spawnRequests = new ArrayList<SpawnRequest>();
+
     public double getPredictedValueForNextMinute(float average, float gradient, float secondDerivative, int timeInterval) {
         double predictedValue;
 //        s = u * t + 0.5 * a * t * t
@@ -107,6 +119,37 @@ public class RuleTasksDelegator {
         return min;
     }
 
+    /**
+     * Calculate the number of instances required to bring the request latency down to the threshold,
+     * assuming latency is proportional to the load of each active instance.
+     *
+     * @param threshold       request latency threshold, zero if latency based scaling is disabled
+     * @param latency         average request latency
+     * @param activeInstances number of active instances
+     * @return number of instances required, zero if latency based scaling is disabled
+     */
+    public int getNumberOfInstancesRequiredBasedOnRequestLatency(float threshold, float latency,
+                                                                 int activeInstances) {
+        if ((threshold <= 0) || (activeInstances <= 0)) {
+            return 0;
+        }
+        return (int) Math.ceil(activeInstances * latency / threshold);
+    }
+
+    public int getMaxNumberOfInstancesRequired(int numberOfInstancesRequiredBasedOnRif,
+                                               int numberOfInstancesRequiredBasedOnMemoryConsumption,
+                                               boolean mcReset, int numberOfInstancesReuquiredBasedOnLoadAverage,
+                                               boolean laReset, int numberOfInstancesRequiredBasedOnRequestLatency,
+                                               boolean rlReset) {
+        int numberOfInstances = getMaxNumberOfInstancesRequired(numberOfInstancesRequiredBasedOnRif,
+                numberOfInstancesRequiredBasedOnMemoryConsumption, mcReset,
+                numberOfInstancesReuquiredBasedOnLoadAverage, laReset);
+        if (rlReset) {
+            numberOfInstances = Math.max(numberOfInstances, numberOfInstancesRequiredBasedOnRequestLatency);
+        }
+        return numberOfInstances;
+    }
+
     public int getMaxNumberOfInstancesRequired(int numberOfInstancesRequiredBasedOnRif,
                                                int numberOfInstancesRequiredBasedOnMemoryConsumption,
                                                boolean mcReset, int numberOfInstancesReuquiredBasedOnLoadAverage,
@@ -166,7 +209,9 @@ public class RuleTasksDelegator {
     }
 
     /**
-     * Invoked from drools to start an instance.
+     * Invoked from drools to start an instance. The instance is requested from cloud controller
+     * together with the other instances requested by the same rule execution, once the rules
+     * are fired. A member slot is reserved in the partition until then.
      *
      * @param clusterMonitorPartitionContext Cluster monitor partition context
      * @param clusterId                      Cluster id
@@ -190,32 +235,126 @@ public class RuleTasksDelegator {
                             getInstanceContext(clusterInstanceId);
             minimumCountOfNetworkPartition = clusterInstanceContext.getMinInstanceCount();
 
-            MemberContext memberContext =
-                    AutoscalerCloudControllerClient.getInstance()
-                            .startInstance(clusterMonitorPartitionContext.getPartition(),
-                                    clusterId,
-                                    clusterInstanceId, clusterMonitorPartitionContext.getNetworkPartitionId(),
-                                    minimumCountOfNetworkPartition, scalingDecisionId);
-            if (memberContext != null) {
-                ClusterLevelPartitionContext partitionContext = clusterInstanceContext.
-                        getPartitionCtxt(clusterMonitorPartitionContext.getPartitionId());
+            InstanceContext instanceContext = AutoscalerCloudControllerClient.getInstance()
+                    .createInstanceContext(clusterMonitorPartitionContext.getPartition(),
+                            clusterId,
+                            clusterInstanceId, clusterMonitorPartitionContext.getNetworkPartitionId(),
+                            minimumCountOfNetworkPartition, scalingDecisionId);
+            addSpawnRequest(clusterMonitorPartitionContext, clusterInstanceContext, instanceContext);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Instance requested: [cluster] %s [cluster-instance] %s [partition] %s",
+                        clusterId, clusterInstanceId, clusterMonitorPartitionContext.getPartitionId()));
+            }
+        } catch (Exception e) {
+            String message = String.format("Could not start instance: [cluster-id] %s [instance-id] %s",
+                    clusterId, clusterInstanceId);
+            log.error(message, e);
+            throw new RuntimeException(message, e);
+        }
+    }
+
+    /**
+     * Reserve a member slot in the partition and queue the instance to be started by
+     * {@link #spawnRequestedInstances()}.
+     *
+     * @param partitionContext       partition the instance is requested in
+     * @param clusterInstanceContext cluster instance the instance is requested for
+     * @param instanceContext        instance context to be sent to cloud controller
+     */
+    protected void addSpawnRequest(ClusterLevelPartitionContext partitionContext,
+                                   ClusterInstanceContext clusterInstanceContext, InstanceContext instanceContext) {
+        partitionContext.incrementRequestedMemberCount();
+        synchronized (spawnRequests) {
+            spawnRequests.add(new SpawnRequest(partitionContext, clusterInstanceContext, instanceContext));
+        }
+    }
+
+    /**
+     * Release the member slots reserved for instances requested since the last invocation
+     * without starting them. Invoked when a rule execution does not complete.
+     */
+    public void discardRequestedInstances() {
+        List<SpawnRequest> requests;
+        synchronized (spawnRequests) {
+            if (spawnRequests.isEmpty()) {
+                return;
+            }
+            requests = new ArrayList<SpawnRequest>(spawnRequests);
+            spawnRequests.clear();
+        }
+        for (SpawnRequest request : requests) {
+            request.partitionContext.decrementRequestedMemberCount();
+        }
+        for (Map.Entry<String, Integer> entry : countRequestsByCluster(requests).entrySet()) {
+            log.warn(String.format("Instances requested by an incomplete rule execution discarded: [cluster] %s " +
+                    "[count] %d", entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Start the instances requested by the rules since the last invocation with a single cloud
+     * controller service call and add them as pending members.
+     */
+    public void spawnRequestedInstances() {
+        List<SpawnRequest> requests;
+        synchronized (spawnRequests) {
+            if (spawnRequests.isEmpty()) {
+                return;
+            }
+            requests = new ArrayList<SpawnRequest>(spawnRequests);
+            spawnRequests.clear();
+        }
+
+        InstanceContext[] instanceContexts = new InstanceContext[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            instanceContexts[i] = requests.get(i).instanceContext;
+        }
+        Map<String, Integer> clusterIdToCountMap = countRequestsByCluster(requests);
+        try {
+            for (Map.Entry<String, Integer> entry : clusterIdToCountMap.entrySet()) {
+                log.info(String.format("Trying to spawn instances via cloud controller: [cluster] %s [count] %d",
+                        entry.getKey(), entry.getValue()));
+            }
+            MemberContext[] memberContexts = AutoscalerCloudControllerClient.getInstance()
+                    .startInstances(instanceContexts);
+            if ((memberContexts == null) || (memberContexts.length == 0)) {
+                log.error("Member contexts returned from cloud controller are empty");
+                return;
+            }
+            boolean[] matched = new boolean[requests.size()];
+            for (MemberContext memberContext : memberContexts) {
+                if (memberContext == null) {
+                    continue;
+                }
+                SpawnRequest request = null;
+                for (int i = 0; i < requests.size(); i++) {
+                    if ((!matched[i]) && requests.get(i).matches(memberContext)) {
+                        matched[i] = true;
+                        request = requests.get(i);
+                        break;
+                    }
+                }
+                if (request == null) {
+                    log.warn(String.format("Spawn request not found for member: [member] %s [partition] %s",
+                            memberContext.getMemberId(), memberContext.getPartition().getId()));
+                    continue;
+                }
+                ClusterLevelPartitionContext partitionContext = request.clusterInstanceContext.
+                        getPartitionCtxt(request.partitionContext.getPartitionId());
                 partitionContext.addPendingMember(memberContext);
                 partitionContext.addMemberStatsContext(new MemberStatsContext(memberContext.getMemberId()));
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Pending member added, [member] %s [partition] %s", memberContext.getMemberId(),
                             memberContext.getPartition().getId()));
                 }
-
-            } else {
-                if (log.isErrorEnabled()) {
-                    log.error("Member context returned from cloud controller is null");
-                }
             }
-        } catch (Exception e) {
-            String message = String.format("Could not start instance: [cluster-id] %s [instance-id] %s",
-                    clusterId, clusterInstanceId);
-            log.error(message, e);
-            throw new RuntimeException(message, e);
+        } catch (SpawningException e) {
+            log.error(String.format("Could not start instances: [clusters] %s", clusterIdToCountMap), e);
+        } finally {
+            // Release member slots reserved, started instances are now counted as pending members
+            for (SpawnRequest request : requests) {
+                request.partitionContext.decrementRequestedMemberCount();
+            }
         }
     }
 
@@ -321,7 +460,42 @@ public class RuleTasksDelegator {
         return (int) Math.ceil(predictedValue);
     }
 
+    /**
+     * Forecast the statistic from its history using the forecasting model of the cluster instance.
+     *
+     * @return forecast value or null if the derivative model is used or there is not enough history
+     */
+    private Double forecast(ClusterInstanceContext clusterInstanceContext, StatsTimeSeries history, String statName) {
+        if (history == null) {
+            return null;
+        }
+        Double forecastValue = StatsForecaster.getInstance().forecast(clusterInstanceContext.getForecastingModel(),
+                history);
+        if ((forecastValue != null) && log.isDebugEnabled()) {
+            log.debug(String.format("Forecast %s: [cluster-instance-id] %s [forecasting-model] %s [samples] %d " +
+                            "[forecast] %s", statName, clusterInstanceContext.getId(),
+                    clusterInstanceContext.getForecastingModel(), history.size(), forecastValue));
+        }
+        return forecastValue;
+    }
+
+    public double getRequestsInFlightPredictedValue(ClusterInstanceContext clusterInstanceContext) {
+        Double forecastValue = forecast(clusterInstanceContext, clusterInstanceContext.getRequestsInFlightHistory(),
+                "requests in flight");
+        if (forecastValue != null) {
+            return forecastValue;
+        }
+        return getPredictedValueForNextMinute(clusterInstanceContext.getAverageRequestsInFlight(),
+                clusterInstanceContext.getRequestsInFlightGradient(),
+                clusterInstanceContext.getRequestsInFlightSecondDerivative(), 1);
+    }
+
     public double getLoadAveragePredictedValue(ClusterInstanceContext clusterInstanceContext) {
+        Double forecastValue = forecast(clusterInstanceContext, clusterInstanceContext.getLoadAverageHistory(),
+                "load average");
+        if (forecastValue != null) {
+            return forecastValue;
+        }
         double loadAveragePredicted = 0.0d;
         int totalMemberCount = 0;
         for (ClusterLevelPartitionContext partitionContext : clusterInstanceContext.getPartitionCtxts()) {
@@ -354,6 +528,11 @@ public class RuleTasksDelegator {
     }
 
     public double getMemoryConsumptionPredictedValue(ClusterInstanceContext clusterInstanceContext) {
+        Double forecastValue = forecast(clusterInstanceContext, clusterInstanceContext.getMemoryConsumptionHistory(),
+                "memory consumption");
+        if (forecastValue != null) {
+            return forecastValue;
+        }
         double memoryConsumptionPredicted = 0.0d;
         int totalMemberCount = 0;
         for (ClusterLevelPartitionContext partitionContext : clusterInstanceContext.getPartitionCtxts()) {
@@ -383,4 +562,40 @@ public class RuleTasksDelegator {
             return 0;
         }
     }
+
+    /**
+     * Returns the number of requested instances of each cluster, key=cluster id.
+     */
+    private static Map<String, Integer> countRequestsByCluster(List<SpawnRequest> requests) {
+        Map<String, Integer> clusterIdToCountMap = new LinkedHashMap<String, Integer>();
+        for (SpawnRequest request : requests) {
+            String clusterId = request.instanceContext.getClusterId();
+            Integer count = clusterIdToCountMap.get(clusterId);
+            clusterIdToCountMap.put(clusterId, (count == null) ? 1 : count + 1);
+        }
+        return clusterIdToCountMap;
+    }
+
+    /**
+     * Instance requested by a rule.
+     */
+    private static class SpawnRequest {
+        private final ClusterLevelPartitionContext partitionContext;
+        private final ClusterInstanceContext clusterInstanceContext;
+        private final InstanceContext instanceContext;
+
+        private SpawnRequest(ClusterLevelPartitionContext partitionContext,
+                             ClusterInstanceContext clusterInstanceContext, InstanceContext instanceContext) {
+            this.partitionContext = partitionContext;
+            this.clusterInstanceContext = clusterInstanceContext;
+            this.instanceContext = instanceContext;
+        }
+
+        private boolean matches(MemberContext memberContext) {
+            return instanceContext.getClusterId().equals(memberContext.getClusterId())
+                    && instanceContext.getClusterInstanceId().equals(memberContext.getClusterInstanceId())
+                    && (memberContext.getPartition() != null)
+                    && partitionContext.getPartitionId().equals(memberContext.getPartition().getId());
+        }
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.rule;
+
+/**
+ * Scaling decision engines evaluate the autoscaler checks (minimum check, scale check,
+ * obsolete check, etc.) of cluster instances. Each check is identified by the name of the
+ * drools file shipped for it. An engine may only support a subset of the checks, the rest
+ * of the checks are evaluated by the drools engine.
+ */
+public interface ScalingDecisionEngine {
+
+    /**
+     * @param drlFileName drools file name of the check
+     * @return whether this engine can evaluate the given check
+     */
+    boolean isSupported(String drlFileName);
+
+    /**
+     * Create a rule session to evaluate the given check of a cluster instance.
+     *
+     * @param drlFileName drools file name of the check
+     * @return rule session
+     */
+    RuleSession createRuleSession(String drlFileName);
+}
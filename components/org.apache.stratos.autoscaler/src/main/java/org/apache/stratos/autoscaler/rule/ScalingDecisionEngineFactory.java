@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.rule;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates scaling decision engines by name. An engine could be referred by "drools" or by the
+ * class name of a custom {@link ScalingDecisionEngine} implementation, the drools engine is the
+ * default.
+ */
+public class ScalingDecisionEngineFactory {
+
+    private static final Log log = LogFactory.getLog(ScalingDecisionEngineFactory.class);
+
+    private static final ScalingDecisionEngine droolsEngine = new DroolsScalingDecisionEngine();
+    private static final Map<String, ScalingDecisionEngine> engines = new ConcurrentHashMap<String, ScalingDecisionEngine>();
+
+    static {
+        engines.put(AutoscalerConstants.SCALING_DECISION_ENGINE_DROOLS, droolsEngine);
+    }
+
+    /**
+     * Returns the scaling decision engine with the given name, the drools engine is returned
+     * if the name is empty or the engine could not be created.
+     *
+     * @param engineName engine name or class name of the engine
+     * @return scaling decision engine
+     */
+    public static ScalingDecisionEngine getScalingDecisionEngine(String engineName) {
+        if (StringUtils.isBlank(engineName)) {
+            return droolsEngine;
+        }
+        ScalingDecisionEngine engine = engines.get(engineName);
+        if (engine == null) {
+            synchronized (engines) {
+                engine = engines.get(engineName);
+                if (engine == null) {
+                    try {
+                        engine = (ScalingDecisionEngine) Class.forName(engineName).newInstance();
+                        engines.put(engineName, engine);
+                        if (log.isInfoEnabled()) {
+                            log.info(String.format("Scaling decision engine loaded: [engine] %s", engineName));
+                        }
+                    } catch (Exception e) {
+                        log.error(String.format("Could not load scaling decision engine, using drools engine " +
+                                "instead: [engine] %s", engineName), e);
+                        return droolsEngine;
+                    }
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Create a rule session for the given check using the given engine, checks not supported
+     * by the engine are evaluated by the drools engine.
+     *
+     * @param engineName  engine name or class name of the engine
+     * @param drlFileName drools file name of the check
+     * @return rule session
+     */
+    public static RuleSession createRuleSession(String engineName, String drlFileName) {
+        ScalingDecisionEngine engine = getScalingDecisionEngine(engineName);
+        if (!engine.isSupported(drlFileName)) {
+            engine = droolsEngine;
+        }
+        return engine.createRuleSession(drlFileName);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.rule;
+
+import org.drools.runtime.StatefulKnowledgeSession;
+import org.drools.runtime.rule.FactHandle;
+
+import java.util.Map;
+
+/**
+ * Rule session backed by a stateful knowledge session owned by a single cluster instance.
+ * The fact is inserted on the first evaluation and updated on subsequent evaluations.
+ */
+public class StatefulRuleSession implements RuleSession {
+
+    private final StatefulKnowledgeSession ksession;
+    private final RuleTasksDelegator delegator;
+    private FactHandle factHandle;
+
+    public StatefulRuleSession(StatefulKnowledgeSession ksession) {
+        this(ksession, new RuleTasksDelegator());
+    }
+
+    public StatefulRuleSession(StatefulKnowledgeSession ksession, RuleTasksDelegator delegator) {
+        this.ksession = ksession;
+        this.delegator = delegator;
+        ksession.setGlobal("delegator", delegator);
+    }
+
+    @Override
+    public synchronized void evaluate(Object fact, Map<String, Object> globals) {
+        for (Map.Entry<String, Object> global : globals.entrySet()) {
+            ksession.setGlobal(global.getKey(), global.getValue());
+        }
+        if (factHandle == null) {
+            factHandle = ksession.insert(fact);
+        } else {
+            ksession.update(factHandle, fact);
+        }
+        try {
+            ksession.fireAllRules();
+            // Start instances requested by the rules with a single cloud controller call
+            delegator.spawnRequestedInstances();
+        } finally {
+            // Release member slots reserved by the rules if they did not complete
+            delegator.discardRequestedInstances();
+        }
+    }
+}
@@ -56,7 +56,22 @@ public final class AutoscalerConstants {
     /**
      * Cluster monitoring  interval
      */
+    public static final String SCALING_DECISION_ENGINE_DROOLS = "drools";
+    public static final String FORECASTING_MODEL_DERIVATIVE = "derivative";
+    public static final String FORECASTING_MODEL_EWMA = "ewma";
+    public static final String FORECASTING_MODEL_HOLT_WINTERS = "holt-winters";
+    public static final String FORECASTING_SAMPLE_INTERVAL = "autoscaler.forecasting.sampleInterval";
+    public static final String FORECASTING_SEASON_PERIOD = "autoscaler.forecasting.seasonPeriod";
+    public static final String FORECASTING_HORIZON = "autoscaler.forecasting.horizon";
+    public static final String FORECASTING_ALPHA = "autoscaler.forecasting.alpha";
+    public static final String FORECASTING_BETA = "autoscaler.forecasting.beta";
+    public static final String FORECASTING_GAMMA = "autoscaler.forecasting.gamma";
     public static final String Cluster_MONITOR_INTERVAL = "autoscaler.cluster.monitorInterval";
+    public static final String CLUSTER_EVENT_DRIVEN_SCALING_ENABLED = "autoscaler.cluster.eventDrivenScaling.enabled";
+    public static final String CLUSTER_EVENT_DRIVEN_SCALING_MIN_INTERVAL =
+            "autoscaler.cluster.eventDrivenScaling.minInterval";
+    public static final String CLUSTER_EVENT_DRIVEN_SCALING_DEBOUNCE_DELAY =
+            "autoscaler.cluster.eventDrivenScaling.debounceDelay";
 
     public static final String SERVICE_GROUP = "/groups";
 
@@ -74,7 +89,13 @@ public final class AutoscalerConstants {
     public static final String MONITOR_THREAD_POOL_ID = "monitor.thread.pool";
     public static final String STATS_PUBLISHER_THREAD_POOL_ID = "autoscaler.stats.publisher.thread.pool";
     public static final String MONITOR_THREAD_POOL_SIZE = "monitor.thread.pool.size";
-    public static final String CLUSTER_MONITOR_SCHEDULER_ID = "cluster.monitor.scheduler";
+    public static final String SCALE_CHECK_SCHEDULER_ID = "autoscaler.scale.check.scheduler";
+    public static final String MONITOR_SCHEDULER_THREAD_POOL_ID = "autoscaler.monitor.scheduler.worker.thread.pool";
+    public static final String MONITOR_SCHEDULER_THREAD_POOL_SIZE = "autoscaler.monitor.scheduler.thread.pool.size";
+    public static final int MONITOR_SCHEDULER_DEFAULT_THREAD_POOL_SIZE = 10;
+    // maximum jitter added to a monitor tick as a percentage of the monitor interval
+    public static final String MONITOR_SCHEDULER_JITTER = "autoscaler.monitor.scheduler.jitter";
+    public static final int MONITOR_SCHEDULER_DEFAULT_JITTER = 10;
     public static final String MEMBER_FAULT_EVENT_NAME = "member_fault";
     //scheduler
     public static final int SCHEDULE_DEFAULT_INITIAL_DELAY = 30;
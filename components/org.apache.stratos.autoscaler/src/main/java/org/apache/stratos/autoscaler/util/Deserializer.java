@@ -20,8 +20,12 @@ package org.apache.stratos.autoscaler.util;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.serialization.SerializerFactory;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 
 public class Deserializer {
 
@@ -74,21 +78,7 @@ public class Deserializer {
      * @throws Exception if the deserialization is failed.
      */
     public static Object deserializeFromByteArray(byte[] bytes) throws IOException, ClassNotFoundException {
-
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        ObjectInput in = null;
-        try {
-            in = new ObjectInputStream(bis);
-            Object o = in.readObject();
-
-            return o;
-
-        } finally {
-            bis.close();
-            if (in != null) {
-                in.close();
-            }
-        }
+        return SerializerFactory.getSerializer(bytes).deserialize(bytes, Deserializer.class.getClassLoader());
     }
 
 }
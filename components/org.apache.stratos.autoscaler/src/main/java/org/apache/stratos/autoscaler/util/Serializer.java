@@ -21,35 +21,19 @@ package org.apache.stratos.autoscaler.util;
 */
 
 
-import java.io.ByteArrayOutputStream;
+import org.apache.stratos.common.serialization.SerializerFactory;
+
 import java.io.IOException;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
 
 public class Serializer {
     /**
-     * Serialize a object to a byte array.
+     * Serialize a object to a byte array using the configured registry serializer.
      *
      * @param serializableObj
      * @return byte[]
      * @throws IOException
      */
     public static byte[] serializeToByteArray(Object serializableObj) throws IOException {
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutput out = null;
-        try {
-            out = new ObjectOutputStream(bos);
-            out.writeObject(serializableObj);
-
-            return bos.toByteArray();
-
-        } finally {
-            if (out != null) {
-                out.close();
-            }
-            bos.close();
-        }
-
+        return SerializerFactory.getSerializer().serialize(serializableObj);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.algorithms.forecast.ExponentialMovingAverage;
+import org.apache.stratos.autoscaler.algorithms.forecast.HoltWinters;
+import org.apache.stratos.autoscaler.algorithms.forecast.StatsTimeSeries;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the stats time series and the forecasting algorithms.
+ */
+public class ForecastingAlgorithmTest {
+
+    @Test
+    public void testStatsTimeSeries() {
+        StatsTimeSeries timeSeries = new StatsTimeSeries(1000, 4);
+        // Samples within an interval are averaged
+        timeSeries.addSample(10, 0);
+        timeSeries.addSample(20, 500);
+        assertArrayEquals(new float[]{15}, timeSeries.getValues(), 0.001f);
+
+        // Intervals without samples repeat the previous value
+        timeSeries.addSample(30, 3000);
+        assertArrayEquals(new float[]{15, 15, 15, 30}, timeSeries.getValues(), 0.001f);
+
+        // Samples older than the latest interval are ignored
+        timeSeries.addSample(100, 2000);
+        assertArrayEquals(new float[]{15, 15, 15, 30}, timeSeries.getValues(), 0.001f);
+
+        // Oldest samples are overwritten once the capacity is reached
+        timeSeries.addSample(40, 4000);
+        timeSeries.addSample(50, 5000);
+        assertArrayEquals(new float[]{15, 30, 40, 50}, timeSeries.getValues(), 0.001f);
+        assertEquals(4, timeSeries.size());
+    }
+
+    @Test
+    public void testExponentialMovingAverage() {
+        ExponentialMovingAverage ewma = new ExponentialMovingAverage(0.5);
+        assertEquals(10, ewma.forecast(new float[]{10}, 1), 0.001);
+        assertEquals(17.5, ewma.forecast(new float[]{10, 10, 20, 20}, 1), 0.001);
+    }
+
+    @Test
+    public void testHoltWintersTrend() {
+        // Linear trend is extrapolated until two seasons of samples are available
+        HoltWinters holtWinters = new HoltWinters(0.5, 0.5, 0.5, 10);
+        float[] values = new float[]{10, 20, 30, 40, 50};
+        assertEquals(70, holtWinters.forecast(values, 2), 0.001);
+    }
+
+    @Test
+    public void testHoltWintersSeasonality() {
+        int seasonLength = 24;
+        float[] values = new float[3 * seasonLength];
+        for (int i = 0; i < values.length; i++) {
+            // Daily peak at the 18th hour
+            values[i] = (i % seasonLength == 18) ? 100 : 20;
+        }
+        HoltWinters holtWinters = new HoltWinters(0.3, 0.1, 0.3, seasonLength);
+
+        // Last sample is the 24th hour, the peak is forecast 19 samples ahead
+        double peakForecast = holtWinters.forecast(values, 19);
+        double offPeakForecast = holtWinters.forecast(values, 1);
+        assertTrue("Peak is not forecast: " + peakForecast, peakForecast > 80);
+        assertEquals(20, offPeakForecast, 5);
+    }
+}
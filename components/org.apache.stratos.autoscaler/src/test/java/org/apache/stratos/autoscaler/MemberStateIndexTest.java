@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.context.partition.MemberStateIndex;
+import org.apache.stratos.autoscaler.context.partition.MemberStateIndex.MemberState;
+import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests member state transitions and counts of the member state index.
+ */
+public class MemberStateIndexTest {
+
+    @Test
+    public void testStateTransitions() {
+        MemberStateIndex index = new MemberStateIndex();
+        index.add(createMember("member1"), MemberState.PENDING);
+        index.add(createMember("member2"), MemberState.PENDING);
+
+        assertEquals(2, index.getMemberCount(MemberState.PENDING));
+        assertNotNull(index.transition("member1", MemberState.PENDING, MemberState.ACTIVE));
+        assertEquals(1, index.getMemberCount(MemberState.PENDING));
+        assertEquals(1, index.getMemberCount(MemberState.ACTIVE));
+        assertEquals(MemberState.ACTIVE, index.getState("member1"));
+        assertTrue(index.contains("member1", MemberState.ACTIVE));
+        assertFalse(index.contains("member1", MemberState.PENDING));
+
+        // Member is not in the expected state
+        assertNull(index.transition("member1", MemberState.PENDING, MemberState.OBSOLETE));
+        assertNull(index.transition("member3", MemberState.PENDING, MemberState.ACTIVE));
+        assertEquals(MemberState.ACTIVE, index.getState("member1"));
+
+        assertNull(index.remove("member2", MemberState.ACTIVE));
+        assertNotNull(index.remove("member2", MemberState.PENDING));
+        assertEquals(0, index.getMemberCount(MemberState.PENDING));
+        assertNull(index.getState("member2"));
+        assertEquals(0, index.getStateChangedTime("member2"));
+    }
+
+    @Test
+    public void testAddExistingMember() {
+        MemberStateIndex index = new MemberStateIndex();
+        MemberContext member = createMember("member1");
+        index.add(member, MemberState.ACTIVE);
+        index.add(member, MemberState.TERMINATION_PENDING);
+
+        assertEquals(0, index.getMemberCount(MemberState.ACTIVE));
+        assertEquals(1, index.getMemberCount(MemberState.TERMINATION_PENDING));
+        assertSame(member, index.getMember("member1", MemberState.TERMINATION_PENDING));
+        assertTrue(index.getStateChangedTime("member1") > 0);
+
+        // Adding or moving a member to its current state keeps it indexed
+        index.add(member, MemberState.TERMINATION_PENDING);
+        assertNotNull(index.transition("member1", MemberState.TERMINATION_PENDING, MemberState.TERMINATION_PENDING));
+        assertEquals(1, index.getMemberCount(MemberState.TERMINATION_PENDING));
+        assertTrue(index.contains("member1", MemberState.TERMINATION_PENDING));
+    }
+
+    @Test
+    public void testIterationWhileMovingMembers() {
+        MemberStateIndex index = new MemberStateIndex();
+        for (int i = 0; i < 10; i++) {
+            index.add(createMember("member" + i), MemberState.PENDING);
+        }
+
+        int moved = 0;
+        for (MemberContext member : index.getMembers(MemberState.PENDING)) {
+            if (index.transition(member.getMemberId(), MemberState.PENDING, MemberState.OBSOLETE) != null) {
+                moved++;
+            }
+        }
+        assertEquals(10, moved);
+        assertEquals(10, index.getMemberMap(MemberState.OBSOLETE).size());
+
+        index.clear(MemberState.OBSOLETE);
+        assertEquals(0, index.getMemberCount(MemberState.OBSOLETE));
+        assertNull(index.getMember("member0"));
+    }
+
+    private static MemberContext createMember(String memberId) {
+        MemberContext memberContext = new MemberContext();
+        memberContext.setMemberId(memberId);
+        return memberContext;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.monitor.MonitorScheduler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Monitor scheduler test.
+ */
+public class MonitorSchedulerTest {
+
+    @Test
+    public void testMonitorTicks() throws Exception {
+        int monitorCount = 500;
+        List<CountingTask> tasks = new ArrayList<CountingTask>();
+        List<MonitorScheduler.ScheduledMonitor> scheduledMonitors = new ArrayList<MonitorScheduler.ScheduledMonitor>();
+        for (int i = 0; i < monitorCount; i++) {
+            CountingTask task = new CountingTask();
+            tasks.add(task);
+            scheduledMonitors.add(MonitorScheduler.getInstance().schedule("monitor-" + i, task, 50));
+        }
+        Thread.sleep(1000);
+
+        for (MonitorScheduler.ScheduledMonitor scheduledMonitor : scheduledMonitors) {
+            scheduledMonitor.cancel();
+        }
+        for (int i = 0; i < monitorCount; i++) {
+            CountingTask task = tasks.get(i);
+            assertTrue("Monitor was not executed periodically: " + i, task.count.get() >= 5);
+            assertFalse("Ticks of the same monitor overlapped: " + i, task.overlapped);
+            assertEquals(task.count.get(), scheduledMonitors.get(i).getTickCount());
+        }
+
+        // No ticks should be executed after cancelling
+        Thread.sleep(100);
+        int[] counts = new int[monitorCount];
+        for (int i = 0; i < monitorCount; i++) {
+            counts[i] = tasks.get(i).count.get();
+        }
+        Thread.sleep(200);
+        for (int i = 0; i < monitorCount; i++) {
+            assertEquals("Monitor was executed after cancelling: " + i, counts[i], tasks.get(i).count.get());
+        }
+    }
+
+    @Test
+    public void testFailingMonitorIsRescheduled() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        MonitorScheduler.ScheduledMonitor scheduledMonitor = MonitorScheduler.getInstance().schedule(
+                "failing-monitor", new Runnable() {
+                    @Override
+                    public void run() {
+                        count.incrementAndGet();
+                        throw new RuntimeException("Monitor failed");
+                    }
+                }, 20);
+        Thread.sleep(500);
+        scheduledMonitor.cancel();
+        assertTrue("Failed monitor was not rescheduled", count.get() > 1);
+    }
+
+    private static class CountingTask implements Runnable {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile boolean overlapped;
+
+        @Override
+        public void run() {
+            if (!running.compareAndSet(false, true)) {
+                overlapped = true;
+            }
+            count.incrementAndGet();
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;
+import org.apache.stratos.autoscaler.rule.RuleTasksDelegator;
+import org.apache.stratos.autoscaler.rule.StatefulRuleSession;
+import org.apache.stratos.cloud.controller.stub.domain.InstanceContext;
+import org.drools.KnowledgeBase;
+import org.drools.KnowledgeBaseFactory;
+import org.drools.builder.KnowledgeBuilder;
+import org.drools.builder.KnowledgeBuilderFactory;
+import org.drools.builder.ResourceType;
+import org.drools.io.ResourceFactory;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies that member slots reserved by a rule are released when the rule execution fails.
+ */
+public class RuleSessionFailureTest {
+
+    private static final String FAILING_RULE = "package org.apache.stratos.autoscaler.rule;\n" +
+            "import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;\n" +
+            "global org.apache.stratos.autoscaler.rule.RuleTasksDelegator delegator;\n" +
+            "rule \"Spawn and fail\"\n" +
+            "when\n" +
+            "    $partitionContext : ClusterLevelPartitionContext()\n" +
+            "then\n" +
+            "    delegator.delegateSpawn($partitionContext, \"cluster1\", \"cluster-instance-1\", \"decision-1\");\n" +
+            "    delegator.delegateSpawn($partitionContext, \"cluster1\", \"cluster-instance-1\", \"decision-1\");\n" +
+            "    throw new IllegalStateException(\"Rule failed\");\n" +
+            "end\n";
+
+    @Test
+    public void testReservationsReleasedWhenRuleThrows() {
+        ClusterLevelPartitionContext partitionContext = new ClusterLevelPartitionContext(900000);
+        partitionContext.setPartitionId("partition-1");
+        ReservingDelegator delegator = new ReservingDelegator();
+        StatefulRuleSession ruleSession = new StatefulRuleSession(
+                createKnowledgeBase().newStatefulKnowledgeSession(), delegator);
+
+        try {
+            ruleSession.evaluate(partitionContext, Collections.<String, Object>emptyMap());
+            fail("Rule failure was not propagated");
+        } catch (RuntimeException expected) {
+            // The rule throws after requesting instances
+        }
+
+        assertEquals(2, delegator.requestCount);
+        assertEquals(0, partitionContext.getRequestedMemberCount());
+        assertFalse(delegator.spawned);
+    }
+
+    private static KnowledgeBase createKnowledgeBase() {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add(ResourceFactory.newByteArrayResource(FAILING_RULE.getBytes()), ResourceType.DRL);
+        if (kbuilder.hasErrors()) {
+            throw new IllegalArgumentException("Could not parse rule: " + kbuilder.getErrors());
+        }
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages(kbuilder.getKnowledgePackages());
+        return kbase;
+    }
+
+    /**
+     * Delegator reserving member slots without looking up the cluster monitor.
+     */
+    private static class ReservingDelegator extends RuleTasksDelegator {
+
+        private int requestCount;
+        private boolean spawned;
+
+        @Override
+        public void delegateSpawn(ClusterLevelPartitionContext clusterMonitorPartitionContext, String clusterId,
+                                  String clusterInstanceId, String scalingDecisionId) {
+            InstanceContext instanceContext = new InstanceContext();
+            instanceContext.setClusterId(clusterId);
+            instanceContext.setClusterInstanceId(clusterInstanceId);
+            addSpawnRequest(clusterMonitorPartitionContext, null, instanceContext);
+            requestCount++;
+        }
+
+        @Override
+        public void spawnRequestedInstances() {
+            spawned = true;
+            super.spawnRequestedInstances();
+        }
+    }
+}
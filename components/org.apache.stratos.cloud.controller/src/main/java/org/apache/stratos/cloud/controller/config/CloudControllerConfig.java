@@ -19,11 +19,13 @@
 
 package org.apache.stratos.cloud.controller.config;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.domain.DataPublisherConfig;
 import org.apache.stratos.cloud.controller.domain.IaasProvider;
 import org.apache.stratos.cloud.controller.domain.TopologyConfig;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 
 import java.util.List;
 
@@ -109,4 +111,37 @@ public class CloudControllerConfig {
     public TopologyConfig getTopologyConfig() {
         return topologyConfig;
     }
+
+    /**
+     * @return true if topology digest events should be published instead of complete topology events
+     */
+    public boolean isTopologyDigestSyncEnabled() {
+        return (topologyConfig != null) && CloudControllerConstants.TOPOLOGY_SYNC_MODE_DIGEST.equals(
+                topologyConfig.getProperty(CloudControllerConstants.TOPOLOGY_SYNC_MODE_PROPERTY));
+    }
+
+    /**
+     * @return number of topology digest events published per complete topology event in digest
+     * sync mode, zero if complete topology events should only be published on request
+     */
+    public int getTopologySyncCompleteTopologyInterval() {
+        if (topologyConfig != null) {
+            String interval = topologyConfig.getProperty(
+                    CloudControllerConstants.TOPOLOGY_SYNC_COMPLETE_TOPOLOGY_INTERVAL_PROPERTY);
+            if (StringUtils.isNotBlank(interval)) {
+                return Integer.parseInt(interval);
+            }
+        }
+        return CloudControllerConstants.DEFAULT_TOPOLOGY_SYNC_COMPLETE_TOPOLOGY_INTERVAL;
+    }
+
+    public int getTopologyEventHistorySize() {
+        if (topologyConfig != null) {
+            String historySize = topologyConfig.getProperty(CloudControllerConstants.TOPOLOGY_EVENT_HISTORY_SIZE_PROPERTY);
+            if (StringUtils.isNotBlank(historySize)) {
+                return Integer.parseInt(historySize);
+            }
+        }
+        return CloudControllerConstants.DEFAULT_TOPOLOGY_EVENT_HISTORY_SIZE;
+    }
 }
@@ -28,16 +28,19 @@ import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesCluster;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesClusterContext;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesHost;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesMaster;
+import org.apache.stratos.cloud.controller.exception.CloudControllerException;
 import org.apache.stratos.cloud.controller.exception.InvalidIaasProviderException;
 import org.apache.stratos.cloud.controller.exception.NonExistingKubernetesClusterException;
 import org.apache.stratos.cloud.controller.exception.NonExistingKubernetesHostException;
 import org.apache.stratos.cloud.controller.iaases.Iaas;
 import org.apache.stratos.cloud.controller.internal.ServiceReferenceHolder;
 import org.apache.stratos.cloud.controller.registry.RegistryManager;
+import org.apache.stratos.cloud.controller.registry.WriteBehindRegistryPersister;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.util.MessagingUtil;
 import org.wso2.carbon.databridge.agent.thrift.AsyncDataPublisher;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 
@@ -195,6 +198,17 @@ public class CloudControllerContext implements Serializable {
     private transient AsyncDataPublisher dataPublisher;
     private boolean coordinator;
 
+    /**
+     * Persists member contexts, cluster contexts and cartridges as separate registry resources
+     * and the rest of the context as a single resource.
+     */
+    private transient WriteBehindRegistryPersister registryPersister;
+
+    /**
+     * Whether the maps persisted as a single resource have been changed since the last persist.
+     */
+    private transient volatile boolean stateChanged;
+
     private CloudControllerContext() {
         // Check clustering status
         AxisConfiguration axisConfiguration = ServiceReferenceHolder.getInstance().getAxisConfiguration();
@@ -225,6 +239,10 @@ public class CloudControllerContext implements Serializable {
                 .getMap(CC_APPLICATION_ID_TO_CLUSTER_ID_TO_PORT_MAPPING_MAP);
         partitionIdToPartitionMap = distributedObjectProvider.getMap(CC_PARTITION_ID_TO_PARTITION_MAP);
 
+        registryPersister = new WriteBehindRegistryPersister("Cloud controller context",
+                MessagingUtil.getNumericSystemProperty(CloudControllerConstants.DEFAULT_PERSISTENCE_WRITE_BEHIND_DELAY,
+                        CloudControllerConstants.PERSISTENCE_WRITE_BEHIND_DELAY));
+
         if (!unitTest) {
             // Update context from the registry
             updateContextFromRegistry();
@@ -304,10 +322,12 @@ public class CloudControllerContext implements Serializable {
 
     public void addCartridge(Cartridge cartridge) {
         cartridgeTypeToCartridgeMap.put(cartridge.getType(), cartridge);
+        markUpdated(getCartridgeResourcePath(cartridge.getType()), cartridge);
     }
 
     public void addNetworkPartition(NetworkPartition networkPartition) {
         networkPartitionIDToNetworkPartitionMap.put(networkPartition.getId(), networkPartition);
+        markStateChanged();
     }
 
     public NetworkPartition getNetworkPartition(String networkPartitionID) {
@@ -320,16 +340,19 @@ public class CloudControllerContext implements Serializable {
 
     public void removeNetworkPartition(String networkPartitionID) {
         networkPartitionIDToNetworkPartitionMap.remove(networkPartitionID);
+        markStateChanged();
     }
 
     public void removeCartridge(Cartridge cartridge) {
         if (cartridgeTypeToCartridgeMap.containsKey(cartridge.getType())) {
             cartridgeTypeToCartridgeMap.remove(cartridge.getType());
+            markRemoved(getCartridgeResourcePath(cartridge.getType()));
         }
     }
 
     public void updateCartridge(Cartridge cartridge) {
         cartridgeTypeToCartridgeMap.put(cartridge.getType(), cartridge);
+        markUpdated(getCartridgeResourcePath(cartridge.getType()), cartridge);
     }
 
     public ServiceGroup getServiceGroup(String name) {
@@ -338,6 +361,7 @@ public class CloudControllerContext implements Serializable {
 
     public void addServiceGroup(ServiceGroup serviceGroup) {
         serviceGroupNameToServiceGroupMap.put(serviceGroup.getName(), serviceGroup);
+        markStateChanged();
     }
 
     public void removeServiceGroups(List<ServiceGroup> serviceGroups) {
@@ -349,6 +373,7 @@ public class CloudControllerContext implements Serializable {
     private void removeServiceGroup(ServiceGroup serviceGroup) {
         if (serviceGroupNameToServiceGroupMap.containsKey(serviceGroup.getName())) {
             serviceGroupNameToServiceGroupMap.remove(serviceGroup.getName());
+            markStateChanged();
         }
     }
 
@@ -396,6 +421,7 @@ public class CloudControllerContext implements Serializable {
         }
         memberContextList.add(memberContext);
         clusterIdToMemberContextListMap.put(memberContext.getClusterId(), memberContextList);
+        markUpdated(getMemberContextResourcePath(memberContext.getMemberId()), memberContext);
         if (log.isDebugEnabled()) {
             log.debug("Added member context to the cloud controller context: " + memberContext);
         }
@@ -413,6 +439,7 @@ public class CloudControllerContext implements Serializable {
         }
         memberContextList.add(memberContext);
         clusterIdToMemberContextListMap.put(memberContext.getClusterId(), memberContextList);
+        markUpdated(getMemberContextResourcePath(memberContext.getMemberId()), memberContext);
     }
 
     public void addScheduledFutureJob(String memberId, ScheduledFuture<?> job) {
@@ -428,6 +455,7 @@ public class CloudControllerContext implements Serializable {
         for (MemberContext memberContext : memberContextList) {
             String memberId = memberContext.getMemberId();
             memberIdToMemberContextMap.remove(memberId);
+            markRemoved(getMemberContextResourcePath(memberId));
             ScheduledFuture<?> task = memberIdToScheduledTaskMap.get(memberId);
             memberIdToScheduledTaskMap.remove(memberId);
             stopTask(task);
@@ -443,6 +471,7 @@ public class CloudControllerContext implements Serializable {
     public MemberContext removeMemberContext(String clusterId, String memberId) {
         MemberContext removedMemberContext = memberIdToMemberContextMap.get(memberId);
         memberIdToMemberContextMap.remove(memberId);
+        markRemoved(getMemberContextResourcePath(memberId));
 
         List<MemberContext> memberContextList = clusterIdToMemberContextListMap.get(clusterId);
         if (memberContextList != null) {
@@ -481,10 +510,12 @@ public class CloudControllerContext implements Serializable {
 
     public void addClusterContext(ClusterContext clusterContext) {
         clusterIdToContextMap.put(clusterContext.getClusterId(), clusterContext);
+        markUpdated(getClusterContextResourcePath(clusterContext.getClusterId()), clusterContext);
     }
 
     public void updateClusterContext(ClusterContext clusterContext) {
         clusterIdToContextMap.put(clusterContext.getClusterId(), clusterContext);
+        markUpdated(getClusterContextResourcePath(clusterContext.getClusterId()), clusterContext);
     }
 
     public ClusterContext getClusterContext(String clusterId) {
@@ -494,6 +525,7 @@ public class CloudControllerContext implements Serializable {
     public ClusterContext removeClusterContext(String clusterId) {
         ClusterContext removed = clusterIdToContextMap.get(clusterId);
         clusterIdToContextMap.remove(clusterId);
+        markRemoved(getClusterContextResourcePath(clusterId));
         return removed;
     }
 
@@ -512,10 +544,12 @@ public class CloudControllerContext implements Serializable {
         }
         list.add(partitionId);
         cartridgeTypeToPartitionIdsMap.put(cartridgeType, list);
+        markStateChanged();
     }
 
     public void removeFromCartridgeTypeToPartitionIds(String cartridgeType) {
         cartridgeTypeToPartitionIdsMap.remove(cartridgeType);
+        markStateChanged();
     }
 
     public KubernetesClusterContext getKubernetesClusterContext(String kubernetesClusterId) {
@@ -525,15 +559,18 @@ public class CloudControllerContext implements Serializable {
     public void addKubernetesClusterContext(KubernetesClusterContext kubernetesClusterContext) {
         kubClusterIdToKubClusterContextMap
                 .put(kubernetesClusterContext.getKubernetesClusterId(), kubernetesClusterContext);
+        markStateChanged();
     }
 
     public void updateKubernetesClusterContext(KubernetesClusterContext kubernetesClusterContext) {
         kubClusterIdToKubClusterContextMap
                 .put(kubernetesClusterContext.getKubernetesClusterId(), kubernetesClusterContext);
+        markStateChanged();
     }
 
     public void removeKubernetesClusterContext(String kubernetesClusterId) {
         kubClusterIdToKubClusterContextMap.remove(kubernetesClusterId);
+        markStateChanged();
     }
 
     /**
@@ -547,6 +584,7 @@ public class CloudControllerContext implements Serializable {
             throw new NonExistingKubernetesClusterException("Kubernetes cluster does not exist");
         }
         kubernetesClustersMap.remove(kubernetesClusterId);
+        markStateChanged();
     }
 
     /**
@@ -584,6 +622,7 @@ public class CloudControllerContext implements Serializable {
 
             // Update information model
             kubernetesClusterStored.setKubernetesHosts(kubernetesHostsArray);
+            markStateChanged();
 
             if (log.isInfoEnabled()) {
                 log.info(String.format("Kubernetes host removed successfully: [id] %s", kubernetesHostId));
@@ -597,10 +636,12 @@ public class CloudControllerContext implements Serializable {
 
     public void addKubernetesCluster(KubernetesCluster kubernetesCluster) {
         kubernetesClustersMap.put(kubernetesCluster.getClusterId(), kubernetesCluster);
+        markStateChanged();
     }
 
     public void updateKubernetesCluster(KubernetesCluster kubernetesCluster) {
         kubernetesClustersMap.put(kubernetesCluster.getClusterId(), kubernetesCluster);
+        markStateChanged();
     }
 
     public boolean kubernetesClusterExists(KubernetesCluster kubernetesCluster) {
@@ -700,47 +741,150 @@ public class CloudControllerContext implements Serializable {
     }
 
     public void setCoordinator(boolean coordinator) {
+        boolean becameCoordinator = coordinator && !this.coordinator;
         this.coordinator = coordinator;
+        if (becameCoordinator && isClustered()) {
+            // Changes made while this member was not the coordinator have not been tracked
+            markAllUpdated();
+        }
     }
 
+    /**
+     * Persist changes made to the context. Only the member contexts, cluster contexts and cartridges
+     * changed since the last write are written and changes are written asynchronously if the
+     * write behind delay is greater than zero.
+     *
+     * @throws RegistryException if changes could not be persisted
+     */
     public void persist() throws RegistryException {
-        if ((!isClustered()) || (isCoordinator())) {
-            RegistryManager.getInstance().persist(CloudControllerConstants.DATA_RESOURCE, this);
+        if (isPersistenceEnabled()) {
+            updateStateResource();
+            registryPersister.persist();
+        }
+    }
+
+    /**
+     * Write changes pending in the write behind buffer to the registry.
+     *
+     * @throws RegistryException if changes could not be persisted
+     */
+    public void flush() throws RegistryException {
+        if (isPersistenceEnabled()) {
+            updateStateResource();
+            registryPersister.flush();
+        }
+    }
+
+    private boolean isPersistenceEnabled() {
+        return (!isClustered()) || (isCoordinator());
+    }
+
+    /**
+     * Take a snapshot of an updated object to be persisted. Callers should hold the lock guarding
+     * the object, so that the snapshot is not taken while the object is being changed.
+     */
+    private void markUpdated(String resourcePath, Serializable object) {
+        if (isPersistenceEnabled()) {
+            try {
+                registryPersister.update(resourcePath, object);
+            } catch (RegistryException e) {
+                throw new CloudControllerException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void markRemoved(String resourcePath) {
+        if (isPersistenceEnabled()) {
+            registryPersister.remove(resourcePath);
+        }
+    }
+
+    private void markStateChanged() {
+        stateChanged = true;
+    }
+
+    /**
+     * Mark every object in the context as updated, objects which are already up to date in the
+     * registry are not written again.
+     */
+    private void markAllUpdated() {
+        for (Map.Entry<String, Serializable> entry : getPersistentResources().entrySet()) {
+            markUpdated(entry.getKey(), entry.getValue());
+        }
+        markStateChanged();
+    }
+
+    private void updateStateResource() throws RegistryException {
+        if (stateChanged) {
+            stateChanged = false;
+            registryPersister.update(CloudControllerConstants.CONTEXT_STATE_RESOURCE, getState());
         }
     }
 
+    private static String getMemberContextResourcePath(String memberId) {
+        return CloudControllerConstants.MEMBER_CONTEXTS_RESOURCE + "/" + memberId;
+    }
+
+    private static String getClusterContextResourcePath(String clusterId) {
+        return CloudControllerConstants.CLUSTER_CONTEXTS_RESOURCE + "/" + clusterId;
+    }
+
+    private static String getCartridgeResourcePath(String cartridgeType) {
+        return CloudControllerConstants.CARTRIDGES_RESOURCE + "/" + cartridgeType;
+    }
+
+    /**
+     * Returns all the objects to be persisted against their registry resource paths.
+     */
+    private Map<String, Serializable> getPersistentResources() {
+        Map<String, Serializable> resources = new HashMap<String, Serializable>();
+        for (MemberContext memberContext : memberIdToMemberContextMap.values()) {
+            resources.put(getMemberContextResourcePath(memberContext.getMemberId()), memberContext);
+        }
+        for (ClusterContext clusterContext : clusterIdToContextMap.values()) {
+            resources.put(getClusterContextResourcePath(clusterContext.getClusterId()), clusterContext);
+        }
+        for (Cartridge cartridge : cartridgeTypeToCartridgeMap.values()) {
+            resources.put(getCartridgeResourcePath(cartridge.getType()), cartridge);
+        }
+        resources.put(CloudControllerConstants.CONTEXT_STATE_RESOURCE, getState());
+        return resources;
+    }
+
+    /**
+     * Returns the maps persisted as a single resource.
+     */
+    private HashMap<String, HashMap> getState() {
+        HashMap<String, HashMap> state = new HashMap<String, HashMap>();
+        state.put(CC_KUB_GROUP_ID_TO_GROUP_MAP, new HashMap(kubernetesClustersMap));
+        state.put(CC_KUB_CLUSTER_ID_TO_KUB_CLUSTER_CTX_MAP, new HashMap(kubClusterIdToKubClusterContextMap));
+        state.put(CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP, new HashMap(cartridgeTypeToPartitionIdsMap));
+        state.put(CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP, new HashMap(serviceGroupNameToServiceGroupMap));
+        state.put(CC_NETWORK_PARTITION_ID_TO_NETWORK_PARTITION_MAP, new HashMap(networkPartitionIDToNetworkPartitionMap));
+        state.put(CC_PARTITION_TO_IAAS_PROVIDER_BY_CARTRIDGE_MAP, new HashMap(partitionToIaasProviderByCartridge));
+        state.put(CC_CARTRIDGE_TYPE_TO_IAAS_PROVIDER_MAP, new HashMap(cartridgeTypeToIaasProviders));
+        state.put(CC_APPLICATION_ID_TO_CLUSTER_ID_TO_PORT_MAPPING_MAP,
+                new HashMap(applicationIdToClusterIdToPortMappings));
+        state.put(CC_PARTITION_ID_TO_PARTITION_MAP, new HashMap(partitionIdToPartitionMap));
+        return state;
+    }
+
     private void updateContextFromRegistry() {
         if ((!isClustered()) || (isCoordinator())) {
             try {
-                Object dataObj = RegistryManager.getInstance().
-                        read(CloudControllerConstants.DATA_RESOURCE);
-                if (dataObj != null) {
-                    if (dataObj instanceof CloudControllerContext) {
-                        CloudControllerContext serializedObj = (CloudControllerContext) dataObj;
-
-                        copyMap(serializedObj.kubernetesClustersMap, kubernetesClustersMap);
-                        copyMap(serializedObj.clusterIdToMemberContextListMap, clusterIdToMemberContextListMap);
-                        copyMap(serializedObj.memberIdToMemberContextMap, memberIdToMemberContextMap);
-                        copyMap(serializedObj.kubClusterIdToKubClusterContextMap, kubClusterIdToKubClusterContextMap);
-                        copyMap(serializedObj.clusterIdToContextMap, clusterIdToContextMap);
-                        copyMap(serializedObj.cartridgeTypeToPartitionIdsMap, cartridgeTypeToPartitionIdsMap);
-                        copyMap(serializedObj.cartridgeTypeToCartridgeMap, cartridgeTypeToCartridgeMap);
-                        copyMap(serializedObj.serviceGroupNameToServiceGroupMap, serviceGroupNameToServiceGroupMap);
-                        copyMap(serializedObj.networkPartitionIDToNetworkPartitionMap,
-                                networkPartitionIDToNetworkPartitionMap);
-                        copyMap(serializedObj.partitionToIaasProviderByCartridge, partitionToIaasProviderByCartridge);
-                        copyMap(serializedObj.cartridgeTypeToIaasProviders, cartridgeTypeToIaasProviders);
-                        copyMap(serializedObj.applicationIdToClusterIdToPortMappings,
-                                applicationIdToClusterIdToPortMappings);
-                        copyMap(serializedObj.partitionIdToPartitionMap, partitionIdToPartitionMap);
-
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cloud controller context is read from the registry");
-                        }
-                    } else {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cloud controller context could not be found in the registry");
-                        }
+                if (readContextFromRegistry()) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Cloud controller context is read from the registry");
+                    }
+                } else if (readLegacyContextFromRegistry()) {
+                    // Migrate cloud controller context persisted as a single resource
+                    markAllUpdated();
+                    flush();
+                    RegistryManager.getInstance().remove(CloudControllerConstants.DATA_RESOURCE);
+                    log.info("Cloud controller context migrated to per entity registry resources");
+                } else {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Cloud controller context could not be found in the registry");
                     }
                 }
             } catch (Exception e) {
@@ -751,6 +895,85 @@ public class CloudControllerContext implements Serializable {
         }
     }
 
+    /**
+     * Read cloud controller context persisted as separate registry resources.
+     *
+     * @return true if the context was found in the registry
+     * @throws RegistryException if the registry could not be read
+     */
+    private boolean readContextFromRegistry() throws RegistryException {
+        Object stateObj = RegistryManager.getInstance().read(CloudControllerConstants.CONTEXT_STATE_RESOURCE);
+        if (!(stateObj instanceof Map)) {
+            return false;
+        }
+        Map<String, Map> state = (Map<String, Map>) stateObj;
+        copyMap(state, CC_KUB_GROUP_ID_TO_GROUP_MAP, kubernetesClustersMap);
+        copyMap(state, CC_KUB_CLUSTER_ID_TO_KUB_CLUSTER_CTX_MAP, kubClusterIdToKubClusterContextMap);
+        copyMap(state, CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP, cartridgeTypeToPartitionIdsMap);
+        copyMap(state, CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP, serviceGroupNameToServiceGroupMap);
+        copyMap(state, CC_NETWORK_PARTITION_ID_TO_NETWORK_PARTITION_MAP, networkPartitionIDToNetworkPartitionMap);
+        copyMap(state, CC_PARTITION_TO_IAAS_PROVIDER_BY_CARTRIDGE_MAP, partitionToIaasProviderByCartridge);
+        copyMap(state, CC_CARTRIDGE_TYPE_TO_IAAS_PROVIDER_MAP, cartridgeTypeToIaasProviders);
+        copyMap(state, CC_APPLICATION_ID_TO_CLUSTER_ID_TO_PORT_MAPPING_MAP, applicationIdToClusterIdToPortMappings);
+        copyMap(state, CC_PARTITION_ID_TO_PARTITION_MAP, partitionIdToPartitionMap);
+
+        for (Object object : RegistryManager.getInstance().readCollection(
+                CloudControllerConstants.MEMBER_CONTEXTS_RESOURCE)) {
+            addMemberContext((MemberContext) object);
+        }
+        for (Object object : RegistryManager.getInstance().readCollection(
+                CloudControllerConstants.CLUSTER_CONTEXTS_RESOURCE)) {
+            addClusterContext((ClusterContext) object);
+        }
+        for (Object object : RegistryManager.getInstance().readCollection(
+                CloudControllerConstants.CARTRIDGES_RESOURCE)) {
+            addCartridge((Cartridge) object);
+        }
+
+        // Resources read are already up to date in the registry
+        registryPersister.setPersistedResources(getPersistentResources());
+        stateChanged = false;
+        return true;
+    }
+
+    /**
+     * Read cloud controller context persisted as a single serialized object.
+     *
+     * @return true if the context was found in the registry
+     * @throws RegistryException if the registry could not be read
+     */
+    private boolean readLegacyContextFromRegistry() throws RegistryException {
+        Object dataObj = RegistryManager.getInstance().read(CloudControllerConstants.DATA_RESOURCE);
+        if (!(dataObj instanceof CloudControllerContext)) {
+            return false;
+        }
+        CloudControllerContext serializedObj = (CloudControllerContext) dataObj;
+
+        copyMap(serializedObj.kubernetesClustersMap, kubernetesClustersMap);
+        copyMap(serializedObj.clusterIdToMemberContextListMap, clusterIdToMemberContextListMap);
+        copyMap(serializedObj.memberIdToMemberContextMap, memberIdToMemberContextMap);
+        copyMap(serializedObj.kubClusterIdToKubClusterContextMap, kubClusterIdToKubClusterContextMap);
+        copyMap(serializedObj.clusterIdToContextMap, clusterIdToContextMap);
+        copyMap(serializedObj.cartridgeTypeToPartitionIdsMap, cartridgeTypeToPartitionIdsMap);
+        copyMap(serializedObj.cartridgeTypeToCartridgeMap, cartridgeTypeToCartridgeMap);
+        copyMap(serializedObj.serviceGroupNameToServiceGroupMap, serviceGroupNameToServiceGroupMap);
+        copyMap(serializedObj.networkPartitionIDToNetworkPartitionMap,
+                networkPartitionIDToNetworkPartitionMap);
+        copyMap(serializedObj.partitionToIaasProviderByCartridge, partitionToIaasProviderByCartridge);
+        copyMap(serializedObj.cartridgeTypeToIaasProviders, cartridgeTypeToIaasProviders);
+        copyMap(serializedObj.applicationIdToClusterIdToPortMappings,
+                applicationIdToClusterIdToPortMappings);
+        copyMap(serializedObj.partitionIdToPartitionMap, partitionIdToPartitionMap);
+        return true;
+    }
+
+    private void copyMap(Map<String, Map> state, String mapName, Map destinationMap) {
+        Map sourceMap = state.get(mapName);
+        if (sourceMap != null) {
+            copyMap(sourceMap, destinationMap);
+        }
+    }
+
     private void copyMap(Map sourceMap, Map destinationMap) {
         for (Object key : sourceMap.keySet()) {
             destinationMap.put(key, sourceMap.get(key));
@@ -773,6 +996,7 @@ public class CloudControllerContext implements Serializable {
 
         partitionToIaasProviders.put(partitionId, iaasProvider);
         partitionToIaasProviderByCartridge.put(cartridgeType, partitionToIaasProviders);
+        markStateChanged();
     }
 
     public void addIaasProviders(String cartridgeType, Map<String, IaasProvider> partitionToIaasProvidersMap) {
@@ -789,6 +1013,7 @@ public class CloudControllerContext implements Serializable {
             partitionToIaasProviders.put(key, value);
         }
         partitionToIaasProviderByCartridge.put(cartridgeType, partitionToIaasProviders);
+        markStateChanged();
         if (log.isInfoEnabled()) {
             log.info("Partition map updated for the Cartridge: " + cartridgeType + ". " + "Current Partition List: "
                     + partitionToIaasProviderByCartridge.get(cartridgeType).keySet().toString());
@@ -869,6 +1094,7 @@ public class CloudControllerContext implements Serializable {
                 int idx = iaasProviders.indexOf(anIaas);
                 iaasProviders.remove(idx);
                 iaasProviders.add(idx, iaasProvider);
+                markStateChanged();
                 return;
             }
         }
@@ -876,6 +1102,7 @@ public class CloudControllerContext implements Serializable {
         // Else, add iaas provider against cartridge type
         iaasProviders.add(iaasProvider);
         cartridgeTypeToIaasProviders.put(cartridgeType, iaasProviders);
+        markStateChanged();
     }
 
     public IaasProvider getIaasProvider(String cartridgeType, String iaasType) {
@@ -922,6 +1149,7 @@ public class CloudControllerContext implements Serializable {
         if (!portMappings.contains(portMapping)) {
             portMappings.add(portMapping);
         }
+        markStateChanged();
     }
 
     /**
@@ -949,12 +1177,14 @@ public class CloudControllerContext implements Serializable {
     public void removeClusterPortMappings(String applicationId) {
         if (applicationIdToClusterIdToPortMappings.containsKey(applicationId)) {
             applicationIdToClusterIdToPortMappings.remove(applicationId);
+            markStateChanged();
         }
     }
 
     public void addPartition (Partition partition) {
 
         partitionIdToPartitionMap.put(partition.getId(), partition);
+        markStateChanged();
         log.info("Cached partition " + partition.toString() + " in partitionIdToPartitionMap");
     }
 
@@ -966,6 +1196,7 @@ public class CloudControllerContext implements Serializable {
     public void removePartition (String partitionId) {
 
         partitionIdToPartitionMap.remove(partitionId);
+        markStateChanged();
         log.info("Removed partition " + partitionId + " from partitionIdToPartitionMap");
     }
 }
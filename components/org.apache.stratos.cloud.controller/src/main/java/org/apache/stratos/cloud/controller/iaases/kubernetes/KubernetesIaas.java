@@ -275,6 +275,7 @@ public class KubernetesIaas extends Iaas {
         memberContext.setPublicIPs(new String[] { memberPublicIPAddress });
         memberContext.setInitTime(memberContext.getInitTime());
         memberContext.setProperties(memberContext.getProperties());
+        CloudControllerContext.getInstance().updateMemberContext(memberContext);
     }
 
     private String findKubernetesHostPublicIPAddress(KubernetesCluster kubernetesCluster, String podHostIP) {
@@ -478,6 +479,8 @@ public class KubernetesIaas extends Iaas {
         instanceMetadata.setCpu(cpu);
         instanceMetadata.setRam(memory);
         memberContext.setInstanceMetadata(instanceMetadata);
+        CloudControllerContext.getInstance().updateMemberContext(memberContext);
+        CloudControllerContext.getInstance().updateKubernetesClusterContext(kubernetesClusterContext);
 
         // Persist cloud controller context
         CloudControllerContext.getInstance().persist();
@@ -626,6 +629,8 @@ public class KubernetesIaas extends Iaas {
             kubernetesService.setContainerPort(containerPort);
 
             clusterContext.addKubernetesService(memberContext.getClusterInstanceId(), kubernetesService);
+            CloudControllerContext.getInstance().updateClusterContext(clusterContext);
+            CloudControllerContext.getInstance().updateKubernetesClusterContext(kubernetesClusterContext);
             CloudControllerContext.getInstance().persist();
 
             if (log.isInfoEnabled()) {
@@ -807,6 +812,7 @@ public class KubernetesIaas extends Iaas {
                 payload.add(nameValuePair);
 
                 // Persist service ports added to cluster port mappings
+                CloudControllerContext.getInstance().updateKubernetesClusterContext(kubernetesClusterContext);
                 CloudControllerContext.getInstance().persist();
             }
         }
@@ -1012,6 +1018,8 @@ public class KubernetesIaas extends Iaas {
                     kubernetesApiClient.deleteService(serviceId);
                     kubernetesClusterContext.deallocatePort(kubernetesService.getPort());
                     clusterContext.removeKubernetesService(clusterInstanceId, serviceId);
+                    CloudControllerContext.getInstance().updateKubernetesClusterContext(kubernetesClusterContext);
+                    CloudControllerContext.getInstance().updateClusterContext(clusterContext);
                 } catch (KubernetesClientException e) {
                     log.error(String.format(
                             "Could not delete kubernetes service: [application-id] %s " + "[service-id] %s",
@@ -24,13 +24,16 @@ package org.apache.stratos.cloud.controller.internal;
 import com.hazelcast.core.HazelcastInstance;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.config.CloudControllerConfig;
 import org.apache.stratos.cloud.controller.context.CloudControllerContext;
 import org.apache.stratos.cloud.controller.exception.CloudControllerException;
+import org.apache.stratos.cloud.controller.messaging.publisher.TopologyEventPublisher;
 import org.apache.stratos.cloud.controller.messaging.publisher.TopologyEventSynchronizer;
 import org.apache.stratos.cloud.controller.messaging.receiver.application.ApplicationEventReceiver;
 import org.apache.stratos.cloud.controller.messaging.receiver.cluster.status.ClusterStatusTopicReceiver;
 import org.apache.stratos.cloud.controller.messaging.receiver.initializer.InitializerTopicReceiver;
 import org.apache.stratos.cloud.controller.messaging.receiver.instance.status.InstanceStatusTopicReceiver;
+import org.apache.stratos.cloud.controller.messaging.topology.TopologyHolder;
 import org.apache.stratos.cloud.controller.services.CloudControllerService;
 import org.apache.stratos.cloud.controller.services.impl.CloudControllerServiceImpl;
 import org.apache.stratos.common.Component;
@@ -38,6 +41,7 @@ import org.apache.stratos.common.services.ComponentStartUpSynchronizer;
 import org.apache.stratos.common.services.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.broker.publish.TopologyEventBatchPublisher;
 import org.apache.stratos.messaging.util.MessagingUtil;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
@@ -119,6 +123,8 @@ public class CloudControllerServiceComponent {
                                             "as the cloud controller coordinator of the cluster");
 
                                     CloudControllerContext.getInstance().setCoordinator(true);
+                                    // Continue from the topology last persisted by the previous coordinator
+                                    TopologyHolder.reloadTopology();
                                     executeCoordinatorTasks();
                                 }
                             };
@@ -149,6 +155,11 @@ public class CloudControllerServiceComponent {
         clusterStatusTopicReceiver = new ClusterStatusTopicReceiver();
         instanceStatusTopicReceiver = new InstanceStatusTopicReceiver();
         initializerTopicReceiver = new InitializerTopicReceiver();
+        if (CloudControllerConfig.getInstance().isTopologyDigestSyncEnabled()) {
+            // Events published before this cloud controller started may not have been persisted,
+            // subscribers are reset to the complete topology before applying new events
+            TopologyEventPublisher.sendTopologyResetEvent();
+        }
         Runnable topologySynchronizer = new TopologyEventSynchronizer();
         scheduler.scheduleAtFixedRate(topologySynchronizer, 0, 1, TimeUnit.MINUTES);
     }
@@ -223,6 +234,15 @@ public class CloudControllerServiceComponent {
     }
 
     protected void deactivate(ComponentContext ctx) {
+        // Publish topology events remaining in the batch publisher queue
+        if (TopologyEventBatchPublisher.isEnabled()) {
+            try {
+                TopologyEventBatchPublisher.getInstance().terminate();
+            } catch (Exception e) {
+                log.warn("An error occurred while terminating topology event batch publisher", e);
+            }
+        }
+
         // Close event publisher connections to message broker
         try {
             EventPublisherPool.close(MessagingUtil.Topics.TOPOLOGY_TOPIC.getTopicName());
@@ -230,6 +250,20 @@ public class CloudControllerServiceComponent {
             log.warn("An error occurred while closing cloud controller topology event publisher", e);
         }
 
+        // Persist cloud controller context changes remaining in the write behind buffer
+        try {
+            CloudControllerContext.getInstance().flush();
+        } catch (Exception e) {
+            log.warn("An error occurred while persisting cloud controller context", e);
+        }
+
+        // Persist topology updates remaining in the write behind buffer
+        try {
+            TopologyHolder.flush();
+        } catch (Exception e) {
+            log.warn("An error occurred while persisting topology", e);
+        }
+
         // shutdown TopologyEventSync task
         StratosThreadPool.shutdown(THREAD_POOL_ID);
     }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.messaging.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.config.CloudControllerConfig;
+import org.apache.stratos.cloud.controller.messaging.topology.TopologyHolder;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.topology.TopologyBatchEvent;
+import org.apache.stratos.messaging.event.topology.TopologyEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.util.LinkedList;
+
+/**
+ * Assigns topology revisions to published topology events and keeps the most recent
+ * events, so that subscribers which have missed events can be sent only the missing ones.
+ * <p/>
+ * Revisions are assigned under the topology write lock and persisted with the topology.
+ * The topology lock is always acquired before the history lock.
+ */
+public class TopologyEventHistory {
+
+    private static final Log log = LogFactory.getLog(TopologyEventHistory.class);
+
+    private static final LinkedList<RevisionedEvent> events = new LinkedList<RevisionedEvent>();
+
+    private TopologyEventHistory() {
+    }
+
+    /**
+     * Assign the next topology revision to the event, convert it to JSON and add it to the history.
+     *
+     * @param event topology event
+     * @return JSON representation of the event
+     */
+    public static String add(TopologyEvent event) {
+        TopologyHolder.acquireWriteLock();
+        try {
+            synchronized (events) {
+                long revision = nextRevision();
+                event.setRevision(revision);
+
+                String json = MessagingUtil.ObjectToJson(event);
+                events.addLast(new RevisionedEvent(revision, event.getClass().getName(), json));
+                while (events.size() > CloudControllerConfig.getInstance().getTopologyEventHistorySize()) {
+                    events.removeFirst();
+                }
+                return json;
+            }
+        } finally {
+            TopologyHolder.releaseWriteLock();
+        }
+    }
+
+    /**
+     * Start a new sequence of topology events once this cloud controller starts publishing topology
+     * events. Events published before may not have been persisted with the topology, hence the next
+     * revision is reserved for the complete topology and no event is published with it. Subscribers
+     * see a revision gap and do not apply the events which follow until they have re-initialized
+     * their topology from the complete topology.
+     *
+     * @return revision of the complete topology
+     */
+    public static long reset() {
+        TopologyHolder.acquireWriteLock();
+        try {
+            synchronized (events) {
+                events.clear();
+                long revision = nextRevision();
+                log.info(String.format("Topology event history reset: [revision] %d", revision));
+                return revision;
+            }
+        } finally {
+            TopologyHolder.releaseWriteLock();
+        }
+    }
+
+    /**
+     * Increment the topology revision. Invoked while holding the topology write lock, so that the
+     * revision is written behind with the topology state it describes. Revisions published after
+     * the last topology write are skipped once the topology is read from the registry.
+     */
+    private static long nextRevision() {
+        Topology topology = TopologyHolder.getTopology();
+        long revision = topology.getRevision() + 1;
+        topology.setRevision(revision);
+        try {
+            TopologyHolder.updateTopology(topology);
+        } catch (RegistryException e) {
+            // Topology has already been updated, the event is published and the revision is
+            // written with the next topology write
+            log.error(String.format("Could not persist topology: [revision] %d", revision), e);
+        }
+        return revision;
+    }
+
+    /**
+     * @return revision of the last published topology event
+     */
+    public static long getCurrentRevision() {
+        return TopologyHolder.getTopology().getRevision();
+    }
+
+    /**
+     * Returns the events published after the given revision in a batch event.
+     *
+     * @param fromRevision last revision known by the subscriber
+     * @return batch event or null if the history does not contain all events after the revision
+     */
+    public static TopologyBatchEvent getEventsAfter(long fromRevision) {
+        synchronized (events) {
+            long currentRevision = getCurrentRevision();
+            if ((fromRevision > currentRevision) || ((fromRevision < currentRevision) &&
+                    (events.isEmpty() || (events.getFirst().revision > fromRevision + 1)))) {
+                return null;
+            }
+
+            TopologyBatchEvent batchEvent = new TopologyBatchEvent();
+            for (RevisionedEvent event : events) {
+                if (event.revision > fromRevision) {
+                    batchEvent.addEventMessage(event.eventClassName, event.json);
+                }
+            }
+            return batchEvent;
+        }
+    }
+
+    /**
+     * A published topology event.
+     */
+    private static class RevisionedEvent {
+        private final long revision;
+        private final String eventClassName;
+        private final String json;
+
+        private RevisionedEvent(long revision, String eventClassName, String json) {
+            this.revision = revision;
+            this.eventClassName = eventClassName;
+            this.json = json;
+        }
+    }
+}
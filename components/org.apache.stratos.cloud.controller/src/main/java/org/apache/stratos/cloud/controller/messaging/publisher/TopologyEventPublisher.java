@@ -21,6 +21,7 @@ package org.apache.stratos.cloud.controller.messaging.publisher;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.config.CloudControllerConfig;
 import org.apache.stratos.cloud.controller.domain.Cartridge;
 import org.apache.stratos.cloud.controller.domain.ClusterContext;
 import org.apache.stratos.cloud.controller.domain.MemberContext;
@@ -29,6 +30,7 @@ import org.apache.stratos.cloud.controller.messaging.topology.TopologyHolder;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.apache.stratos.messaging.broker.publish.EventPublisher;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.broker.publish.TopologyEventBatchPublisher;
 import org.apache.stratos.messaging.domain.application.ClusterDataHolder;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Port;
@@ -351,9 +353,80 @@ public class TopologyEventPublisher {
         publishEvent(clusterTerminatedEvent);
     }
 
+    public static void sendTopologyDigestEvent() {
+        TopologyDigestEvent topologyDigestEvent = new TopologyDigestEvent(TopologyEventHistory.getCurrentRevision());
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Publishing topology digest event: [revision] %d",
+                    topologyDigestEvent.getRevision()));
+        }
+        publishEvent(topologyDigestEvent);
+    }
+
+    /**
+     * Start a new sequence of topology revisions and publish the complete topology, so that
+     * subscribers re-initialize their topology before applying the events which follow.
+     */
+    public static void sendTopologyResetEvent() {
+        long revision = TopologyEventHistory.reset();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Publishing complete topology to reset subscribers: [revision] %d", revision));
+        }
+        sendCompleteTopologyEvent(TopologyHolder.getTopology());
+    }
+
+    public static void sendTopologyDeltaEvents(long fromRevision) {
+        TopologyBatchEvent batchEvent = TopologyEventHistory.getEventsAfter(fromRevision);
+        if (batchEvent == null) {
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Topology events not found in history, publishing complete topology: " +
+                        "[from-revision] %d", fromRevision));
+            }
+            sendCompleteTopologyEvent(TopologyHolder.getTopology());
+            return;
+        }
+        if (batchEvent.getEventMessages().isEmpty()) {
+            return;
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Publishing topology events: [from-revision] %d [event-count] %d",
+                    fromRevision, batchEvent.getEventMessages().size()));
+        }
+        // Events have already been assigned revisions, hence published directly
+        String topic = MessagingUtil.getMessageTopicName(batchEvent);
+        EventPublisherPool.getPublisher(topic).publish(batchEvent);
+    }
+
     public static void publishEvent(Event event) {
+        if (event instanceof TopologyEvent) {
+            publishTopologyEvent((TopologyEvent) event);
+            return;
+        }
         String topic = MessagingUtil.getMessageTopicName(event);
         EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
         eventPublisher.publish(event);
     }
+
+    private static void publishTopologyEvent(TopologyEvent event) {
+        String json;
+        if (!CloudControllerConfig.getInstance().isTopologyDigestSyncEnabled()) {
+            json = MessagingUtil.ObjectToJson(event);
+        } else if (event instanceof CompleteTopologyEvent) {
+            // Complete topology does not change the topology, it carries the current revision
+            event.setRevision(TopologyEventHistory.getCurrentRevision());
+            json = MessagingUtil.ObjectToJson(event);
+        } else if (event instanceof TopologyDigestEvent) {
+            json = MessagingUtil.ObjectToJson(event);
+        } else {
+            json = TopologyEventHistory.add(event);
+        }
+
+        if (TopologyEventBatchPublisher.isEnabled()) {
+            TopologyEventBatchPublisher.getInstance().publish(event, json);
+        } else {
+            String topic = MessagingUtil.getMessageTopicName(event);
+            EventPublisherPool.getPublisher(topic).publishJson(MessagingUtil.getMessageSubTopicName(event),
+                    event.getClass().getName(), json, true);
+        }
+    }
 }
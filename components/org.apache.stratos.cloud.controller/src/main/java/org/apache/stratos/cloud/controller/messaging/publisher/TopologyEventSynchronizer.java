@@ -26,11 +26,17 @@ import org.apache.stratos.cloud.controller.messaging.topology.TopologyHolder;
 
 /**
  * Topology event synchronizer publishes complete topology event periodically.
+ * If topology sync mode is set to digest, the latest topology revision is published and the
+ * complete topology is only published every completeTopologyInterval runs. Subscribers which
+ * do not track topology revisions, such as the python cartridge agent, rely on the complete
+ * topology to refresh their topology, hence it is published on every run by default.
  */
 public class TopologyEventSynchronizer implements Runnable {
 
     private static final Log log = LogFactory.getLog(TopologyEventSynchronizer.class);
 
+    private long runCount;
+
     @Override
     public void run() {
         if (log.isDebugEnabled()) {
@@ -52,9 +58,21 @@ public class TopologyEventSynchronizer implements Runnable {
         }
 
         try {
-            // Publish complete topology event
             CloudControllerContext.getInstance().setTopologySyncRunning(true);
-            TopologyEventPublisher.sendCompleteTopologyEvent(TopologyHolder.getTopology());
+            CloudControllerConfig config = CloudControllerConfig.getInstance();
+            if (config.isTopologyDigestSyncEnabled()) {
+                // Publish topology digest event, revision aware subscribers request missing events
+                TopologyEventPublisher.sendTopologyDigestEvent();
+                int completeTopologyInterval = config.getTopologySyncCompleteTopologyInterval();
+                if ((completeTopologyInterval > 0) && (++runCount % completeTopologyInterval == 0)) {
+                    // Complete topology carries the current revision, revision aware subscribers
+                    // which are up to date do not parse it
+                    TopologyEventPublisher.sendCompleteTopologyEvent(TopologyHolder.getTopology());
+                }
+            } else {
+                // Publish complete topology event
+                TopologyEventPublisher.sendCompleteTopologyEvent(TopologyHolder.getTopology());
+            }
         } finally {
             CloudControllerContext.getInstance().setTopologySyncRunning(false);
         }
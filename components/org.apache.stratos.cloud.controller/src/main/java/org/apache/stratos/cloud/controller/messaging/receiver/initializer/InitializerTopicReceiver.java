@@ -23,7 +23,9 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.messaging.publisher.TopologyEventPublisher;
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyHolder;
 import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.initializer.TopologyDeltaRequestEvent;
 import org.apache.stratos.messaging.listener.initializer.CompleteTopologyRequestEventListener;
+import org.apache.stratos.messaging.listener.initializer.TopologyDeltaRequestEventListener;
 import org.apache.stratos.messaging.message.receiver.initializer.InitializerEventReceiver;
 
 import java.util.concurrent.ExecutorService;
@@ -60,6 +62,22 @@ public class InitializerTopicReceiver {
                 }
             }
         });
+
+        initializerEventReceiver.addEventListener(new TopologyDeltaRequestEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                TopologyDeltaRequestEvent topologyDeltaRequestEvent = (TopologyDeltaRequestEvent) event;
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Handling TopologyDeltaRequestEvent: [from-revision] %d",
+                            topologyDeltaRequestEvent.getFromRevision()));
+                }
+                try {
+                    TopologyEventPublisher.sendTopologyDeltaEvents(topologyDeltaRequestEvent.getFromRevision());
+                } catch (Exception e) {
+                    log.error("Failed to process TopologyDeltaRequestEvent", e);
+                }
+            }
+        });
     }
 
 //    public ExecutorService getExecutorService() {
@@ -18,14 +18,14 @@
  */
 package org.apache.stratos.cloud.controller.messaging.topology;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.cloud.controller.registry.RegistryManager;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.apache.stratos.common.concurrent.locks.ReadWriteLock;
 import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 
 /**
@@ -36,6 +36,9 @@ public class TopologyHolder {
 
     private static volatile ReadWriteLock lock = new ReadWriteLock("topology-manager");
     private static volatile Topology topology;
+    private static final TopologyPersister persister = new TopologyPersister(MessagingUtil.getNumericSystemProperty(
+            CloudControllerConstants.DEFAULT_TOPOLOGY_PERSISTENCE_INTERVAL,
+            CloudControllerConstants.TOPOLOGY_PERSISTENCE_INTERVAL));
 
     private TopologyHolder() {
     }
@@ -75,16 +78,7 @@ public class TopologyHolder {
                     if (log.isDebugEnabled()) {
                         log.debug("Trying to retrieve topology from registry");
                     }
-                    topology = CloudControllerUtil.retrieveTopology();
-                    if (topology == null) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Topology not found in registry, creating new");
-                        }
-                        topology = new Topology();
-                    }
-                    if (log.isDebugEnabled()) {
-                        log.debug("Topology initialized");
-                    }
+                    topology = readTopology();
                 }
             }
         }
@@ -92,27 +86,76 @@ public class TopologyHolder {
     }
 
     /**
-     * Update in-memory topology and persist it in registry.
+     * Read topology from the registry replacing the in-memory topology. Invoked once this
+     * cloud controller instance has been elected as the coordinator, to continue from the
+     * topology revision last persisted by the previous coordinator.
+     */
+    public static void reloadTopology() {
+        acquireWriteLock();
+        try {
+            synchronized (TopologyHolder.class) {
+                topology = readTopology();
+            }
+            log.info(String.format("Topology reloaded from registry: [revision] %d", topology.getRevision()));
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    private static Topology readTopology() {
+        Topology registryTopology = CloudControllerUtil.retrieveTopology();
+        if (registryTopology == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Topology not found in registry, creating new");
+            }
+            registryTopology = new Topology();
+        }
+        if (registryTopology.getRevision() > 0) {
+            // Revisions published after the last topology write are not in the registry,
+            // continue after them so that no revision is published twice
+            long revision = registryTopology.getRevision() + CloudControllerConstants.TOPOLOGY_REVISION_RELOAD_MARGIN;
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Skipping topology revisions which may have been published: " +
+                        "[persisted-revision] %d [revision] %d", registryTopology.getRevision(), revision));
+            }
+            registryTopology.setRevision(revision);
+        }
+        persister.reset(registryTopology);
+        if (log.isDebugEnabled()) {
+            log.debug("Topology initialized");
+        }
+        return registryTopology;
+    }
+
+    /**
+     * Update in-memory topology and persist it in registry. Updates are written to the registry
+     * asynchronously, at most once per topology persistence interval.
      *
      * @param updatedTopology
      */
     public static void updateTopology(Topology updatedTopology) throws RegistryException {
         synchronized (TopologyHolder.class) {
-            if (log.isDebugEnabled()) {
-                log.debug("Updating topology");
-            }
             topology = updatedTopology;
-            RegistryManager.getInstance().persist(CloudControllerConstants.TOPOLOGY_RESOURCE, topology);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Topology updated: %s", toJson(topology)));
-            }
         }
+        persister.persist();
+        if (log.isTraceEnabled()) {
+            log.trace(String.format("Topology updated: %s", toJson(updatedTopology)));
+        } else if (log.isDebugEnabled()) {
+            log.debug(String.format("Topology updated: [revision] %d", updatedTopology.getRevision()));
+        }
+    }
 
+    /**
+     * Write topology updates pending in the write behind buffer to the registry.
+     *
+     * @throws RegistryException if the topology could not be written
+     */
+    public static void flush() throws RegistryException {
+        persister.flush();
     }
 
     private static String toJson(Object object) {
-        Gson gson = new Gson();
-        return gson.toJson(object);
+        return JsonCodec.toJson(object);
     }
 }
 
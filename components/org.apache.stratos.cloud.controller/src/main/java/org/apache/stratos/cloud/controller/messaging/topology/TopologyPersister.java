@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.messaging.topology;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.registry.RegistryManager;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write behind topology persister. Topology updates received within the persistence interval are
+ * coalesced into a single registry write, which is done in a separate thread. Each write records
+ * the number of topology updates and the topology revision persisted, hence flushing an unchanged
+ * topology does not write to the registry. If the persistence interval is zero, topology is
+ * written in the caller's thread on every update.
+ */
+class TopologyPersister {
+
+    private static final Log log = LogFactory.getLog(TopologyPersister.class);
+
+    private static final String THREAD_POOL_ID = "cloud.controller.topology.persister.thread.pool";
+
+    private final long persistenceInterval;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean writeScheduled;
+    /* Number of topology updates, incremented on every update */
+    private final AtomicLong updateCount;
+    /* Update count and topology revision of the last serialized topology, guarded by this */
+    private long serializedUpdateCount;
+    private long serializedRevision;
+    /* Update count of the topology last written to the registry, guarded by writeLock */
+    private long persistedUpdateCount;
+    private final Object writeLock;
+
+    /**
+     * @param persistenceInterval minimum time between two registry writes in milliseconds
+     */
+    TopologyPersister(long persistenceInterval) {
+        this.persistenceInterval = persistenceInterval;
+        this.scheduler = (persistenceInterval > 0) ?
+                StratosThreadPool.getScheduledExecutorService(THREAD_POOL_ID, 1) : null;
+        this.writeScheduled = new AtomicBoolean();
+        this.updateCount = new AtomicLong();
+        this.serializedRevision = -1;
+        this.writeLock = new Object();
+    }
+
+    /**
+     * Mark the topology as updated and schedule a registry write. Topology is written in the
+     * caller's thread if write behind is disabled.
+     *
+     * @throws RegistryException if write behind is disabled and the topology could not be written
+     */
+    void persist() throws RegistryException {
+        updateCount.incrementAndGet();
+        if (scheduler == null) {
+            flush();
+            return;
+        }
+        if (writeScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // Updates made from here onwards will schedule another write
+                    writeScheduled.set(false);
+                    try {
+                        flush();
+                    } catch (Exception e) {
+                        log.error("Could not persist topology in registry", e);
+                    }
+                }
+            }, persistenceInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write the topology to the registry if it has been updated or its revision has changed
+     * since the last write.
+     *
+     * @throws RegistryException if the topology could not be written
+     */
+    void flush() throws RegistryException {
+        long currentUpdateCount;
+        long revision;
+        byte[] content;
+
+        // Topology lock is acquired before the persister lock, in the same order as the
+        // writers which call persist() while holding the topology write lock
+        TopologyHolder.acquireReadLock();
+        try {
+            Topology topology = TopologyHolder.getTopology();
+            synchronized (this) {
+                currentUpdateCount = updateCount.get();
+                revision = topology.getRevision();
+                if ((currentUpdateCount == serializedUpdateCount) && (revision == serializedRevision)) {
+                    return;
+                }
+                try {
+                    content = RegistryManager.getInstance().serializeToByteArray(topology);
+                } catch (IOException e) {
+                    throw new RegistryException("Could not serialize topology", e);
+                }
+                serializedUpdateCount = currentUpdateCount;
+                serializedRevision = revision;
+            }
+        } finally {
+            TopologyHolder.releaseReadLock();
+        }
+
+        synchronized (writeLock) {
+            if (persistedUpdateCount > currentUpdateCount) {
+                // A more recent topology has already been written
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                RegistryManager.getInstance().persist(Collections.singletonMap(
+                        CloudControllerConstants.TOPOLOGY_RESOURCE, content), Collections.<String>emptyList());
+            } catch (RegistryException e) {
+                synchronized (this) {
+                    // Write the topology again on next flush
+                    serializedRevision = -1;
+                }
+                throw e;
+            }
+            persistedUpdateCount = currentUpdateCount;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology persisted in registry: [revision] %d [updates] %d [size] %d bytes " +
+                        "[duration] %d ms", revision, currentUpdateCount, content.length,
+                        System.currentTimeMillis() - startTime));
+            }
+        }
+    }
+
+    /**
+     * Mark the current topology as persisted, used once the topology is read from the registry.
+     */
+    synchronized void reset(Topology topology) {
+        serializedUpdateCount = updateCount.get();
+        serializedRevision = topology.getRevision();
+    }
+}
@@ -24,6 +24,7 @@ package org.apache.stratos.cloud.controller.registry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.internal.ServiceReferenceHolder;
+import org.apache.stratos.common.serialization.SerializerFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.Resource;
@@ -32,7 +33,12 @@ import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
 import org.wso2.carbon.registry.core.session.UserRegistry;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Registry manager provides functionality for persisting resources in the registry and reading them back.
@@ -87,6 +93,89 @@ public class RegistryManager {
         }
     }
 
+    /**
+     * Persist a set of serialized objects and remove a set of resources in a single registry transaction.
+     *
+     * @param resources            resource path to serialized object map
+     * @param removedResourcePaths paths of the resources to be removed
+     * @throws RegistryException if the transaction fails
+     */
+    public synchronized void persist(Map<String, byte[]> resources, Collection<String> removedResourcePaths)
+            throws RegistryException {
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Persisting resources in registry: [updated] %d [removed] %d",
+                    resources.size(), removedResourcePaths.size()));
+        }
+
+        Registry registry = getRegistry();
+
+        try {
+            PrivilegedCarbonContext ctx = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            ctx.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+            ctx.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+            registry.beginTransaction();
+            for (Map.Entry<String, byte[]> entry : resources.entrySet()) {
+                Resource nodeResource = registry.newResource();
+                nodeResource.setContent(entry.getValue());
+                registry.put(entry.getKey(), nodeResource);
+            }
+            for (String resourcePath : removedResourcePaths) {
+                if (registry.resourceExists(resourcePath)) {
+                    registry.delete(resourcePath);
+                }
+            }
+            registry.commitTransaction();
+        } catch (Exception e) {
+            try {
+                registry.rollbackTransaction();
+            } catch (Exception e1) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not rollback transaction", e1);
+                }
+            }
+            throw new RegistryException("Failed to persist resources in registry", e);
+        }
+    }
+
+    /**
+     * Returns the objects stored in the child resources of the given collection.
+     *
+     * @param collectionPath registry collection path
+     * @return objects stored in the collection, an empty list if the collection does not exist
+     * @throws RegistryException if the collection could not be read
+     */
+    public synchronized List<Object> readCollection(String collectionPath) throws RegistryException {
+        List<Object> objects = new ArrayList<Object>();
+        try {
+            Registry registry = getRegistry();
+
+            PrivilegedCarbonContext ctx = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            ctx.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+            ctx.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+            if (!registry.resourceExists(collectionPath)) {
+                return objects;
+            }
+            Resource resource = registry.get(collectionPath);
+            if (!(resource instanceof org.wso2.carbon.registry.core.Collection)) {
+                return objects;
+            }
+            String[] children = ((org.wso2.carbon.registry.core.Collection) resource).getChildren();
+            if (children != null) {
+                for (String child : children) {
+                    Object object = read(child);
+                    if (object != null) {
+                        objects.add(object);
+                    }
+                }
+            }
+            return objects;
+        } catch (RegistryException e) {
+            String msg = "Failed to read collection from registry: " + collectionPath;
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
+
     /**
      * Returns an object stored in the given resource path.
      *
@@ -151,22 +240,8 @@ public class RegistryManager {
      * @return
      * @throws java.io.IOException
      */
-    private byte[] serializeToByteArray(Serializable serializableObject) throws IOException {
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutput out = null;
-        try {
-            out = new ObjectOutputStream(bos);
-            out.writeObject(serializableObject);
-
-            return bos.toByteArray();
-
-        } finally {
-            if (out != null) {
-                out.close();
-            }
-            bos.close();
-        }
+    byte[] serializeToByteArray(Serializable serializableObject) throws IOException {
+        return SerializerFactory.getSerializer().serialize(serializableObject);
     }
 
     /**
@@ -177,20 +252,6 @@ public class RegistryManager {
      * @throws Exception if the deserialization is failed.
      */
     private Object deserializeFromByteArray(byte[] bytes) throws Exception {
-
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        ObjectInput in = null;
-        try {
-            in = new ObjectInputStream(bis);
-            Object o = in.readObject();
-
-            return o;
-
-        } finally {
-            bis.close();
-            if (in != null) {
-                in.close();
-            }
-        }
+        return SerializerFactory.getSerializer(bytes).deserialize(bytes, RegistryManager.class.getClassLoader());
     }
 }
@@ -0,0 +1,274 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+*/
+
+package org.apache.stratos.cloud.controller.registry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists a set of objects in the registry, each object as a separate resource. Objects are
+ * marked as updated or removed at the point they are changed and a snapshot of an updated object
+ * is taken right away, hence the caller should mark an object while holding the lock guarding it.
+ * Only the objects marked since the last write are written, and an object is skipped if its
+ * digest matches the one last persisted. Changes marked within the write behind delay are
+ * written together in a single registry transaction. Changes that could not be written are
+ * kept and retried with the next write.
+ */
+public class WriteBehindRegistryPersister {
+
+    private static final Log log = LogFactory.getLog(WriteBehindRegistryPersister.class);
+
+    private static final String THREAD_POOL_ID = "cloud.controller.registry.persister.thread.pool";
+
+    private final String name;
+    private final long writeBehindDelay;
+    private final ScheduledExecutorService scheduler;
+    /* Snapshots of the resources changed since the last write, null for removed resources, guarded by this */
+    private Map<String, byte[]> changedResources;
+    /* Whether a write has been scheduled, guarded by this */
+    private boolean writeScheduled;
+    /* Failure of the last write, cleared once changes are written successfully, guarded by this */
+    private RegistryException lastWriteFailure;
+    /* Digests of the persisted resources, guarded by writeLock */
+    private final Map<String, byte[]> resourcePathToDigestMap;
+    private final Object writeLock;
+
+    /**
+     * @param name             name used in log messages
+     * @param writeBehindDelay time in milliseconds changes are buffered before writing, if zero
+     *                         changes are written in the caller's thread
+     */
+    public WriteBehindRegistryPersister(String name, long writeBehindDelay) {
+        this.name = name;
+        this.writeBehindDelay = writeBehindDelay;
+        this.changedResources = new HashMap<String, byte[]>();
+        this.resourcePathToDigestMap = new HashMap<String, byte[]>();
+        this.writeLock = new Object();
+        this.scheduler = (writeBehindDelay > 0) ? StratosThreadPool.getScheduledExecutorService(THREAD_POOL_ID, 1) : null;
+    }
+
+    /**
+     * Mark an object as updated. The object is serialized in the caller's thread, hence the
+     * caller should hold the lock guarding the object so that a consistent snapshot is taken.
+     *
+     * @param resourcePath registry resource path of the object
+     * @param object       object to be persisted
+     * @throws RegistryException if the object could not be serialized
+     */
+    public void update(String resourcePath, Serializable object) throws RegistryException {
+        byte[] content = serialize(resourcePath, object);
+        synchronized (this) {
+            changedResources.put(resourcePath, content);
+        }
+    }
+
+    /**
+     * Mark an object as removed.
+     *
+     * @param resourcePath registry resource path of the object
+     */
+    public synchronized void remove(String resourcePath) {
+        changedResources.put(resourcePath, null);
+    }
+
+    /**
+     * Persist changes. If write behind is enabled changes are written asynchronously once the
+     * write behind delay has elapsed.
+     *
+     * @throws RegistryException if changes could not be written, if write behind is enabled the
+     *                           last asynchronous write failed, the changes will be retried
+     */
+    public void persist() throws RegistryException {
+        if (scheduler == null) {
+            flush();
+            return;
+        }
+        synchronized (this) {
+            scheduleWrite();
+            if (lastWriteFailure != null) {
+                throw new RegistryException(String.format("Could not persist %s in registry", name),
+                        lastWriteFailure);
+            }
+        }
+    }
+
+    /**
+     * Schedule a write if changes are pending and a write has not been scheduled, guarded by this.
+     */
+    private void scheduleWrite() {
+        if (writeScheduled || changedResources.isEmpty()) {
+            return;
+        }
+        writeScheduled = true;
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (WriteBehindRegistryPersister.this) {
+                    // Changes made from here onwards will schedule another write
+                    writeScheduled = false;
+                }
+                try {
+                    flush();
+                } catch (Exception e) {
+                    log.error(String.format("Could not persist %s in registry, changes will be retried", name), e);
+                }
+            }
+        }, writeBehindDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write changes made since the last write to the registry.
+     *
+     * @throws RegistryException if the changes could not be written, the changes are kept and
+     *                           retried with the next write
+     */
+    public void flush() throws RegistryException {
+        synchronized (writeLock) {
+            Map<String, byte[]> resources;
+            synchronized (this) {
+                if (changedResources.isEmpty()) {
+                    return;
+                }
+                resources = changedResources;
+                changedResources = new HashMap<String, byte[]>();
+            }
+
+            Map<String, byte[]> updatedResources = new HashMap<String, byte[]>();
+            Map<String, byte[]> updatedDigests = new HashMap<String, byte[]>();
+            List<String> removedResourcePaths = new ArrayList<String>();
+            for (Map.Entry<String, byte[]> entry : resources.entrySet()) {
+                String resourcePath = entry.getKey();
+                if (entry.getValue() == null) {
+                    if (resourcePathToDigestMap.containsKey(resourcePath)) {
+                        removedResourcePaths.add(resourcePath);
+                    }
+                    continue;
+                }
+                byte[] digest = calculateDigest(entry.getValue());
+                if (!Arrays.equals(digest, resourcePathToDigestMap.get(resourcePath))) {
+                    updatedResources.put(resourcePath, entry.getValue());
+                    updatedDigests.put(resourcePath, digest);
+                }
+            }
+            if (updatedResources.isEmpty() && removedResourcePaths.isEmpty()) {
+                return;
+            }
+
+            long startTime = System.currentTimeMillis();
+            try {
+                write(updatedResources, removedResourcePaths);
+            } catch (RegistryException e) {
+                synchronized (this) {
+                    // Keep the changes for the next write unless they have been changed again
+                    for (Map.Entry<String, byte[]> entry : resources.entrySet()) {
+                        if (!changedResources.containsKey(entry.getKey())) {
+                            changedResources.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    lastWriteFailure = e;
+                    if (scheduler != null) {
+                        scheduleWrite();
+                    }
+                }
+                throw e;
+            }
+            resourcePathToDigestMap.putAll(updatedDigests);
+            for (String resourcePath : removedResourcePaths) {
+                resourcePathToDigestMap.remove(resourcePath);
+            }
+            synchronized (this) {
+                lastWriteFailure = null;
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("%s persisted in registry: [updated] %d [removed] %d [unchanged] %d " +
+                                "[duration] %d ms", name, updatedResources.size(), removedResourcePaths.size(),
+                        resources.size() - updatedResources.size() - removedResourcePaths.size(),
+                        System.currentTimeMillis() - startTime));
+            }
+        }
+    }
+
+    /**
+     * Write resources to the registry in a single transaction.
+     *
+     * @param resources            resource path to content map of the resources to be written
+     * @param removedResourcePaths paths of the resources to be removed
+     * @throws RegistryException if the resources could not be written
+     */
+    protected void write(Map<String, byte[]> resources, List<String> removedResourcePaths) throws RegistryException {
+        RegistryManager.getInstance().persist(resources, removedResourcePaths);
+    }
+
+    /**
+     * Register objects read from the registry as persisted, so that they are not written again
+     * unless they are changed.
+     *
+     * @param resources resource path to object map read from the registry
+     */
+    public void setPersistedResources(Map<String, Serializable> resources) {
+        synchronized (writeLock) {
+            resourcePathToDigestMap.clear();
+            for (Map.Entry<String, Serializable> entry : resources.entrySet()) {
+                byte[] content;
+                synchronized (this) {
+                    // Objects added while reading the registry have already been marked as updated
+                    content = changedResources.remove(entry.getKey());
+                }
+                try {
+                    if (content == null) {
+                        content = serialize(entry.getKey(), entry.getValue());
+                    }
+                    resourcePathToDigestMap.put(entry.getKey(), calculateDigest(content));
+                } catch (RegistryException e) {
+                    log.warn(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private byte[] serialize(String resourcePath, Serializable object) throws RegistryException {
+        try {
+            return RegistryManager.getInstance().serializeToByteArray(object);
+        } catch (IOException e) {
+            throw new RegistryException("Could not serialize resource: [resource-path] " + resourcePath, e);
+        }
+    }
+
+    private static byte[] calculateDigest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -152,7 +152,8 @@ public interface CloudControllerService {
 
     /**
      * Start instances with the given instance contexts. Instances startup process will run in background and
-     * this method will return with the relevant member contexts.
+     * this method will return with the relevant member contexts. If any of the instance contexts could not be
+     * processed none of the instances are started and an exception is thrown.
      *
      * @param instanceContexts An array of instance contexts
      * @return member contexts
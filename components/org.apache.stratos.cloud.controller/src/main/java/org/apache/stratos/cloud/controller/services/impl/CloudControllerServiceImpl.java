@@ -214,25 +214,24 @@ public class CloudControllerServiceImpl implements CloudControllerService {
     private Cartridge removeCartridgeFromCC(String cartridgeType) throws InvalidCartridgeTypeException {
         Cartridge cartridge;
         if ((cartridge = CloudControllerContext.getInstance().getCartridge(cartridgeType)) != null) {
-            if (CloudControllerContext.getInstance().getCartridges().remove(cartridge)) {
-                // invalidate partition validation cache
-                CloudControllerContext.getInstance().removeFromCartridgeTypeToPartitionIds(cartridgeType);
+            CloudControllerContext.getInstance().removeCartridge(cartridge);
+            // invalidate partition validation cache
+            CloudControllerContext.getInstance().removeFromCartridgeTypeToPartitionIds(cartridgeType);
 
-                if (log.isDebugEnabled()) {
-                    log.debug("Partition cache invalidated for cartridge " + cartridgeType);
-                }
+            if (log.isDebugEnabled()) {
+                log.debug("Partition cache invalidated for cartridge " + cartridgeType);
+            }
 
-                try {
-                    CloudControllerContext.getInstance().persist();
-                } catch (RegistryException e) {
-                    log.error("Could not remove cartridge " + cartridgeType, e);
-                    return null;
-                }
-                if (log.isInfoEnabled()) {
-                    log.info("Successfully removed cartridge: [cartridge-type] " + cartridgeType);
-                }
-                return cartridge;
+            try {
+                CloudControllerContext.getInstance().persist();
+            } catch (RegistryException e) {
+                log.error("Could not remove cartridge " + cartridgeType, e);
+                return null;
+            }
+            if (log.isInfoEnabled()) {
+                log.info("Successfully removed cartridge: [cartridge-type] " + cartridgeType);
             }
+            return cartridge;
         }
         String msg = "Cartridge not found: [cartridge-type] " + cartridgeType;
         log.error(msg);
@@ -264,18 +263,17 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         ServiceGroup serviceGroup;
         serviceGroup = CloudControllerContext.getInstance().getServiceGroup(name);
         if (serviceGroup != null) {
-            if (CloudControllerContext.getInstance().getServiceGroups().remove(serviceGroup)) {
-                try {
-                    CloudControllerContext.getInstance().persist();
-                } catch (RegistryException e) {
-                    log.error("Could not remove service group [service-group] " + name);
-                    return false;
-                }
-                if (log.isInfoEnabled()) {
-                    log.info("Successfully removed the cartridge group: [group-name] " + serviceGroup);
-                }
-                return true;
+            CloudControllerContext.getInstance().removeServiceGroups(Collections.singletonList(serviceGroup));
+            try {
+                CloudControllerContext.getInstance().persist();
+            } catch (RegistryException e) {
+                log.error("Could not remove service group [service-group] " + name, e);
+                return false;
+            }
+            if (log.isInfoEnabled()) {
+                log.info("Successfully removed the cartridge group: [group-name] " + serviceGroup);
             }
+            return true;
         }
         String msg = "Cartridge group not found: [group-name] " + name;
         log.error(msg);
@@ -336,19 +334,77 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
         handleNullObject(instanceContexts, "Instance start-up failed, member contexts is null");
 
-        List<MemberContext> memberContextList = new ArrayList<>();
+        // Create member contexts of all instances and persist them at once. If an instance context
+        // fails, the members already created are removed and none of the instances are started.
+        List<InstanceCreator> instanceCreators = new ArrayList<>();
         for (InstanceContext instanceContext : instanceContexts) {
             if (instanceContext != null) {
-                MemberContext memberContext = startInstance(instanceContext);
-                memberContextList.add(memberContext);
+                try {
+                    instanceCreators.add(createInstanceCreator(instanceContext));
+                } catch (CloudControllerException e) {
+                    removeCreatedMembers(instanceCreators);
+                    throw e;
+                }
             }
         }
+        try {
+            persistMemberContexts();
+        } catch (CloudControllerException e) {
+            removeCreatedMembers(instanceCreators);
+            throw e;
+        }
+
+        List<MemberContext> memberContextList = new ArrayList<>();
+        for (InstanceCreator instanceCreator : instanceCreators) {
+            executorService.execute(instanceCreator);
+            memberContextList.add(instanceCreator.getMemberContext());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Instance creator threads started: [count] %d", memberContextList.size()));
+        }
         return memberContextList.toArray(new MemberContext[memberContextList.size()]);
     }
 
+    /**
+     * Remove the members created for a set of instances which are not going to be started.
+     */
+    private void removeCreatedMembers(List<InstanceCreator> instanceCreators) {
+        for (InstanceCreator instanceCreator : instanceCreators) {
+            MemberContext memberContext = instanceCreator.getMemberContext();
+            try {
+                CloudControllerServiceUtil.executeMemberTerminationPostProcess(memberContext);
+            } catch (Exception e) {
+                log.error(String.format("Could not remove member created for an instance which was not started: " +
+                        "[cluster] %s [member] %s", memberContext.getClusterId(), memberContext.getMemberId()), e);
+            }
+        }
+    }
+
     public MemberContext startInstance(InstanceContext instanceContext)
             throws CartridgeNotFoundException, InvalidIaasProviderException, CloudControllerException {
 
+        InstanceCreator instanceCreator = createInstanceCreator(instanceContext);
+        persistMemberContexts();
+        executorService.execute(instanceCreator);
+        return instanceCreator.getMemberContext();
+    }
+
+    private void persistMemberContexts() {
+        try {
+            CloudControllerContext.getInstance().persist();
+        } catch (RegistryException e) {
+            String msg = "Could not persist member contexts";
+            log.error(msg, e);
+            throw new CloudControllerException(msg, e);
+        }
+    }
+
+    /**
+     * Validate the instance context, create the member context and the instance payload. Returns the
+     * instance creator which starts the instance in the IaaS once executed.
+     */
+    private InstanceCreator createInstanceCreator(InstanceContext instanceContext) {
+
         try {
             // Validate instance context
             handleNullObject(instanceContext, "Could not start instance, instance context is null");
@@ -482,24 +538,21 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                     }
                 }
                 clusterContext.setVolumes(volumes);
+                CloudControllerContext.getInstance().updateClusterContext(clusterContext);
             }
 
             // Handle member created event
             TopologyBuilder.handleMemberCreatedEvent(memberContext);
 
-            // Persist member context
+            // Add member context, it is persisted by the caller
             CloudControllerContext.getInstance().addMemberContext(memberContext);
-            CloudControllerContext.getInstance().persist();
 
-            // Start instance in a new thread
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Starting instance creator thread: [cluster] %s [cluster-instance] %s "
+                log.debug(String.format("Creating instance creator: [cluster] %s [cluster-instance] %s "
                                 + "[member] %s [application-id] %s", instanceContext.getClusterId(),
                         instanceContext.getClusterInstanceId(), memberId, applicationId));
             }
-            executorService.execute(new InstanceCreator(memberContext, iaasProvider, payload.toString().getBytes()));
-
-            return memberContext;
+            return new InstanceCreator(memberContext, iaasProvider, payload.toString().getBytes());
         } catch (Exception e) {
             String msg = String.format("Could not start instance: [cluster] %s [cluster-instance] %s",
                     instanceContext.getClusterId(), instanceContext.getClusterInstanceId());
@@ -1471,6 +1524,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
                 // Update information model
                 kubernetesClusterStored.setKubernetesHosts(kubernetesHostsArray);
+                CloudControllerContext.getInstance().updateKubernetesCluster(kubernetesClusterStored);
 
                 if (log.isInfoEnabled()) {
                     log.info(String.format("Kubernetes host removed successfully: [id] %s", kubernetesHostId));
@@ -1505,6 +1559,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
                 // Update information model
                 kubernetesClusterStored.setKubernetesMaster(kubernetesMaster);
+                CloudControllerContext.getInstance().updateKubernetesCluster(kubernetesClusterStored);
 
                 CloudControllerContext.getInstance().persist();
 
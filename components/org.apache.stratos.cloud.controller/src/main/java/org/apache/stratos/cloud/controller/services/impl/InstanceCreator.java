@@ -48,12 +48,13 @@ public class InstanceCreator implements Runnable {
         this.payload = payload;
     }
 
+    public MemberContext getMemberContext() {
+        return memberContext;
+    }
+
     @Override
     public void run() {
-        Lock lock = null;
         try {
-            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
-
             String clusterId = memberContext.getClusterId();
             Partition partition = memberContext.getPartition();
             ClusterContext clusterContext = CloudControllerContext.getInstance().getClusterContext(clusterId);
@@ -64,6 +65,8 @@ public class InstanceCreator implements Runnable {
                 log.debug(String.format("Payload passed to instance created, [member] %s [payload] %s",
                         memberContext.getMemberId(), new String(payload)));
             }
+            // IaaS calls are made without holding the member context lock, it is only acquired
+            // for updating the member context, allowing instances to be started concurrently
             memberContext = startInstance(iaas, memberContext, payload);
 
             if (log.isInfoEnabled()) {
@@ -80,6 +83,10 @@ public class InstanceCreator implements Runnable {
 
             // Allocate IP addresses
             iaas.allocateIpAddresses(clusterId, memberContext, partition);
+            if (!updateMemberContext(memberContext)) {
+                terminateInstance(iaas, memberContext);
+                return;
+            }
 
             // Update topology
             TopologyBuilder.handleMemberInitializedEvent(memberContext);
@@ -87,10 +94,6 @@ public class InstanceCreator implements Runnable {
             String message = String.format("Could not start instance: [cartridge-type] %s [cluster-id] %s",
                     memberContext.getCartridgeType(), memberContext.getClusterId());
             log.error(message, e);
-        } finally {
-            if (lock != null) {
-                CloudControllerContext.getInstance().releaseWriteLock(lock);
-            }
         }
     }
 
@@ -107,8 +110,11 @@ public class InstanceCreator implements Runnable {
         }
 
         // Update member context and persist changes
-        CloudControllerContext.getInstance().updateMemberContext(memberContext);
-        CloudControllerContext.getInstance().persist();
+        if (!updateMemberContext(memberContext)) {
+            terminateInstance(iaas, memberContext);
+            throw new IllegalStateException(String.format("Member context not found: [cartridge-type] %s " +
+                    "[member-id] %s", memberContext.getCartridgeType(), memberContext.getMemberId()));
+        }
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Member context updated: [application] %s [cartridge] %s [member] %s",
@@ -117,6 +123,49 @@ public class InstanceCreator implements Runnable {
         return memberContext;
     }
 
+    /**
+     * Update member context and persist changes while holding the member context write lock.
+     *
+     * @param memberContext member context to be updated
+     * @return false if the member context has been removed while the instance was being started
+     * @throws RegistryException if the changes could not be persisted
+     */
+    private boolean updateMemberContext(MemberContext memberContext) throws RegistryException {
+        Lock lock = null;
+        try {
+            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+            if (CloudControllerContext.getInstance().getMemberContextOfMemberId(memberContext.getMemberId()) == null) {
+                log.warn(String.format("Member was terminated while starting the instance: [cartridge-type] %s " +
+                                "[member-id] %s [instance-id] %s", memberContext.getCartridgeType(),
+                        memberContext.getMemberId(), memberContext.getInstanceId()));
+                return false;
+            }
+            CloudControllerContext.getInstance().updateMemberContext(memberContext);
+            CloudControllerContext.getInstance().persist();
+            return true;
+        } finally {
+            if (lock != null) {
+                CloudControllerContext.getInstance().releaseWriteLock(lock);
+            }
+        }
+    }
+
+    /**
+     * Terminate an instance started for a member which has been terminated in the meantime.
+     *
+     * @param iaas          iaas of the member
+     * @param memberContext member context of the instance
+     */
+    private void terminateInstance(Iaas iaas, MemberContext memberContext) {
+        try {
+            iaas.terminateInstance(memberContext);
+        } catch (Exception e) {
+            log.error(String.format("Could not terminate instance: [cartridge-type] %s [member-id] %s " +
+                            "[instance-id] %s", memberContext.getCartridgeType(), memberContext.getMemberId(),
+                    memberContext.getInstanceId()), e);
+        }
+    }
+
     public void attachVolumes(Iaas iaas, ClusterContext clusterContext, MemberContext memberContext) {
         // attach volumes
         if (clusterContext.isVolumeRequired()) {
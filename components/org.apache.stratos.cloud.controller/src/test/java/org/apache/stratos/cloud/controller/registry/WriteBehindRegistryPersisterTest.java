@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.registry;
+
+import junit.framework.TestCase;
+import org.apache.stratos.common.serialization.SerializerFactory;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.Serializable;
+import java.util.*;
+
+public class WriteBehindRegistryPersisterTest extends TestCase {
+
+    private static final String MEMBER_1 = "/cloud.controller/context/members/member-1";
+    private static final String MEMBER_2 = "/cloud.controller/context/members/member-2";
+
+    private TestPersister persister;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        persister = new TestPersister();
+    }
+
+    public void testChangesAreCoalesced() throws Exception {
+        persister.update(MEMBER_1, "initialized");
+        persister.update(MEMBER_1, "active");
+        persister.update(MEMBER_2, "created");
+        persister.persist();
+
+        assertEquals(1, persister.writes.size());
+        Map<String, byte[]> resources = persister.writes.get(0);
+        assertEquals(2, resources.size());
+        assertEquals("active", deserialize(resources.get(MEMBER_1)));
+        assertEquals("created", deserialize(resources.get(MEMBER_2)));
+    }
+
+    public void testSnapshotIsTakenWhenMarked() throws Exception {
+        ArrayList<String> members = new ArrayList<String>();
+        members.add("member-1");
+        persister.update(MEMBER_1, members);
+        members.add("member-2");
+        persister.persist();
+
+        assertEquals(Collections.singletonList("member-1"), deserialize(persister.writes.get(0).get(MEMBER_1)));
+    }
+
+    public void testUnchangedResourcesAreSkipped() throws Exception {
+        persister.update(MEMBER_1, "active");
+        persister.update(MEMBER_2, "active");
+        persister.persist();
+        assertEquals(1, persister.writes.size());
+
+        persister.update(MEMBER_1, "active");
+        persister.update(MEMBER_2, "terminated");
+        persister.persist();
+        assertEquals(2, persister.writes.size());
+        assertEquals(Collections.singleton(MEMBER_2), persister.writes.get(1).keySet());
+
+        persister.update(MEMBER_1, "active");
+        persister.persist();
+        assertEquals(2, persister.writes.size());
+    }
+
+    public void testPersistedResourcesAreNotWrittenAgain() throws Exception {
+        Map<String, Serializable> resources = new HashMap<String, Serializable>();
+        resources.put(MEMBER_1, "active");
+        persister.update(MEMBER_1, "active");
+        persister.setPersistedResources(resources);
+        persister.persist();
+        assertTrue(persister.writes.isEmpty());
+
+        persister.update(MEMBER_1, "active");
+        persister.persist();
+        assertTrue(persister.writes.isEmpty());
+    }
+
+    public void testRemovals() throws Exception {
+        persister.remove(MEMBER_1);
+        persister.persist();
+        assertTrue(persister.writes.isEmpty());
+
+        persister.update(MEMBER_1, "active");
+        persister.persist();
+        persister.remove(MEMBER_1);
+        persister.persist();
+        assertEquals(2, persister.writes.size());
+        assertEquals(Collections.singletonList(MEMBER_1), persister.removals.get(1));
+
+        // A resource written again after being removed is not skipped
+        persister.update(MEMBER_1, "active");
+        persister.persist();
+        assertEquals(3, persister.writes.size());
+        assertEquals("active", deserialize(persister.writes.get(2).get(MEMBER_1)));
+    }
+
+    public void testFailedChangesAreRetried() throws Exception {
+        persister.update(MEMBER_1, "active");
+        persister.update(MEMBER_2, "active");
+        persister.failure = new RegistryException("Registry not available");
+        try {
+            persister.persist();
+            fail("Write failure was not reported");
+        } catch (RegistryException e) {
+            assertSame(persister.failure, e);
+        }
+
+        // Changes marked after the failure take precedence over the changes which were not written
+        persister.update(MEMBER_2, "terminated");
+        persister.failure = null;
+        persister.persist();
+
+        assertEquals(2, persister.writes.size());
+        Map<String, byte[]> resources = persister.writes.get(1);
+        assertEquals("active", deserialize(resources.get(MEMBER_1)));
+        assertEquals("terminated", deserialize(resources.get(MEMBER_2)));
+
+        persister.persist();
+        assertEquals(2, persister.writes.size());
+    }
+
+    private static Object deserialize(byte[] content) throws Exception {
+        return SerializerFactory.getSerializer(content).deserialize(content,
+                WriteBehindRegistryPersisterTest.class.getClassLoader());
+    }
+
+    /**
+     * Records writes instead of writing to the registry.
+     */
+    private static class TestPersister extends WriteBehindRegistryPersister {
+
+        private final List<Map<String, byte[]>> writes = new ArrayList<Map<String, byte[]>>();
+        private final List<List<String>> removals = new ArrayList<List<String>>();
+        private RegistryException failure;
+
+        private TestPersister() {
+            super("Test", 0);
+        }
+
+        @Override
+        protected void write(Map<String, byte[]> resources, List<String> removedResourcePaths)
+                throws RegistryException {
+            writes.add(new HashMap<String, byte[]>(resources));
+            removals.add(new ArrayList<String>(removedResourcePaths));
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
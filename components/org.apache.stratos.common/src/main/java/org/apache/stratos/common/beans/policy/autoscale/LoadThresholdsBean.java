@@ -27,6 +27,7 @@ public class LoadThresholdsBean {
     private RequestsInFlightThresholdsBean requestsInFlight;
     private MemoryConsumptionThresholdsBean memoryConsumption;
     private LoadAverageThresholdsBean loadAverage;
+    private RequestLatencyThresholdsBean requestLatency;
 
     public RequestsInFlightThresholdsBean getRequestsInFlight() {
         return requestsInFlight;
@@ -51,4 +52,12 @@ public class LoadThresholdsBean {
     public void setLoadAverage(LoadAverageThresholdsBean loadAverage) {
         this.loadAverage = loadAverage;
     }
+
+    public RequestLatencyThresholdsBean getRequestLatency() {
+        return requestLatency;
+    }
+
+    public void setRequestLatency(RequestLatencyThresholdsBean requestLatency) {
+        this.requestLatency = requestLatency;
+    }
 }
@@ -16,23 +16,21 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.stratos.load.balancer.statistics;
 
-import java.util.concurrent.Callable;
+package org.apache.stratos.common.beans.policy.autoscale;
 
-/**
- * In-flight request increment callable definition.
- */
-public class InFlightRequestIncrementCallable implements Callable<Object> {
-    private String clusterId;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+public class RequestLatencyThresholdsBean {
+
+    private float threshold;
 
-    public InFlightRequestIncrementCallable(String clusterId) {
-        this.clusterId = clusterId;
+    public float getThreshold() {
+        return threshold;
     }
 
-    @Override
-    public Object call() throws Exception {
-        LoadBalancerStatisticsCollector.getInstance().incrementInFlightRequestCount(clusterId);
-        return null;
+    public void setThreshold(float threshold) {
+        this.threshold = threshold;
     }
 }
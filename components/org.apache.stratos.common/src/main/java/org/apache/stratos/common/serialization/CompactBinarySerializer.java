@@ -0,0 +1,779 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.serialization;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compact binary serializer. Objects are written field by field using reflection with the
+ * following properties:
+ * <ul>
+ * <li>Each value is prefixed with a one byte type tag, integers are written as variable length
+ * integers.</li>
+ * <li>Class names, field names and strings are written once per stream and referred to by index
+ * afterwards.</li>
+ * <li>Fields are identified by name, hence fields added to a class since the object was written
+ * keep their default values and fields no longer found in the class are skipped.</li>
+ * <li>Shared and cyclic references are preserved as in java serialization.</li>
+ * </ul>
+ * Similar to java serialization, only {@link Serializable} objects are accepted and transient
+ * fields are not written. Objects of classes defining custom serialization methods, externalizable
+ * objects and JDK classes other than the common collections are written using java serialization.
+ */
+public class CompactBinarySerializer implements Serializer {
+
+    private static final Log log = LogFactory.getLog(CompactBinarySerializer.class);
+
+    private static final byte[] MAGIC = {(byte) 'S', (byte) 'B'};
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte STRING_REFERENCE = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte BYTE = 6;
+    private static final byte SHORT = 7;
+    private static final byte CHAR = 8;
+    private static final byte INT = 9;
+    private static final byte LONG = 10;
+    private static final byte FLOAT = 11;
+    private static final byte DOUBLE = 12;
+    private static final byte ENUM = 13;
+    private static final byte BYTE_ARRAY = 14;
+    private static final byte ARRAY = 15;
+    private static final byte COLLECTION = 16;
+    private static final byte MAP = 17;
+    private static final byte OBJECT = 18;
+    private static final byte JAVA_OBJECT = 19;
+
+    /* Collections written element by element and created using their default constructors */
+    private static final Set<Class<?>> COLLECTION_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            ArrayList.class, LinkedList.class, HashSet.class, LinkedHashSet.class, TreeSet.class, Vector.class,
+            Stack.class, ArrayDeque.class, CopyOnWriteArrayList.class, CopyOnWriteArraySet.class,
+            ConcurrentLinkedQueue.class));
+    private static final Set<Class<?>> MAP_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            HashMap.class, LinkedHashMap.class, TreeMap.class, Hashtable.class, Properties.class,
+            ConcurrentHashMap.class, ConcurrentSkipListMap.class));
+    /* Fixed size list returned by Arrays.asList(), written as an array list */
+    private static final Class<?> ARRAYS_LIST_CLASS = Arrays.asList().getClass();
+    private static final Map<String, Class<?>> PRIMITIVE_CLASSES = new HashMap<String, Class<?>>();
+    private static final Field PROPERTIES_DEFAULTS_FIELD;
+
+    private static final ConcurrentMap<Class<?>, ClassInfo> classInfoMap = new ConcurrentHashMap<Class<?>, ClassInfo>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, short.class, char.class, int.class,
+                long.class, float.class, double.class}) {
+            PRIMITIVE_CLASSES.put(type.getName(), type);
+        }
+        Field field = null;
+        try {
+            field = Properties.class.getDeclaredField("defaults");
+            field.setAccessible(true);
+        } catch (Exception e) {
+            // Properties will be written using java serialization
+            field = null;
+        }
+        PROPERTIES_DEFAULTS_FIELD = field;
+    }
+
+    private final JavaSerializer javaSerializer = new JavaSerializer();
+
+    /**
+     * Returns true if the given bytes were written by this serializer.
+     *
+     * @param bytes serialized bytes
+     * @return true if the bytes start with the compact binary stream magic
+     */
+    public static boolean isCompactBinary(byte[] bytes) {
+        return (bytes != null) && (bytes.length > MAGIC.length) && (bytes[0] == MAGIC[0]) && (bytes[1] == MAGIC[1]);
+    }
+
+    @Override
+    public byte[] serialize(Object object) throws IOException {
+        Output output = new Output(1024);
+        output.writeBytes(MAGIC, 0, MAGIC.length);
+        output.writeByte(FORMAT_VERSION);
+        new Writer(output).writeValue(object);
+        return output.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        if (!isCompactBinary(bytes)) {
+            throw new StreamCorruptedException("Bytes were not written by the compact binary serializer");
+        }
+        Input input = new Input(bytes, MAGIC.length);
+        int version = input.readByte();
+        if (version > FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported compact binary format version: " + version);
+        }
+        return new Reader(input, classLoader).readValue();
+    }
+
+    private static ClassInfo getClassInfo(Class<?> type) throws NotSerializableException {
+        ClassInfo classInfo = classInfoMap.get(type);
+        if (classInfo == null) {
+            classInfo = new ClassInfo(type);
+            ClassInfo existing = classInfoMap.putIfAbsent(type, classInfo);
+            if (existing != null) {
+                classInfo = existing;
+            }
+        }
+        if (!classInfo.serializable) {
+            throw new NotSerializableException(type.getName());
+        }
+        return classInfo;
+    }
+
+    /**
+     * Returns true if the given collection or map could be written element by element without
+     * losing its state.
+     */
+    private static boolean isPlainContainer(Object value) {
+        if ((value instanceof SortedSet) && (((SortedSet) value).comparator() != null)) {
+            return false;
+        }
+        if ((value instanceof SortedMap) && (((SortedMap) value).comparator() != null)) {
+            return false;
+        }
+        if (value instanceof Properties) {
+            try {
+                return (PROPERTIES_DEFAULTS_FIELD != null) && (PROPERTIES_DEFAULTS_FIELD.get(value) == null);
+            } catch (IllegalAccessException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serialization metadata of a class.
+     */
+    private static class ClassInfo {
+
+        private final Class<?> type;
+        private final boolean serializable;
+        private final boolean javaSerialized;
+        private final String[] fieldKeys;
+        private final Field[] fields;
+        private final Map<String, Field> keyToFieldMap;
+        private volatile Constructor<?> constructor;
+
+        private ClassInfo(Class<?> type) {
+            this.type = type;
+            this.serializable = Serializable.class.isAssignableFrom(type);
+            this.javaSerialized = serializable && requiresJavaSerialization(type);
+            this.keyToFieldMap = new LinkedHashMap<String, Field>();
+            if (serializable && !javaSerialized) {
+                for (Class<?> current = type; (current != null) && Serializable.class.isAssignableFrom(current);
+                     current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        String key = keyToFieldMap.containsKey(field.getName()) ?
+                                current.getName() + "." + field.getName() : field.getName();
+                        keyToFieldMap.put(key, field);
+                    }
+                }
+            }
+            this.fieldKeys = keyToFieldMap.keySet().toArray(new String[keyToFieldMap.size()]);
+            this.fields = keyToFieldMap.values().toArray(new Field[keyToFieldMap.size()]);
+        }
+
+        private static boolean requiresJavaSerialization(Class<?> type) {
+            String name = type.getName();
+            if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                    || Externalizable.class.isAssignableFrom(type) || Proxy.isProxyClass(type)) {
+                return true;
+            }
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                if (declaresMethod(current, "writeReplace") || declaresMethod(current, "readResolve")) {
+                    return true;
+                }
+                if (Serializable.class.isAssignableFrom(current) && (
+                        declaresMethod(current, "writeObject", ObjectOutputStream.class)
+                                || declaresMethod(current, "readObject", ObjectInputStream.class)
+                                || declaresMethod(current, "readObjectNoData")
+                                || declaresField(current, "serialPersistentFields"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean declaresMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private static boolean declaresField(Class<?> type, String name) {
+            try {
+                type.getDeclaredField(name);
+                return true;
+            } catch (NoSuchFieldException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Create an instance without invoking the constructors of serializable classes, in the
+         * same way java serialization does.
+         */
+        private Object newInstance() throws IOException {
+            try {
+                if (constructor == null) {
+                    constructor = createConstructor(type);
+                }
+                return constructor.newInstance();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw (IOException) new InvalidClassException(type.getName(), "Could not create instance")
+                        .initCause(e);
+            }
+        }
+
+        private static Constructor<?> createConstructor(Class<?> type) throws Exception {
+            Class<?> baseType = type;
+            while ((baseType != null) && Serializable.class.isAssignableFrom(baseType)) {
+                baseType = baseType.getSuperclass();
+            }
+            Constructor<?> baseConstructor = (baseType == null) ? Object.class.getDeclaredConstructor() :
+                    baseType.getDeclaredConstructor();
+            try {
+                Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory", true, null);
+                Object factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+                Constructor<?> constructor = (Constructor<?>) factoryClass.getMethod("newConstructorForSerialization",
+                        Class.class, Constructor.class).invoke(factory, type, baseConstructor);
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (Exception e) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Serialization constructor not available, using default constructor: " +
+                            "[class] %s", type.getName()), e);
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            }
+        }
+    }
+
+    /**
+     * Object graph writer, keeps the references written to a single stream.
+     */
+    private class Writer {
+
+        private final Output output;
+        private final Map<Object, Integer> objectIds = new IdentityHashMap<Object, Integer>();
+        private final Map<String, Integer> stringIds = new HashMap<String, Integer>();
+        private final Map<Class<?>, Integer> classIds = new HashMap<Class<?>, Integer>();
+        private final Map<Class<?>, Integer> descriptorIds = new HashMap<Class<?>, Integer>();
+
+        private Writer(Output output) {
+            this.output = output;
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                output.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                output.writeByte(INT);
+                output.writeVarLong(zigZag((Integer) value));
+            } else if (type == Long.class) {
+                output.writeByte(LONG);
+                output.writeVarLong(zigZag((Long) value));
+            } else if (type == Boolean.class) {
+                output.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                output.writeByte(DOUBLE);
+                output.writeLong(Double.doubleToLongBits((Double) value));
+            } else if (type == Float.class) {
+                output.writeByte(FLOAT);
+                output.writeInt(Float.floatToIntBits((Float) value));
+            } else if (type == Short.class) {
+                output.writeByte(SHORT);
+                output.writeVarLong(zigZag((Short) value));
+            } else if (type == Byte.class) {
+                output.writeByte(BYTE);
+                output.writeByte((Byte) value);
+            } else if (type == Character.class) {
+                output.writeByte(CHAR);
+                output.writeVarLong((Character) value);
+            } else if (value instanceof Enum) {
+                output.writeByte(ENUM);
+                writeClass(((Enum) value).getDeclaringClass());
+                writeString(((Enum) value).name());
+            } else {
+                writeObject(value, type);
+            }
+        }
+
+        private void writeObject(Object value, Class<?> type) throws IOException {
+            Integer objectId = objectIds.get(value);
+            if (objectId != null) {
+                output.writeByte(REFERENCE);
+                output.writeVarLong(objectId);
+                return;
+            }
+
+            if (type == byte[].class) {
+                objectIds.put(value, objectIds.size());
+                byte[] bytes = (byte[]) value;
+                output.writeByte(BYTE_ARRAY);
+                output.writeVarLong(bytes.length);
+                output.writeBytes(bytes, 0, bytes.length);
+            } else if (type.isArray()) {
+                objectIds.put(value, objectIds.size());
+                int length = Array.getLength(value);
+                output.writeByte(ARRAY);
+                writeClass(type.getComponentType());
+                output.writeVarLong(length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(Array.get(value, i));
+                }
+            } else if ((COLLECTION_CLASSES.contains(type) && isPlainContainer(value)) || (type == ARRAYS_LIST_CLASS)) {
+                objectIds.put(value, objectIds.size());
+                Object[] elements = ((Collection) value).toArray();
+                output.writeByte(COLLECTION);
+                writeClass((type == ARRAYS_LIST_CLASS) ? ArrayList.class : type);
+                output.writeVarLong(elements.length);
+                for (Object element : elements) {
+                    writeValue(element);
+                }
+            } else if (MAP_CLASSES.contains(type) && isPlainContainer(value)) {
+                objectIds.put(value, objectIds.size());
+                Object[] entries = ((Map) value).entrySet().toArray();
+                output.writeByte(MAP);
+                writeClass(type);
+                output.writeVarLong(entries.length);
+                for (Object entry : entries) {
+                    writeValue(((Map.Entry) entry).getKey());
+                    writeValue(((Map.Entry) entry).getValue());
+                }
+            } else {
+                ClassInfo classInfo = getClassInfo(type);
+                objectIds.put(value, objectIds.size());
+                if (classInfo.javaSerialized) {
+                    byte[] bytes = javaSerializer.serialize(value);
+                    output.writeByte(JAVA_OBJECT);
+                    output.writeVarLong(bytes.length);
+                    output.writeBytes(bytes, 0, bytes.length);
+                } else {
+                    output.writeByte(OBJECT);
+                    writeDescriptor(classInfo);
+                    try {
+                        for (Field field : classInfo.fields) {
+                            writeValue(field.get(value));
+                        }
+                    } catch (IllegalAccessException e) {
+                        throw (IOException) new InvalidClassException(type.getName(), "Could not read field")
+                                .initCause(e);
+                    }
+                }
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer stringId = stringIds.get(value);
+            if (stringId != null) {
+                output.writeByte(STRING_REFERENCE);
+                output.writeVarLong(stringId);
+                return;
+            }
+            stringIds.put(value, stringIds.size());
+            output.writeByte(STRING);
+            output.writeString(value);
+        }
+
+        private void writeClass(Class<?> type) throws IOException {
+            Integer classId = classIds.get(type);
+            if (classId != null) {
+                output.writeVarLong(classId + 1);
+                return;
+            }
+            classIds.put(type, classIds.size());
+            output.writeVarLong(0);
+            writeString(type.getName());
+        }
+
+        private void writeDescriptor(ClassInfo classInfo) throws IOException {
+            Integer descriptorId = descriptorIds.get(classInfo.type);
+            if (descriptorId != null) {
+                output.writeVarLong(descriptorId + 1);
+                return;
+            }
+            descriptorIds.put(classInfo.type, descriptorIds.size());
+            output.writeVarLong(0);
+            writeClass(classInfo.type);
+            output.writeVarLong(classInfo.fieldKeys.length);
+            for (String fieldKey : classInfo.fieldKeys) {
+                writeString(fieldKey);
+            }
+        }
+    }
+
+    /**
+     * Object graph reader, keeps the references read from a single stream.
+     */
+    private class Reader {
+
+        private final Input input;
+        private final ClassLoader classLoader;
+        private final List<Object> objects = new ArrayList<Object>();
+        private final List<String> strings = new ArrayList<String>();
+        private final List<Class<?>> classes = new ArrayList<Class<?>>();
+        private final List<Descriptor> descriptors = new ArrayList<Descriptor>();
+
+        private Reader(Input input, ClassLoader classLoader) {
+            this.input = input;
+            this.classLoader = classLoader;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = input.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return objects.get(input.readVarInt());
+                case STRING:
+                    String string = input.readString();
+                    strings.add(string);
+                    return string;
+                case STRING_REFERENCE:
+                    return strings.get(input.readVarInt());
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return input.readByte();
+                case SHORT:
+                    return (short) unZigZag(input.readVarLong());
+                case CHAR:
+                    return (char) input.readVarLong();
+                case INT:
+                    return (int) unZigZag(input.readVarLong());
+                case LONG:
+                    return unZigZag(input.readVarLong());
+                case FLOAT:
+                    return Float.intBitsToFloat(input.readInt());
+                case DOUBLE:
+                    return Double.longBitsToDouble(input.readLong());
+                case ENUM:
+                    Class enumType = readClass();
+                    String name = (String) readValue();
+                    try {
+                        return Enum.valueOf(enumType, name);
+                    } catch (IllegalArgumentException e) {
+                        log.warn(String.format("Enum constant not found, using null: [enum] %s [constant] %s",
+                                enumType.getName(), name));
+                        return null;
+                    }
+                case BYTE_ARRAY:
+                    byte[] bytes = input.readBytes(input.readVarInt());
+                    objects.add(bytes);
+                    return bytes;
+                case ARRAY:
+                    Class<?> componentType = readClass();
+                    Object array = Array.newInstance(componentType, input.readVarInt());
+                    objects.add(array);
+                    for (int i = 0; i < Array.getLength(array); i++) {
+                        Array.set(array, i, readValue());
+                    }
+                    return array;
+                case COLLECTION:
+                    Collection collection = (Collection) newContainer(readClass());
+                    objects.add(collection);
+                    int size = input.readVarInt();
+                    for (int i = 0; i < size; i++) {
+                        collection.add(readValue());
+                    }
+                    return collection;
+                case MAP:
+                    Map map = (Map) newContainer(readClass());
+                    objects.add(map);
+                    int entryCount = input.readVarInt();
+                    for (int i = 0; i < entryCount; i++) {
+                        Object key = readValue();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                case OBJECT:
+                    return readObject();
+                case JAVA_OBJECT:
+                    int index = objects.size();
+                    objects.add(null);
+                    Object object = javaSerializer.deserialize(input.readBytes(input.readVarInt()), classLoader);
+                    objects.set(index, object);
+                    return object;
+                default:
+                    throw new StreamCorruptedException("Unknown compact binary type tag: " + tag);
+            }
+        }
+
+        private Object readObject() throws IOException, ClassNotFoundException {
+            Descriptor descriptor = readDescriptor();
+            Object object = descriptor.classInfo.newInstance();
+            objects.add(object);
+            for (int i = 0; i < descriptor.fields.length; i++) {
+                Object value = readValue();
+                Field field = descriptor.fields[i];
+                if (field == null) {
+                    // Field has been removed from the class
+                    continue;
+                }
+                try {
+                    field.set(object, value);
+                } catch (IllegalArgumentException e) {
+                    log.warn(String.format("Field type has changed, using default value: [class] %s [field] %s",
+                            descriptor.classInfo.type.getName(), field.getName()));
+                } catch (IllegalAccessException e) {
+                    throw (IOException) new InvalidClassException(descriptor.classInfo.type.getName(),
+                            "Could not set field").initCause(e);
+                }
+            }
+            return object;
+        }
+
+        private Object newContainer(Class<?> type) throws IOException {
+            try {
+                return type.newInstance();
+            } catch (Exception e) {
+                throw (IOException) new InvalidClassException(type.getName(), "Could not create instance")
+                        .initCause(e);
+            }
+        }
+
+        private Class<?> readClass() throws IOException, ClassNotFoundException {
+            int classId = input.readVarInt();
+            if (classId > 0) {
+                return classes.get(classId - 1);
+            }
+            String className = (String) readValue();
+            Class<?> type = PRIMITIVE_CLASSES.get(className);
+            if (type == null) {
+                type = Class.forName(className, false, (classLoader != null) ? classLoader :
+                        CompactBinarySerializer.class.getClassLoader());
+            }
+            classes.add(type);
+            return type;
+        }
+
+        private Descriptor readDescriptor() throws IOException, ClassNotFoundException {
+            int descriptorId = input.readVarInt();
+            if (descriptorId > 0) {
+                return descriptors.get(descriptorId - 1);
+            }
+            ClassInfo classInfo = getClassInfo(readClass());
+            Field[] fields = new Field[input.readVarInt()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = classInfo.keyToFieldMap.get((String) readValue());
+            }
+            Descriptor descriptor = new Descriptor(classInfo, fields);
+            descriptors.add(descriptor);
+            return descriptor;
+        }
+    }
+
+    /**
+     * Class descriptor read from a stream, fields not found in the current class are null.
+     */
+    private static class Descriptor {
+
+        private final ClassInfo classInfo;
+        private final Field[] fields;
+
+        private Descriptor(ClassInfo classInfo, Field[] fields) {
+            this.classInfo = classInfo;
+            this.fields = fields;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer.
+     */
+    private static class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        private Output(int initialSize) {
+            this.buffer = new byte[initialSize];
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeString(String value) throws UnsupportedEncodingException {
+            byte[] bytes = value.getBytes("UTF-8");
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * Byte array reader.
+     */
+    private static class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private byte readByte() throws EOFException {
+            if (position >= buffer.length) {
+                throw new EOFException();
+            }
+            return buffer[position++];
+        }
+
+        private byte[] readBytes(int length) throws EOFException {
+            if ((length < 0) || (position + length > buffer.length)) {
+                throw new EOFException();
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed variable length integer");
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if ((value < 0) || (value > Integer.MAX_VALUE)) {
+                throw new StreamCorruptedException("Integer out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        private int readInt() throws EOFException {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        private long readLong() throws EOFException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        private String readString() throws IOException {
+            int length = readVarInt();
+            if (position + length > buffer.length) {
+                throw new EOFException();
+            }
+            String value = new String(buffer, position, length, "UTF-8");
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.serialization;
+
+import java.io.IOException;
+
+/**
+ * Serializer used for converting objects persisted in the registry to bytes and back.
+ * Implementations should be thread safe.
+ */
+public interface Serializer {
+
+    /**
+     * Serialize an object to a byte array.
+     *
+     * @param object object to be serialized
+     * @return serialized bytes
+     * @throws IOException if the object could not be serialized
+     */
+    byte[] serialize(Object object) throws IOException;
+
+    /**
+     * Deserialize a byte array and retrieve the object.
+     *
+     * @param bytes       bytes to be deserialized
+     * @param classLoader class loader used for loading the classes of the serialized objects
+     * @return deserialized object
+     * @throws IOException            if the bytes could not be deserialized
+     * @throws ClassNotFoundException if a class of a serialized object could not be found
+     */
+    Object deserialize(byte[] bytes, ClassLoader classLoader) throws IOException, ClassNotFoundException;
+}
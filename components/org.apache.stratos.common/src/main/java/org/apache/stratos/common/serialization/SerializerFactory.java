@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.serialization;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Serializer factory. The serializer used for writing is selected using the system property
+ * stratos.persistence.serializer, which could be set to "compact" (default), "java" or the class
+ * name of a {@link Serializer} implementation. Bytes written by the compact and java serializers
+ * are always readable regardless of the selected serializer.
+ */
+public class SerializerFactory {
+
+    private static final Log log = LogFactory.getLog(SerializerFactory.class);
+
+    public static final String SERIALIZER_PROPERTY = "stratos.persistence.serializer";
+    public static final String COMPACT_SERIALIZER = "compact";
+    public static final String JAVA_SERIALIZER = "java";
+
+    private static final Serializer compactSerializer = new CompactBinarySerializer();
+    private static final Serializer javaSerializer = new JavaSerializer();
+    private static volatile Serializer serializer;
+
+    private SerializerFactory() {
+    }
+
+    /**
+     * Returns the serializer to be used for serializing objects.
+     *
+     * @return serializer
+     */
+    public static Serializer getSerializer() {
+        if (serializer == null) {
+            synchronized (SerializerFactory.class) {
+                if (serializer == null) {
+                    serializer = createSerializer(System.getProperty(SERIALIZER_PROPERTY, COMPACT_SERIALIZER));
+                }
+            }
+        }
+        return serializer;
+    }
+
+    /**
+     * Returns the serializer which is able to deserialize the given bytes.
+     *
+     * @param bytes serialized bytes
+     * @return serializer
+     */
+    public static Serializer getSerializer(byte[] bytes) {
+        if (CompactBinarySerializer.isCompactBinary(bytes)) {
+            return compactSerializer;
+        }
+        if (JavaSerializer.isJavaSerialized(bytes)) {
+            return javaSerializer;
+        }
+        return getSerializer();
+    }
+
+    private static Serializer createSerializer(String serializerName) {
+        if (StringUtils.isBlank(serializerName) || COMPACT_SERIALIZER.equals(serializerName)) {
+            return compactSerializer;
+        }
+        if (JAVA_SERIALIZER.equals(serializerName)) {
+            return javaSerializer;
+        }
+        try {
+            Serializer customSerializer = (Serializer) Class.forName(serializerName).newInstance();
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Serializer loaded: [class] %s", serializerName));
+            }
+            return customSerializer;
+        } catch (Exception e) {
+            log.error(String.format("Could not load serializer, using compact serializer: [class] %s",
+                    serializerName), e);
+            return compactSerializer;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.statistics.publisher.wso2.cep;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.statistics.publisher.RequestLatencyPublisher;
+import org.wso2.carbon.databridge.commons.Attribute;
+import org.wso2.carbon.databridge.commons.AttributeType;
+import org.wso2.carbon.databridge.commons.StreamDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WSO2 CEP request latency publisher.
+ * <p/>
+ * Request latency:
+ * Percentiles of the time taken by members to respond to requests proxied by the load balancer
+ * within a statistics publishing interval.
+ */
+public class WSO2CEPRequestLatencyPublisher extends RequestLatencyPublisher {
+    private static final Log log = LogFactory.getLog(WSO2CEPRequestLatencyPublisher.class);
+    private static volatile WSO2CEPRequestLatencyPublisher wso2CEPRequestLatencyPublisher;
+    private static final String DATA_STREAM_NAME = "request_latency";
+    private static final String VERSION = "1.0.0";
+    private static final String CEP_THRIFT_CLIENT_NAME = "cep";
+
+    private WSO2CEPRequestLatencyPublisher() {
+        super(createStreamDefinition(), CEP_THRIFT_CLIENT_NAME);
+    }
+
+    public static WSO2CEPRequestLatencyPublisher getInstance() {
+        if (wso2CEPRequestLatencyPublisher == null) {
+            synchronized (WSO2CEPRequestLatencyPublisher.class) {
+                if (wso2CEPRequestLatencyPublisher == null) {
+                    wso2CEPRequestLatencyPublisher = new WSO2CEPRequestLatencyPublisher();
+                }
+            }
+        }
+        return wso2CEPRequestLatencyPublisher;
+    }
+
+    private static StreamDefinition createStreamDefinition() {
+        try {
+            // Create stream definition
+            StreamDefinition streamDefinition = new StreamDefinition(DATA_STREAM_NAME, VERSION);
+            streamDefinition.setNickName("lb request latency");
+            streamDefinition.setDescription("lb request latency");
+            List<Attribute> payloadData = new ArrayList<Attribute>();
+
+            // Set payload definition
+            payloadData.add(new Attribute("cluster_id", AttributeType.STRING));
+            payloadData.add(new Attribute("cluster_instance_id", AttributeType.STRING));
+            payloadData.add(new Attribute("network_partition_id", AttributeType.STRING));
+            payloadData.add(new Attribute("request_count", AttributeType.DOUBLE));
+            payloadData.add(new Attribute("latency_p50", AttributeType.DOUBLE));
+            payloadData.add(new Attribute("latency_p95", AttributeType.DOUBLE));
+            payloadData.add(new Attribute("latency_p99", AttributeType.DOUBLE));
+            payloadData.add(new Attribute("max_member_in_flight_request_count", AttributeType.DOUBLE));
+            streamDefinition.setPayloadData(payloadData);
+            return streamDefinition;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not create stream definition", e);
+        }
+    }
+
+    /**
+     * Publish request latency percentiles of a cluster.
+     *
+     * @param clusterId                      Cluster id
+     * @param clusterInstanceId              Cluster instance id
+     * @param networkPartitionId             Cluster's network partition id
+     * @param requestCount                   Number of requests measured
+     * @param p50                            50th percentile of request latency in milliseconds
+     * @param p95                            95th percentile of request latency in milliseconds
+     * @param p99                            99th percentile of request latency in milliseconds
+     * @param maxMemberInFlightRequestCount  Highest in-flight request count of the cluster's members
+     */
+    @Override
+    public void publish(String clusterId, String clusterInstanceId, String networkPartitionId,
+                        long requestCount, long p50, long p95, long p99, int maxMemberInFlightRequestCount) {
+        // Set payload values
+        List<Object> payload = new ArrayList<Object>();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Publishing request latency: [cluster] %s [cluster-instance] %s " +
+                            "[network-partition] %s [request-count] %d [p50] %d [p95] %d [p99] %d " +
+                            "[max-member-in-flight-request-count] %d", clusterId, clusterInstanceId,
+                    networkPartitionId, requestCount, p50, p95, p99, maxMemberInFlightRequestCount));
+        }
+        payload.add(clusterId);
+        payload.add(clusterInstanceId);
+        payload.add(networkPartitionId);
+        payload.add((double) requestCount);
+        payload.add((double) p50);
+        payload.add((double) p95);
+        payload.add((double) p99);
+        payload.add((double) maxMemberInFlightRequestCount);
+
+        publish(payload.toArray());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.test;
+
+import org.apache.stratos.common.serialization.CompactBinarySerializer;
+import org.apache.stratos.common.serialization.JavaSerializer;
+import org.apache.stratos.common.serialization.Serializer;
+import org.apache.stratos.common.serialization.SerializerFactory;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compact binary serializer tests.
+ */
+public class CompactBinarySerializerTest {
+
+    private final Serializer serializer = new CompactBinarySerializer();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Node parent = new Node("parent", Status.ACTIVE);
+        Node child = new Node("child", Status.INACTIVE);
+        parent.children.add(child);
+        parent.children.add(child);
+        parent.properties.put("key", "value");
+        parent.properties.put("number", 42L);
+        parent.values = new int[]{1, -2, Integer.MAX_VALUE};
+        parent.names = new String[]{"a", null, "a"};
+        parent.ratio = 0.75;
+        child.parent = parent;
+
+        byte[] bytes = serializer.serialize(parent);
+        assertTrue(CompactBinarySerializer.isCompactBinary(bytes));
+        Node copy = (Node) serializer.deserialize(bytes, getClass().getClassLoader());
+
+        assertEquals("parent", copy.name);
+        assertEquals(Status.ACTIVE, copy.status);
+        assertEquals(0.75, copy.ratio, 0);
+        assertEquals(null, copy.transientValue);
+        assertEquals("value", copy.properties.get("key"));
+        assertEquals(42L, copy.properties.get("number"));
+        assertArrayEquals(new int[]{1, -2, Integer.MAX_VALUE}, copy.values);
+        assertArrayEquals(new String[]{"a", null, "a"}, copy.names);
+        assertEquals(2, copy.children.size());
+        assertSame("Shared reference was not preserved", copy.children.get(0), copy.children.get(1));
+        assertSame("Cyclic reference was not preserved", copy, copy.children.get(0).parent);
+        assertEquals(Status.INACTIVE, copy.children.get(0).status);
+    }
+
+    @Test
+    public void testCollections() throws Exception {
+        Map<String, List<Integer>> map = new ConcurrentHashMap<String, List<Integer>>();
+        map.put("list", new ArrayList<Integer>(Arrays.asList(1, 2, 3)));
+        map.put("empty", new LinkedList<Integer>());
+        TreeSet<String> sortedSet = new TreeSet<String>(Collections.reverseOrder());
+        sortedSet.addAll(Arrays.asList("a", "b", "c"));
+        Object[] values = new Object[]{map, sortedSet, new LinkedHashSet<String>(Arrays.asList("x", "y")),
+                new Date(1000L), Collections.unmodifiableList(Arrays.asList("u")), Arrays.asList("p", "q")};
+
+        Object[] copy = (Object[]) serializer.deserialize(serializer.serialize(values), getClass().getClassLoader());
+        assertEquals(map, copy[0]);
+        assertTrue(copy[0] instanceof ConcurrentHashMap);
+        assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<Object>((Collection<?>) copy[1]));
+        assertEquals(Arrays.asList("x", "y"), new ArrayList<Object>((Collection<?>) copy[2]));
+        assertEquals(new Date(1000L), copy[3]);
+        assertEquals(Arrays.asList("u"), copy[4]);
+        assertEquals(Arrays.asList("p", "q"), copy[5]);
+    }
+
+    @Test
+    public void testFieldAddedAndRemoved() throws Exception {
+        PersonV1 person = new PersonV1();
+        person.name = "john";
+        person.age = 30;
+        person.nickname = "jo";
+
+        // Read the object as the next version of the class which does not have the nickname
+        // field and has a new email field
+        byte[] bytes = serializer.serialize(person);
+        replace(bytes, "PersonV1", "PersonV2");
+        PersonV2 copy = (PersonV2) serializer.deserialize(bytes, getClass().getClassLoader());
+
+        assertEquals("john", copy.name);
+        assertEquals(30, copy.age);
+        // Similar to java serialization, field initializers are not run for new fields
+        assertNull(copy.email);
+    }
+
+    @Test
+    public void testFormatDetection() throws Exception {
+        Node node = new Node("node", Status.ACTIVE);
+        byte[] javaBytes = new JavaSerializer().serialize(node);
+        byte[] compactBytes = serializer.serialize(node);
+
+        assertTrue(SerializerFactory.getSerializer(javaBytes) instanceof JavaSerializer);
+        assertTrue(SerializerFactory.getSerializer(compactBytes) instanceof CompactBinarySerializer);
+        assertTrue("Compact binary serialization is larger than java serialization",
+                compactBytes.length < javaBytes.length);
+        Node copy = (Node) SerializerFactory.getSerializer(javaBytes).deserialize(javaBytes,
+                getClass().getClassLoader());
+        assertEquals("node", copy.name);
+    }
+
+    private static void replace(byte[] bytes, String target, String replacement) {
+        byte[] targetBytes = target.getBytes();
+        byte[] replacementBytes = replacement.getBytes();
+        for (int i = 0; i <= bytes.length - targetBytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + targetBytes.length), targetBytes)) {
+                System.arraycopy(replacementBytes, 0, bytes, i, replacementBytes.length);
+                return;
+            }
+        }
+        fail("Class name not found in serialized bytes: " + target);
+    }
+
+    private enum Status {
+        ACTIVE, INACTIVE
+    }
+
+    private static class Node implements Serializable {
+
+        private final String name;
+        private final Status status;
+        private final List<Node> children = new ArrayList<Node>();
+        private final Map<String, Object> properties = new HashMap<String, Object>();
+        private transient String transientValue = "transient";
+        private Node parent;
+        private int[] values;
+        private String[] names;
+        private double ratio;
+
+        private Node(String name, Status status) {
+            this.name = name;
+            this.status = status;
+        }
+    }
+
+    private static class PersonV1 implements Serializable {
+
+        private String name;
+        private int age;
+        private String nickname;
+    }
+
+    private static class PersonV2 implements Serializable {
+
+        private String name;
+        private int age;
+        private String email;
+    }
+}
@@ -38,6 +38,7 @@ public class Cluster {
     private Set<String> hostNames;
     private String tenantRange;
     private Map<String, Member> memberMap;
+    private volatile List<Member> memberList;
     private Map<String, String> hostNameToContextPathMap;
     private String loadBalanceAlgorithmName;
     private Properties properties;
@@ -46,7 +47,8 @@ public class Cluster {
         this.serviceName = serviceName;
         this.clusterId = clusterId;
         this.hostNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
-        this.memberMap = new HashMap<String, Member>();
+        this.memberMap = new ConcurrentHashMap<String, Member>();
+        this.memberList = Collections.emptyList();
         this.hostNameToContextPathMap = new ConcurrentHashMap<String, String>();
     }
 
@@ -71,11 +73,12 @@ public class Cluster {
         hostNameToContextPathMap.put(hostName, contextPath);
     }
 
-    public void addMember(Member member) {
+    public synchronized void addMember(Member member) {
         memberMap.put(member.getMemberId(), member);
+        updateMemberList();
     }
 
-    public void removeMember(String memberId) {
+    public synchronized void removeMember(String memberId) {
         Member member = memberMap.get(memberId);
         if (member == null) {
             if (log.isWarnEnabled()) {
@@ -85,6 +88,16 @@ public class Cluster {
         }
 
         memberMap.remove(memberId);
+        updateMemberList();
+    }
+
+    /**
+     * Rebuild the immutable member list used in the request path. This is only invoked
+     * when members are added or removed, hence reads do not need any locking or copying.
+     */
+    private void updateMemberList() {
+        memberList = Collections.unmodifiableList(Arrays.asList(
+                memberMap.values().toArray(new Member[memberMap.size()])));
     }
 
     public Member getMember(String memberId) {
@@ -95,6 +108,16 @@ public class Cluster {
         return memberMap.values();
     }
 
+    /**
+     * Returns an immutable snapshot of the members of the cluster. The snapshot is
+     * replaced whenever a member is added or removed.
+     *
+     * @return
+     */
+    public List<Member> getMemberList() {
+        return memberList;
+    }
+
     public String getTenantRange() {
         return tenantRange;
     }
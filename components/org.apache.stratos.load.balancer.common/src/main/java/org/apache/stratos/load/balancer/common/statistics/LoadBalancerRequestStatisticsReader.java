@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.common.statistics;
+
+/**
+ * Load balancer statistics reader for load balancers which are able to measure request latencies
+ * and member level in-flight request counts.
+ */
+public interface LoadBalancerRequestStatisticsReader extends LoadBalancerStatisticsReader {
+
+    /**
+     * Returns the highest in-flight request count of the members of the given cluster.
+     *
+     * @param clusterId
+     */
+    int getMaxMemberInFlightRequestCount(String clusterId);
+
+    /**
+     * Returns request latency percentiles of the given cluster measured since the last time this
+     * method was invoked for the cluster, and starts a new measurement interval.
+     *
+     * @param clusterId
+     * @return request latency percentiles, null if no requests were served in the interval
+     */
+    RequestLatencyPercentiles getRequestLatencyPercentiles(String clusterId);
+}
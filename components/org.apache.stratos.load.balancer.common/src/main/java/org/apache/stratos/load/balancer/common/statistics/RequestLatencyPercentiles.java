@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.common.statistics;
+
+import org.apache.stratos.common.statistics.LatencyHistogram;
+
+/**
+ * Request latency percentiles of a cluster measured over a statistics publishing interval.
+ */
+public class RequestLatencyPercentiles {
+
+    private final long requestCount;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+
+    public RequestLatencyPercentiles(long requestCount, long p50, long p95, long p99) {
+        this.requestCount = requestCount;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    /**
+     * Create request latency percentiles from the values recorded in the given histogram.
+     *
+     * @param histogram
+     * @return request latency percentiles, null if no values were recorded
+     */
+    public static RequestLatencyPercentiles fromHistogram(LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        if (count == 0) {
+            return null;
+        }
+        long[] values = histogram.getValuesAtPercentiles(50, 95, 99);
+        return new RequestLatencyPercentiles(count, values[0], values[1], values[2]);
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+}
@@ -24,10 +24,14 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.statistics.publisher.InFlightRequestPublisher;
 import org.apache.stratos.common.statistics.publisher.InFlightRequestPublisherFactory;
+import org.apache.stratos.common.statistics.publisher.RequestLatencyPublisher;
+import org.apache.stratos.common.statistics.publisher.RequestLatencyPublisherFactory;
 import org.apache.stratos.common.statistics.publisher.StatisticsPublisherType;
 import org.apache.stratos.load.balancer.common.domain.Cluster;
 import org.apache.stratos.load.balancer.common.domain.Service;
+import org.apache.stratos.load.balancer.common.statistics.LoadBalancerRequestStatisticsReader;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
+import org.apache.stratos.load.balancer.common.statistics.RequestLatencyPercentiles;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
 
 /**
@@ -39,6 +43,7 @@ public class LoadBalancerStatisticsNotifier implements Runnable {
     private final LoadBalancerStatisticsReader statsReader;
     private final TopologyProvider topologyProvider;
     private final InFlightRequestPublisher inFlightRequestPublisher;
+    private final RequestLatencyPublisher requestLatencyPublisher;
     private long statsPublisherInterval = 15000;
     private String networkPartitionId;
     private boolean terminated;
@@ -48,6 +53,9 @@ public class LoadBalancerStatisticsNotifier implements Runnable {
         this.topologyProvider = topologyProvider;
         this.inFlightRequestPublisher = InFlightRequestPublisherFactory.createInFlightRequestPublisher(
                 StatisticsPublisherType.WSO2CEP);
+        // Request latency is only published if the statistics reader is able to measure it
+        this.requestLatencyPublisher = (statsReader instanceof LoadBalancerRequestStatisticsReader) ?
+                RequestLatencyPublisherFactory.createRequestLatencyPublisher(StatisticsPublisherType.WSO2CEP) : null;
 
         String interval = System.getProperty("stats.notifier.interval");
         if (interval != null) {
@@ -89,6 +97,8 @@ public class LoadBalancerStatisticsNotifier implements Runnable {
                                                 "[cluster-instance-id] %s [network-partition] %s [value] %d ",
                                         cluster.getClusterId(), clusterInstanceId, networkPartitionId, requestCount));
                             }
+
+                            publishRequestLatency(cluster.getClusterId(), clusterInstanceId);
                         }
                     }
                 } else if (log.isWarnEnabled()) {
@@ -102,6 +112,35 @@ public class LoadBalancerStatisticsNotifier implements Runnable {
         }
     }
 
+    /**
+     * Publish request latency percentiles and the highest member in-flight request count of a cluster.
+     *
+     * @param clusterId
+     * @param clusterInstanceId
+     */
+    private void publishRequestLatency(String clusterId, String clusterInstanceId) {
+        if ((requestLatencyPublisher == null) || !requestLatencyPublisher.isEnabled()) {
+            return;
+        }
+        LoadBalancerRequestStatisticsReader requestStatsReader = (LoadBalancerRequestStatisticsReader) statsReader;
+        RequestLatencyPercentiles percentiles = requestStatsReader.getRequestLatencyPercentiles(clusterId);
+        if (percentiles == null) {
+            // No requests served in this interval
+            return;
+        }
+        int maxMemberInFlightRequestCount = requestStatsReader.getMaxMemberInFlightRequestCount(clusterId);
+        requestLatencyPublisher.publish(clusterId, clusterInstanceId, networkPartitionId,
+                percentiles.getRequestCount(), percentiles.getP50(), percentiles.getP95(), percentiles.getP99(),
+                maxMemberInFlightRequestCount);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Request latency published to cep: [cluster-id] %s [cluster-instance-id] %s " +
+                            "[network-partition] %s [p50] %d [p95] %d [p99] %d [max-member-in-flight] %d",
+                    clusterId, clusterInstanceId, networkPartitionId, percentiles.getP50(), percentiles.getP95(),
+                    percentiles.getP99(), maxMemberInFlightRequestCount));
+        }
+    }
+
     /**
      * Terminate load balancer statistics notifier thread.
      */
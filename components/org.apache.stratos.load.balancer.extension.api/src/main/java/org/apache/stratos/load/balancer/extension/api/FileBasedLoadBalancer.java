@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.load.balancer.extension.api;
+
+/**
+ * Load balancer which writes its configuration to a file in configure() method. The load balancer
+ * extension compares the content of this file with the previously applied configuration and skips
+ * the reload if it has not changed.
+ */
+public interface FileBasedLoadBalancer extends LoadBalancer {
+
+    /**
+     * Returns the path of the configuration file written in configure() method.
+     *
+     * @return configuration file path
+     */
+    String getConfigurationFilePath();
+}
@@ -42,6 +42,13 @@ import org.apache.stratos.messaging.message.receiver.application.ApplicationsEve
 import org.apache.stratos.messaging.message.receiver.domain.mapping.DomainMappingEventReceiver;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyEventReceiver;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -54,9 +61,11 @@ public class LoadBalancerExtension {
 
     private LoadBalancer loadBalancer;
     private LoadBalancerStatisticsReader statsReader;
-    private boolean loadBalancerStarted;
+    private volatile boolean loadBalancerStarted;
     private LoadBalancerStatisticsNotifier statisticsNotifier;
     private ExecutorService executorService;
+    private LoadBalancerReloadScheduler reloadScheduler;
+    private byte[] configurationDigest;
 
     private TopologyProvider topologyProvider;
     private LoadBalancerCommonTopologyEventReceiver topologyEventReceiver;
@@ -76,6 +85,12 @@ public class LoadBalancerExtension {
         this.loadBalancer = loadBalancer;
         this.statsReader = statsReader;
         this.topologyProvider = topologyProvider;
+        this.reloadScheduler = new LoadBalancerReloadScheduler(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return reloadConfiguration();
+            }
+        });
     }
 
 
@@ -183,14 +198,14 @@ public class LoadBalancerExtension {
         DomainMappingEventReceiver.getInstance().addEventListener(new DomainMappingAddedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
 
         DomainMappingEventReceiver.getInstance().addEventListener(new DomainMappingRemovedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
     }
@@ -233,37 +248,37 @@ public class LoadBalancerExtension {
         TopologyEventReceiver.getInstance().addEventListener(new MemberActivatedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
         TopologyEventReceiver.getInstance().addEventListener(new MemberSuspendedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
         TopologyEventReceiver.getInstance().addEventListener(new MemberTerminatedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
         TopologyEventReceiver.getInstance().addEventListener(new ClusterRemovedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
         TopologyEventReceiver.getInstance().addEventListener(new ServiceRemovedEventListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
         TopologyEventReceiver.getInstance().addEventListener(new MemberMaintenanceListener() {
             @Override
             protected void onEvent(Event event) {
-                reloadConfiguration();
+                reloadScheduler.requestReload();
             }
         });
     }
@@ -273,7 +288,12 @@ public class LoadBalancerExtension {
      *
      * @throws LoadBalancerExtensionException if configuration or start process fails
      */
-    private void configureAndStart() throws LoadBalancerExtensionException {
+    private synchronized void configureAndStart() throws LoadBalancerExtensionException {
+        if (loadBalancerStarted) {
+            // Load balancer was started by the reload scheduler
+            return;
+        }
+
         // Initialize topology
         if (!topologyEventReceiver.isInitialized()) {
             topologyEventReceiver.initializeTopology();
@@ -285,19 +305,73 @@ public class LoadBalancerExtension {
             // Start load balancer
             loadBalancer.start();
             loadBalancerStarted = true;
+            configurationDigest = calculateConfigurationDigest();
         }
     }
 
     /**
-     * Configure and reload the load balancer
+     * Configure and reload the load balancer. Reload is skipped if the load balancer configuration
+     * file has not changed since the last reload.
      *
+     * @return true if the load balancer was reloaded
      * @throws LoadBalancerExtensionException if the configuration or reload process fails
      */
-    private void configureAndReload() throws LoadBalancerExtensionException {
+    private boolean configureAndReload() throws LoadBalancerExtensionException {
         // Configure load balancer
         if (loadBalancer.configure(topologyProvider.getTopology())) {
+            byte[] digest = calculateConfigurationDigest();
+            if ((digest != null) && Arrays.equals(digest, configurationDigest)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Load balancer configuration has not changed, reload not required");
+                }
+                return false;
+            }
             // Reload the load balancer
             loadBalancer.reload();
+            configurationDigest = digest;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Calculate the digest of the load balancer configuration file.
+     *
+     * @return digest of the configuration file, null if the load balancer does not write its
+     * configuration to a file or the file could not be read
+     */
+    private byte[] calculateConfigurationDigest() {
+        if (!(loadBalancer instanceof FileBasedLoadBalancer)) {
+            return null;
+        }
+        String filePath = ((FileBasedLoadBalancer) loadBalancer).getConfigurationFilePath();
+        if ((filePath == null) || !new File(filePath).exists()) {
+            return null;
+        }
+
+        InputStream inputStream = null;
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            inputStream = new FileInputStream(filePath);
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, length);
+            }
+            return messageDigest.digest();
+        } catch (Exception e) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Could not calculate load balancer configuration digest: [file] %s",
+                        filePath), e);
+            }
+            return null;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException ignore) {
+                }
+            }
         }
     }
 
@@ -319,27 +393,26 @@ public class LoadBalancerExtension {
     }
 
     /**
-     * Configure and reload load balancer configuration.
+     * Configure and reload load balancer configuration. This is invoked by the reload scheduler
+     * once topology and domain mapping changes have been coalesced.
+     *
+     * @return true if the load balancer was started or reloaded
+     * @throws LoadBalancerExtensionException if the configuration, start or reload process fails
      */
-    private void reloadConfiguration() {
-        try {
-            if (!loadBalancerStarted) {
-                configureAndStart();
-            } else {
-                configureAndReload();
-
-            }
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Could not reload load balancer configuration", e);
-            }
+    private synchronized boolean reloadConfiguration() throws LoadBalancerExtensionException {
+        if (!loadBalancerStarted) {
+            configureAndStart();
+            return loadBalancerStarted;
         }
+        return configureAndReload();
     }
 
     /**
      * Stop load balancer instance.
      */
     public void stop() {
+        reloadScheduler.stop();
+
 //        try {
 //            if (topologyEventReceiver != null) {
 //                topologyEventReceiver.terminate();
@@ -360,6 +433,15 @@ public class LoadBalancerExtension {
         }
     }
 
+    /**
+     * Get reload scheduler of the load balancer extension for accessing reload metrics.
+     *
+     * @return reload scheduler
+     */
+    public LoadBalancerReloadScheduler getReloadScheduler() {
+        return reloadScheduler;
+    }
+
     /**
      * Get executor service of the load balancer extension.
      *
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.load.balancer.extension.api;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load balancer reload scheduler coalesces reload requests received within a quiet period into
+ * a single reload. A reload is executed once no request has been received for the quiet period
+ * or once the maximum delay has elapsed since the first pending request, whichever comes first.
+ * Reloads are executed one at a time in a single thread of the reload scheduler thread pool.
+ */
+public class LoadBalancerReloadScheduler {
+
+    private static final Log log = LogFactory.getLog(LoadBalancerReloadScheduler.class);
+
+    private static final String RELOAD_QUIET_PERIOD = "load.balancer.extension.reload.quiet.period";
+    private static final String RELOAD_MAX_DELAY = "load.balancer.extension.reload.max.delay";
+    private static final int DEFAULT_RELOAD_QUIET_PERIOD = 2000;
+    private static final int DEFAULT_RELOAD_MAX_DELAY = 10000;
+    private static final String THREAD_POOL_ID = "load.balancer.extension.reload.scheduler.thread.pool";
+
+    private final Callable<Boolean> reloadTask;
+    private final long quietPeriod;
+    private final long maxDelay;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private boolean reloadPending;
+    private boolean stopped;
+    private ScheduledFuture<?> scheduledReload;
+    private long firstRequestTime;
+    private long lastRequestTime;
+    private int pendingRequestCount;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong skippedReloadCount = new AtomicLong();
+    private final AtomicLong failedReloadCount = new AtomicLong();
+    private final AtomicLong totalReloadLatency = new AtomicLong();
+    private final AtomicLong lastReloadLatency = new AtomicLong();
+    private final AtomicLong maxReloadLatency = new AtomicLong();
+
+    /**
+     * Reload scheduler constructor.
+     *
+     * @param reloadTask task to be executed for reloading the load balancer, returns true if the
+     *                   load balancer was reloaded and false if the reload was skipped.
+     */
+    public LoadBalancerReloadScheduler(Callable<Boolean> reloadTask) {
+        this(reloadTask, MessagingUtil.getNumericSystemProperty(DEFAULT_RELOAD_QUIET_PERIOD, RELOAD_QUIET_PERIOD),
+                MessagingUtil.getNumericSystemProperty(DEFAULT_RELOAD_MAX_DELAY, RELOAD_MAX_DELAY));
+    }
+
+    /**
+     * Reload scheduler constructor.
+     *
+     * @param reloadTask  task to be executed for reloading the load balancer
+     * @param quietPeriod time in milliseconds without reload requests before executing a reload
+     * @param maxDelay    maximum time in milliseconds a reload request could be delayed
+     */
+    public LoadBalancerReloadScheduler(Callable<Boolean> reloadTask, long quietPeriod, long maxDelay) {
+        this.reloadTask = reloadTask;
+        this.quietPeriod = Math.max(quietPeriod, 0);
+        this.maxDelay = Math.max(maxDelay, this.quietPeriod);
+        this.scheduler = StratosThreadPool.getScheduledExecutorService(THREAD_POOL_ID, 1);
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Load balancer reload scheduler initialized: [quiet-period] %d ms " +
+                    "[max-delay] %d ms", this.quietPeriod, this.maxDelay));
+        }
+    }
+
+    /**
+     * Request a load balancer reload. Requests received before the pending reload gets executed
+     * are coalesced into the same reload.
+     */
+    public void requestReload() {
+        requestCount.incrementAndGet();
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            lastRequestTime = now;
+            pendingRequestCount++;
+            if (!reloadPending && !stopped) {
+                reloadPending = true;
+                firstRequestTime = now;
+                schedule(quietPeriod);
+            }
+        }
+    }
+
+    private void schedule(long delay) {
+        try {
+            scheduledReload = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    executePendingReload();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Thread pool has been shut down
+            reloadPending = false;
+            if (log.isDebugEnabled()) {
+                log.debug("Could not schedule load balancer reload", e);
+            }
+        }
+    }
+
+    private void executePendingReload() {
+        int coalescedRequestCount;
+        synchronized (lock) {
+            if (stopped) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long reloadTime = Math.min(lastRequestTime + quietPeriod, firstRequestTime + maxDelay);
+            if (now < reloadTime) {
+                // Further requests were received within the quiet period
+                schedule(reloadTime - now);
+                return;
+            }
+            coalescedRequestCount = pendingRequestCount;
+            pendingRequestCount = 0;
+            // Requests received from here onwards will schedule the next reload
+            reloadPending = false;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            if (reloadTask.call()) {
+                long latency = System.currentTimeMillis() - startTime;
+                updateReloadLatency(latency);
+                reloadCount.incrementAndGet();
+                if (log.isInfoEnabled()) {
+                    log.info(String.format("Load balancer reloaded: [coalesced-requests] %d [latency] %d ms",
+                            coalescedRequestCount, latency));
+                }
+            } else {
+                skippedReloadCount.incrementAndGet();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Load balancer reload skipped: [coalesced-requests] %d",
+                            coalescedRequestCount));
+                }
+            }
+        } catch (Exception e) {
+            failedReloadCount.incrementAndGet();
+            if (log.isErrorEnabled()) {
+                log.error("Could not reload load balancer configuration", e);
+            }
+        }
+    }
+
+    private void updateReloadLatency(long latency) {
+        lastReloadLatency.set(latency);
+        totalReloadLatency.addAndGet(latency);
+        long max;
+        do {
+            max = maxReloadLatency.get();
+            if (latency <= max) {
+                break;
+            }
+        } while (!maxReloadLatency.compareAndSet(max, latency));
+    }
+
+    /**
+     * Stop the reload scheduler, pending reloads will not be executed.
+     */
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+            reloadPending = false;
+            if (scheduledReload != null) {
+                // The thread pool is shared, hence only the pending reload is cancelled
+                scheduledReload.cancel(false);
+                scheduledReload = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of reload requests received.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of reloads executed.
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * Returns the number of reloads skipped since the configuration had not changed.
+     */
+    public long getSkippedReloadCount() {
+        return skippedReloadCount.get();
+    }
+
+    /**
+     * Returns the number of reloads failed.
+     */
+    public long getFailedReloadCount() {
+        return failedReloadCount.get();
+    }
+
+    /**
+     * Returns the latency of the last reload in milliseconds.
+     */
+    public long getLastReloadLatency() {
+        return lastReloadLatency.get();
+    }
+
+    /**
+     * Returns the maximum reload latency in milliseconds.
+     */
+    public long getMaxReloadLatency() {
+        return maxReloadLatency.get();
+    }
+
+    /**
+     * Returns the average reload latency in milliseconds.
+     */
+    public double getAverageReloadLatency() {
+        long count = reloadCount.get();
+        return (count == 0) ? 0 : (double) totalReloadLatency.get() / count;
+    }
+}
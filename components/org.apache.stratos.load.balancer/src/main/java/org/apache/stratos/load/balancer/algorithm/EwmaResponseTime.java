@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.algorithm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.apache.stratos.load.balancer.context.MemberContext;
+
+import java.util.List;
+
+/**
+ * This is the implementation of the EWMA response time load balancing algorithm. Each member is
+ * scored using the exponentially weighted moving average of its response time multiplied by the
+ * number of requests it would be serving, and the member with the lowest score is selected.
+ * Members without any response time samples are scored using the mean response time of the
+ * other members, and response times are never taken below a minimum. Therefore new members and
+ * very fast members are still scored by the number of requests they are serving.
+ */
+public class EwmaResponseTime implements LoadBalanceAlgorithm {
+    private static final Log log = LogFactory.getLog(EwmaResponseTime.class);
+
+    /* Minimum response time used for scoring members in nanoseconds */
+    private static final double MIN_RESPONSE_TIME = 1000;
+
+    @Override
+    public String getName() {
+        return "EWMA Response Time";
+    }
+
+    @Override
+    public Member getNextMember(AlgorithmContext algorithmContext, List<Member> members) {
+        int memberCount = members.size();
+        if (memberCount == 0) {
+            return null;
+        }
+        MemberContext[] memberContexts = new MemberContext[memberCount];
+        double totalResponseTime = 0;
+        int sampledCount = 0;
+        for (int i = 0; i < memberCount; i++) {
+            memberContexts[i] = algorithmContext.getMemberContext(members.get(i).getMemberId());
+            if (memberContexts[i].isResponseTimeSampled()) {
+                totalResponseTime += memberContexts[i].getAverageResponseTime();
+                sampledCount++;
+            }
+        }
+        // Members without samples are expected to respond as the others do
+        double defaultResponseTime = (sampledCount > 0) ? (totalResponseTime / sampledCount) : MIN_RESPONSE_TIME;
+
+        int startIndex = algorithmContext.getAndIncrementMemberIndex(memberCount);
+        Member selected = null;
+        double minScore = Double.MAX_VALUE;
+        for (int i = 0; i < memberCount; i++) {
+            int index = (startIndex + i) % memberCount;
+            Member member = members.get(index);
+            MemberContext memberContext = memberContexts[index];
+            double responseTime = memberContext.isResponseTimeSampled() ?
+                    memberContext.getAverageResponseTime() : defaultResponseTime;
+            double score = Math.max(responseTime, MIN_RESPONSE_TIME) * (memberContext.getInFlightRequestCount() + 1);
+            if (score < minScore) {
+                selected = member;
+                minScore = score;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Next member selected: [service] %s [cluster]: %s [member] %s [score] %.2f",
+                    algorithmContext.getServiceName(), algorithmContext.getClusterId(), selected.getMemberId(),
+                    minScore));
+        }
+        return selected;
+    }
+
+    @Override
+    public void reset(AlgorithmContext algorithmContext) {
+        algorithmContext.setCurrentMemberIndex(0);
+        if (log.isDebugEnabled()) {
+            log.debug("EWMA response time load balance algorithm was reset");
+        }
+    }
+
+    public LoadBalanceAlgorithm clone() {
+        return new EwmaResponseTime();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.algorithm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+
+import java.util.List;
+
+/**
+ * This is the implementation of the least connections load balancing algorithm. It selects the member
+ * with the lowest number of in-flight requests. The scan starts from a rotating position so that
+ * requests are distributed in round robin order among members with the same number of requests.
+ */
+public class LeastConnections implements LoadBalanceAlgorithm {
+    private static final Log log = LogFactory.getLog(LeastConnections.class);
+
+    @Override
+    public String getName() {
+        return "Least Connections";
+    }
+
+    @Override
+    public Member getNextMember(AlgorithmContext algorithmContext, List<Member> members) {
+        int memberCount = members.size();
+        if (memberCount == 0) {
+            return null;
+        }
+        int startIndex = algorithmContext.getAndIncrementMemberIndex(memberCount);
+        Member selected = null;
+        int minInFlightRequestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < memberCount; i++) {
+            Member member = members.get((startIndex + i) % memberCount);
+            int inFlightRequestCount = algorithmContext.getMemberContext(member.getMemberId()).getInFlightRequestCount();
+            if (inFlightRequestCount < minInFlightRequestCount) {
+                selected = member;
+                minInFlightRequestCount = inFlightRequestCount;
+                if (inFlightRequestCount == 0) {
+                    break;
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Next member selected: [service] %s [cluster]: %s [member] %s [in-flight-requests] %d",
+                    algorithmContext.getServiceName(), algorithmContext.getClusterId(), selected.getMemberId(),
+                    minInFlightRequestCount));
+        }
+        return selected;
+    }
+
+    @Override
+    public void reset(AlgorithmContext algorithmContext) {
+        algorithmContext.setCurrentMemberIndex(0);
+        if (log.isDebugEnabled()) {
+            log.debug("Least connections load balance algorithm was reset");
+        }
+    }
+
+    public LoadBalanceAlgorithm clone() {
+        return new LeastConnections();
+    }
+}
@@ -37,19 +37,15 @@ public interface LoadBalanceAlgorithm {
     public String getName();
 
     /**
-     * Apply the algorithm and return the next member.
+     * Apply the algorithm and return the next member. A single algorithm instance is shared
+     * by all request threads and clusters, hence implementations should not keep per-cluster
+     * state in instance fields and should not block.
      *
      * @param algorithmContext
+     * @param members          immutable member list of the cluster
      * @return
      */
-    public Member getNextMember(AlgorithmContext algorithmContext);
-
-    /**
-     * Set member list of a given cluster.
-     *
-     * @param members
-     */
-    public void setMembers(List<Member> members);
+    public Member getNextMember(AlgorithmContext algorithmContext, List<Member> members);
 
     /**
      * Reset the algorithm and start from the beginning.
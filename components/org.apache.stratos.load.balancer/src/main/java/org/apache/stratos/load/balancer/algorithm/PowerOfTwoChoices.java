@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.algorithm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This is the implementation of the power of two choices load balancing algorithm. It picks two
+ * distinct members at random and selects the one with the lower number of in-flight requests.
+ * This avoids scanning all members while still steering requests away from busy members.
+ */
+public class PowerOfTwoChoices implements LoadBalanceAlgorithm {
+    private static final Log log = LogFactory.getLog(PowerOfTwoChoices.class);
+
+    @Override
+    public String getName() {
+        return "Power of Two Choices";
+    }
+
+    @Override
+    public Member getNextMember(AlgorithmContext algorithmContext, List<Member> members) {
+        int memberCount = members.size();
+        if (memberCount == 0) {
+            return null;
+        }
+        if (memberCount == 1) {
+            return members.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(memberCount);
+        // Pick a second index different from the first one
+        int secondIndex = (firstIndex + 1 + random.nextInt(memberCount - 1)) % memberCount;
+
+        Member first = members.get(firstIndex);
+        Member second = members.get(secondIndex);
+        int firstCount = algorithmContext.getMemberContext(first.getMemberId()).getInFlightRequestCount();
+        int secondCount = algorithmContext.getMemberContext(second.getMemberId()).getInFlightRequestCount();
+        Member selected = (secondCount < firstCount) ? second : first;
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Next member selected: [service] %s [cluster]: %s [member] %s " +
+                            "[candidates] %s:%d, %s:%d", algorithmContext.getServiceName(),
+                    algorithmContext.getClusterId(), selected.getMemberId(), first.getMemberId(), firstCount,
+                    second.getMemberId(), secondCount));
+        }
+        return selected;
+    }
+
+    @Override
+    public void reset(AlgorithmContext algorithmContext) {
+        if (log.isDebugEnabled()) {
+            log.debug("Power of two choices load balance algorithm was reset");
+        }
+    }
+
+    public LoadBalanceAlgorithm clone() {
+        return new PowerOfTwoChoices();
+    }
+}
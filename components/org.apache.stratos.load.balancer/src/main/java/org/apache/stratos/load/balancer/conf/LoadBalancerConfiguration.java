@@ -59,6 +59,8 @@ public class LoadBalancerConfiguration {
     private boolean topologyEventListenerEnabled;
     private MemberIpType topologyMemberIpType = MemberIpType.Private;
     private Map<String, Algorithm> algorithmMap;
+    // Map<ServiceName, AlgorithmName>
+    private Map<String, String> serviceNameToAlgorithmNameMap;
     private String topologyServiceFilter;
     private String topologyClusterFilter;
     private boolean multiTenancyEnabled;
@@ -75,6 +77,7 @@ public class LoadBalancerConfiguration {
      */
     private LoadBalancerConfiguration() {
         this.algorithmMap = new HashMap<String, Algorithm>();
+        this.serviceNameToAlgorithmNameMap = new HashMap<String, String>();
     }
 
     /**
@@ -198,6 +201,21 @@ public class LoadBalancerConfiguration {
         algorithmMap.put(algorithm.getName(), algorithm);
     }
 
+    /**
+     * Returns the algorithm name defined for the given service in service-algorithms section,
+     * null if the default algorithm should be used.
+     *
+     * @param serviceName
+     * @return
+     */
+    public String getServiceAlgorithmName(String serviceName) {
+        return serviceNameToAlgorithmNameMap.get(serviceName);
+    }
+
+    void addServiceAlgorithmName(String serviceName, String algorithmName) {
+        serviceNameToAlgorithmNameMap.put(serviceName, algorithmName);
+    }
+
     public void setTopologyServiceFilter(String topologyServiceFilter) {
         this.topologyServiceFilter = topologyServiceFilter;
     }
@@ -444,6 +462,18 @@ public class LoadBalancerConfiguration {
                 configuration.addAlgorithm(algorithm);
             }
 
+            Node serviceAlgorithmsNode = loadBalancerNode.findChildNodeByName(Constants.CONF_ELEMENT_SERVICE_ALGORITHMS);
+            if (serviceAlgorithmsNode != null) {
+                for (String serviceName : serviceAlgorithmsNode.getProperties().keySet()) {
+                    String algorithmName = serviceAlgorithmsNode.getProperty(serviceName);
+                    if (configuration.getAlgorithm(algorithmName) == null) {
+                        throw new InvalidConfigurationException(String.format("Algorithm not found in algorithms section: " +
+                                "[service] %s [algorithm] %s", serviceName, algorithmName));
+                    }
+                    configuration.addServiceAlgorithmName(serviceName, algorithmName);
+                }
+            }
+
             String rewriteLocationHeader = loadBalancerNode.getProperty(Constants.CONF_PROPERTY_REWRITE_LOCATION_HEADER);
             if (StringUtils.isNotEmpty(rewriteLocationHeader)) {
                 configuration.setRewriteLocationHeader(Boolean.parseBoolean(topologyEventListenerEnabled));
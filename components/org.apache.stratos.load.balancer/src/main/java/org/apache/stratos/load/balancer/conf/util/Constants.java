@@ -26,6 +26,7 @@ public class Constants {
     /* Load balancer configuration elements and properties */
     public static final String CONF_ELEMENT_LOADBALANCER = "loadbalancer";
     public static final String CONF_ELEMENT_ALGORITHMS = "algorithms";
+    public static final String CONF_ELEMENT_SERVICE_ALGORITHMS = "service-algorithms";
     public static final String CONF_ELEMENT_HOSTS = "hosts";
     public static final String CONF_ELEMENT_SERVICES = "services";
     public static final String CONF_ELEMENT_CLUSTERS = "clusters";
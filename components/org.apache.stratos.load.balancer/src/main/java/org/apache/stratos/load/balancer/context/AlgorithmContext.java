@@ -19,43 +19,30 @@
 
 package org.apache.stratos.load.balancer.context;
 
-import org.apache.stratos.common.services.DistributedObjectProvider;
-import org.apache.stratos.load.balancer.internal.ServiceReferenceHolder;
-
-import java.util.Map;
-import java.util.concurrent.locks.Lock;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Algorithm context is used for identifying the cluster and its current member for executing load balancing algorithms.
- * Key: service name, cluster id
+ * The current member index is kept in a local atomic counter so that members can be selected
+ * without acquiring any locks in the request path. Member contexts keep per member load
+ * information used by load aware algorithms.
  */
 public class AlgorithmContext {
 
-    private static final String LOAD_BALANCER_ALGORITHM_CONTEXT_MAP = "load.balancer.algorithm.context.map";
-    private static final String CURRENT_MEMBER_INDEX_MAP_LOCK = "current.member.index.map.lock";
-
     private String serviceName;
     private String clusterId;
-    private final Map<String, Integer> clusterMemberIndexMap;
-    private final DistributedObjectProvider distributedObjectProvider;
+    private final AtomicInteger currentMemberIndex;
+    // Map<MemberId, MemberContext>
+    private final ConcurrentMap<String, MemberContext> memberIdToMemberContextMap;
 
     public AlgorithmContext(String serviceName, String clusterId) {
         this.serviceName = serviceName;
         this.clusterId = clusterId;
-        // Initialize distributed object provider
-        distributedObjectProvider = ServiceReferenceHolder.getInstance().getDistributedObjectProvider();
-        // Initialize cluster->memberIndex map
-        clusterMemberIndexMap = distributedObjectProvider.getMap(LOAD_BALANCER_ALGORITHM_CONTEXT_MAP);
-
-        Lock lock = null;
-        try {
-            lock = acquireCurrentMemberIndexLock();
-            putCurrentMemberIndex(serviceName, clusterId, 0);
-        } finally {
-            if (lock != null) {
-                releaseCurrentMemberIndexLock(lock);
-            }
-        }
+        this.currentMemberIndex = new AtomicInteger(0);
+        this.memberIdToMemberContextMap = new ConcurrentHashMap<String, MemberContext>();
     }
 
     public String getServiceName() {
@@ -67,42 +54,48 @@ public class AlgorithmContext {
     }
 
     public int getCurrentMemberIndex() {
-        return getCurrentMemberIndex(getServiceName(), getClusterId());
+        return currentMemberIndex.get();
     }
 
     public void setCurrentMemberIndex(int currentMemberIndex) {
-        Lock lock = null;
-        try {
-            lock = acquireCurrentMemberIndexLock();
-            putCurrentMemberIndex(getServiceName(), getClusterId(), currentMemberIndex);
-        } finally {
-            if (lock != null) {
-                releaseCurrentMemberIndexLock(lock);
-            }
-        }
+        this.currentMemberIndex.set(currentMemberIndex);
     }
 
-    private String constructKey(String serviceName, String clusterId) {
-        return String.format("%s-%s", serviceName, clusterId);
+    /**
+     * Atomically move to the next member index and return the previous position
+     * within the given member count.
+     *
+     * @param memberCount number of members in the cluster
+     * @return
+     */
+    public int getAndIncrementMemberIndex(int memberCount) {
+        // Mask the sign bit to keep the index positive once the counter overflows
+        return (currentMemberIndex.getAndIncrement() & Integer.MAX_VALUE) % memberCount;
     }
 
-    private Lock acquireCurrentMemberIndexLock() {
-        return distributedObjectProvider.acquireLock(CURRENT_MEMBER_INDEX_MAP_LOCK);
-    }
-
-    private void releaseCurrentMemberIndexLock(Lock lock) {
-        if (lock != null) {
-            distributedObjectProvider.releaseLock(lock);
+    /**
+     * Find member context of the given member, create one if not found.
+     *
+     * @param memberId
+     * @return
+     */
+    public MemberContext getMemberContext(String memberId) {
+        MemberContext memberContext = memberIdToMemberContextMap.get(memberId);
+        if (memberContext == null) {
+            memberContext = new MemberContext(memberId);
+            MemberContext existing = memberIdToMemberContextMap.putIfAbsent(memberId, memberContext);
+            if (existing != null) {
+                memberContext = existing;
+            }
         }
+        return memberContext;
     }
 
-    public void putCurrentMemberIndex(String serviceName, String clusterId, int currentMemberIndex) {
-        String key = constructKey(serviceName, clusterId);
-        clusterMemberIndexMap.put(key, currentMemberIndex);
+    public Collection<MemberContext> getMemberContexts() {
+        return memberIdToMemberContextMap.values();
     }
 
-    public int getCurrentMemberIndex(String serviceName, String clusterId) {
-        String key = constructKey(serviceName, clusterId);
-        return clusterMemberIndexMap.get(key);
+    public void removeMemberContext(String memberId) {
+        memberIdToMemberContextMap.remove(memberId);
     }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.stratos.load.balancer.context;
 
+import org.apache.stratos.load.balancer.algorithm.LoadBalanceAlgorithm;
+
 import java.util.Properties;
 
 /**
@@ -28,12 +30,14 @@ public class ClusterContext {
 
     private String serviceName;
     private String clusterId;
-    private AlgorithmContext algorithmContext;
+    private volatile AlgorithmContext algorithmContext;
+    private volatile LoadBalanceAlgorithm loadBalanceAlgorithm;
     private Properties properties;
 
     public ClusterContext(String serviceName, String clusterId) {
         this.serviceName = serviceName;
         this.clusterId = clusterId;
+        this.algorithmContext = new AlgorithmContext(serviceName, clusterId);
     }
 
     public String getServiceName() {
@@ -52,6 +56,20 @@ public class ClusterContext {
         this.algorithmContext = algorithmContext;
     }
 
+    /**
+     * Returns the load balance algorithm selected for this cluster, null if the default
+     * algorithm of the load balance endpoint should be used.
+     *
+     * @return
+     */
+    public LoadBalanceAlgorithm getLoadBalanceAlgorithm() {
+        return loadBalanceAlgorithm;
+    }
+
+    public void setLoadBalanceAlgorithm(LoadBalanceAlgorithm loadBalanceAlgorithm) {
+        this.loadBalanceAlgorithm = loadBalanceAlgorithm;
+    }
+
     public Properties getProperties() {
         return properties;
     }
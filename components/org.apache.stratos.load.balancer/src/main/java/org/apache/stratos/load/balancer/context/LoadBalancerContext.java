@@ -81,6 +81,21 @@ public class LoadBalancerContext {
         clusterIdToClusterContextMap.remove(clusterId);
     }
 
+    /**
+     * Find member context of the given member.
+     *
+     * @param clusterId
+     * @param memberId
+     * @return member context, null if the cluster context is not found
+     */
+    public MemberContext getMemberContext(String clusterId, String memberId) {
+        ClusterContext clusterContext = clusterIdToClusterContextMap.get(clusterId);
+        if (clusterContext == null) {
+            return null;
+        }
+        return clusterContext.getAlgorithmContext().getMemberContext(memberId);
+    }
+
     public void addDomainMappingContextPath(String hostName, String appContext) {
         hostNameToDomainMappingContextPathMap.put(hostName, appContext);
     }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member context keeps the in-flight request count and the exponentially weighted moving
+ * average (EWMA) of the response time of a member. These values are updated on request and
+ * response paths and are read by load aware load balancing algorithms.
+ */
+public class MemberContext {
+
+    /* Weight given to the latest response time sample */
+    private static final double EWMA_SMOOTHING_FACTOR = 0.3;
+
+    private final String memberId;
+    private final AtomicInteger inFlightRequestCount;
+    /* Double value of the average response time in nanoseconds stored as raw long bits */
+    private final AtomicLong averageResponseTimeBits;
+    private volatile boolean responseTimeSampled;
+
+    public MemberContext(String memberId) {
+        this.memberId = memberId;
+        this.inFlightRequestCount = new AtomicInteger(0);
+        this.averageResponseTimeBits = new AtomicLong(Double.doubleToLongBits(0));
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public int getInFlightRequestCount() {
+        return inFlightRequestCount.get();
+    }
+
+    public void incrementInFlightRequestCount() {
+        inFlightRequestCount.incrementAndGet();
+    }
+
+    /**
+     * Decrement in-flight request count and add the response time to the moving average.
+     *
+     * @param responseTime response time in nanoseconds, measured with {@link System#nanoTime()}
+     */
+    public void decrementInFlightRequestCount(long responseTime) {
+        int count;
+        do {
+            count = inFlightRequestCount.get();
+            if (count <= 0) {
+                break;
+            }
+        } while (!inFlightRequestCount.compareAndSet(count, count - 1));
+        addResponseTime(responseTime);
+    }
+
+    /**
+     * Returns the moving average of the response time in nanoseconds, zero if
+     * no response has been received from this member yet.
+     *
+     * @return
+     */
+    public double getAverageResponseTime() {
+        return Double.longBitsToDouble(averageResponseTimeBits.get());
+    }
+
+    /**
+     * @return true if a response has been received from this member
+     */
+    public boolean isResponseTimeSampled() {
+        return responseTimeSampled;
+    }
+
+    private void addResponseTime(long responseTime) {
+        if (!responseTimeSampled) {
+            averageResponseTimeBits.set(Double.doubleToLongBits(responseTime));
+            responseTimeSampled = true;
+            return;
+        }
+        long currentBits, updatedBits;
+        do {
+            currentBits = averageResponseTimeBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double updated = current + EWMA_SMOOTHING_FACTOR * (responseTime - current);
+            updatedBits = Double.doubleToLongBits(updated);
+        } while (!averageResponseTimeBits.compareAndSet(currentBits, updatedBits));
+    }
+}
@@ -19,19 +19,19 @@
 
 package org.apache.stratos.load.balancer.endpoint;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.load.balancer.algorithm.LoadBalanceAlgorithm;
+import org.apache.stratos.load.balancer.algorithm.LoadBalanceAlgorithmFactory;
 import org.apache.stratos.load.balancer.common.domain.Cluster;
 import org.apache.stratos.load.balancer.common.domain.Member;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
 import org.apache.stratos.load.balancer.conf.LoadBalancerConfiguration;
-import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.apache.stratos.load.balancer.conf.domain.Algorithm;
 import org.apache.stratos.load.balancer.context.ClusterContext;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
 
-import java.util.ArrayList;
-
 /**
  * Implements core load balancing logic for identifying the next member
  * according to the incoming request information.
@@ -116,25 +116,22 @@ public class RequestDelegator {
     /**
      * Find next member in the cluster by applying a load balancing algorithm.
      * <p/>
-     * This operation should be synchronized in order to find a member
-     * correctly. This has no performance impact as per the load tests
-     * carried out.
+     * This operation does not acquire any locks: the member list is an immutable
+     * snapshot maintained by the cluster and the algorithm context uses atomic
+     * counters.
      */
-    private synchronized Member findNextMemberInCluster(Cluster cluster) {
+    private Member findNextMemberInCluster(Cluster cluster) {
         // Find algorithm context of the cluster
         ClusterContext clusterContext = LoadBalancerContext.getInstance().getClusterContext(cluster.getClusterId());
         if (clusterContext == null) {
-            clusterContext = new ClusterContext(cluster.getServiceName(), cluster.getClusterId());
-            LoadBalancerContext.getInstance().addClusterContext(clusterContext);
+            clusterContext = createClusterContext(cluster);
         }
 
-        AlgorithmContext algorithmContext = clusterContext.getAlgorithmContext();
-        if (algorithmContext == null) {
-            algorithmContext = new AlgorithmContext(cluster.getServiceName(), cluster.getClusterId());
-            clusterContext.setAlgorithmContext(algorithmContext);
+        LoadBalanceAlgorithm clusterAlgorithm = clusterContext.getLoadBalanceAlgorithm();
+        if (clusterAlgorithm == null) {
+            clusterAlgorithm = algorithm;
         }
-        algorithm.setMembers(new ArrayList<Member>(cluster.getMembers()));
-        Member member = algorithm.getNextMember(algorithmContext);
+        Member member = clusterAlgorithm.getNextMember(clusterContext.getAlgorithmContext(), cluster.getMemberList());
         if (member == null) {
             if (log.isWarnEnabled()) {
                 log.warn(String.format("Could not find a member in cluster: [service] %s [cluster] %s",
@@ -144,6 +141,45 @@ public class RequestDelegator {
         return member;
     }
 
+    private synchronized ClusterContext createClusterContext(Cluster cluster) {
+        ClusterContext clusterContext = LoadBalancerContext.getInstance().getClusterContext(cluster.getClusterId());
+        if (clusterContext == null) {
+            clusterContext = new ClusterContext(cluster.getServiceName(), cluster.getClusterId());
+            clusterContext.setLoadBalanceAlgorithm(createClusterAlgorithm(cluster));
+            LoadBalancerContext.getInstance().addClusterContext(clusterContext);
+        }
+        return clusterContext;
+    }
+
+    /**
+     * Create the load balance algorithm defined for the cluster or its service in loadbalancer.conf.
+     * Returns null if none is defined, then the default algorithm will be used.
+     */
+    private LoadBalanceAlgorithm createClusterAlgorithm(Cluster cluster) {
+        LoadBalancerConfiguration configuration = LoadBalancerConfiguration.getInstance();
+        String algorithmName = cluster.getLoadBalanceAlgorithmName();
+        if (StringUtils.isBlank(algorithmName)) {
+            algorithmName = configuration.getServiceAlgorithmName(cluster.getServiceName());
+        }
+        if (StringUtils.isBlank(algorithmName)) {
+            return null;
+        }
+        Algorithm algorithmDefinition = configuration.getAlgorithm(algorithmName);
+        if (algorithmDefinition == null) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Algorithm not found, using default algorithm: [cluster] %s [algorithm] %s",
+                        cluster.getClusterId(), algorithmName));
+            }
+            return null;
+        }
+        LoadBalanceAlgorithm clusterAlgorithm = LoadBalanceAlgorithmFactory.createAlgorithm(algorithmDefinition.getClassName());
+        if ((clusterAlgorithm != null) && log.isInfoEnabled()) {
+            log.info(String.format("Load balance algorithm selected: [service] %s [cluster] %s [algorithm] %s",
+                    cluster.getServiceName(), cluster.getClusterId(), clusterAlgorithm.getName()));
+        }
+        return clusterAlgorithm;
+    }
+
     public boolean isTargetHostValid(String hostName) {
         if (hostName == null)
             return false;
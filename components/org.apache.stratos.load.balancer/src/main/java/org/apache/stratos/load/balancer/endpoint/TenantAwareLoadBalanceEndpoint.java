@@ -31,9 +31,8 @@ import org.apache.stratos.load.balancer.common.domain.Port;
 import org.apache.stratos.load.balancer.conf.LoadBalancerConfiguration;
 import org.apache.stratos.load.balancer.conf.domain.TenantIdentifier;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestIncrementCallable;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
+import org.apache.stratos.load.balancer.context.MemberContext;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.load.balancer.util.LoadBalancerConstants;
 import org.apache.stratos.messaging.domain.tenant.Tenant;
 import org.apache.stratos.messaging.message.receiver.tenant.TenantManager;
@@ -54,7 +53,6 @@ import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
-import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -717,11 +715,13 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Sending request %s to endpoint: %s", synCtx.getMessageID(), to.getAddress()));
             }
-            endpoint.send(synCtx);
-
-            // Increment in-flight request count
+            // Increment in-flight request counts before sending, the response may arrive immediately
+            incrementMemberInFlightRequestCount(synCtx, currentMember);
             incrementInFlightRequestCount(synCtx);
+            endpoint.send(synCtx);
         } catch (Exception e) {
+            decrementInFlightRequestCount(synCtx);
+            decrementMemberInFlightRequestCount(synCtx);
             if (e.getMessage().toLowerCase().contains("io reactor shutdown")) {
                 log.fatal("System cannot continue normal operation. Restarting", e);
                 System.exit(121); // restart
@@ -737,8 +737,7 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
             if (StringUtils.isBlank(clusterId)) {
                 throw new RuntimeException("Cluster id not found in message context");
             }
-            FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-            LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+            LoadBalancerStatisticsCollector.getInstance().incrementInFlightRequestCount(clusterId);
         } catch (Exception e) {
             if (log.isDebugEnabled()) {
                 log.debug("Could not increment in-flight request count", e);
@@ -746,14 +745,50 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
         }
     }
 
+    /**
+     * Increment in-flight request count of the member and keep the member id and the request start
+     * time in the message context for updating member statistics once the response is received.
+     *
+     * @param messageContext
+     * @param currentMember
+     */
+    private void incrementMemberInFlightRequestCount(MessageContext messageContext,
+                                                     org.apache.axis2.clustering.Member currentMember) {
+        messageContext.setProperty(LoadBalancerConstants.LB_REQUEST_START_TIME, System.nanoTime());
+        String clusterId = currentMember.getProperties().getProperty(LoadBalancerConstants.CLUSTER_ID);
+        String memberId = currentMember.getProperties().getProperty(LoadBalancerConstants.MEMBER_ID);
+        if (StringUtils.isBlank(clusterId) || StringUtils.isBlank(memberId)) {
+            return;
+        }
+        MemberContext memberContext = LoadBalancerContext.getInstance().getMemberContext(clusterId, memberId);
+        if (memberContext != null) {
+            memberContext.incrementInFlightRequestCount();
+            messageContext.setProperty(LoadBalancerConstants.LB_MEMBER_ID, memberId);
+        }
+    }
+
+    private void decrementMemberInFlightRequestCount(MessageContext messageContext) {
+        String clusterId = (String) messageContext.getProperty(LoadBalancerConstants.CLUSTER_ID);
+        String memberId = (String) messageContext.getProperty(LoadBalancerConstants.LB_MEMBER_ID);
+        Long startTime = (Long) messageContext.getProperty(LoadBalancerConstants.LB_REQUEST_START_TIME);
+        if (StringUtils.isBlank(clusterId) || StringUtils.isBlank(memberId) || (startTime == null)) {
+            return;
+        }
+        // Remove member id to avoid decrementing the count twice for the same request
+        messageContext.getPropertyKeySet().remove(LoadBalancerConstants.LB_MEMBER_ID);
+        MemberContext memberContext = LoadBalancerContext.getInstance().getMemberContext(clusterId, memberId);
+        if (memberContext != null) {
+            memberContext.decrementInFlightRequestCount(System.nanoTime() - startTime);
+        }
+    }
+
     private void decrementInFlightRequestCount(MessageContext messageContext) {
         try {
             String clusterId = (String) messageContext.getProperty(LoadBalancerConstants.CLUSTER_ID);
             if (StringUtils.isBlank(clusterId)) {
                 throw new RuntimeException("Cluster id not found in message context");
             }
-            FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-            LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+            LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
         } catch (Exception e) {
             if (log.isDebugEnabled()) {
                 log.debug("Could not decrement in-flight request count", e);
@@ -826,6 +861,7 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
 
             // Decrement in-flight request count
             decrementInFlightRequestCount(synCtx);
+            decrementMemberInFlightRequestCount(synCtx);
 
             if (isFailover()) {
                 if (log.isDebugEnabled()) {
@@ -21,7 +21,9 @@ package org.apache.stratos.load.balancer.event.receivers;
 
 import org.apache.stratos.load.balancer.common.event.receivers.LoadBalancerCommonTopologyEventReceiver;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
+import org.apache.stratos.load.balancer.context.ClusterContext;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 
 /**
@@ -39,5 +41,26 @@ public class LoadBalancerTopologyEventReceiver extends LoadBalancerCommonTopolog
 
         // Remove cluster context
         LoadBalancerContext.getInstance().removeClusterContext(cluster.getClusterId());
+        // Remove cluster request counters
+        LoadBalancerStatisticsCollector.getInstance().removeCluster(cluster.getClusterId());
+    }
+
+    @Override
+    protected void addMember(String serviceName, String clusterId, String memberId) {
+        super.addMember(serviceName, clusterId, memberId);
+
+        // Register cluster request counters, if not already registered
+        LoadBalancerStatisticsCollector.getInstance().addCluster(clusterId);
+    }
+
+    @Override
+    protected void removeMember(String serviceName, String clusterId, String memberId) {
+        super.removeMember(serviceName, clusterId, memberId);
+
+        // Remove member context
+        ClusterContext clusterContext = LoadBalancerContext.getInstance().getClusterContext(clusterId);
+        if (clusterContext != null) {
+            clusterContext.getAlgorithmContext().removeMemberContext(memberId);
+        }
     }
 }
@@ -19,18 +19,20 @@
 package org.apache.stratos.load.balancer.mediators;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
+import org.apache.stratos.load.balancer.context.LoadBalancerContext;
+import org.apache.stratos.load.balancer.context.MemberContext;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.load.balancer.util.LoadBalancerConstants;
 import org.apache.synapse.ManagedLifecycle;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.SynapseEnvironment;
 import org.apache.synapse.mediators.AbstractMediator;
 
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This Synapse mediator counts the responses that are going across LB.
+ * This Synapse mediator counts the responses that are going across LB and updates
+ * member response times used by load aware load balancing algorithms.
  */
 public class ResponseInterceptor extends AbstractMediator implements ManagedLifecycle {
 
@@ -48,14 +50,30 @@ public class ResponseInterceptor extends AbstractMediator implements ManagedLife
             }
             String clusterId = (String) messageContext.getProperty(LoadBalancerConstants.CLUSTER_ID);
             if (StringUtils.isNotBlank(clusterId)) {
-                FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-                LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+                LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Could not decrement in-flight request count : cluster id not found in message context");
                 }
             }
 
+            // Update request latency, member in-flight request count and response time
+            Long startTime = (Long) messageContext.getProperty(LoadBalancerConstants.LB_REQUEST_START_TIME);
+            if (StringUtils.isNotBlank(clusterId) && (startTime != null)) {
+                long responseTime = System.nanoTime() - startTime;
+                LoadBalancerStatisticsCollector.getInstance().addRequestLatency(clusterId,
+                        TimeUnit.NANOSECONDS.toMillis(responseTime));
+
+                String memberId = (String) messageContext.getProperty(LoadBalancerConstants.LB_MEMBER_ID);
+                if (StringUtils.isNotBlank(memberId)) {
+                    messageContext.getPropertyKeySet().remove(LoadBalancerConstants.LB_MEMBER_ID);
+                    MemberContext memberContext = LoadBalancerContext.getInstance().getMemberContext(clusterId, memberId);
+                    if (memberContext != null) {
+                        memberContext.decrementInFlightRequestCount(responseTime);
+                    }
+                }
+            }
+
         } catch (Exception e) {
             if (log.isErrorEnabled()) {
                 log.error("Could not decrement in-flight request count", e);
@@ -22,27 +22,34 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.constants.StratosConstants;
+import org.apache.stratos.common.statistics.LatencyHistogram;
 import org.apache.stratos.load.balancer.common.domain.Cluster;
-import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
+import org.apache.stratos.load.balancer.common.statistics.LoadBalancerRequestStatisticsReader;
+import org.apache.stratos.load.balancer.common.statistics.RequestLatencyPercentiles;
+import org.apache.stratos.load.balancer.context.ClusterContext;
+import org.apache.stratos.load.balancer.context.LoadBalancerContext;
+import org.apache.stratos.load.balancer.context.MemberContext;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * This is the load balancer statistics collector.
+ * This is the load balancer statistics collector. Request counters are kept per cluster in striped
+ * counters, hence they could be updated inline in the request path without any locks or allocations.
+ * Request latencies are recorded in a per cluster histogram which is recycled on each statistics
+ * publishing interval.
  */
-public class LoadBalancerStatisticsCollector implements LoadBalancerStatisticsReader {
+public class LoadBalancerStatisticsCollector implements LoadBalancerRequestStatisticsReader {
     private static final Log log = LogFactory.getLog(LoadBalancerStatisticsCollector.class);
 
     private static volatile LoadBalancerStatisticsCollector instance;
-    // Map<ClusterId, Integer>
-    private Map<String, Integer> clusterIdRequestCountMap;
-    private Map<String, Integer> clusterIdServedRequestCountMap;
+    // Map<ClusterId, ClusterRequestCounters>
+    private final ConcurrentMap<String, ClusterRequestCounters> clusterIdToRequestCountersMap;
     private String clusterInstanceId;
 
     private LoadBalancerStatisticsCollector() {
-        clusterIdRequestCountMap = new ConcurrentHashMap<String, Integer>();
-        clusterIdServedRequestCountMap = new ConcurrentHashMap<String, Integer>();
+        clusterIdToRequestCountersMap = new ConcurrentHashMap<String, ClusterRequestCounters>();
         clusterInstanceId = System.getProperty(StratosConstants.CLUSTER_INSTANCE_ID, StratosConstants.NOT_DEFINED);
     }
 
@@ -74,93 +81,146 @@ public class LoadBalancerStatisticsCollector implements LoadBalancerStatisticsRe
         return clusterInstanceId;
     }
 
+    /**
+     * Register request counters of a cluster. This is invoked when a cluster is added to the
+     * topology so that counters are not created in the request path.
+     *
+     * @param clusterId
+     */
+    public void addCluster(String clusterId) {
+        getOrCreateRequestCounters(clusterId);
+    }
+
+    public void removeCluster(String clusterId) {
+        clusterIdToRequestCountersMap.remove(clusterId);
+    }
+
     public int getInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (clusterIdRequestCountMap.containsKey(clusterId)) {
-                Integer count = clusterIdRequestCountMap.get(clusterId);
-                if (count != null) {
-                    return count;
-                }
-            }
+        ClusterRequestCounters requestCounters = clusterIdToRequestCountersMap.get(clusterId);
+        if (requestCounters == null) {
             return 0;
         }
+        // Sum could be negative momentarily while counters are being updated
+        return (int) Math.max(0, requestCounters.inFlightRequestCount.sum());
     }
 
     /**
      * Returns the number of requests served since the last time this function was called.
      */
     public int getServedRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (clusterIdServedRequestCountMap.containsKey(clusterId)) {
-                Integer servedCount = clusterIdServedRequestCountMap.get(clusterId);
-                if (servedCount != null) {
-                    clusterIdServedRequestCountMap.put(clusterId, 0);
-                    return servedCount;
-                }
-            }
+        ClusterRequestCounters requestCounters = clusterIdToRequestCountersMap.get(clusterId);
+        if (requestCounters == null) {
             return 0;
         }
+        return (int) requestCounters.servedRequestCount.sumThenReset();
     }
 
     public int getActiveInstancesCount(Cluster cluster) {
         return cluster.getMembers().size();
     }
 
-    void incrementInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (StringUtils.isBlank(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Cluster id is null, could not increment in-flight request count");
-                }
-                return;
-            }
-            Integer count = 0;
-            if (clusterIdRequestCountMap.containsKey(clusterId)) {
-                count = clusterIdRequestCountMap.get(clusterId);
+    public void incrementInFlightRequestCount(String clusterId) {
+        if (StringUtils.isBlank(clusterId)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cluster id is null, could not increment in-flight request count");
             }
-            count++;
-            clusterIdRequestCountMap.put(clusterId, count);
+            return;
+        }
+        getOrCreateRequestCounters(clusterId).inFlightRequestCount.increment();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight request count incremented: [cluster] %s [count] %s ", clusterId,
+                    getInFlightRequestCount(clusterId)));
+        }
+    }
 
+    public void decrementInFlightRequestCount(String clusterId) {
+        if (StringUtils.isBlank(clusterId)) {
             if (log.isDebugEnabled()) {
-                log.debug(String.format("In-flight request count incremented: [cluster] %s [count] %s ", clusterId,
-                        count));
+                log.debug("Cluster id is null, could not decrement in-flight request count");
+            }
+            return;
+        }
 
+        ClusterRequestCounters requestCounters = clusterIdToRequestCountersMap.get(clusterId);
+        if (requestCounters == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("In-flight request count not found for cluster, could not decrement in-flight request count: [cluster] %s ", clusterId));
             }
+            return;
+        }
+        // Stripes are not summed here, the count is clamped at zero when it is read
+        requestCounters.inFlightRequestCount.decrement();
+        requestCounters.servedRequestCount.increment();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight request count decremented: [cluster] %s [count] %s ", clusterId,
+                    getInFlightRequestCount(clusterId)));
         }
     }
 
-    void decrementInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (StringUtils.isBlank(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Cluster id is null, could not decrement in-flight request count");
-                }
-                return;
-            }
+    /**
+     * Record the latency of a request served by a member of the given cluster.
+     *
+     * @param clusterId
+     * @param latency   request latency in milliseconds
+     */
+    public void addRequestLatency(String clusterId, long latency) {
+        if (StringUtils.isBlank(clusterId)) {
+            return;
+        }
+        getOrCreateRequestCounters(clusterId).latencyHistogram.get().record(latency);
+    }
 
-            if (!clusterIdRequestCountMap.containsKey(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("In-flight request count not found for cluster, could not decrement in-flight request count: [cluster] %s ", clusterId));
-                }
-            } else {
-                Integer count = clusterIdRequestCountMap.get(clusterId);
-                if (count != null) {
-                    count = (count >= 1) ? (count - 1) : 0;
-                }
-                clusterIdRequestCountMap.put(clusterId, count);
+    @Override
+    public RequestLatencyPercentiles getRequestLatencyPercentiles(String clusterId) {
+        ClusterRequestCounters requestCounters = clusterIdToRequestCountersMap.get(clusterId);
+        if (requestCounters == null) {
+            return null;
+        }
+        synchronized (requestCounters) {
+            // Swap in the spare histogram, the retired histogram becomes the spare once it is read
+            LatencyHistogram retired = requestCounters.latencyHistogram.getAndSet(requestCounters.spareLatencyHistogram);
+            RequestLatencyPercentiles percentiles = RequestLatencyPercentiles.fromHistogram(retired);
+            retired.reset();
+            requestCounters.spareLatencyHistogram = retired;
+            return percentiles;
+        }
+    }
 
-                Integer servedCount = 0;
-                if (clusterIdServedRequestCountMap.containsKey(clusterId)) {
-                    servedCount = clusterIdServedRequestCountMap.get(clusterId);
-                }
-                servedCount++;
-                clusterIdServedRequestCountMap.put(clusterId, servedCount);
+    @Override
+    public int getMaxMemberInFlightRequestCount(String clusterId) {
+        ClusterContext clusterContext = LoadBalancerContext.getInstance().getClusterContext(clusterId);
+        if (clusterContext == null) {
+            return 0;
+        }
+        int max = 0;
+        for (MemberContext memberContext : clusterContext.getAlgorithmContext().getMemberContexts()) {
+            max = Math.max(max, memberContext.getInFlightRequestCount());
+        }
+        return max;
+    }
 
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("In-flight request count decremented: [cluster] %s [count] %s ", clusterId,
-                            count));
-                }
+    private ClusterRequestCounters getOrCreateRequestCounters(String clusterId) {
+        ClusterRequestCounters requestCounters = clusterIdToRequestCountersMap.get(clusterId);
+        if (requestCounters == null) {
+            requestCounters = new ClusterRequestCounters();
+            ClusterRequestCounters existing = clusterIdToRequestCountersMap.putIfAbsent(clusterId, requestCounters);
+            if (existing != null) {
+                requestCounters = existing;
             }
         }
+        return requestCounters;
+    }
+
+    /**
+     * Request counters of a cluster.
+     */
+    private static class ClusterRequestCounters {
+        private final StripedCounter inFlightRequestCount = new StripedCounter();
+        private final StripedCounter servedRequestCount = new StripedCounter();
+        private final AtomicReference<LatencyHistogram> latencyHistogram =
+                new AtomicReference<LatencyHistogram>(new LatencyHistogram());
+        private LatencyHistogram spareLatencyHistogram = new LatencyHistogram();
     }
-}
\ No newline at end of file
+}
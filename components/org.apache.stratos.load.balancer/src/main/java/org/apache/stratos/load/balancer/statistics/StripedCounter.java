@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter striped across several cells to avoid contention when it is updated by many threads.
+ * Each thread updates the cell selected by its thread id and readers sum all cells. Cells are
+ * padded to separate cache lines. This is a minimal equivalent of java.util.concurrent.atomic.LongAdder
+ * which is not available in Java 7.
+ */
+class StripedCounter {
+
+    /* Number of longs between two cells, 8 longs = 64 bytes = a typical cache line */
+    private static final int CELL_PADDING = 8;
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray cells;
+
+    StripedCounter() {
+        cells = new AtomicLongArray(STRIPES * CELL_PADDING);
+    }
+
+    void increment() {
+        cells.getAndIncrement(cellIndex());
+    }
+
+    void decrement() {
+        cells.getAndDecrement(cellIndex());
+    }
+
+    /**
+     * Returns the current sum of all cells. The value is not an atomic snapshot when the counter
+     * is updated concurrently.
+     */
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * CELL_PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all cells and resets them to zero. Updates made concurrently are
+     * either included in the returned value or retained for the next call, none are lost.
+     */
+    long sumThenReset() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.getAndSet(i * CELL_PADDING, 0);
+        }
+        return sum;
+    }
+
+    private static int cellIndex() {
+        long threadId = Thread.currentThread().getId();
+        return (int) ((threadId ^ (threadId >>> 16)) & (STRIPES - 1)) * CELL_PADDING;
+    }
+
+    private static int stripeCount() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while ((stripes < processors * 2) && (stripes < MAX_STRIPES)) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
@@ -33,6 +33,9 @@ public class LoadBalancerConstants {
     public static final String LB_TARGET_HOSTNAME = "LB_TARGET_HOSTNAME";
     public static final String LB_HTTP_PORT = "LB_HTTP_PORT";
     public static final String LB_HTTPS_PORT = "LB_HTTPS_PORT";
+    public static final String LB_MEMBER_ID = "LB_MEMBER_ID";
+    // Request start time in nanoseconds, measured with System.nanoTime()
+    public static final String LB_REQUEST_START_TIME = "LB_REQUEST_START_TIME";
 
     public static final String LOAD_BALANCER_THREAD_POOL_ID = "load.balancer.thread.pool";
     public static final String LOAD_BALANCER_THREAD_POOL_SIZE_KEY = "load.balancer.thread.pool.size";
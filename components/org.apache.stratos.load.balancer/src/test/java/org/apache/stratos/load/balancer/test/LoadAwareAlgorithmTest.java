@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.test;
+
+import org.apache.stratos.load.balancer.algorithm.EwmaResponseTime;
+import org.apache.stratos.load.balancer.algorithm.LeastConnections;
+import org.apache.stratos.load.balancer.algorithm.PowerOfTwoChoices;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.apache.stratos.load.balancer.context.MemberContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Least connections, power of two choices and EWMA response time load balance algorithm tests.
+ */
+@RunWith(JUnit4.class)
+public class LoadAwareAlgorithmTest {
+
+    private static final String SERVICE_NAME = "service1";
+    private static final String CLUSTER_ID = "cluster1";
+
+    /**
+     * Test whether the member with the lowest in-flight request count is selected.
+     */
+    @Test
+    public void testLeastConnections() {
+        List<Member> members = createCluster(3).getMemberList();
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        setInFlightRequestCount(algorithmContext, "member0", 5);
+        setInFlightRequestCount(algorithmContext, "member1", 2);
+        setInFlightRequestCount(algorithmContext, "member2", 7);
+
+        LeastConnections algorithm = new LeastConnections();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("Member with least connections was not selected", "member1",
+                    algorithm.getNextMember(algorithmContext, members).getMemberId());
+        }
+    }
+
+    /**
+     * Test whether the less loaded member is always selected when there are two members.
+     */
+    @Test
+    public void testPowerOfTwoChoices() {
+        List<Member> members = createCluster(2).getMemberList();
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        setInFlightRequestCount(algorithmContext, "member0", 4);
+
+        PowerOfTwoChoices algorithm = new PowerOfTwoChoices();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("Less loaded member was not selected", "member1",
+                    algorithm.getNextMember(algorithmContext, members).getMemberId());
+        }
+        Assert.assertNull("A member was selected from an empty cluster",
+                algorithm.getNextMember(algorithmContext, createCluster(0).getMemberList()));
+    }
+
+    /**
+     * Test whether the member with the lowest response time is selected.
+     */
+    @Test
+    public void testEwmaResponseTime() {
+        List<Member> members = createCluster(3).getMemberList();
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        addResponseTime(algorithmContext, "member0", TimeUnit.MILLISECONDS.toNanos(200));
+        addResponseTime(algorithmContext, "member1", TimeUnit.MILLISECONDS.toNanos(20));
+        addResponseTime(algorithmContext, "member2", TimeUnit.MILLISECONDS.toNanos(100));
+
+        EwmaResponseTime algorithm = new EwmaResponseTime();
+        Assert.assertEquals("Fastest member was not selected", "member1",
+                algorithm.getNextMember(algorithmContext, members).getMemberId());
+
+        // Fastest member becomes slower than member2 once it is serving many requests
+        setInFlightRequestCount(algorithmContext, "member1", 10);
+        Assert.assertEquals("Busy member was selected", "member2",
+                algorithm.getNextMember(algorithmContext, members).getMemberId());
+    }
+
+    /**
+     * Test whether members without response time samples and sub-millisecond members are
+     * still scored by their in-flight request count.
+     */
+    @Test
+    public void testEwmaResponseTimeWithoutSamples() {
+        List<Member> members = createCluster(3).getMemberList();
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        addResponseTime(algorithmContext, "member0", TimeUnit.MICROSECONDS.toNanos(300));
+        addResponseTime(algorithmContext, "member1", TimeUnit.MICROSECONDS.toNanos(500));
+        setInFlightRequestCount(algorithmContext, "member2", 5);
+
+        // New member is scored with the mean response time of the others
+        EwmaResponseTime algorithm = new EwmaResponseTime();
+        Assert.assertEquals("Busy new member was selected", "member0",
+                algorithm.getNextMember(algorithmContext, members).getMemberId());
+
+        // Without any samples the member serving the least requests is selected
+        algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        setInFlightRequestCount(algorithmContext, "member0", 3);
+        setInFlightRequestCount(algorithmContext, "member2", 1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("Busy member was selected", "member1",
+                    algorithm.getNextMember(algorithmContext, members).getMemberId());
+        }
+    }
+
+    /**
+     * Test exponentially weighted moving average calculation.
+     */
+    @Test
+    public void testMemberResponseTimeAverage() {
+        MemberContext memberContext = new MemberContext("member0");
+        memberContext.incrementInFlightRequestCount();
+        memberContext.decrementInFlightRequestCount(100);
+        Assert.assertEquals("First response time sample was not used", 100, memberContext.getAverageResponseTime(), 0.001);
+
+        memberContext.incrementInFlightRequestCount();
+        memberContext.decrementInFlightRequestCount(200);
+        Assert.assertEquals("Moving average is not valid", 130, memberContext.getAverageResponseTime(), 0.001);
+
+        memberContext.decrementInFlightRequestCount(100);
+        Assert.assertEquals("In-flight request count went below zero", 0, memberContext.getInFlightRequestCount());
+    }
+
+    private static void setInFlightRequestCount(AlgorithmContext algorithmContext, String memberId, int count) {
+        MemberContext memberContext = algorithmContext.getMemberContext(memberId);
+        while (memberContext.getInFlightRequestCount() < count) {
+            memberContext.incrementInFlightRequestCount();
+        }
+    }
+
+    private static void addResponseTime(AlgorithmContext algorithmContext, String memberId, long responseTime) {
+        MemberContext memberContext = algorithmContext.getMemberContext(memberId);
+        memberContext.incrementInFlightRequestCount();
+        memberContext.decrementInFlightRequestCount(responseTime);
+    }
+
+    private static Cluster createCluster(int memberCount) {
+        Cluster cluster = new Cluster(SERVICE_NAME, CLUSTER_ID);
+        for (int i = 0; i < memberCount; i++) {
+            cluster.addMember(new Member(SERVICE_NAME, CLUSTER_ID, "member" + i, "10.0.0." + i));
+        }
+        return cluster;
+    }
+}
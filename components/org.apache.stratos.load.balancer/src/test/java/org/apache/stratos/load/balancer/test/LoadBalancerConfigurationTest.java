@@ -70,6 +70,8 @@ public class LoadBalancerConfigurationTest {
             LoadBalancerConfiguration configuration = LoadBalancerConfiguration.getInstance();
 
             Assert.assertEquals(String.format("%s, algorithm not valid", validationError), "round-robin", configuration.getDefaultAlgorithmName());
+            Assert.assertEquals(String.format("%s, service algorithm not valid", validationError), "least-connections", configuration.getServiceAlgorithmName("service-name1"));
+            Assert.assertNull(String.format("%s, service algorithm not valid", validationError), configuration.getServiceAlgorithmName("service-name2"));
             Assert.assertTrue(String.format("%s, failover is not true", validationError), configuration.isFailOverEnabled());
             Assert.assertTrue(String.format("%s, session affinity is not true", validationError), configuration.isSessionAffinityEnabled());
             Assert.assertEquals(String.format("%s, session timeout is not valid", validationError), 90000, configuration.getSessionTimeout());
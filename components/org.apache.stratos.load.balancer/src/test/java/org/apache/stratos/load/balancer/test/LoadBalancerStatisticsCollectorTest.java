@@ -19,17 +19,16 @@
 
 package org.apache.stratos.load.balancer.test;
 
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestIncrementCallable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.common.statistics.RequestLatencyPercentiles;
 import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
-import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Load balancer statistics collector tests.
@@ -37,6 +36,8 @@ import java.util.concurrent.FutureTask;
 @RunWith(JUnit4.class)
 public class LoadBalancerStatisticsCollectorTest {
 
+    private static final Log log = LogFactory.getLog(LoadBalancerStatisticsCollectorTest.class);
+
     /**
      * Test in-flight request count calculation.
      */
@@ -46,42 +47,108 @@ public class LoadBalancerStatisticsCollectorTest {
         String incrementErrorMessage = "Could not increment in-flight request count: ";
         String decrementErrorMessage = "Could not decrement in-flight request count: ";
 
-        FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 1, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 1, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 2, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 2, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 3, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 3, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 2, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 2, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 1, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 1, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 0, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 0, collector.getInFlightRequestCount(clusterId));
 
         LoadBalancerStatisticsCollector.clear();
     }
 
-    private void executeTask(FutureTask<Object> task) {
-        Future future = LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
-        while (!future.isDone()) {
-            // Wait until task get executed
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // Might not need to trace
+    /**
+     * Test in-flight and served request counts when updated concurrently and log the throughput
+     * for increasing number of threads.
+     */
+    @Test
+    public void testConcurrentRequestCountCalculation() throws Exception {
+        final String clusterId = "cluster2";
+        final int requestsPerThread = 500000;
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threadCount = 1; threadCount <= processors; threadCount *= 2) {
+            final LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
+            collector.addCluster(clusterId);
+
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            final CountDownLatch endLatch = new CountDownLatch(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startLatch.await();
+                            for (int j = 0; j < requestsPerThread; j++) {
+                                collector.incrementInFlightRequestCount(clusterId);
+                                collector.decrementInFlightRequestCount(clusterId);
+                            }
+                        } catch (InterruptedException ignore) {
+                        } finally {
+                            endLatch.countDown();
+                        }
+                    }
+                }).start();
             }
+            long startTime = System.nanoTime();
+            startLatch.countDown();
+            endLatch.await();
+            long duration = System.nanoTime() - startTime;
+
+            Assert.assertEquals("In-flight request count is not valid", 0, collector.getInFlightRequestCount(clusterId));
+            Assert.assertEquals("Served request count is not valid", threadCount * requestsPerThread,
+                    collector.getServedRequestCount(clusterId));
+            Assert.assertEquals("Served request count was not reset", 0, collector.getServedRequestCount(clusterId));
+            log.info(String.format("Request count throughput: [threads] %d [requests/s] %d", threadCount,
+                    ((long) threadCount * requestsPerThread * 1000000000L) / Math.max(duration, 1)));
+
+            LoadBalancerStatisticsCollector.clear();
         }
     }
+
+    /**
+     * Test request latency percentile calculation and histogram recycling.
+     */
+    @Test
+    public void testRequestLatencyPercentiles() {
+        String clusterId = "cluster3";
+        LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
+        Assert.assertNull("Request latency found for an unknown cluster", collector.getRequestLatencyPercentiles(clusterId));
+
+        for (int i = 1; i <= 1000; i++) {
+            collector.addRequestLatency(clusterId, i);
+        }
+        RequestLatencyPercentiles percentiles = collector.getRequestLatencyPercentiles(clusterId);
+        Assert.assertNotNull("Request latency percentiles not found", percentiles);
+        Assert.assertEquals("Request count is not valid", 1000, percentiles.getRequestCount());
+        assertWithinPrecision("p50 is not valid", 500, percentiles.getP50());
+        assertWithinPrecision("p95 is not valid", 950, percentiles.getP95());
+        assertWithinPrecision("p99 is not valid", 990, percentiles.getP99());
+
+        // Next interval should start with an empty histogram
+        Assert.assertNull("Request latency histogram was not reset", collector.getRequestLatencyPercentiles(clusterId));
+        collector.addRequestLatency(clusterId, 7);
+        percentiles = collector.getRequestLatencyPercentiles(clusterId);
+        Assert.assertEquals("Request count is not valid", 1, percentiles.getRequestCount());
+        Assert.assertEquals("p99 is not valid", 7, percentiles.getP99());
+
+        LoadBalancerStatisticsCollector.clear();
+    }
+
+    private static void assertWithinPrecision(String message, long expected, long actual) {
+        // Histogram buckets are accurate within 1/16 of the value
+        Assert.assertTrue(String.format("%s: [expected] %d [actual] %d", message, expected, actual),
+                (actual >= expected) && (actual <= expected + expected / 16));
+    }
 }
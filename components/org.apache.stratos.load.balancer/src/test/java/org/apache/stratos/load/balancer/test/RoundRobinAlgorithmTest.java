@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.test;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.load.balancer.algorithm.RoundRobin;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round robin load balance algorithm tests.
+ */
+@RunWith(JUnit4.class)
+public class RoundRobinAlgorithmTest {
+
+    private static final Log log = LogFactory.getLog(RoundRobinAlgorithmTest.class);
+
+    private static final String SERVICE_NAME = "service1";
+    private static final String CLUSTER_ID = "cluster1";
+    private static final int MEMBER_COUNT = 4;
+    private static final int THREAD_COUNT = 4;
+    private static final int REQUESTS_PER_THREAD = 2000;
+    private static final int BENCHMARK_REQUESTS_PER_THREAD = 1000000;
+
+    /**
+     * Test whether members are selected one after the other.
+     */
+    @Test
+    public void testMemberSelectionOrder() {
+        Cluster cluster = createCluster(MEMBER_COUNT);
+        List<Member> members = cluster.getMemberList();
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        RoundRobin algorithm = new RoundRobin();
+
+        for (int i = 0; i < MEMBER_COUNT * 3; i++) {
+            Member member = algorithm.getNextMember(algorithmContext, members);
+            Assert.assertEquals("Unexpected member selected", members.get(i % MEMBER_COUNT), member);
+        }
+    }
+
+    /**
+     * Test whether the member list snapshot is updated on member changes.
+     */
+    @Test
+    public void testMemberListUpdate() {
+        Cluster cluster = createCluster(MEMBER_COUNT);
+        List<Member> members = cluster.getMemberList();
+
+        cluster.removeMember("member0");
+        Assert.assertEquals("Previous member list snapshot was modified", MEMBER_COUNT, members.size());
+        Assert.assertEquals("Member list was not updated", MEMBER_COUNT - 1, cluster.getMemberList().size());
+
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        Assert.assertNull("A member was selected from an empty cluster",
+                new RoundRobin().getNextMember(algorithmContext, createCluster(0).getMemberList()));
+    }
+
+    /**
+     * Test whether requests are distributed evenly among members when invoked concurrently.
+     */
+    @Test
+    public void testConcurrentMemberSelection() throws Exception {
+        Cluster cluster = createCluster(MEMBER_COUNT);
+        AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+        Map<String, AtomicLong> memberIdToCountMap = createMemberIdToCountMap(cluster);
+
+        runConcurrently(THREAD_COUNT, REQUESTS_PER_THREAD, cluster, algorithmContext, memberIdToCountMap);
+        long expectedCount = ((long) THREAD_COUNT * REQUESTS_PER_THREAD) / MEMBER_COUNT;
+        for (AtomicLong count : memberIdToCountMap.values()) {
+            Assert.assertEquals("Requests were not distributed evenly", expectedCount, count.get());
+        }
+    }
+
+    /**
+     * Log the throughput of the algorithm for increasing number of threads. This test only runs
+     * when -Dstratos.benchmark=true is set.
+     */
+    @Test
+    public void testConcurrentMemberSelectionThroughput() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("stratos.benchmark"));
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threadCount = 1; threadCount <= processors; threadCount *= 2) {
+            Cluster cluster = createCluster(MEMBER_COUNT);
+            AlgorithmContext algorithmContext = new AlgorithmContext(SERVICE_NAME, CLUSTER_ID);
+            Map<String, AtomicLong> memberIdToCountMap = createMemberIdToCountMap(cluster);
+
+            long duration = runConcurrently(threadCount, BENCHMARK_REQUESTS_PER_THREAD, cluster, algorithmContext,
+                    memberIdToCountMap);
+            log.info(String.format("Round robin throughput: [threads] %d [requests/s] %d", threadCount,
+                    ((long) threadCount * BENCHMARK_REQUESTS_PER_THREAD * 1000000000L) / Math.max(duration, 1)));
+        }
+    }
+
+    private static Map<String, AtomicLong> createMemberIdToCountMap(Cluster cluster) {
+        Map<String, AtomicLong> memberIdToCountMap = new HashMap<String, AtomicLong>();
+        for (Member member : cluster.getMemberList()) {
+            memberIdToCountMap.put(member.getMemberId(), new AtomicLong());
+        }
+        return memberIdToCountMap;
+    }
+
+    private long runConcurrently(int threadCount, final int requestsPerThread, final Cluster cluster,
+                                 final AlgorithmContext algorithmContext,
+                                 final Map<String, AtomicLong> memberIdToCountMap) throws InterruptedException {
+        final RoundRobin algorithm = new RoundRobin();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        long[] counts = new long[MEMBER_COUNT];
+                        for (int j = 0; j < requestsPerThread; j++) {
+                            Member member = algorithm.getNextMember(algorithmContext, cluster.getMemberList());
+                            counts[memberIndex(member)]++;
+                        }
+                        for (int k = 0; k < MEMBER_COUNT; k++) {
+                            memberIdToCountMap.get("member" + k).addAndGet(counts[k]);
+                        }
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        endLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        long startTime = System.nanoTime();
+        startLatch.countDown();
+        endLatch.await();
+        return System.nanoTime() - startTime;
+    }
+
+    private static int memberIndex(Member member) {
+        return Integer.parseInt(member.getMemberId().substring("member".length()));
+    }
+
+    private static Cluster createCluster(int memberCount) {
+        Cluster cluster = new Cluster(SERVICE_NAME, CLUSTER_ID);
+        for (int i = 0; i < memberCount; i++) {
+            cluster.addMember(new Member(SERVICE_NAME, CLUSTER_ID, "member" + i, "10.0.0." + i));
+        }
+        return cluster;
+    }
+}
@@ -23,6 +23,7 @@ package org.apache.stratos.manager.registry;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.serialization.SerializerFactory;
 import org.apache.stratos.manager.internal.ServiceReferenceHolder;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.registry.core.Registry;
@@ -32,7 +33,8 @@ import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
 import org.wso2.carbon.registry.core.session.UserRegistry;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.Serializable;
 
 /**
  * Registry manager provides functionality for persisting resources in the registry and reading them back.
@@ -152,21 +154,7 @@ public class RegistryManager {
      * @throws java.io.IOException
      */
     private byte[] serializeToByteArray(Serializable serializableObject) throws IOException {
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutput out = null;
-        try {
-            out = new ObjectOutputStream(bos);
-            out.writeObject(serializableObject);
-
-            return bos.toByteArray();
-
-        } finally {
-            if (out != null) {
-                out.close();
-            }
-            bos.close();
-        }
+        return SerializerFactory.getSerializer().serialize(serializableObject);
     }
 
     /**
@@ -177,20 +165,6 @@ public class RegistryManager {
      * @throws Exception if the deserialization is failed.
      */
     private Object deserializeFromByteArray(byte[] bytes) throws Exception {
-
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        ObjectInput in = null;
-        try {
-            in = new ObjectInputStream(bis);
-            Object o = in.readObject();
-
-            return o;
-
-        } finally {
-            bis.close();
-            if (in != null) {
-                in.close();
-            }
-        }
+        return SerializerFactory.getSerializer(bytes).deserialize(bytes, RegistryManager.class.getClassLoader());
     }
 }
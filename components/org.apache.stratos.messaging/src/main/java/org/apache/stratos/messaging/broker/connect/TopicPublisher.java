@@ -31,4 +31,13 @@ public interface TopicPublisher extends TopicConnector {
      * @param retry
      */
     public abstract void publish(String message, boolean retry);
+
+    /**
+     * Publish a message to a sub topic of the topic of this publisher, using the same broker connection.
+     *
+     * @param topicName name of the topic to publish to
+     * @param message
+     * @param retry
+     */
+    public abstract void publish(String topicName, String message, boolean retry);
 }
@@ -24,16 +24,28 @@ import org.apache.stratos.messaging.broker.connect.mqtt.MqttTopicSubscriber;
 import org.apache.stratos.messaging.broker.subscribe.MessageListener;
 import org.apache.stratos.messaging.util.MessagingConstants;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Topic subscriber factory.
  */
 public class TopicSubscriberFactory {
 
     public static TopicSubscriber createTopicSubscriber(String protocol, MessageListener messageListener, String topicName) {
+        return createTopicSubscriber(protocol, messageListener, Collections.singletonList(topicName));
+    }
+
+    /**
+     * Create a topic subscriber which subscribes to all the given topics with a single connection,
+     * messages are received in the order the broker delivers them across the topics.
+     */
+    public static TopicSubscriber createTopicSubscriber(String protocol, MessageListener messageListener,
+                                                        List<String> topicNames) {
         if (MessagingConstants.AMQP.equals(protocol)) {
-            return new AmqpTopicSubscriber(messageListener, topicName);
+            return new AmqpTopicSubscriber(messageListener, topicNames);
         } else if (MessagingConstants.MQTT.equals(protocol)) {
-            return new MqttTopicSubscriber(messageListener, topicName);
+            return new MqttTopicSubscriber(messageListener, topicNames);
         } else {
             throw new RuntimeException("Could not create topic subscriber, unknown protocol: " + protocol);
         }
@@ -56,6 +56,18 @@ public class AmqpTopicPublisher extends AmqpTopicConnector implements TopicPubli
      */
     @Override
     public void publish(String message, boolean retry) {
+        publish(topicName, message, retry);
+    }
+
+    /**
+     * Publish message to the given topic in message broker.
+     *
+     * @param topicName Topic name to publish to
+     * @param message   Message to be published
+     * @param retry     Retry if message broker is not available
+     */
+    @Override
+    public void publish(String topicName, String message, boolean retry) {
         boolean published = false;
         while (!published) {
             TopicSession topicSession = null;
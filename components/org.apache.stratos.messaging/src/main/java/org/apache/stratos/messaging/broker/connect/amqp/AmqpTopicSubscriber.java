@@ -31,6 +31,8 @@ import org.apache.stratos.messaging.domain.exception.MessagingException;
 import javax.jms.Message;
 import javax.jms.Topic;
 import javax.jms.TopicSession;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * AMQP topic subscriber.
@@ -43,8 +45,22 @@ public class AmqpTopicSubscriber extends AmqpTopicConnector implements TopicSubs
     private final String topicName;
 
     public AmqpTopicSubscriber(MessageListener messageListener, String topicName) {
+        this(messageListener, Collections.singletonList(topicName));
+    }
+
+    /**
+     * Subscribes to all the given topics with a single consumer of a composite topic.
+     */
+    public AmqpTopicSubscriber(MessageListener messageListener, List<String> topicNames) {
         this.messageListener = messageListener;
-        this.topicName = topicName;
+        StringBuilder compositeTopicName = new StringBuilder();
+        for (String topicName : topicNames) {
+            if (compositeTopicName.length() > 0) {
+                compositeTopicName.append(',');
+            }
+            compositeTopicName.append(topicName);
+        }
+        this.topicName = compositeTopicName.toString();
         create();
     }
 
@@ -44,6 +44,10 @@ public class MqttTopicPublisher extends MqttTopicConnector implements TopicPubli
     }
 
     public void publish(String message, boolean retry) {
+        publish(topicName, message, retry);
+    }
+
+    public void publish(String topicName, String message, boolean retry) {
         try {
             if (mqttClient == null) {
                 String error = "Could not publish message to topic, MQTT client has not been initialized";
@@ -31,6 +31,10 @@ import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.MqttCallback;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * MQTT topic subscriber
  * Usage: Create an instance and invoke connect(), subscribe() to subscribe to a topic. When needed to disconnect
@@ -41,11 +45,20 @@ public class MqttTopicSubscriber extends MqttTopicConnector implements TopicSubs
     protected static final Log log = LogFactory.getLog(MqttTopicSubscriber.class);
 
     private final MessageListener messageListener;
-    private String topicName;
+    private final String[] topicFilters;
+    private final String topicName;
 
     public MqttTopicSubscriber(MessageListener messageListener, String topicName) {
+        this(messageListener, Collections.singletonList(topicName));
+    }
+
+    /**
+     * Subscribes to all the given topic filters with a single MQTT client.
+     */
+    public MqttTopicSubscriber(MessageListener messageListener, List<String> topicNames) {
         this.messageListener = messageListener;
-        this.topicName = topicName;
+        this.topicFilters = topicNames.toArray(new String[topicNames.size()]);
+        this.topicName = (topicFilters.length == 1) ? topicFilters[0] : Arrays.toString(topicFilters);
         create();
     }
 
@@ -68,7 +81,9 @@ public class MqttTopicSubscriber extends MqttTopicConnector implements TopicSubs
             }
 
             mqttClient.setCallback(new MQTTSubscriberCallback());
-            mqttClient.subscribe(topicName, MessagingConstants.QOS);
+            int[] qos = new int[topicFilters.length];
+            Arrays.fill(qos, MessagingConstants.QOS);
+            mqttClient.subscribe(topicFilters, qos);
             if (log.isDebugEnabled()) {
                 log.debug("Subscribed to topic " + topicName);
             }
@@ -131,11 +146,12 @@ public class MqttTopicSubscriber extends MqttTopicConnector implements TopicSubs
         @Override
         public void messageArrived(String topic, MqttMessage message) throws Exception {
 
-            String messageText = new String(message.getPayload());
+            // Message text is decoded when it is read, large messages are parsed from the payload
+            Message receivedMessage = new Message(topic, message.getPayload());
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Message received: %s", messageText));
+                log.debug(String.format("Message received: %s", receivedMessage.getText()));
             }
-            messageListener.messageReceived(new Message(topic, messageText));
+            messageListener.messageReceived(receivedMessage);
         }
 
         @Override
@@ -19,24 +19,58 @@
 
 package org.apache.stratos.messaging.broker.publish;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.broker.connect.RetryTimer;
 import org.apache.stratos.messaging.broker.connect.TopicPublisher;
 import org.apache.stratos.messaging.broker.connect.TopicPublisherFactory;
 import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A topic publisher for publishing messages to a message broker topic.
  * Messages will be published in JSON format.
+ * <p/>
+ * The connection to the message broker is established on the first publish and kept open
+ * for the lifetime of the publisher. If publishing fails the connection is dropped and
+ * re-established with a back-off defined by {@link RetryTimer}. Publishing is serialized
+ * per topic, therefore a slow topic does not block publishers of other topics.
+ * <p/>
+ * Messages published with retry are retried until they are published. Retries can be bounded
+ * by setting the event.publisher.max.retries and event.publisher.max.retry.time (milliseconds)
+ * system properties, so that a message which cannot be published does not hold the topic lock
+ * forever. Once a configured limit is exhausted, the message is dropped.
  */
 public class EventPublisher {
 
     private static final Log log = LogFactory.getLog(EventPublisher.class);
 
+    private static final String MAX_RETRIES_PROPERTY = "event.publisher.max.retries";
+    private static final String MAX_RETRY_TIME_PROPERTY = "event.publisher.max.retry.time";
+    // Retries are not bounded unless the limits are configured
+    private static final int UNBOUNDED = -1;
+
+    private final int maxRetries;
+    private final long maxRetryTime;
+
     private final String topicName;
     private final TopicPublisher topicPublisher;
+    private final Object publishLock = new Object();
+    private volatile boolean connected;
+    private volatile boolean closed;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong totalPublishTimeNanos = new AtomicLong();
+    private final AtomicLong maxPublishTimeNanos = new AtomicLong();
 
     /**
      * @param topicName topic name of this publisher instance.
@@ -45,13 +79,16 @@ public class EventPublisher {
         this.topicName = topicName;
         String protocol = MessagingUtil.getMessagingProtocol();
         this.topicPublisher = TopicPublisherFactory.createTopicPublisher(protocol, topicName);
+        this.maxRetries = MessagingUtil.getNumericSystemProperty(UNBOUNDED, MAX_RETRIES_PROPERTY);
+        this.maxRetryTime = MessagingUtil.getNumericSystemProperty(UNBOUNDED, MAX_RETRY_TIME_PROPERTY);
         if (log.isDebugEnabled()) {
             log.debug(String.format("Topic publisher created: [protocol] %s [topic] %s", protocol, topicName));
         }
     }
 
     /**
-     * Publish event.
+     * Publish event. The event is retried until it is published, or dropped once the
+     * configured retry limits are exhausted.
      *
      * @param event event to be published
      */
@@ -61,17 +98,181 @@ public class EventPublisher {
 
     /**
      * Convert the object to its JSON representation and publish to the given topic.
+     * Events are published to their hierarchical sub topic if hierarchical topics are enabled.
      */
-
     public void publish(Object messageObj, boolean retry) {
-        synchronized (EventPublisher.class) {
-            Gson gson = new Gson();
-            String message = gson.toJson(messageObj);
+        String json = JsonCodec.toJson(messageObj);
+        String subTopicName = (messageObj instanceof Event) ?
+                MessagingUtil.getMessageSubTopicName((Event) messageObj) : topicName;
+        publishJson(subTopicName, messageObj.getClass().getName(), json, retry);
+    }
+
+    /**
+     * Publish a message which has already been converted to JSON to the given topic.
+     *
+     * @param message JSON representation of the message
+     * @param retry   retry if message broker is not available
+     */
+    public void publishJson(String message, boolean retry) {
+        publishJson(topicName, message, retry);
+    }
+
+    /**
+     * Publish a message which has already been converted to JSON to a sub topic of the given topic.
+     * The broker connection of this publisher is used, hence sub topics do not need publishers of their own.
+     *
+     * @param subTopicName topic name returned by {@link MessagingUtil#getMessageSubTopicName(Event)}
+     * @param message      JSON representation of the message
+     * @param retry        retry if message broker is not available
+     */
+    public void publishJson(String subTopicName, String message, boolean retry) {
+        publishJson(subTopicName, null, message, retry);
+    }
+
+    /**
+     * Publish a message which has already been converted to JSON to a sub topic of the given topic.
+     *
+     * @param subTopicName topic name returned by {@link MessagingUtil#getMessageSubTopicName(Event)}
+     * @param messageType  class name of the message, used for logging
+     * @param message      JSON representation of the message
+     * @param retry        retry if message broker is not available
+     */
+    public void publishJson(String subTopicName, String messageType, String message, boolean retry) {
+        queueDepth.incrementAndGet();
+        try {
+            synchronized (publishLock) {
+                long startTime = System.nanoTime();
+                doPublish(subTopicName, messageType, message, retry);
+                updatePublishTime(System.nanoTime() - startTime);
+            }
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
 
-            topicPublisher.connect();
-            topicPublisher.publish(message, retry);
+    private void doPublish(String subTopicName, String messageType, String message, boolean retry) {
+        RetryTimer retryTimer = null;
+        long retryDeadline = 0;
+        int retryCount = 0;
+        while (true) {
+            try {
+                if (!connected) {
+                    topicPublisher.connect();
+                    connected = true;
+                }
+                // Retries are handled here, the topic publisher should fail fast
+                topicPublisher.publish(subTopicName, message, false);
+                publishedCount.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                failedCount.incrementAndGet();
+                dropConnection();
+                if (!retry || closed) {
+                    throw e;
+                }
+                if (retryTimer == null) {
+                    retryTimer = new RetryTimer();
+                    retryDeadline = System.currentTimeMillis() + maxRetryTime;
+                }
+                long interval = retryTimer.getNextInterval();
+                if (maxRetryTime != UNBOUNDED) {
+                    interval = Math.min(interval, retryDeadline - System.currentTimeMillis());
+                }
+                if (((maxRetries != UNBOUNDED) && (retryCount >= maxRetries)) || (interval <= 0)) {
+                    droppedCount.incrementAndGet();
+                    log.error(String.format("Could not publish to topic after %d retries, message dropped: " +
+                            "[topic] %s [type] %s", retryCount, subTopicName, messageType), e);
+                    return;
+                }
+                retryCount++;
+                log.warn(String.format("Could not publish to topic, will reconnect in %d seconds: [topic] %s " +
+                        "[type] %s [retry] %d", (interval / 1000), subTopicName, messageType, retryCount));
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                reconnectCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void dropConnection() {
+        if (connected) {
+            connected = false;
             topicPublisher.disconnect();
+        }
+    }
 
+    private void updatePublishTime(long publishTime) {
+        totalPublishTimeNanos.addAndGet(publishTime);
+        long max = maxPublishTimeNanos.get();
+        while ((publishTime > max) && !maxPublishTimeNanos.compareAndSet(max, publishTime)) {
+            max = maxPublishTimeNanos.get();
         }
     }
+
+    /**
+     * Disconnect from the message broker. Messages already waiting to be published
+     * will still be published, but will not be retried if the broker is unavailable.
+     */
+    void close() {
+        closed = true;
+        synchronized (publishLock) {
+            dropConnection();
+        }
+    }
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return number of messages waiting to be published or being published at the moment
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * @return number of messages dropped after exhausting the configured publish retries
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return average time taken to publish a message in milliseconds, including retries
+     */
+    public double getAveragePublishLatency() {
+        long count = publishedCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return (double) totalPublishTimeNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return maximum time taken to publish a message in milliseconds, including retries
+     */
+    public long getMaxPublishLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxPublishTimeNanos.get());
+    }
 }
@@ -22,46 +22,63 @@ package org.apache.stratos.messaging.broker.publish;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Event publisher instance pool will make sure that only one publisher
- * instance is created for each topic.
+ * instance is created for each topic. Publishers keep their broker connections
+ * open until they are closed via {@link #close(String)}.
  */
 public class EventPublisherPool {
     private static final Log log = LogFactory.getLog(EventPublisherPool.class);
-    private static Map<String, EventPublisher> topicNameEventPublisherMap = new HashMap<String, EventPublisher>();
+    private static final ConcurrentHashMap<String, EventPublisher> topicNameEventPublisherMap =
+            new ConcurrentHashMap<String, EventPublisher>();
 
     public static EventPublisher getPublisher(String topicName) {
+        EventPublisher eventPublisher = topicNameEventPublisherMap.get(topicName);
+        if (eventPublisher != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Event publisher fetched from pool: [topic] %s", topicName));
+            }
+            return eventPublisher;
+        }
+
         synchronized (EventPublisherPool.class) {
-            if (topicNameEventPublisherMap.containsKey(topicName)) {
+            // Only publisher creation is synchronized, publishers connect lazily
+            eventPublisher = topicNameEventPublisherMap.get(topicName);
+            if (eventPublisher == null) {
+                eventPublisher = new EventPublisher(topicName);
+                topicNameEventPublisherMap.put(topicName, eventPublisher);
                 if (log.isDebugEnabled()) {
-                    log.debug(String.format("Event publisher fetched from pool: [topic] %s", topicName));
+                    log.debug(String.format("Event publisher instance created: [topic] %s", topicName));
                 }
-                return topicNameEventPublisherMap.get(topicName);
-            }
-            EventPublisher eventPublisher = new EventPublisher(topicName);
-            topicNameEventPublisherMap.put(topicName, eventPublisher);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Event publisher instance created: [topic] %s", topicName));
             }
             return eventPublisher;
         }
     }
 
     public static void close(String topicName) {
-        synchronized (EventPublisherPool.class) {
-            if (topicNameEventPublisherMap.containsKey(topicName)) {
-                topicNameEventPublisherMap.remove(topicName);
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Event publisher closed and removed from pool: [topic] %s", topicName));
-                }
-            } else {
-                if (log.isWarnEnabled()) {
-                    log.warn(String.format("Event publisher instance not found in pool: [topic] %s", topicName));
-                }
+        EventPublisher eventPublisher = topicNameEventPublisherMap.remove(topicName);
+        if (eventPublisher != null) {
+            eventPublisher.close();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Event publisher closed and removed from pool: [topic] %s", topicName));
+            }
+        } else {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Event publisher instance not found in pool: [topic] %s", topicName));
             }
         }
     }
+
+    /**
+     * Returns the publishers in the pool for reading publish statistics.
+     *
+     * @return event publishers
+     */
+    public static Collection<EventPublisher> getPublishers() {
+        return Collections.unmodifiableCollection(topicNameEventPublisherMap.values());
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.broker.publish;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.topology.*;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes topology events asynchronously. Events are converted to JSON on the caller's
+ * thread and added to a bounded queue, which is drained by a dedicated thread. Events found in
+ * the queue at the time of draining are published together in a {@link TopologyBatchEvent}.
+ * <p/>
+ * While the message broker is falling behind, a member status event which has not been published
+ * yet is replaced by a newer event of the same type for the same member. Events of different types
+ * are never merged, since receivers validate each member state transition. Events carrying a
+ * topology revision are never merged either.
+ * <p/>
+ * Batches are published without hierarchical topic levels, therefore they are received by all
+ * topology subscribers regardless of their topology filters.
+ * <p/>
+ * The publisher is disabled by default, it can be enabled by setting the system property
+ * stratos.messaging.topology.batchPublish.enabled to true. All topology subscribers need to unpack
+ * batch events, which the java receivers and the python cartridge agent do; cartridge agents of
+ * earlier releases ignore batches and would miss the events in them.
+ */
+public class TopologyEventBatchPublisher implements Runnable {
+
+    private static final Log log = LogFactory.getLog(TopologyEventBatchPublisher.class);
+
+    private static final String ENABLED_PROPERTY = "stratos.messaging.topology.batchPublish.enabled";
+    private static final String QUEUE_SIZE_PROPERTY = "stratos.messaging.topology.batchPublish.queueSize";
+    private static final String BATCH_SIZE_PROPERTY = "stratos.messaging.topology.batchPublish.batchSize";
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final String THREAD_POOL_ID = "messaging.topology.batch.publisher.thread.pool";
+    private static final long TERMINATION_TIMEOUT = 30000;
+
+    private static volatile TopologyEventBatchPublisher instance;
+
+    private final BlockingQueue<QueuedEvent> eventQueue;
+    private final int batchSize;
+    private final String batchTopicName;
+    // Last queued event of each member, guarded by itself
+    private final Map<String, QueuedEvent> memberIdQueuedEventMap;
+    private final CountDownLatch terminationLatch;
+    private volatile boolean terminated;
+
+    private final AtomicLong publishedEventCount = new AtomicLong();
+    private final AtomicLong publishedBatchCount = new AtomicLong();
+    private final AtomicLong coalescedEventCount = new AtomicLong();
+
+    private TopologyEventBatchPublisher() {
+        int queueSize = MessagingUtil.getNumericSystemProperty(DEFAULT_QUEUE_SIZE, QUEUE_SIZE_PROPERTY);
+        this.eventQueue = new ArrayBlockingQueue<QueuedEvent>(queueSize);
+        this.batchSize = MessagingUtil.getNumericSystemProperty(DEFAULT_BATCH_SIZE, BATCH_SIZE_PROPERTY);
+        this.batchTopicName = MessagingUtil.getMessageTopicName(new TopologyBatchEvent());
+        this.memberIdQueuedEventMap = new HashMap<String, QueuedEvent>();
+        this.terminationLatch = new CountDownLatch(1);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Topology event batch publisher started: [queue-size] %d [batch-size] %d",
+                    queueSize, batchSize));
+        }
+    }
+
+    /**
+     * @return true if topology events should be published via the batch publisher
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    public static TopologyEventBatchPublisher getInstance() {
+        if (instance == null) {
+            synchronized (TopologyEventBatchPublisher.class) {
+                if (instance == null) {
+                    TopologyEventBatchPublisher batchPublisher = new TopologyEventBatchPublisher();
+                    StratosThreadPool.getExecutorService(THREAD_POOL_ID, 1).execute(batchPublisher);
+                    instance = batchPublisher;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Add the event to the publish queue. The caller will only be blocked if the queue is full.
+     *
+     * @param event topology event to be published
+     */
+    public void publish(TopologyEvent event) {
+        publish(event, JsonCodec.toJson(event));
+    }
+
+    /**
+     * Add the event to the publish queue. The caller will only be blocked if the queue is full.
+     *
+     * @param event topology event to be published
+     * @param json  JSON representation of the event
+     */
+    public void publish(TopologyEvent event, String json) {
+        if (terminated) {
+            throw new IllegalStateException("Topology event batch publisher has been terminated");
+        }
+
+        // Events with topology revisions are not coalesced, subscribers expect every revision
+        String memberId = (event.getRevision() == 0) ? getStatusEventMemberId(event) : null;
+        QueuedEvent queuedEvent;
+        synchronized (memberIdQueuedEventMap) {
+            if (memberId != null) {
+                queuedEvent = memberIdQueuedEventMap.get(memberId);
+                if ((queuedEvent != null) && queuedEvent.eventClassName.equals(event.getClass().getName())) {
+                    // Event has not been published yet, replace it with the latest
+                    queuedEvent.json = json;
+                    coalescedEventCount.incrementAndGet();
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Topology event coalesced: [event] %s [member-id] %s",
+                                queuedEvent.eventClassName, memberId));
+                    }
+                    return;
+                }
+            }
+            queuedEvent = new QueuedEvent(MessagingUtil.getMessageTopicName(event),
+                    MessagingUtil.getMessageSubTopicName(event), event.getClass().getName(), memberId, json);
+            if (memberId != null) {
+                memberIdQueuedEventMap.put(memberId, queuedEvent);
+            } else if (event instanceof MemberTerminatedEvent) {
+                memberIdQueuedEventMap.remove(((MemberTerminatedEvent) event).getMemberId());
+            }
+        }
+
+        try {
+            eventQueue.put(queuedEvent);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while adding topology event to publish queue", e);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<QueuedEvent> batch = new ArrayList<QueuedEvent>(batchSize);
+        try {
+            while (!terminated || !eventQueue.isEmpty()) {
+                try {
+                    QueuedEvent queuedEvent = eventQueue.poll(1, TimeUnit.SECONDS);
+                    if (queuedEvent == null) {
+                        continue;
+                    }
+                    batch.add(queuedEvent);
+                    eventQueue.drainTo(batch, batchSize - 1);
+                    publishBatch(batch);
+                } catch (InterruptedException ignore) {
+                    terminated = true;
+                } catch (Exception e) {
+                    log.error("Could not publish topology events", e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            terminationLatch.countDown();
+            if (log.isInfoEnabled()) {
+                log.info("Topology event batch publisher terminated");
+            }
+        }
+    }
+
+    private void publishBatch(List<QueuedEvent> batch) {
+        // Detach events from the coalescing map before reading their content
+        synchronized (memberIdQueuedEventMap) {
+            for (QueuedEvent queuedEvent : batch) {
+                if ((queuedEvent.memberId != null) &&
+                        (memberIdQueuedEventMap.get(queuedEvent.memberId) == queuedEvent)) {
+                    memberIdQueuedEventMap.remove(queuedEvent.memberId);
+                }
+            }
+        }
+
+        if (batch.size() == 1) {
+            // Publish a single event in its own topic
+            QueuedEvent queuedEvent = batch.get(0);
+            EventPublisherPool.getPublisher(queuedEvent.topicName).publishJson(queuedEvent.subTopicName,
+                    queuedEvent.eventClassName, queuedEvent.json, true);
+        } else {
+            TopologyBatchEvent batchEvent = new TopologyBatchEvent();
+            for (QueuedEvent queuedEvent : batch) {
+                batchEvent.addEventMessage(queuedEvent.eventClassName, queuedEvent.json);
+            }
+            EventPublisherPool.getPublisher(batchTopicName).publish(batchEvent);
+            publishedBatchCount.incrementAndGet();
+        }
+        publishedEventCount.addAndGet(batch.size());
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Topology events published: [count] %d [queue-depth] %d",
+                    batch.size(), eventQueue.size()));
+        }
+    }
+
+    /**
+     * Stop accepting events and wait until the queued events are published.
+     */
+    public void terminate() {
+        terminated = true;
+        try {
+            if (!terminationLatch.await(TERMINATION_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn(String.format("Topology event batch publisher did not publish all events before timeout: " +
+                        "[queue-depth] %d", eventQueue.size()));
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return eventQueue.size();
+    }
+
+    public long getPublishedEventCount() {
+        return publishedEventCount.get();
+    }
+
+    public long getPublishedBatchCount() {
+        return publishedBatchCount.get();
+    }
+
+    public long getCoalescedEventCount() {
+        return coalescedEventCount.get();
+    }
+
+    private static String getStatusEventMemberId(Event event) {
+        if (event instanceof MemberInitializedEvent) {
+            return ((MemberInitializedEvent) event).getMemberId();
+        } else if (event instanceof MemberStartedEvent) {
+            return ((MemberStartedEvent) event).getMemberId();
+        } else if (event instanceof MemberActivatedEvent) {
+            return ((MemberActivatedEvent) event).getMemberId();
+        } else if (event instanceof MemberSuspendedEvent) {
+            return ((MemberSuspendedEvent) event).getMemberId();
+        } else if (event instanceof MemberMaintenanceModeEvent) {
+            return ((MemberMaintenanceModeEvent) event).getMemberId();
+        } else if (event instanceof MemberReadyToShutdownEvent) {
+            return ((MemberReadyToShutdownEvent) event).getMemberId();
+        }
+        return null;
+    }
+
+    /**
+     * A topology event waiting in the publish queue.
+     */
+    private static class QueuedEvent {
+        private final String topicName;
+        private final String subTopicName;
+        private final String eventClassName;
+        private final String memberId;
+        // Replaced when a newer event of the same type is published for the member
+        private volatile String json;
+
+        private QueuedEvent(String topicName, String subTopicName, String eventClassName, String memberId,
+                            String json) {
+            this.topicName = topicName;
+            this.subTopicName = subTopicName;
+            this.eventClassName = eventClassName;
+            this.memberId = memberId;
+            this.json = json;
+        }
+    }
+}
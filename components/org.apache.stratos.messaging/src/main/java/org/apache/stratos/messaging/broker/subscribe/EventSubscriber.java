@@ -26,6 +26,9 @@ import org.apache.stratos.messaging.broker.connect.TopicSubscriberFactory;
 import org.apache.stratos.messaging.util.MessagingUtil;
 import org.eclipse.paho.client.mqttv3.MqttException;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Event subscriber for receiving published by event publisher.
  */
@@ -41,9 +44,19 @@ public class EventSubscriber implements Runnable {
      * @param topicName topic name of this subscriber instance.
      */
     public EventSubscriber(String topicName, MessageListener messageListener) {
-        this.topicName = topicName;
+        this(Collections.singletonList(topicName), messageListener);
+    }
+
+    /**
+     * Subscribes to all the given topics with a single connection, hence messages of different
+     * topics are received in the order the broker delivers them.
+     *
+     * @param topicNames topic names of this subscriber instance.
+     */
+    public EventSubscriber(List<String> topicNames, MessageListener messageListener) {
+        this.topicName = (topicNames.size() == 1) ? topicNames.get(0) : topicNames.toString();
         String protocol = MessagingUtil.getMessagingProtocol();
-        this.topicSubscriber = TopicSubscriberFactory.createTopicSubscriber(protocol, messageListener, topicName);
+        this.topicSubscriber = TopicSubscriberFactory.createTopicSubscriber(protocol, messageListener, topicNames);
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Topic subscriber created: [protocol] %s [topic] %s", protocol, topicName));
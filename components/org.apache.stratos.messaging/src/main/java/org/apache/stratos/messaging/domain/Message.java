@@ -21,28 +21,57 @@ package org.apache.stratos.messaging.domain;
 
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
 /**
- * Message definition.
+ * Message definition. Messages received as bytes are kept as bytes until their text is
+ * requested, large messages can be parsed directly from the bytes via {@link #getReader()}.
  */
 public class Message {
     private final String topicName;
-    private final String text;
+    private final byte[] payload;
     private final String eventClassName;
+    private String text;
 
     public Message(String topicName, String text) {
         this.topicName = topicName;
+        this.payload = null;
         this.text = text;
         this.eventClassName = MessagingUtil.getEventClassNameForTopic(topicName);
     }
 
+    public Message(String topicName, byte[] payload) {
+        this.topicName = topicName;
+        this.payload = payload;
+        this.eventClassName = MessagingUtil.getEventClassNameForTopic(topicName);
+    }
+
     public String getTopicName() {
         return topicName;
     }
 
     public String getText() {
+        if (text == null) {
+            // Publishers encode messages with the default charset
+            text = new String(payload, Charset.defaultCharset());
+        }
         return text;
     }
 
+    /**
+     * Returns a reader of the message text which does not copy the message payload.
+     */
+    public Reader getReader() {
+        if ((text == null) && (payload != null)) {
+            return new InputStreamReader(new ByteArrayInputStream(payload), Charset.defaultCharset());
+        }
+        return new StringReader(text);
+    }
+
     public String getEventClassName() {
         return eventClassName;
     }
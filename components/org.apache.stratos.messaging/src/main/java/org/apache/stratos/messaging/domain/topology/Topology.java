@@ -34,6 +34,8 @@ public class Topology implements Serializable {
     private final HashMap<String, Cluster> clusterMap;
     // Key: Service.serviceName
     private Map<String, Service> serviceMap;
+    // Revision of the last topology event applied to this topology
+    private long revision;
 
     public Topology() {
         this.serviceMap = new HashMap<>();
@@ -82,6 +84,14 @@ public class Topology implements Serializable {
         return clusterMap.get(clusterId) != null;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
     public void clear() {
         this.serviceMap.clear();
         this.clusterMap.clear();
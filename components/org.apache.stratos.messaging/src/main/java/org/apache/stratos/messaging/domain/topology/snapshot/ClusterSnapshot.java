@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.domain.topology.snapshot;
+
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of a cluster and its members taken when a topology snapshot is published.
+ */
+public final class ClusterSnapshot {
+
+    private final String serviceName;
+    private final String clusterId;
+    private final String appId;
+    private final String tenantRange;
+    private final String loadBalanceAlgorithmName;
+    private final boolean lbCluster;
+    private final List<String> hostNames;
+    // Key: member id
+    private final Map<String, MemberSnapshot> memberMap;
+
+    public ClusterSnapshot(Cluster cluster) {
+        this.serviceName = cluster.getServiceName();
+        this.clusterId = cluster.getClusterId();
+        this.appId = cluster.getAppId();
+        this.tenantRange = cluster.getTenantRange();
+        this.loadBalanceAlgorithmName = cluster.getLoadBalanceAlgorithmName();
+        this.lbCluster = cluster.isLbCluster();
+        this.hostNames = (cluster.getHostNames() != null) ?
+                Collections.unmodifiableList(new ArrayList<String>(cluster.getHostNames())) :
+                Collections.<String>emptyList();
+
+        Map<String, MemberSnapshot> memberMap = new HashMap<String, MemberSnapshot>();
+        for (Member member : cluster.getMembers()) {
+            memberMap.put(member.getMemberId(), new MemberSnapshot(member));
+        }
+        this.memberMap = Collections.unmodifiableMap(memberMap);
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getClusterId() {
+        return clusterId;
+    }
+
+    public String getAppId() {
+        return appId;
+    }
+
+    public String getTenantRange() {
+        return tenantRange;
+    }
+
+    public String getLoadBalanceAlgorithmName() {
+        return loadBalanceAlgorithmName;
+    }
+
+    public boolean isLbCluster() {
+        return lbCluster;
+    }
+
+    public List<String> getHostNames() {
+        return hostNames;
+    }
+
+    public Collection<MemberSnapshot> getMembers() {
+        return memberMap.values();
+    }
+
+    public MemberSnapshot getMember(String memberId) {
+        return memberMap.get(memberId);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.domain.topology.snapshot;
+
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.MemberStatus;
+import org.apache.stratos.messaging.domain.topology.Port;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Immutable copy of a member taken when a topology snapshot is published.
+ */
+public final class MemberSnapshot {
+
+    private final String serviceName;
+    private final String clusterId;
+    private final String memberId;
+    private final String clusterInstanceId;
+    private final String networkPartitionId;
+    private final String partitionId;
+    private final String lbClusterId;
+    private final MemberStatus status;
+    private final String defaultPrivateIP;
+    private final String defaultPublicIP;
+    private final List<Port> ports;
+    private final Properties properties;
+
+    public MemberSnapshot(Member member) {
+        this.serviceName = member.getServiceName();
+        this.clusterId = member.getClusterId();
+        this.memberId = member.getMemberId();
+        this.clusterInstanceId = member.getClusterInstanceId();
+        this.networkPartitionId = member.getNetworkPartitionId();
+        this.partitionId = member.getPartitionId();
+        this.lbClusterId = member.getLbClusterId();
+        this.status = member.getStatus();
+        this.defaultPrivateIP = member.getDefaultPrivateIP();
+        this.defaultPublicIP = member.getDefaultPublicIP();
+
+        // Ports and properties are mutable, hence copied
+        List<Port> ports = new ArrayList<Port>();
+        if (member.getPorts() != null) {
+            for (Port port : member.getPorts()) {
+                ports.add(new Port(port.getProtocol(), port.getValue(), port.getProxy()));
+            }
+        }
+        this.ports = Collections.unmodifiableList(ports);
+        this.properties = new Properties();
+        if (member.getProperties() != null) {
+            this.properties.putAll(member.getProperties());
+        }
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getClusterId() {
+        return clusterId;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public String getClusterInstanceId() {
+        return clusterInstanceId;
+    }
+
+    public String getNetworkPartitionId() {
+        return networkPartitionId;
+    }
+
+    public String getPartitionId() {
+        return partitionId;
+    }
+
+    public String getLbClusterId() {
+        return lbClusterId;
+    }
+
+    public MemberStatus getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return MemberStatus.Active.equals(status);
+    }
+
+    public String getDefaultPrivateIP() {
+        return defaultPrivateIP;
+    }
+
+    public String getDefaultPublicIP() {
+        return defaultPublicIP;
+    }
+
+    /**
+     * Returns copies of the member ports, changes are not reflected in the snapshot.
+     */
+    public Collection<Port> getPorts() {
+        return ports;
+    }
+
+    public String getProperty(String name) {
+        return properties.getProperty(name);
+    }
+}
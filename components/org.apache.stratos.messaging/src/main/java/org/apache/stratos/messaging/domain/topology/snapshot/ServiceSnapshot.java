@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.domain.topology.snapshot;
+
+import org.apache.stratos.messaging.domain.topology.ServiceType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of a service and its clusters in a topology snapshot. Updating a cluster
+ * creates a new service snapshot which shares the snapshots of the other clusters.
+ */
+public final class ServiceSnapshot {
+
+    private final String serviceName;
+    private final ServiceType serviceType;
+    // Key: cluster id
+    private final Map<String, ClusterSnapshot> clusterMap;
+
+    public ServiceSnapshot(String serviceName, ServiceType serviceType, Collection<ClusterSnapshot> clusters) {
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>();
+        for (ClusterSnapshot cluster : clusters) {
+            clusterMap.put(cluster.getClusterId(), cluster);
+        }
+        this.serviceName = serviceName;
+        this.serviceType = serviceType;
+        this.clusterMap = Collections.unmodifiableMap(clusterMap);
+    }
+
+    private ServiceSnapshot(String serviceName, ServiceType serviceType, Map<String, ClusterSnapshot> clusterMap) {
+        this.serviceName = serviceName;
+        this.serviceType = serviceType;
+        this.clusterMap = clusterMap;
+    }
+
+    /**
+     * Returns a copy of this service snapshot with the given cluster added or replaced.
+     */
+    public ServiceSnapshot withCluster(ClusterSnapshot cluster) {
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        clusterMap.put(cluster.getClusterId(), cluster);
+        return new ServiceSnapshot(serviceName, serviceType, Collections.unmodifiableMap(clusterMap));
+    }
+
+    /**
+     * Returns a copy of this service snapshot without the given cluster.
+     */
+    public ServiceSnapshot withoutCluster(String clusterId) {
+        if (!clusterMap.containsKey(clusterId)) {
+            return this;
+        }
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        clusterMap.remove(clusterId);
+        return new ServiceSnapshot(serviceName, serviceType, Collections.unmodifiableMap(clusterMap));
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public ServiceType getServiceType() {
+        return serviceType;
+    }
+
+    public Collection<ClusterSnapshot> getClusters() {
+        return clusterMap.values();
+    }
+
+    public ClusterSnapshot getCluster(String clusterId) {
+        return clusterMap.get(clusterId);
+    }
+}
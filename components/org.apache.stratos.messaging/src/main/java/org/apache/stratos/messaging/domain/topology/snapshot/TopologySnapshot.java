@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.domain.topology.snapshot;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the topology. Snapshots are never modified once published, hence they
+ * can be read without acquiring topology locks. A change creates a new snapshot which shares all
+ * service and cluster snapshots not affected by the change, only the maps on the path to the
+ * changed cluster are copied.
+ */
+public final class TopologySnapshot {
+
+    public static final TopologySnapshot EMPTY = new TopologySnapshot(
+            Collections.<String, ServiceSnapshot>emptyMap(), Collections.<String, ClusterSnapshot>emptyMap());
+
+    // Key: service name
+    private final Map<String, ServiceSnapshot> serviceMap;
+    // Key: cluster id
+    private final Map<String, ClusterSnapshot> clusterMap;
+
+    private TopologySnapshot(Map<String, ServiceSnapshot> serviceMap, Map<String, ClusterSnapshot> clusterMap) {
+        this.serviceMap = serviceMap;
+        this.clusterMap = clusterMap;
+    }
+
+    /**
+     * Returns a copy of this snapshot with the given service added or replaced, clusters of the
+     * given service snapshot replace the clusters previously known for the service.
+     */
+    public TopologySnapshot withService(ServiceSnapshot service) {
+        Map<String, ServiceSnapshot> serviceMap = new HashMap<String, ServiceSnapshot>(this.serviceMap);
+        ServiceSnapshot previousService = serviceMap.put(service.getServiceName(), service);
+
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        if (previousService != null) {
+            for (ClusterSnapshot cluster : previousService.getClusters()) {
+                clusterMap.remove(cluster.getClusterId());
+            }
+        }
+        for (ClusterSnapshot cluster : service.getClusters()) {
+            clusterMap.put(cluster.getClusterId(), cluster);
+        }
+        return new TopologySnapshot(Collections.unmodifiableMap(serviceMap), Collections.unmodifiableMap(clusterMap));
+    }
+
+    /**
+     * Returns a copy of this snapshot without the given service and its clusters.
+     */
+    public TopologySnapshot withoutService(String serviceName) {
+        ServiceSnapshot service = serviceMap.get(serviceName);
+        if (service == null) {
+            return this;
+        }
+        Map<String, ServiceSnapshot> serviceMap = new HashMap<String, ServiceSnapshot>(this.serviceMap);
+        serviceMap.remove(serviceName);
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        for (ClusterSnapshot cluster : service.getClusters()) {
+            clusterMap.remove(cluster.getClusterId());
+        }
+        return new TopologySnapshot(Collections.unmodifiableMap(serviceMap), Collections.unmodifiableMap(clusterMap));
+    }
+
+    /**
+     * Returns a copy of this snapshot with the given cluster added to its service or replaced.
+     * The service is expected to be in the snapshot.
+     */
+    public TopologySnapshot withCluster(ClusterSnapshot cluster) {
+        ServiceSnapshot service = serviceMap.get(cluster.getServiceName());
+        if (service == null) {
+            throw new IllegalArgumentException("Service not found in topology snapshot: " + cluster.getServiceName());
+        }
+        Map<String, ServiceSnapshot> serviceMap = new HashMap<String, ServiceSnapshot>(this.serviceMap);
+        serviceMap.put(service.getServiceName(), service.withCluster(cluster));
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        clusterMap.put(cluster.getClusterId(), cluster);
+        return new TopologySnapshot(Collections.unmodifiableMap(serviceMap), Collections.unmodifiableMap(clusterMap));
+    }
+
+    /**
+     * Returns a copy of this snapshot without the given cluster.
+     */
+    public TopologySnapshot withoutCluster(String clusterId) {
+        ClusterSnapshot cluster = clusterMap.get(clusterId);
+        if (cluster == null) {
+            return this;
+        }
+        Map<String, ServiceSnapshot> serviceMap = new HashMap<String, ServiceSnapshot>(this.serviceMap);
+        ServiceSnapshot service = serviceMap.get(cluster.getServiceName());
+        if (service != null) {
+            serviceMap.put(service.getServiceName(), service.withoutCluster(clusterId));
+        }
+        Map<String, ClusterSnapshot> clusterMap = new HashMap<String, ClusterSnapshot>(this.clusterMap);
+        clusterMap.remove(clusterId);
+        return new TopologySnapshot(Collections.unmodifiableMap(serviceMap), Collections.unmodifiableMap(clusterMap));
+    }
+
+    public Collection<ServiceSnapshot> getServices() {
+        return serviceMap.values();
+    }
+
+    public ServiceSnapshot getService(String serviceName) {
+        return serviceMap.get(serviceName);
+    }
+
+    public Collection<ClusterSnapshot> getClusters() {
+        return clusterMap.values();
+    }
+
+    public ClusterSnapshot getCluster(String clusterId) {
+        return clusterMap.get(clusterId);
+    }
+
+    /**
+     * Find a member by its id in all clusters of the snapshot.
+     *
+     * @param memberId member id
+     * @return member snapshot, null if the member is not found
+     */
+    public MemberSnapshot findMember(String memberId) {
+        for (ClusterSnapshot cluster : clusterMap.values()) {
+            MemberSnapshot member = cluster.getMember(memberId);
+            if (member != null) {
+                return member;
+            }
+        }
+        return null;
+    }
+}
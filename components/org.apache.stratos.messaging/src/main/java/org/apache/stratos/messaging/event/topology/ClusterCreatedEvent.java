@@ -44,4 +44,9 @@ public class ClusterCreatedEvent extends TopologyEvent implements Serializable {
     public Cluster getCluster() {
         return cluster;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{cluster.getServiceName(), cluster.getClusterId()};
+    }
 }
@@ -55,4 +55,8 @@ public class ClusterRemovedEvent extends TopologyEvent implements Serializable {
         return deploymentPolicy;
     }
 
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId};
+    }
 }
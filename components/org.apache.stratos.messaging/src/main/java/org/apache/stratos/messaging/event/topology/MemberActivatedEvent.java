@@ -163,4 +163,9 @@ public class MemberActivatedEvent extends TopologyEvent implements Serializable
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
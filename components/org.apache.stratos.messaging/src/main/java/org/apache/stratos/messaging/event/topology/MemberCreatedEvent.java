@@ -95,4 +95,9 @@ public class MemberCreatedEvent extends TopologyEvent implements Serializable {
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
@@ -122,4 +122,9 @@ public class MemberInitializedEvent extends TopologyEvent implements Serializabl
     public String getInstanceId() {
         return instanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
@@ -92,4 +92,9 @@ public class MemberMaintenanceModeEvent extends TopologyEvent implements Seriali
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
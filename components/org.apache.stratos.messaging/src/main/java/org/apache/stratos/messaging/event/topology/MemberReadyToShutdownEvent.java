@@ -91,4 +91,9 @@ public class MemberReadyToShutdownEvent extends TopologyEvent implements Seriali
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
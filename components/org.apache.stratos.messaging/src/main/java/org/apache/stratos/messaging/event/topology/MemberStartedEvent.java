@@ -97,4 +97,9 @@ public class MemberStartedEvent extends TopologyEvent implements Serializable {
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
@@ -70,4 +70,9 @@ public class MemberSuspendedEvent extends TopologyEvent implements Serializable
     public void setGroupId(String groupId) {
         this.groupId = groupId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
@@ -88,4 +88,9 @@ public class MemberTerminatedEvent extends TopologyEvent implements Serializable
     public String getClusterInstanceId() {
         return clusterInstanceId;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName, clusterId, networkPartitionId};
+    }
 }
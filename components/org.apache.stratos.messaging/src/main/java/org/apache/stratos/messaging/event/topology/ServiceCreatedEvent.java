@@ -88,4 +88,9 @@ public class ServiceCreatedEvent extends TopologyEvent implements Serializable {
     public void setProperties(Properties properties) {
         this.properties = properties;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName};
+    }
 }
@@ -36,4 +36,9 @@ public class ServiceRemovedEvent extends TopologyEvent implements Serializable {
     public String getServiceName() {
         return serviceName;
     }
+
+    @Override
+    public String[] getTopicLevels() {
+        return new String[]{serviceName};
+    }
 }
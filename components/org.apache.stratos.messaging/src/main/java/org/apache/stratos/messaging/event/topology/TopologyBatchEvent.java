@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.topology;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This event carries a batch of topology events published together in a single
+ * message broker write. Events are kept in the order they were published, each
+ * with its event class name and JSON representation. Receivers unpack the batch and
+ * process the contained events one by one.
+ */
+public class TopologyBatchEvent extends TopologyEvent implements Serializable {
+    private static final long serialVersionUID = -2187245126473829356L;
+
+    private final List<EventMessage> eventMessages;
+
+    public TopologyBatchEvent() {
+        this.eventMessages = new ArrayList<EventMessage>();
+    }
+
+    public void addEventMessage(String eventClassName, String json) {
+        eventMessages.add(new EventMessage(eventClassName, json));
+    }
+
+    public List<EventMessage> getEventMessages() {
+        return Collections.unmodifiableList(eventMessages);
+    }
+
+    /**
+     * A topology event contained in the batch.
+     */
+    public static class EventMessage implements Serializable {
+        private static final long serialVersionUID = 4621078344012963577L;
+
+        private final String eventClassName;
+        private final String json;
+
+        public EventMessage(String eventClassName, String json) {
+            this.eventClassName = eventClassName;
+            this.json = json;
+        }
+
+        public String getEventClassName() {
+            return eventClassName;
+        }
+
+        public String getJson() {
+            return json;
+        }
+    }
+}
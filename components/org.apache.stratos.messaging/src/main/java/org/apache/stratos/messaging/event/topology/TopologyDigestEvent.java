@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.topology;
+
+import java.io.Serializable;
+
+/**
+ * This event is fired periodically instead of the complete topology event when topology
+ * revisions are in use. It only carries the latest topology revision, subscribers
+ * compare it with the revision of their topology and request missing events.
+ */
+public class TopologyDigestEvent extends TopologyEvent implements Serializable {
+    private static final long serialVersionUID = 3542148624812478394L;
+
+    public TopologyDigestEvent(long revision) {
+        setRevision(revision);
+    }
+}
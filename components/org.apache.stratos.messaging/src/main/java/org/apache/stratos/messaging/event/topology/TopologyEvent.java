@@ -28,4 +28,25 @@ import java.io.Serializable;
  */
 public abstract class TopologyEvent extends Event implements Serializable {
     private static final long serialVersionUID = -3279032168352271675L;
+
+    // Topology revision of the event, zero if topology revisions are not in use
+    private long revision;
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * Returns the values of the hierarchical topic levels of the event in the order service name,
+     * cluster id and network partition id. Events which do not belong to a service return no levels.
+     *
+     * @return topic level values
+     */
+    public String[] getTopicLevels() {
+        return new String[0];
+    }
 }
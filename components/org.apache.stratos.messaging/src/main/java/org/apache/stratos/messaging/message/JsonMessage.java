@@ -18,7 +18,7 @@
  */
 package org.apache.stratos.messaging.message;
 
-import com.google.gson.Gson;
+import org.apache.stratos.messaging.util.JsonCodec;
 
 /**
  * Represents a message that would traverse through Stratos
@@ -32,8 +32,7 @@ public class JsonMessage {
     }
 
     public JsonMessage(String text, Class type) {
-        Gson gson = new Gson();
-        object = gson.fromJson(text, type);
+        object = JsonCodec.fromJson(text, type);
     }
 
     public Object getObject() {
@@ -41,7 +40,6 @@ public class JsonMessage {
     }
 
     public String getText() {
-        Gson gson = new Gson();
-        return gson.toJson(object);
+        return JsonCodec.toJson(object);
     }
 }
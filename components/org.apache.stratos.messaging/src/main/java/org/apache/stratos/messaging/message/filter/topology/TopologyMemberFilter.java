@@ -81,7 +81,7 @@ public class TopologyMemberFilter extends MessageFilter {
         return excluded(TOPOLOGY_MEMBER_FILTER_NETWORK_PARTITION_ID, value);
     }
 
-    private Collection<String> getIncludedNetworkPartitionIds() {
+    public Collection<String> getIncludedNetworkPartitionIds() {
         return getIncludedPropertyValues(TOPOLOGY_MEMBER_FILTER_NETWORK_PARTITION_ID);
     }
 
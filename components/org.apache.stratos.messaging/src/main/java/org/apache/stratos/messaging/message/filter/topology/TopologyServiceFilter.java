@@ -79,7 +79,7 @@ public class TopologyServiceFilter extends MessageFilter {
         return excluded(TOPOLOGY_SERVICE_FILTER_SERVICE_NAME, value);
     }
 
-    private Collection<String> getIncludedServiceNames() {
+    public Collection<String> getIncludedServiceNames() {
         return getIncludedPropertyValues(TOPOLOGY_SERVICE_FILTER_SERVICE_NAME);
     }
 
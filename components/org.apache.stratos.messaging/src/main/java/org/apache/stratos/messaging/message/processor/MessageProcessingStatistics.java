@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.processor;
+
+import org.apache.stratos.common.statistics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Processing statistics of an event type in a message processor chain. Processing times
+ * are recorded in microseconds.
+ */
+public class MessageProcessingStatistics {
+
+    private final String eventClassName;
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalProcessingTimeMicros = new AtomicLong();
+    private final LatencyHistogram processingTimeHistogram = new LatencyHistogram();
+
+    MessageProcessingStatistics(String eventClassName) {
+        this.eventClassName = eventClassName;
+    }
+
+    void record(long processingTimeNanos, boolean processed) {
+        long processingTimeMicros = TimeUnit.NANOSECONDS.toMicros(processingTimeNanos);
+        if (processed) {
+            processedCount.incrementAndGet();
+        } else {
+            rejectedCount.incrementAndGet();
+        }
+        totalProcessingTimeMicros.addAndGet(processingTimeMicros);
+        processingTimeHistogram.record(processingTimeMicros);
+    }
+
+    public String getEventClassName() {
+        return eventClassName;
+    }
+
+    /**
+     * @return number of messages processed successfully
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return number of messages which were filtered, found invalid or failed while being processed
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getMessageCount() {
+        return processedCount.get() + rejectedCount.get();
+    }
+
+    public double getAverageProcessingTimeMicros() {
+        long messageCount = getMessageCount();
+        return (messageCount == 0) ? 0 : ((double) totalProcessingTimeMicros.get() / messageCount);
+    }
+
+    /**
+     * Returns the processing times at the given percentiles.
+     *
+     * @param percentiles percentiles between 0 and 100 in ascending order
+     * @return processing times in microseconds
+     */
+    public long[] getProcessingTimeMicrosAtPercentiles(double... percentiles) {
+        return processingTimeHistogram.getValuesAtPercentiles(percentiles);
+    }
+
+    @Override
+    public String toString() {
+        long[] percentiles = getProcessingTimeMicrosAtPercentiles(50, 99);
+        return String.format("[event] %s [processed] %d [rejected] %d [average-us] %.1f [p50-us] %d [p99-us] %d",
+                eventClassName, getProcessedCount(), getRejectedCount(), getAverageProcessingTimeMicros(),
+                percentiles[0], percentiles[1]);
+    }
+}
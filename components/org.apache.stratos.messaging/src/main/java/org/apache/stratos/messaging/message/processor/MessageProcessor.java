@@ -33,6 +33,16 @@ public abstract class MessageProcessor extends EventObservable {
      */
     public abstract void setNext(MessageProcessor nextProcessor);
 
+    /**
+     * Returns the class name of the event processed by this processor. Message processor chains
+     * use it to dispatch messages directly to their processors.
+     *
+     * @return event class name, null if the processor should only be reached via the chain.
+     */
+    public String getEventClassName() {
+        return null;
+    }
+
     /**
      * Message processing and delegating logic.
      *
@@ -21,18 +21,31 @@ package org.apache.stratos.messaging.message.processor;
 
 import org.apache.stratos.messaging.listener.EventListener;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Message processor chain definition.
+ * <p/>
+ * Processors are linked in the order they are added. Once the chain is initialized a dispatch table
+ * of event class names to processors is built, so that a message is handed to its processor without
+ * walking the chain. Messages of event types unknown to the dispatch table are delegated to the head
+ * of the chain. Processing statistics are kept for each event type.
  */
 public abstract class MessageProcessorChain {
 
     private LinkedList<MessageProcessor> list;
+    private volatile Map<String, MessageProcessor> dispatchTable;
+    private final ConcurrentHashMap<String, MessageProcessingStatistics> statisticsMap;
 
     public MessageProcessorChain() {
         list = new LinkedList<MessageProcessor>();
+        statisticsMap = new ConcurrentHashMap<String, MessageProcessingStatistics>();
         initialize();
+        buildDispatchTable();
     }
 
     protected abstract void initialize();
@@ -46,6 +59,9 @@ public abstract class MessageProcessorChain {
             list.getLast().setNext(messageProcessor);
         }
         list.add(messageProcessor);
+        if (dispatchTable != null) {
+            buildDispatchTable();
+        }
     }
 
     public void removeLast() {
@@ -53,13 +69,65 @@ public abstract class MessageProcessorChain {
         if (list.size() > 0) {
             list.getLast().setNext(null);
         }
+        if (dispatchTable != null) {
+            buildDispatchTable();
+        }
     }
 
     public boolean process(String type, String message, Object object) {
-        MessageProcessor root = list.getFirst();
-        if (root == null) {
-            throw new RuntimeException("Message processor chain is not initialized");
+        MessageProcessor processor = dispatchTable.get(type);
+        if (processor == null) {
+            if (list.isEmpty()) {
+                throw new RuntimeException("Message processor chain is not initialized");
+            }
+            processor = list.getFirst();
+            if (type == null) {
+                return processor.process(type, message, object);
+            }
+        }
+
+        MessageProcessingStatistics statistics = getStatistics(type);
+        long startTime = System.nanoTime();
+        boolean processed = false;
+        try {
+            processed = processor.process(type, message, object);
+            return processed;
+        } finally {
+            statistics.record(System.nanoTime() - startTime, processed);
+        }
+    }
+
+    /**
+     * Returns processing statistics of the event types received by this chain.
+     *
+     * @return event class name to processing statistics map
+     */
+    public Map<String, MessageProcessingStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statisticsMap);
+    }
+
+    private MessageProcessingStatistics getStatistics(String type) {
+        MessageProcessingStatistics statistics = statisticsMap.get(type);
+        if (statistics == null) {
+            statistics = new MessageProcessingStatistics(type);
+            MessageProcessingStatistics existing = statisticsMap.putIfAbsent(type, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    private void buildDispatchTable() {
+        Map<String, MessageProcessor> table = new HashMap<String, MessageProcessor>();
+        for (MessageProcessor messageProcessor : list) {
+            String eventClassName = messageProcessor.getEventClassName();
+            // The first processor of an event type in the chain handles its messages
+            if ((eventClassName != null) && !table.containsKey(eventClassName)) {
+                table.put(eventClassName, messageProcessor);
+                getStatistics(eventClassName);
+            }
         }
-        return root.process(type, message, object);
+        dispatchTable = Collections.unmodifiableMap(table);
     }
 }
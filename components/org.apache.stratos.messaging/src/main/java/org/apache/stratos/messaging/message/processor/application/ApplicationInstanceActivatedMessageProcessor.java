@@ -41,6 +41,11 @@ public class ApplicationInstanceActivatedMessageProcessor extends MessageProcess
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ApplicationInstanceActivatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         Applications applications = (Applications) object;
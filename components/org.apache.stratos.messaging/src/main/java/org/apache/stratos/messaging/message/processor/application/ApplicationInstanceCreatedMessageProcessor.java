@@ -38,6 +38,11 @@ public class ApplicationInstanceCreatedMessageProcessor extends MessageProcessor
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ApplicationInstanceCreatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         Applications applications = (Applications) object;
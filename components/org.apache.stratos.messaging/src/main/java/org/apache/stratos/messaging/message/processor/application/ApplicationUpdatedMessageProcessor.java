@@ -43,6 +43,11 @@ public class ApplicationUpdatedMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ApplicationUpdatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
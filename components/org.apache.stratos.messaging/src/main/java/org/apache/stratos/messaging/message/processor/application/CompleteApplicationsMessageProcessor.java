@@ -39,11 +39,21 @@ public class CompleteApplicationsMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return CompleteApplicationsEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         Applications applications = (Applications) object;
 
         if (CompleteApplicationsEvent.class.getName().equals(type)) {
+            if (applications.isInitialized() && (countObservers() == 0)) {
+                // Nothing to update or notify, avoid parsing the complete applications
+                return true;
+            }
+
             // Parse complete message and build event
             CompleteApplicationsEvent event = (CompleteApplicationsEvent) MessagingUtil.
                     jsonToObject(message, CompleteApplicationsEvent.class);
@@ -33,6 +33,11 @@ public class ClusterStatusClusterActivatedMessageProcessor extends MessageProces
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ClusterStatusClusterActivatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (ClusterStatusClusterActivatedEvent.class.getName().equals(type)) {
@@ -34,6 +34,11 @@ public class ClusterStatusClusterTerminatedMessageProcessor extends MessageProce
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ClusterStatusClusterTerminatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (ClusterStatusClusterTerminatedEvent.class.getName().equals(type)) {
@@ -45,6 +45,11 @@ public class DomainMappingAddedMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return DomainMappingAddedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (DomainMappingAddedEvent.class.getName().equals(type)) {
@@ -45,6 +45,11 @@ public class DomainMappingRemovedMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return DomainMappingRemovedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
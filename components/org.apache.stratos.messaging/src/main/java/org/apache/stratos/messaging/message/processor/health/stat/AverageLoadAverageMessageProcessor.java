@@ -39,6 +39,11 @@ public class AverageLoadAverageMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return AverageLoadAverageEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (AverageLoadAverageEvent.class.getName().equals(type)) {
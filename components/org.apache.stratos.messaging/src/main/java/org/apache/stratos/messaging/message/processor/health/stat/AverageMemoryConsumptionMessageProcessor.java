@@ -39,6 +39,11 @@ public class AverageMemoryConsumptionMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return AverageMemoryConsumptionEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (AverageMemoryConsumptionEvent.class.getName().equals(type)) {
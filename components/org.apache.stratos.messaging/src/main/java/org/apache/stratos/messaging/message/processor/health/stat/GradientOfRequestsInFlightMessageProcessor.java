@@ -38,6 +38,11 @@ public class GradientOfRequestsInFlightMessageProcessor extends MessageProcessor
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return GradientOfRequestsInFlightEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (GradientOfRequestsInFlightEvent.class.getName().equals(type)) {
@@ -32,6 +32,7 @@ public class HealthStatMessageProcessorChain extends MessageProcessorChain {
     private AverageLoadAverageMessageProcessor averageLoadAverageMessageProcessor;
     private AverageMemoryConsumptionMessageProcessor averageMemoryConsumptionMessageProcessor;
     private AverageRequestsInFlightMessageProcessor averageRequestsInFlightMessageProcessor;
+    private AverageRequestLatencyMessageProcessor averageRequestLatencyMessageProcessor;
     private GradientOfLoadAverageMessageProcessor gradientOfLoadAverageMessageProcessor;
     private GradientOfMemoryConsumptionMessageProcessor gradientOfMemoryConsumptionMessageProcessor;
     private GradientOfRequestsInFlightMessageProcessor gradientOfRequestsInFlightMessageProcessor;
@@ -67,6 +68,8 @@ public class HealthStatMessageProcessorChain extends MessageProcessorChain {
 
         averageRequestsInFlightMessageProcessor = new AverageRequestsInFlightMessageProcessor();
         add(averageRequestsInFlightMessageProcessor);
+        averageRequestLatencyMessageProcessor = new AverageRequestLatencyMessageProcessor();
+        add(averageRequestLatencyMessageProcessor);
         averageRequestsServingCapabilityMessageProcessor = new AverageRequestsServingCapabilityMessageProcessor();
         add(averageRequestsServingCapabilityMessageProcessor);
         gradientOfRequestsInFlightMessageProcessor = new GradientOfRequestsInFlightMessageProcessor();
@@ -99,6 +102,8 @@ public class HealthStatMessageProcessorChain extends MessageProcessorChain {
             averageMemoryConsumptionMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof AverageRequestsInFlightEventListener) {
             averageRequestsInFlightMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof AverageRequestLatencyEventListener) {
+            averageRequestLatencyMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof AverageRequestsServingCapabilityEventListener) {
             averageRequestsServingCapabilityMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof GradientOfLoadAverageEventListener) {
@@ -139,6 +144,8 @@ public class HealthStatMessageProcessorChain extends MessageProcessorChain {
             averageMemoryConsumptionMessageProcessor.removeEventListener(eventListener);
         } else if (eventListener instanceof AverageRequestsInFlightEventListener) {
             averageRequestsInFlightMessageProcessor.removeEventListener(eventListener);
+        } else if (eventListener instanceof AverageRequestLatencyEventListener) {
+            averageRequestLatencyMessageProcessor.removeEventListener(eventListener);
         } else if (eventListener instanceof AverageRequestsServingCapabilityEventListener) {
             averageRequestsServingCapabilityMessageProcessor.removeEventListener(eventListener);
         } else if (eventListener instanceof GradientOfLoadAverageEventListener) {
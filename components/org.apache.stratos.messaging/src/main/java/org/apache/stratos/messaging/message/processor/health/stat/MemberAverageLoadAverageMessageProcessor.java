@@ -38,6 +38,11 @@ public class MemberAverageLoadAverageMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return MemberAverageLoadAverageEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (MemberAverageLoadAverageEvent.class.getName().equals(type)) {
@@ -38,6 +38,11 @@ public class MemberSecondDerivativeOfLoadAverageMessageProcessor extends Message
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return MemberSecondDerivativeOfLoadAverageEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (MemberSecondDerivativeOfLoadAverageEvent.class.getName().equals(type)) {
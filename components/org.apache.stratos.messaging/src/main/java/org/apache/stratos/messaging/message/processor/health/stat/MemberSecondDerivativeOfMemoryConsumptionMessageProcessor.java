@@ -38,6 +38,11 @@ public class MemberSecondDerivativeOfMemoryConsumptionMessageProcessor extends M
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return MemberSecondDerivativeOfMemoryConsumptionEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (MemberSecondDerivativeOfMemoryConsumptionEvent.class.getName().equals(type)) {
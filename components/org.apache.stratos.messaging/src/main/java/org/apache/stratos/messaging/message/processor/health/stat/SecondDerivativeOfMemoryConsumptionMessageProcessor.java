@@ -38,6 +38,11 @@ public class SecondDerivativeOfMemoryConsumptionMessageProcessor extends Message
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return SecondDerivativeOfMemoryConsumptionEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (SecondDerivativeOfMemoryConsumptionEvent.class.getName().equals(type)) {
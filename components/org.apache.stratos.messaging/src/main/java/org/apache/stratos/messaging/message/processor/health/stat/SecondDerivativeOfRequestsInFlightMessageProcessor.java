@@ -38,6 +38,11 @@ public class SecondDerivativeOfRequestsInFlightMessageProcessor extends MessageP
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return SecondDerivativeOfRequestsInFlightEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (SecondDerivativeOfRequestsInFlightEvent.class.getName().equals(type)) {
@@ -30,6 +30,11 @@ public class CompleteTopologyRequestMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return CompleteTopologyRequestEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (CompleteTopologyRequestEvent.class.getName().equals(type)) {
@@ -25,6 +25,7 @@ import org.apache.stratos.messaging.listener.initializer.CompleteApplicationSign
 import org.apache.stratos.messaging.listener.initializer.CompleteApplicationsRequestEventListener;
 import org.apache.stratos.messaging.listener.initializer.CompleteTenantRequestEventListener;
 import org.apache.stratos.messaging.listener.initializer.CompleteTopologyRequestEventListener;
+import org.apache.stratos.messaging.listener.initializer.TopologyDeltaRequestEventListener;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 
 public class InitializerMessageProcessorChain extends MessageProcessorChain {
@@ -33,6 +34,7 @@ public class InitializerMessageProcessorChain extends MessageProcessorChain {
     private CompleteApplicationsRequestMessageProcessor completeApplicationsRequestMessageProcessor;
     private CompleteTenantRequestMessageProcessor completeTenantRequestMessageProcessor;
     private CompleteApplicationSignUpsRequestMessageProcessor completeApplicationSignUpsRequestMessageProcessor;
+    private TopologyDeltaRequestMessageProcessor topologyDeltaRequestMessageProcessor;
 
     @Override
     protected void initialize() {
@@ -48,6 +50,9 @@ public class InitializerMessageProcessorChain extends MessageProcessorChain {
         completeApplicationSignUpsRequestMessageProcessor = new CompleteApplicationSignUpsRequestMessageProcessor();
         add(completeApplicationSignUpsRequestMessageProcessor);
 
+        topologyDeltaRequestMessageProcessor = new TopologyDeltaRequestMessageProcessor();
+        add(topologyDeltaRequestMessageProcessor);
+
         if (log.isDebugEnabled()) {
             log.debug("Initializer message processor chain initialized");
         }
@@ -63,6 +68,8 @@ public class InitializerMessageProcessorChain extends MessageProcessorChain {
             completeTenantRequestMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof CompleteApplicationSignUpsRequestEventListener) {
             completeApplicationSignUpsRequestMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof TopologyDeltaRequestEventListener) {
+            topologyDeltaRequestMessageProcessor.addEventListener(eventListener);
         } else {
             throw new RuntimeException("Unknown event listener");
         }
@@ -78,6 +85,8 @@ public class InitializerMessageProcessorChain extends MessageProcessorChain {
             completeTenantRequestMessageProcessor.removeEventListener(eventListener);
         } else if (eventListener instanceof CompleteApplicationSignUpsRequestEventListener) {
             completeApplicationSignUpsRequestMessageProcessor.removeEventListener(eventListener);
+        } else if (eventListener instanceof TopologyDeltaRequestEventListener) {
+            topologyDeltaRequestMessageProcessor.removeEventListener(eventListener);
         } else {
             throw new RuntimeException("Unknown event listener");
         }
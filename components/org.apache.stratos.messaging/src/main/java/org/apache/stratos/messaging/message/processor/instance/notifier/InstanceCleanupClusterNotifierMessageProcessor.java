@@ -34,6 +34,11 @@ public class InstanceCleanupClusterNotifierMessageProcessor extends MessageProce
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return InstanceCleanupClusterEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (InstanceCleanupClusterEvent.class.getName().equals(type)) {
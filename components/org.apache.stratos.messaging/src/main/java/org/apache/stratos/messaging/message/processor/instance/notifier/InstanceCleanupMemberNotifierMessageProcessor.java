@@ -34,6 +34,11 @@ public class InstanceCleanupMemberNotifierMessageProcessor extends MessageProces
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return InstanceCleanupMemberEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (InstanceCleanupMemberEvent.class.getName().equals(type)) {
@@ -35,6 +35,11 @@ public class InstanceStatusMemberActivatedMessageProcessor extends MessageProces
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return InstanceActivatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (InstanceActivatedEvent.class.getName().equals(type)) {
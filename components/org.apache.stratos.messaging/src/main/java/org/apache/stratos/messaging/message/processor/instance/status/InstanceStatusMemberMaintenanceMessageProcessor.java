@@ -35,6 +35,11 @@ public class InstanceStatusMemberMaintenanceMessageProcessor extends MessageProc
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return InstanceMaintenanceModeEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (InstanceMaintenanceModeEvent.class.getName().equals(type)) {
@@ -35,6 +35,11 @@ public class InstanceStatusMemberReadyToShutdownMessageProcessor extends Message
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return InstanceReadyToShutdownEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         if (InstanceReadyToShutdownEvent.class.getName().equals(type)) {
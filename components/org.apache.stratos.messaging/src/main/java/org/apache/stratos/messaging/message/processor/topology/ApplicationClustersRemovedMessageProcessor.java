@@ -42,6 +42,11 @@ public class ApplicationClustersRemovedMessageProcessor extends MessageProcessor
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ApplicationClustersRemovedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
@@ -42,6 +42,11 @@ public class ClusterCreatedMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ClusterCreatedEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
@@ -46,6 +46,11 @@ public class ClusterInstanceInactivateProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ClusterInstanceInactivateEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
@@ -44,6 +44,11 @@ public class ClusterResetMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return ClusterResetEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
 
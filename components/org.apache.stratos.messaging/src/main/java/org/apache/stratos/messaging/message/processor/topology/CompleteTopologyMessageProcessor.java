@@ -32,6 +32,7 @@ import org.apache.stratos.messaging.message.filter.topology.TopologyServiceFilte
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
 import org.apache.stratos.messaging.message.processor.topology.updater.TopologyUpdater;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
 import java.util.ArrayList;
@@ -47,11 +48,25 @@ public class CompleteTopologyMessageProcessor extends MessageProcessor {
         this.nextProcessor = nextProcessor;
     }
 
+    @Override
+    public String getEventClassName() {
+        return CompleteTopologyEvent.class.getName();
+    }
+
     @Override
     public boolean process(String type, String message, Object object) {
         Topology topology = (Topology) object;
 
         if (CompleteTopologyEvent.class.getName().equals(type)) {
+            if (TopologyManager.isInitialized() && (countObservers() == 0)) {
+                // Complete topology is only needed if the topology is out of date, the revision is
+                // read without parsing the rest of the message
+                long revision = JsonCodec.readLongField(message, "revision");
+                if ((revision == 0) || (revision == topology.getRevision())) {
+                    return true;
+                }
+            }
+
             // Parse complete message and build event
             CompleteTopologyEvent event = (CompleteTopologyEvent) MessagingUtil.jsonToObject(message, CompleteTopologyEvent.class);
 
@@ -61,6 +76,21 @@ public class CompleteTopologyMessageProcessor extends MessageProcessor {
                 try {
                     doProcess(event, topology);
 
+                } finally {
+                    TopologyUpdater.releaseWriteLock();
+                }
+            } else if ((event.getRevision() > 0) && (event.getRevision() != topology.getRevision())) {
+                // Topology is not at the revision of the complete topology, re-initialize it
+                if (log.isInfoEnabled()) {
+                    log.info(String.format("Re-initializing topology: [revision] %d [topology-revision] %d",
+                            event.getRevision(), topology.getRevision()));
+                }
+                TopologyUpdater.acquireWriteLock();
+
+                try {
+                    topology.clear();
+                    doProcess(event, topology);
+
                 } finally {
                     TopologyUpdater.releaseWriteLock();
                 }
@@ -137,6 +167,8 @@ public class CompleteTopologyMessageProcessor extends MessageProcessor {
             }
         }
 
+        topology.setRevision(event.getRevision());
+
         if (log.isInfoEnabled()) {
             log.info("Topology initialized");
         }
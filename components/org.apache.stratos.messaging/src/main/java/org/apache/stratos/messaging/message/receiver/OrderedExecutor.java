@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.StratosThreadPool;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes tasks on a fixed number of worker threads while preserving the order of tasks
+ * submitted with the same key. Tasks are sharded by the hash of their key, each shard has
+ * its own queue and worker thread, hence tasks of independent keys may run concurrently.
+ * <p/>
+ * Tasks are expected to be submitted by a single thread. Tasks which can not be keyed are
+ * executed exclusively on the submitting thread once all shards have been drained.
+ */
+public class OrderedExecutor {
+
+    private static final Log log = LogFactory.getLog(OrderedExecutor.class);
+
+    private final String name;
+    private final Shard[] shards;
+    // Number of tasks submitted but not yet executed
+    private final AtomicInteger pendingTaskCount;
+    private final Object idleLock;
+    private volatile boolean terminated;
+
+    public OrderedExecutor(String name, int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count should be greater than zero: " + workerCount);
+        }
+        this.name = name;
+        this.shards = new Shard[workerCount];
+        this.pendingTaskCount = new AtomicInteger();
+        this.idleLock = new Object();
+
+        ExecutorService executorService = StratosThreadPool.getExecutorService(name, workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            shards[i] = new Shard();
+            executorService.execute(shards[i]);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Ordered executor started: [name] %s [workers] %d", name, workerCount));
+        }
+    }
+
+    /**
+     * Execute the task after all tasks previously submitted with the same key.
+     *
+     * @param key  ordering key, tasks without a key are executed exclusively
+     * @param task task to be executed
+     */
+    public void execute(String key, Runnable task) {
+        if (key == null) {
+            executeExclusive(task);
+            return;
+        }
+        pendingTaskCount.incrementAndGet();
+        shards[getShardIndex(key)].queue.add(task);
+    }
+
+    /**
+     * Execute the task on the calling thread once all previously submitted tasks have been
+     * executed.
+     *
+     * @param task task to be executed
+     */
+    public void executeExclusive(Runnable task) {
+        awaitIdle();
+        task.run();
+    }
+
+    /**
+     * Block until all submitted tasks have been executed.
+     */
+    public void awaitIdle() {
+        synchronized (idleLock) {
+            while ((pendingTaskCount.get() > 0) && !terminated) {
+                try {
+                    idleLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue of each shard.
+     */
+    public int[] getQueueDepths() {
+        int[] queueDepths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            queueDepths[i] = shards[i].queue.size();
+        }
+        return queueDepths;
+    }
+
+    public int getWorkerCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stop the worker threads, tasks waiting in the queues are discarded.
+     */
+    public void terminate() {
+        terminated = true;
+        for (Shard shard : shards) {
+            shard.queue.clear();
+            // Wake up the worker
+            shard.queue.add(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        synchronized (idleLock) {
+            idleLock.notifyAll();
+        }
+    }
+
+    private int getShardIndex(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % shards.length;
+    }
+
+    private void taskCompleted() {
+        if (pendingTaskCount.decrementAndGet() <= 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Task queue processed by a single worker thread.
+     */
+    private class Shard implements Runnable {
+
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+
+        @Override
+        public void run() {
+            while (!terminated) {
+                Runnable task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (terminated) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error(String.format("Failed to execute task: [executor] %s", name), e);
+                } finally {
+                    taskCompleted();
+                }
+            }
+        }
+    }
+}
@@ -21,20 +21,43 @@ package org.apache.stratos.messaging.message.receiver.application;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.event.application.CompleteApplicationsEvent;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 import org.apache.stratos.messaging.message.processor.application.ApplicationsMessageProcessorChain;
+import org.apache.stratos.messaging.message.receiver.OrderedExecutor;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.Map;
+
+/**
+ * Processes application event messages on this thread unless more than one processor thread
+ * is configured, in which case events of different applications are processed concurrently.
+ */
 public class ApplicationsEventMessageDelegator implements Runnable {
     private static final Log log = LogFactory.getLog(ApplicationsEventMessageDelegator.class);
 
+    private static final String PROCESSOR_THREADS_PROPERTY = "stratos.messaging.applications.processorThreads";
+    private static final String PROCESSOR_THREAD_POOL_ID = "messaging.applications.processor.thread.pool";
+
     private ApplicationsEventMessageQueue messageQueue;
     private MessageProcessorChain processorChain;
+    private OrderedExecutor executor;
     private boolean terminated;
 
     public ApplicationsEventMessageDelegator(ApplicationsEventMessageQueue messageQueue) {
         this.messageQueue = messageQueue;
         this.processorChain = new ApplicationsMessageProcessorChain();
+        int processorThreads = MessagingUtil.getNumericSystemProperty(1, PROCESSOR_THREADS_PROPERTY);
+        if (processorThreads > 1) {
+            this.executor = new OrderedExecutor(PROCESSOR_THREAD_POOL_ID, processorThreads);
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Application events will be processed concurrently: [threads] %d",
+                        processorThreads));
+            }
+        }
     }
 
     public void addEventListener(EventListener eventListener) {
@@ -45,6 +68,18 @@ public class ApplicationsEventMessageDelegator implements Runnable {
         processorChain.removeEventListener(eventListener);
     }
 
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return processorChain.getStatistics();
+    }
+
+    /**
+     * Returns the number of application events waiting to be processed by each processor thread,
+     * an empty array if application events are processed on the delegator thread.
+     */
+    public int[] getProcessorQueueDepths() {
+        return (executor != null) ? executor.getQueueDepths() : new int[0];
+    }
+
     @Override
     public void run() {
         try {
@@ -71,7 +106,7 @@ public class ApplicationsEventMessageDelegator implements Runnable {
                         if (log.isDebugEnabled()) {
                             log.debug(String.format("Delegating application status event message: %s", type));
                         }
-                        processorChain.process(type, json, ApplicationManager.getApplications());
+                        processMessage(type, json);
                     }
                 } catch (InterruptedException ignore) {
                     log.info("Shutting down application event message delegator...");
@@ -87,11 +122,49 @@ public class ApplicationsEventMessageDelegator implements Runnable {
         }
     }
 
+    private void processMessage(final String type, final String json) {
+        if ((executor == null) || CompleteApplicationsEvent.class.getName().equals(type)) {
+            if (executor != null) {
+                executor.awaitIdle();
+            }
+            processorChain.process(type, json, ApplicationManager.getApplications());
+            return;
+        }
+
+        executor.execute(getOrderingKey(json), new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    processorChain.process(type, json, ApplicationManager.getApplications());
+                } catch (Exception e) {
+                    log.error(String.format("Failed to process application event: [type] %s", type), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the application id of the event, or null if it could not be found.
+     */
+    private static String getOrderingKey(String json) {
+        KeyMessage keyMessage = JsonCodec.fromJson(json, KeyMessage.class);
+        if (keyMessage.appId != null) {
+            return keyMessage.appId;
+        }
+        if (keyMessage.applicationId != null) {
+            return keyMessage.applicationId;
+        }
+        return (keyMessage.application != null) ? keyMessage.application.id : null;
+    }
+
     /**
      * Terminate topology event message delegator thread.
      */
     public void terminate() {
         terminated = true;
+        if (executor != null) {
+            executor.terminate();
+        }
     }
 
 
@@ -130,6 +203,16 @@ public class ApplicationsEventMessageDelegator implements Runnable {
         return null;
     }
 
+    /**
+     * Application event message read only for its application id.
+     */
+    private static class KeyMessage {
+        private String appId;
+        private String applicationId;
+        private String id;
+        private KeyMessage application;
+    }
+
     private class EventMessage {
         private String eventName;
         private String message;
@@ -26,9 +26,12 @@ import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.broker.subscribe.EventSubscriber;
 import org.apache.stratos.messaging.event.initializer.CompleteApplicationsRequestEvent;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.receiver.StratosEventReceiver;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.Map;
+
 public class ApplicationsEventReceiver extends StratosEventReceiver{
     private static final Log log = LogFactory.getLog(ApplicationsEventReceiver.class);
 
@@ -64,6 +67,23 @@ public class ApplicationsEventReceiver extends StratosEventReceiver{
         messageDelegator.removeEventListener(eventListener);
     }
 
+    /**
+     * Returns processing statistics of the event types received, keyed by event class name.
+     */
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return messageDelegator.getProcessingStatistics();
+    }
+
+    /**
+     * Returns the number of application events waiting to be processed by each processor thread.
+     * Application events are processed concurrently only if
+     * stratos.messaging.applications.processorThreads is greater than one, otherwise an empty
+     * array is returned.
+     */
+    public int[] getProcessorQueueDepths() {
+        return messageDelegator.getProcessorQueueDepths();
+    }
+
     private void execute() {
         try {
             // Start topic subscriber thread
@@ -23,9 +23,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 import org.apache.stratos.messaging.message.processor.health.stat.HealthStatMessageProcessorChain;
 
+import java.util.Map;
+
 
 /**
  * Implements logic for processing health stat event messages based on a given
@@ -52,6 +55,10 @@ class HealthStatEventMessageDelegator implements Runnable {
         processorChain.removeEventListener(eventListener);
     }
 
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return processorChain.getStatistics();
+    }
+
     @Override
     public void run() {
         try {
@@ -23,9 +23,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 import org.apache.stratos.messaging.message.processor.instance.status.InstanceStatusMessageProcessorChain;
 
+import java.util.Map;
+
 /**
  * Implements logic for processing instance notifier event messages based on a given
  * topology process chain.
@@ -50,6 +53,10 @@ class InstanceStatusEventMessageDelegator implements Runnable {
         processorChain.removeEventListener(eventListener);
     }
 
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return processorChain.getStatistics();
+    }
+
     @Override
     public void run() {
         try {
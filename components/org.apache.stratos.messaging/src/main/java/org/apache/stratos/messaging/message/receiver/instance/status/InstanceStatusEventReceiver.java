@@ -24,9 +24,12 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.broker.subscribe.EventSubscriber;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.receiver.StratosEventReceiver;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.Map;
+
 /**
  * A thread for receiving instance notifier information from message broker.
  */
@@ -64,6 +67,13 @@ public class InstanceStatusEventReceiver extends StratosEventReceiver {
         messageDelegator.removeEventListener(eventListener);
     }
 
+    /**
+     * Returns processing statistics of the event types received, keyed by event class name.
+     */
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return messageDelegator.getProcessingStatistics();
+    }
+
     private void execute() {
         try {
             // Start topic subscriber thread
@@ -21,26 +21,52 @@ package org.apache.stratos.messaging.message.receiver.topology;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+import org.apache.stratos.messaging.event.topology.TopologyBatchEvent;
+import org.apache.stratos.messaging.event.topology.TopologyDigestEvent;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 import org.apache.stratos.messaging.message.processor.topology.TopologyMessageProcessorChain;
+import org.apache.stratos.messaging.message.receiver.OrderedExecutor;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.io.Reader;
+import java.util.Map;
 
 
 /**
  * Implements logic for processing topology event messages based on a given
- * topology process chain.
+ * topology process chain. Topology events are processed on this thread unless more than
+ * one processor thread is configured, in which case events of different clusters are
+ * processed concurrently.
  */
 class TopologyEventMessageDelegator implements Runnable {
 
     private static final Log log = LogFactory.getLog(TopologyEventMessageDelegator.class);
 
+    private static final String PROCESSOR_THREADS_PROPERTY = "stratos.messaging.topology.processorThreads";
+    private static final String PROCESSOR_THREAD_POOL_ID = "messaging.topology.processor.thread.pool";
+
     private MessageProcessorChain processorChain;
+    private OrderedExecutor executor;
+    private TopologyEventSequencer eventSequencer;
     private TopologyEventMessageQueue messageQueue;
     private boolean terminated;
 
     public TopologyEventMessageDelegator(TopologyEventMessageQueue messageQueue) {
         this.messageQueue = messageQueue;
         this.processorChain = new TopologyMessageProcessorChain();
+        int processorThreads = MessagingUtil.getNumericSystemProperty(1, PROCESSOR_THREADS_PROPERTY);
+        if (processorThreads > 1) {
+            this.executor = new OrderedExecutor(PROCESSOR_THREAD_POOL_ID, processorThreads);
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Topology events will be processed concurrently: [threads] %d",
+                        processorThreads));
+            }
+        }
+        this.eventSequencer = new TopologyEventSequencer(processorChain, executor);
     }
 
     public void addEventListener(EventListener eventListener) {
@@ -51,6 +77,18 @@ class TopologyEventMessageDelegator implements Runnable {
         processorChain.removeEventListener(eventListener);
     }
 
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return processorChain.getStatistics();
+    }
+
+    /**
+     * Returns the number of topology events waiting to be processed by each processor thread,
+     * an empty array if topology events are processed on the delegator thread.
+     */
+    public int[] getProcessorQueueDepths() {
+        return (executor != null) ? executor.getQueueDepths() : new int[0];
+    }
+
     @Override
     public void run() {
         try {
@@ -63,9 +101,6 @@ class TopologyEventMessageDelegator implements Runnable {
                     Message message = messageQueue.take();
                     String type = message.getEventClassName();
 
-                    // Retrieve the actual message
-                    String json = message.getText();
-
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Topology event message [%s] received from queue: %s", type,
                                 messageQueue.getClass()));
@@ -74,7 +109,13 @@ class TopologyEventMessageDelegator implements Runnable {
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Delegating topology event message: %s", type));
                     }
-                    processorChain.process(type, json, TopologyManager.getTopology());
+                    if (TopologyBatchEvent.class.getName().equals(type)) {
+                        // Batch events are parsed from the message payload without copying it to a string
+                        processBatch(message.getReader());
+                    } else {
+                        // Retrieve the actual message
+                        processMessage(type, message.getText());
+                    }
                 } catch (InterruptedException ignore) {
                     log.info("Shutting down topology event message delegator...");
                     terminate();
@@ -89,10 +130,49 @@ class TopologyEventMessageDelegator implements Runnable {
         }
     }
 
+    /**
+     * Process the events of a topology batch event in the order they were published.
+     *
+     * @param reader topology batch event message reader
+     */
+    private void processBatch(Reader reader) {
+        TopologyBatchEvent batchEvent = JsonCodec.fromJson(reader, TopologyBatchEvent.class);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Delegating topology batch event: [event-count] %d",
+                    batchEvent.getEventMessages().size()));
+        }
+        for (TopologyBatchEvent.EventMessage eventMessage : batchEvent.getEventMessages()) {
+            try {
+                processMessage(eventMessage.getEventClassName(), eventMessage.getJson());
+            } catch (Exception e) {
+                log.error(String.format("Failed to process topology event message in batch: [event] %s",
+                        eventMessage.getEventClassName()), e);
+            }
+        }
+    }
+
+    private void processMessage(String type, String json) {
+        if (TopologyDigestEvent.class.getName().equals(type)) {
+            TopologyDigestEvent digestEvent = (TopologyDigestEvent) MessagingUtil.jsonToObject(json,
+                    TopologyDigestEvent.class);
+            eventSequencer.digestReceived(digestEvent.getRevision());
+        } else if (CompleteTopologyEvent.class.getName().equals(type)) {
+            eventSequencer.awaitDispatched();
+            processorChain.process(type, json, TopologyManager.getTopology());
+            TopologySnapshotPublisher.topologyUpdated();
+            eventSequencer.completeTopologyProcessed();
+        } else {
+            eventSequencer.process(type, json);
+        }
+    }
+
     /**
      * Terminate topology event message delegator thread.
      */
     public void terminate() {
         terminated = true;
+        if (executor != null) {
+            executor.terminate();
+        }
     }
 }
@@ -27,9 +27,16 @@ import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.broker.subscribe.EventSubscriber;
 import org.apache.stratos.messaging.event.initializer.CompleteTopologyRequestEvent;
 import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.filter.topology.TopologyClusterFilter;
+import org.apache.stratos.messaging.message.filter.topology.TopologyMemberFilter;
+import org.apache.stratos.messaging.message.filter.topology.TopologyServiceFilter;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
 import org.apache.stratos.messaging.message.receiver.StratosEventReceiver;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * A thread for receiving topology information from message broker and
  * build topology in topology manager.
@@ -70,11 +77,36 @@ public class TopologyEventReceiver extends StratosEventReceiver {
         messageDelegator.removeEventListener(eventListener);
     }
 
+    /**
+     * Returns processing statistics of the event types received, keyed by event class name.
+     */
+    public Map<String, MessageProcessingStatistics> getProcessingStatistics() {
+        return messageDelegator.getProcessingStatistics();
+    }
+
+    /**
+     * Returns the number of topology events waiting to be processed by each processor thread.
+     * Topology events are processed concurrently only if stratos.messaging.topology.processorThreads
+     * is greater than one, otherwise an empty array is returned.
+     */
+    public int[] getProcessorQueueDepths() {
+        return messageDelegator.getProcessorQueueDepths();
+    }
+
     private void execute() {
         try {
-            // Start topic subscriber thread
-            eventSubscriber = new EventSubscriber(MessagingUtil.Topics.TOPOLOGY_TOPIC.getTopicName(), messageListener);
+            // Start topic subscriber thread, topology filters are applied by the message broker
+            // if hierarchical topics are enabled. All the sub topics are subscribed with a single
+            // connection to keep the order of events published to different sub topics.
+            List<String> topicNames = MessagingUtil.getTopologySubTopicNames(
+                    TopologyServiceFilter.getInstance().getIncludedServiceNames(),
+                    TopologyClusterFilter.getInstance().getIncludedClusterIds(),
+                    TopologyMemberFilter.getInstance().getIncludedNetworkPartitionIds());
+            eventSubscriber = new EventSubscriber(topicNames, messageListener);
             executorService.execute(eventSubscriber);
+            if (log.isInfoEnabled() && (topicNames.size() > 1)) {
+                log.info(String.format("Subscribing to topology sub topics: [topics] %s", topicNames));
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("Topology event message receiver thread started");
@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.topology;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.initializer.CompleteTopologyRequestEvent;
+import org.apache.stratos.messaging.event.initializer.TopologyDeltaRequestEvent;
+import org.apache.stratos.messaging.event.topology.ServiceCreatedEvent;
+import org.apache.stratos.messaging.event.topology.ServiceRemovedEvent;
+import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
+import org.apache.stratos.messaging.message.receiver.OrderedExecutor;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies topology events in the order of their topology revisions. Events received ahead of
+ * a missing revision are kept until the missing event arrives. If it does not arrive within the
+ * gap timeout, or a topology digest event shows that the topology is out of date, events
+ * published after the last applied revision are requested from the cloud controller.
+ * <p/>
+ * Events without a revision are applied as they are received.
+ * <p/>
+ * If an ordered executor is given, events are handed over to it keyed by cluster id once their
+ * revision is reached. Events of a cluster are applied in order while events of other clusters
+ * may be applied concurrently. Service events and events which do not belong to a single cluster
+ * are applied after all events handed over before them have been applied.
+ * <p/>
+ * The topology revision is advanced once an event has been applied, in the executor thread if an
+ * ordered executor is used. Events of other clusters may be applied ahead of it, hence the revision
+ * is only advanced up to the highest revision below which all events have been applied. If an
+ * event fails to apply, the revision is left unchanged and the events published after it are
+ * requested again, or the complete topology if the same event fails again.
+ * <p/>
+ * Once topology snapshots are in use, a snapshot is published after each event is applied.
+ */
+class TopologyEventSequencer {
+
+    private static final Log log = LogFactory.getLog(TopologyEventSequencer.class);
+
+    private static final String GAP_TIMEOUT_PROPERTY = "stratos.messaging.topology.revisionGapTimeout";
+    private static final int DEFAULT_GAP_TIMEOUT = 10000;
+    private static final int MAX_PENDING_EVENTS = 1000;
+
+    private final MessageProcessorChain processorChain;
+    private final OrderedExecutor executor;
+    private final int gapTimeout;
+    // Key: topology revision
+    private final TreeMap<Long, PendingEvent> pendingEvents;
+    private long gapDetectedTime;
+    private long lastRequestTime;
+    // Highest revision handed over for applying
+    private long dispatchedRevision;
+    // Lowest revision which failed to apply since the last recovery, zero if none
+    private final AtomicLong failedRevision;
+    private long lastFailedRevision;
+    // Revisions applied ahead of a revision which has not been applied yet
+    private final TreeSet<Long> appliedRevisions;
+    private final Object revisionLock = new Object();
+
+    TopologyEventSequencer(MessageProcessorChain processorChain) {
+        this(processorChain, null);
+    }
+
+    TopologyEventSequencer(MessageProcessorChain processorChain, OrderedExecutor executor) {
+        this.processorChain = processorChain;
+        this.executor = executor;
+        this.gapTimeout = MessagingUtil.getNumericSystemProperty(DEFAULT_GAP_TIMEOUT, GAP_TIMEOUT_PROPERTY);
+        this.pendingEvents = new TreeMap<Long, PendingEvent>();
+        this.failedRevision = new AtomicLong();
+        this.appliedRevisions = new TreeSet<Long>();
+    }
+
+    /**
+     * Apply the topology event if it is the next revision, otherwise keep it until
+     * the missing revisions are received.
+     *
+     * @param type event class name
+     * @param json event message
+     */
+    void process(String type, String json) {
+        if (!TopologyManager.isInitialized()) {
+            dispatch(type, json, 0);
+            return;
+        }
+
+        long revision = JsonCodec.readLongField(json, "revision");
+        if (revision == 0) {
+            // Topology revisions are not in use
+            dispatch(type, json, 0);
+            return;
+        }
+
+        recoverFailedRevision();
+        long currentRevision = getSequencedRevision();
+        if (revision <= currentRevision) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology event already applied, ignoring: [type] %s [revision] %d " +
+                        "[topology-revision] %d", type, revision, currentRevision));
+            }
+            return;
+        }
+
+        if ((currentRevision == 0) || (revision == currentRevision + 1)) {
+            try {
+                apply(type, json, revision);
+            } finally {
+                recoverFailedRevision();
+            }
+            processPendingEvents();
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology event received ahead of revision, waiting for missing events: " +
+                        "[type] %s [revision] %d [topology-revision] %d", type, revision, currentRevision));
+            }
+            pendingEvents.put(revision, new PendingEvent(type, json));
+            if (gapDetectedTime == 0) {
+                gapDetectedTime = System.currentTimeMillis();
+            }
+            checkRevisionGap();
+        }
+    }
+
+    /**
+     * Compare the latest topology revision published by the cloud controller with the
+     * revision of the local topology.
+     *
+     * @param revision latest topology revision
+     */
+    void digestReceived(long revision) {
+        if (!TopologyManager.isInitialized() || (revision == 0)) {
+            return;
+        }
+
+        recoverFailedRevision();
+        long currentRevision = getSequencedRevision();
+        if (revision < currentRevision) {
+            // Cloud controller has restarted with an older revision, start over from a complete topology
+            log.warn(String.format("Topology revision has been reset, requesting complete topology: " +
+                    "[revision] %d [topology-revision] %d", revision, currentRevision));
+            awaitDispatched();
+            synchronized (revisionLock) {
+                TopologyManager.getTopology().setRevision(0);
+                appliedRevisions.clear();
+            }
+            dispatchedRevision = 0;
+            failedRevision.set(0);
+            pendingEvents.clear();
+            gapDetectedTime = 0;
+            publish(new CompleteTopologyRequestEvent());
+        } else if (revision > currentRevision) {
+            if (pendingEvents.isEmpty()) {
+                requestTopologyDelta(currentRevision);
+            } else {
+                checkRevisionGap();
+            }
+        }
+    }
+
+    /**
+     * Apply pending events which follow the revision of a complete topology.
+     */
+    void completeTopologyProcessed() {
+        synchronized (revisionLock) {
+            long revision = TopologyManager.getTopology().getRevision();
+            if (revision > 0) {
+                advanceRevision(revision);
+            }
+        }
+        long revision = failedRevision.get();
+        if ((revision > 0) && (revision <= getAppliedRevision())) {
+            // Complete topology includes the failed event
+            failedRevision.compareAndSet(revision, 0);
+        }
+        processPendingEvents();
+    }
+
+    /**
+     * Block until all events handed over to the ordered executor have been applied.
+     */
+    void awaitDispatched() {
+        if (executor != null) {
+            executor.awaitIdle();
+        }
+    }
+
+    private void apply(String type, String json, long revision) {
+        dispatchedRevision = revision;
+        dispatch(type, json, revision);
+    }
+
+    /**
+     * Apply the event, in an executor thread if an ordered executor is given.
+     *
+     * @param revision topology revision of the event, zero if the event does not have a revision
+     */
+    private void dispatch(final String type, final String json, final long revision) {
+        final KeyMessage key = ((executor != null) || TopologySnapshotPublisher.isEnabled()) ?
+                readKey(type, json) : null;
+        if (executor == null) {
+            applyEvent(type, json, revision, key);
+            return;
+        }
+
+        executor.execute(key.clusterId, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    applyEvent(type, json, revision, key);
+                } catch (Exception e) {
+                    log.error(String.format("Failed to process topology event: [type] %s [revision] %d",
+                            type, revision), e);
+                }
+            }
+        });
+    }
+
+    private void applyEvent(String type, String json, long revision, KeyMessage key) {
+        boolean applied = false;
+        try {
+            processorChain.process(type, json, TopologyManager.getTopology());
+            // Processors also return false for filtered events, only an uninitialized topology is a failure
+            applied = TopologyManager.isInitialized();
+            if ((key != null) && (key.clusterId != null)) {
+                TopologySnapshotPublisher.clusterUpdated(key.serviceName, key.clusterId);
+            } else {
+                // Snapshots could have been enabled after the event was dispatched without a key
+                TopologySnapshotPublisher.topologyUpdated();
+            }
+        } finally {
+            if (revision > 0) {
+                if (applied) {
+                    revisionApplied(revision);
+                } else {
+                    revisionFailed(type, revision);
+                }
+            }
+        }
+    }
+
+    private void revisionApplied(long revision) {
+        synchronized (revisionLock) {
+            long appliedRevision = TopologyManager.getTopology().getRevision();
+            if ((appliedRevision == 0) || (revision == appliedRevision + 1)) {
+                advanceRevision(revision);
+            } else if (revision > appliedRevision) {
+                appliedRevisions.add(revision);
+            }
+        }
+    }
+
+    /**
+     * Set the topology revision to the given revision, or to the end of the applied revisions
+     * following it. Must be called holding the revision lock.
+     */
+    private void advanceRevision(long revision) {
+        while (appliedRevisions.remove(revision + 1)) {
+            revision++;
+        }
+        appliedRevisions.headSet(revision, true).clear();
+        TopologyManager.getTopology().setRevision(revision);
+    }
+
+    private void revisionFailed(String type, long revision) {
+        log.warn(String.format("Topology event could not be applied, topology revision will not be advanced: " +
+                "[type] %s [revision] %d", type, revision));
+        long failed = failedRevision.get();
+        while (((failed == 0) || (revision < failed)) && !failedRevision.compareAndSet(failed, revision)) {
+            failed = failedRevision.get();
+        }
+    }
+
+    /**
+     * Start over from the last applied revision if an event failed to apply. Events published
+     * after it are requested again, or the complete topology if the same event failed before.
+     */
+    private void recoverFailedRevision() {
+        long revision = failedRevision.get();
+        if (revision == 0) {
+            return;
+        }
+
+        // Let events handed over after the failed event complete before starting over
+        awaitDispatched();
+        failedRevision.set(0);
+        synchronized (revisionLock) {
+            appliedRevisions.clear();
+        }
+        dispatchedRevision = getAppliedRevision();
+
+        if (revision == lastFailedRevision) {
+            log.warn(String.format("Topology event failed to apply again, requesting complete topology: " +
+                    "[revision] %d", revision));
+            requestTopology(new CompleteTopologyRequestEvent());
+        } else {
+            requestTopology(new TopologyDeltaRequestEvent(dispatchedRevision));
+        }
+        lastFailedRevision = revision;
+    }
+
+    /**
+     * Returns the revision up to which events have been handed over for applying.
+     */
+    private long getSequencedRevision() {
+        return Math.max(dispatchedRevision, getAppliedRevision());
+    }
+
+    /**
+     * Returns the revision up to which all events have been applied.
+     */
+    private long getAppliedRevision() {
+        synchronized (revisionLock) {
+            return TopologyManager.getTopology().getRevision();
+        }
+    }
+
+    /**
+     * Read the service name and cluster id of the event. Cluster id is null if the event should
+     * not be applied concurrently with any other event.
+     */
+    private static KeyMessage readKey(String type, String json) {
+        if (ServiceCreatedEvent.class.getName().equals(type) || ServiceRemovedEvent.class.getName().equals(type)) {
+            // Cluster events depend on the service
+            return new KeyMessage();
+        }
+        String[] fields = JsonCodec.readStringFields(json, "serviceName", "clusterId",
+                "cluster.serviceName", "cluster.clusterId");
+        // Cluster created event carries the cluster instead of its id
+        return (fields[1] != null) ? new KeyMessage(fields[0], fields[1]) : new KeyMessage(fields[2], fields[3]);
+    }
+
+    private void processPendingEvents() {
+        while (!pendingEvents.isEmpty()) {
+            long currentRevision = getSequencedRevision();
+            Map.Entry<Long, PendingEvent> entry = pendingEvents.firstEntry();
+            if (entry.getKey() <= currentRevision) {
+                pendingEvents.pollFirstEntry();
+            } else if ((currentRevision == 0) || (entry.getKey() == currentRevision + 1)) {
+                pendingEvents.pollFirstEntry();
+                try {
+                    apply(entry.getValue().type, entry.getValue().json, entry.getKey());
+                } catch (Exception e) {
+                    log.error(String.format("Failed to process topology event: [type] %s [revision] %d",
+                            entry.getValue().type, entry.getKey()), e);
+                } finally {
+                    recoverFailedRevision();
+                }
+            } else {
+                break;
+            }
+        }
+        gapDetectedTime = pendingEvents.isEmpty() ? 0 : System.currentTimeMillis();
+    }
+
+    private void checkRevisionGap() {
+        long currentRevision = getSequencedRevision();
+        if (pendingEvents.size() > MAX_PENDING_EVENTS) {
+            // Missing events will be received again with the requested events
+            log.warn(String.format("Too many topology events waiting for missing revisions: [topology-revision] %d",
+                    currentRevision));
+            pendingEvents.clear();
+            gapDetectedTime = 0;
+            requestTopologyDelta(currentRevision);
+        } else if ((gapDetectedTime > 0) && (System.currentTimeMillis() - gapDetectedTime > gapTimeout)) {
+            requestTopologyDelta(currentRevision);
+        }
+    }
+
+    private void requestTopologyDelta(long fromRevision) {
+        requestTopology(new TopologyDeltaRequestEvent(fromRevision));
+    }
+
+    private void requestTopology(Event requestEvent) {
+        long now = System.currentTimeMillis();
+        if (now - lastRequestTime < gapTimeout) {
+            // A request has been sent recently, wait for the response
+            return;
+        }
+        lastRequestTime = now;
+
+        if (log.isInfoEnabled()) {
+            if (requestEvent instanceof TopologyDeltaRequestEvent) {
+                log.info(String.format("Requesting topology events: [from-revision] %d",
+                        ((TopologyDeltaRequestEvent) requestEvent).getFromRevision()));
+            } else {
+                log.info("Requesting complete topology");
+            }
+        }
+        publish(requestEvent);
+    }
+
+    private void publish(Event event) {
+        try {
+            String topic = MessagingUtil.getMessageTopicName(event);
+            EventPublisherPool.getPublisher(topic).publish(event, false);
+        } catch (Exception e) {
+            log.error("Could not publish topology request event", e);
+        }
+    }
+
+    /**
+     * Service name and cluster id of a topology event.
+     */
+    private static class KeyMessage {
+        private final String serviceName;
+        private final String clusterId;
+
+        private KeyMessage() {
+            this(null, null);
+        }
+
+        private KeyMessage(String serviceName, String clusterId) {
+            this.serviceName = serviceName;
+            this.clusterId = clusterId;
+        }
+    }
+
+    /**
+     * Topology event waiting for missing revisions.
+     */
+    private static class PendingEvent {
+        private final String type;
+        private final String json;
+
+        private PendingEvent(String type, String json) {
+            this.type = type;
+            this.json = json;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.topology.Topology;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLock;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLockHierarchy;
+import org.apache.stratos.messaging.domain.topology.snapshot.TopologySnapshot;
 
 /**
  * A singleton class for managing the topology data structure.
@@ -224,6 +225,17 @@ public class TopologyManager {
         return topology;
     }
 
+    /**
+     * Returns the latest immutable topology snapshot. Snapshots can be read without acquiring
+     * topology locks, they are published after each topology event is processed once this
+     * method has been called for the first time.
+     *
+     * @return topology snapshot
+     */
+    public static TopologySnapshot getTopologySnapshot() {
+        return TopologySnapshotPublisher.getSnapshot();
+    }
+
     public static void setInitialized(boolean initialized){
         TopologyManager.initialized = initialized;
     }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.topology;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.snapshot.ClusterSnapshot;
+import org.apache.stratos.messaging.domain.topology.snapshot.ServiceSnapshot;
+import org.apache.stratos.messaging.domain.topology.snapshot.TopologySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes immutable topology snapshots after topology events are processed. Snapshots are
+ * only maintained once they have been requested for the first time, until then processing
+ * topology events does not pay for them.
+ * <p/>
+ * Snapshots are built from the topology under topology read locks and published one at a time,
+ * each update reads the current state of the changed cluster, hence the last published snapshot
+ * always reflects the latest processed event of each cluster. Snapshots are enabled before the
+ * first snapshot is built, updates for events processed while it is being built wait for it to
+ * be published and are then applied on top of it.
+ */
+class TopologySnapshotPublisher {
+
+    private static final Log log = LogFactory.getLog(TopologySnapshotPublisher.class);
+
+    private static final Object publishLock = new Object();
+    private static volatile boolean enabled;
+    private static volatile TopologySnapshot snapshot;
+
+    private TopologySnapshotPublisher() {
+    }
+
+    /**
+     * Returns the latest topology snapshot, builds the first snapshot if snapshots have not
+     * been requested before.
+     */
+    static TopologySnapshot getSnapshot() {
+        TopologySnapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null) {
+            synchronized (publishLock) {
+                if (snapshot == null) {
+                    enabled = true;
+                    snapshot = buildSnapshot();
+                    if (log.isInfoEnabled()) {
+                        log.info("Topology snapshots enabled");
+                    }
+                }
+                currentSnapshot = snapshot;
+            }
+        }
+        return currentSnapshot;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Publish a snapshot with the current state of the given cluster.
+     *
+     * @param serviceName service name of the cluster, null if not known
+     * @param clusterId   cluster id
+     */
+    static void clusterUpdated(String serviceName, String clusterId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (publishLock) {
+            TopologySnapshot currentSnapshot = snapshot;
+            if (currentSnapshot == null) {
+                // The first snapshot could not be built
+                return;
+            }
+            if (serviceName == null) {
+                ClusterSnapshot cluster = currentSnapshot.getCluster(clusterId);
+                if (cluster == null) {
+                    snapshot = buildSnapshot();
+                    return;
+                }
+                serviceName = cluster.getServiceName();
+            }
+            if (currentSnapshot.getService(serviceName) == null) {
+                // Service is not known yet, read all of it
+                snapshot = buildSnapshot();
+                return;
+            }
+            snapshot = updateCluster(currentSnapshot, serviceName, clusterId);
+        }
+    }
+
+    /**
+     * Publish a snapshot of the complete topology.
+     */
+    static void topologyUpdated() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (publishLock) {
+            snapshot = buildSnapshot();
+        }
+    }
+
+    private static TopologySnapshot updateCluster(TopologySnapshot currentSnapshot, String serviceName,
+                                                  String clusterId) {
+        TopologyManager.acquireReadLockForCluster(serviceName, clusterId);
+        try {
+            Service service = TopologyManager.getTopology().getService(serviceName);
+            if (service == null) {
+                return currentSnapshot.withoutService(serviceName);
+            }
+            Cluster cluster = service.getCluster(clusterId);
+            if (cluster == null) {
+                return currentSnapshot.withoutCluster(clusterId);
+            }
+            return currentSnapshot.withCluster(new ClusterSnapshot(cluster));
+        } finally {
+            TopologyManager.releaseReadLockForCluster(serviceName, clusterId);
+        }
+    }
+
+    private static TopologySnapshot buildSnapshot() {
+        TopologySnapshot newSnapshot = TopologySnapshot.EMPTY;
+        TopologyManager.acquireReadLockForServices();
+        try {
+            for (Service service : TopologyManager.getTopology().getServices()) {
+                newSnapshot = newSnapshot.withService(buildService(service));
+            }
+        } finally {
+            TopologyManager.releaseReadLockForServices();
+        }
+        return newSnapshot;
+    }
+
+    private static ServiceSnapshot buildService(Service service) {
+        String serviceName = service.getServiceName();
+        List<ClusterSnapshot> clusters = new ArrayList<ClusterSnapshot>();
+        TopologyManager.acquireReadLockForService(serviceName);
+        try {
+            for (Cluster cluster : service.getClusters()) {
+                TopologyManager.acquireReadLockForCluster(serviceName, cluster.getClusterId());
+                try {
+                    clusters.add(new ClusterSnapshot(cluster));
+                } finally {
+                    TopologyManager.releaseReadLockForCluster(serviceName, cluster.getClusterId());
+                }
+            }
+        } finally {
+            TopologyManager.releaseReadLockForService(serviceName);
+        }
+        return new ServiceSnapshot(serviceName, service.getServiceType(), clusters);
+    }
+}
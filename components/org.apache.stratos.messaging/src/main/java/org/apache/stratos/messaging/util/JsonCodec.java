@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.application.Application;
+import org.apache.stratos.messaging.domain.application.Applications;
+import org.apache.stratos.messaging.domain.application.Group;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.application.CompleteApplicationsEvent;
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+import org.apache.stratos.messaging.event.topology.TopologyBatchEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Shared JSON codec of messaging events. Gson builds a type adapter for each class the first time
+ * it is used and caches it within the Gson instance, hence a single thread safe instance is shared
+ * instead of creating one per message. Type adapters of the messaging domain model are built when
+ * this class is loaded so that the first complete topology or applications event does not pay for
+ * them.
+ */
+public final class JsonCodec {
+
+    private static final Log log = LogFactory.getLog(JsonCodec.class);
+
+    private static final Gson gson = new Gson();
+
+    static {
+        Class[] domainTypes = new Class[]{Topology.class, Service.class, Cluster.class, Member.class,
+                Applications.class, Application.class, Group.class, CompleteTopologyEvent.class,
+                CompleteApplicationsEvent.class, TopologyBatchEvent.class};
+        for (Class domainType : domainTypes) {
+            try {
+                gson.getAdapter(domainType);
+            } catch (RuntimeException e) {
+                // Adapter will be built when the type is used
+                log.warn(String.format("Could not build JSON type adapter: [type] %s", domainType.getName()), e);
+            }
+        }
+    }
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Returns the shared Gson instance.
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) {
+        return gson.fromJson(json, type);
+    }
+
+    /**
+     * Parse the JSON read from the given reader directly into an object of the given type
+     * without reading the whole message into a string.
+     *
+     * @param reader JSON reader
+     * @param type   type of the object
+     * @return object parsed
+     */
+    public static <T> T fromJson(Reader reader, Class<T> type) {
+        return gson.fromJson(reader, type);
+    }
+
+    public static String toJson(Object object) {
+        return gson.toJson(object);
+    }
+
+    /**
+     * Read a numeric field of the top level JSON object without materializing the rest of the
+     * message. Other values are skipped while streaming through the message.
+     *
+     * @param json      JSON object
+     * @param fieldName name of the field
+     * @return value of the field, zero if it is not found
+     */
+    public static long readLongField(String json, String fieldName) {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (fieldName.equals(reader.nextName()) && (reader.peek() == JsonToken.NUMBER)) {
+                    return reader.nextLong();
+                }
+                reader.skipValue();
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new JsonParseException(String.format("Could not read JSON field: [field] %s", fieldName), e);
+        } catch (IllegalStateException e) {
+            throw new JsonParseException(String.format("Could not read JSON field: [field] %s", fieldName), e);
+        }
+    }
+
+    /**
+     * Read string fields of the JSON object without materializing the rest of the message.
+     * A field of a nested object is given by its path, e.g. "cluster.clusterId"; only the nested
+     * objects on a requested path are entered and all other values are skipped while streaming
+     * through the message. Reading stops once every field is found.
+     *
+     * @param json       JSON object
+     * @param fieldPaths paths of the fields
+     * @return values of the fields in the given order, null if a field is not found
+     */
+    public static String[] readStringFields(String json, String... fieldPaths) {
+        String[] values = new String[fieldPaths.length];
+        JsonReader reader = new JsonReader(new StringReader(json));
+        try {
+            readStringFields(reader, "", fieldPaths, values, new int[1]);
+            return values;
+        } catch (IOException e) {
+            throw new JsonParseException(String.format("Could not read JSON fields: [fields] %s",
+                    Arrays.toString(fieldPaths)), e);
+        } catch (IllegalStateException e) {
+            throw new JsonParseException(String.format("Could not read JSON fields: [fields] %s",
+                    Arrays.toString(fieldPaths)), e);
+        }
+    }
+
+    private static void readStringFields(JsonReader reader, String prefix, String[] fieldPaths, String[] values,
+                                         int[] foundCount) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext() && (foundCount[0] < fieldPaths.length)) {
+            String path = prefix + reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.STRING) {
+                int index = indexOf(path, fieldPaths);
+                if ((index >= 0) && (values[index] == null)) {
+                    values[index] = reader.nextString();
+                    foundCount[0]++;
+                    continue;
+                }
+            } else if ((token == JsonToken.BEGIN_OBJECT) && isOnPath(path + ".", fieldPaths)) {
+                readStringFields(reader, path + ".", fieldPaths, values, foundCount);
+                continue;
+            }
+            reader.skipValue();
+        }
+        if (foundCount[0] < fieldPaths.length) {
+            reader.endObject();
+        }
+    }
+
+    private static int indexOf(String path, String[] fieldPaths) {
+        for (int i = 0; i < fieldPaths.length; i++) {
+            if (fieldPaths[i].equals(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isOnPath(String prefix, String[] fieldPaths) {
+        for (String fieldPath : fieldPaths) {
+            if (fieldPath.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -18,19 +18,18 @@
  */
 package org.apache.stratos.messaging.util;
 
-import com.google.gson.Gson;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.event.topology.TopologyEvent;
 import org.apache.stratos.messaging.message.JsonMessage;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Properties;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * Messaging module utility class
@@ -50,6 +49,10 @@ public class MessagingUtil {
     private static final String TENANT_RANGE_DELIMITER = "-";
     private static final String AVERAGE_PING_INTERVAL_PROPERTY = "stratos.messaging.averagePingInterval";
     private static final String FAILOVER_PING_INTERVAL_PROPERTY = "stratos.messaging.failoverPingInterval";
+    private static final String HIERARCHICAL_TOPICS_ENABLED_PROPERTY = "stratos.messaging.hierarchicalTopics.enabled";
+    private static final String PLUS = "+";
+    private static final String ASTERISK = "*";
+    private static final char TOPIC_LEVEL_REPLACEMENT_CHAR = '_';
     private static final int DEFAULT_AVERAGE_PING_INTERVAL = 1000;
     private static final int DEFAULT_FAILOVER_PING_INTERVAL = 30000;
 
@@ -172,9 +175,7 @@ public class MessagingUtil {
      * @return JSON string
      */
     public static String ObjectToJson(Object obj) {
-        Gson gson = new Gson();
-        String result = gson.toJson(obj);
-        return result;
+        return JsonCodec.toJson(obj);
     }
 
     /**
@@ -225,6 +226,73 @@ public class MessagingUtil {
         return topicName;
     }
 
+    /**
+     * Get the hierarchical topic name of the event. Topology events are published to a sub topic of
+     * their event topic which includes the service name, cluster id and network partition id of the
+     * event, for example topology/MemberActivatedEvent/php/php1_php_domain/network-partition-1, so
+     * that subscribers can let the message broker filter the events. Sub topics are only used if the
+     * system property stratos.messaging.hierarchicalTopics.enabled is set to true, since subscribers
+     * which derive the event name from the last level of the topic would not recognize them.
+     *
+     * @param event event
+     * @return String topic name of the event including its topic levels
+     */
+    public static String getMessageSubTopicName(Event event) {
+        String topicName = getMessageTopicName(event);
+        if (!(event instanceof TopologyEvent) || !isHierarchicalTopicsEnabled()) {
+            return topicName;
+        }
+        StringBuilder subTopicName = new StringBuilder(topicName);
+        for (String topicLevel : ((TopologyEvent) event).getTopicLevels()) {
+            subTopicName.append(getTopicLevelSeparator()).append(toTopicLevel(topicLevel));
+        }
+        return subTopicName.toString();
+    }
+
+    /**
+     * Get the topic names to subscribe to for receiving topology events of the given services,
+     * clusters and network partitions. A null or empty collection matches all values of the level.
+     * Topic names include wildcards of the messaging protocol in use.
+     *
+     * @param serviceNames        service names
+     * @param clusterIds          cluster ids
+     * @param networkPartitionIds network partition ids
+     * @return topic names
+     */
+    public static List<String> getTopologySubTopicNames(Collection<String> serviceNames, Collection<String> clusterIds,
+                                                        Collection<String> networkPartitionIds) {
+        if (!isHierarchicalTopicsEnabled() || (isEmpty(serviceNames) && isEmpty(clusterIds)
+                && isEmpty(networkPartitionIds))) {
+            return Collections.singletonList(Topics.TOPOLOGY_TOPIC.getTopicName());
+        }
+
+        String separator = getTopicLevelSeparator();
+        String anyLevel = getMessagingProtocol().equals(MessagingConstants.AMQP) ? ASTERISK : PLUS;
+        // Events without topic levels such as complete topology events
+        List<String> topicNames = new ArrayList<String>();
+        topicNames.add("topology" + separator + anyLevel);
+        List<String> prefixes = topicNames;
+        for (Collection<String> levelValues : Arrays.asList(serviceNames, clusterIds, networkPartitionIds)) {
+            List<String> levelTopicNames = new ArrayList<String>();
+            for (String prefix : prefixes) {
+                if (isEmpty(levelValues)) {
+                    levelTopicNames.add(prefix + separator + anyLevel);
+                } else {
+                    for (String levelValue : levelValues) {
+                        levelTopicNames.add(prefix + separator + toTopicLevel(levelValue));
+                    }
+                }
+            }
+            prefixes = levelTopicNames;
+            topicNames.addAll(levelTopicNames);
+        }
+        return topicNames;
+    }
+
+    public static boolean isHierarchicalTopicsEnabled() {
+        return Boolean.getBoolean(HIERARCHICAL_TOPICS_ENABLED_PROPERTY);
+    }
+
     /**
      * Get the event name for topic
      *
@@ -232,13 +300,58 @@ public class MessagingUtil {
      * @return String Event name for topic
      */
     public static String getEventClassNameForTopic(String topic) {
-        String eventClassName = ORG_APACHE_STRATOS_MESSAGING_EVENT_PACKAGE.concat(topic);
+        String eventClassName = ORG_APACHE_STRATOS_MESSAGING_EVENT_PACKAGE.concat(removeTopicLevels(topic));
         if (getMessagingProtocol().equals(MessagingConstants.MQTT)) {
             eventClassName = eventClassName.replace(SLASH, DOT);
         }
         return eventClassName;
     }
 
+    /**
+     * Remove the hierarchical topic levels which follow the event class name in a topic name.
+     * Package levels of event topics are in lower case, the first level which starts with
+     * an upper case letter is the event class name.
+     */
+    private static String removeTopicLevels(String topic) {
+        char separator = getTopicLevelSeparator().charAt(0);
+        int start = 0;
+        while (start < topic.length()) {
+            int end = topic.indexOf(separator, start);
+            if (Character.isUpperCase(topic.charAt(start))) {
+                return (end < 0) ? topic : topic.substring(0, end);
+            }
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return topic;
+    }
+
+    /**
+     * Convert a value to a topic level, topic separators and wildcards are replaced.
+     */
+    private static String toTopicLevel(String value) {
+        if (value == null) {
+            return String.valueOf(TOPIC_LEVEL_REPLACEMENT_CHAR);
+        }
+        StringBuilder topicLevel = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            topicLevel.append((Character.isLetterOrDigit(c) || (c == '-') || (c == '_')) ?
+                    c : TOPIC_LEVEL_REPLACEMENT_CHAR);
+        }
+        return topicLevel.toString();
+    }
+
+    private static String getTopicLevelSeparator() {
+        return getMessagingProtocol().equals(MessagingConstants.MQTT) ? SLASH : DOT;
+    }
+
+    private static boolean isEmpty(Collection<String> collection) {
+        return (collection == null) || collection.isEmpty();
+    }
+
     /**
      * Get the random string with UUID
      *
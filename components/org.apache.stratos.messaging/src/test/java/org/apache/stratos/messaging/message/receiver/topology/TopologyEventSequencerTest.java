@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.topology;
+
+import org.apache.stratos.messaging.event.topology.MemberActivatedEvent;
+import org.apache.stratos.messaging.event.topology.TopologyEvent;
+import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
+import org.apache.stratos.messaging.message.receiver.OrderedExecutor;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Topology event sequencer tests.
+ */
+@RunWith(JUnit4.class)
+public class TopologyEventSequencerTest {
+
+    private List<String> processedMembers;
+    private Set<String> failingMembers;
+    private MessageProcessorChain processorChain;
+    private TopologyEventSequencer eventSequencer;
+
+    @Before
+    public void setUp() {
+        processedMembers = Collections.synchronizedList(new ArrayList<String>());
+        failingMembers = Collections.synchronizedSet(new HashSet<String>());
+        processorChain = new MessageProcessorChain() {
+            @Override
+            protected void initialize() {
+                add(new MessageProcessor() {
+                    @Override
+                    public void setNext(MessageProcessor nextProcessor) {
+                    }
+
+                    @Override
+                    public boolean process(String type, String message, Object object) {
+                        MemberActivatedEvent event = (MemberActivatedEvent) MessagingUtil.jsonToObject(message,
+                                MemberActivatedEvent.class);
+                        if (failingMembers.remove(event.getMemberId())) {
+                            throw new IllegalStateException("Event could not be applied");
+                        }
+                        processedMembers.add(event.getMemberId());
+                        return true;
+                    }
+                });
+            }
+
+            @Override
+            public void addEventListener(EventListener eventListener) {
+            }
+
+            @Override
+            public void removeEventListener(EventListener eventListener) {
+            }
+        };
+        eventSequencer = new TopologyEventSequencer(processorChain);
+        TopologyManager.getTopology().setRevision(10);
+        TopologyManager.setInitialized(true);
+    }
+
+    @After
+    public void tearDown() {
+        TopologyManager.getTopology().setRevision(0);
+        TopologyManager.setInitialized(false);
+    }
+
+    @Test
+    public final void testEventsAppliedInRevisionOrder() {
+        process("member12", 12);
+        process("member13", 13);
+        assertEquals(0, processedMembers.size());
+
+        process("member11", 11);
+        assertEquals(Arrays.asList("member11", "member12", "member13"), processedMembers);
+        assertEquals(13, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testAppliedEventsIgnored() {
+        process("member11", 11);
+        process("member10", 10);
+        process("member11", 11);
+        assertEquals(Arrays.asList("member11"), processedMembers);
+        assertEquals(11, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testEventsAfterResetWaitForCompleteTopology() {
+        // Cloud controller has reserved revision 11 for the complete topology
+        process("member12", 12);
+        process("member13", 13);
+        assertEquals(0, processedMembers.size());
+
+        // Complete topology of revision 11 re-initializes the topology
+        TopologyManager.getTopology().setRevision(11);
+        eventSequencer.completeTopologyProcessed();
+        assertEquals(Arrays.asList("member12", "member13"), processedMembers);
+        assertEquals(13, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testEventsWithoutRevisionApplied() {
+        process("member1", 0);
+        process("member2", 0);
+        assertEquals(Arrays.asList("member1", "member2"), processedMembers);
+        assertEquals(10, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testEventsAppliedByOrderedExecutor() {
+        OrderedExecutor executor = new OrderedExecutor("topology.event.sequencer.test", 4);
+        eventSequencer = new TopologyEventSequencer(processorChain, executor);
+        process("member12", 12);
+        process("member13", 13);
+        process("member11", 11);
+        process("member14", 14);
+        eventSequencer.awaitDispatched();
+        executor.terminate();
+
+        assertEquals(Arrays.asList("member11", "member12", "member13", "member14"), processedMembers);
+        assertEquals(14, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testFailedEventDoesNotAdvanceRevision() {
+        failingMembers.add("member12");
+        process("member11", 11);
+        try {
+            process("member12", 12);
+            fail("Event failure was not propagated");
+        } catch (IllegalStateException expected) {
+            // Event fails to apply once
+        }
+        process("member13", 13);
+        assertEquals(Arrays.asList("member11"), processedMembers);
+        assertEquals(11, TopologyManager.getTopology().getRevision());
+
+        // Failed event is received again with the requested events
+        process("member12", 12);
+        assertEquals(Arrays.asList("member11", "member12", "member13"), processedMembers);
+        assertEquals(13, TopologyManager.getTopology().getRevision());
+    }
+
+    @Test
+    public final void testFailedEventDoesNotAdvanceRevisionOfOrderedExecutor() {
+        OrderedExecutor executor = new OrderedExecutor("topology.event.sequencer.test", 4);
+        eventSequencer = new TopologyEventSequencer(processorChain, executor);
+        failingMembers.add("member11");
+        process("member11", 11);
+        process("member12", 12);
+        eventSequencer.awaitDispatched();
+        assertEquals(Arrays.asList("member12"), processedMembers);
+        assertEquals(10, TopologyManager.getTopology().getRevision());
+
+        // Events published after the failed event are received again
+        process("member11", 11);
+        process("member12", 12);
+        eventSequencer.awaitDispatched();
+        executor.terminate();
+        assertEquals(Arrays.asList("member12", "member11", "member12"), processedMembers);
+        assertEquals(12, TopologyManager.getTopology().getRevision());
+    }
+
+    private void process(String memberId, long revision) {
+        TopologyEvent event = new MemberActivatedEvent("service1", "cluster1", "cluster-instance1", memberId,
+                "network-partition1", "partition1");
+        event.setRevision(revision);
+        eventSequencer.process(MemberActivatedEvent.class.getName(), MessagingUtil.ObjectToJson(event));
+    }
+}
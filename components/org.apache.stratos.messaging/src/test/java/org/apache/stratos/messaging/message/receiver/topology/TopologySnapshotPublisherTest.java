@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.receiver.topology;
+
+import org.apache.stratos.common.domain.LoadBalancingIPType;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.ServiceType;
+import org.apache.stratos.messaging.domain.topology.snapshot.ClusterSnapshot;
+import org.apache.stratos.messaging.domain.topology.snapshot.TopologySnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Topology snapshot publisher tests.
+ */
+@RunWith(JUnit4.class)
+public class TopologySnapshotPublisherTest {
+
+    private static final String SERVICE_NAME = "snapshot-service1";
+
+    private Service service;
+
+    @Before
+    public void setUp() {
+        service = new Service(SERVICE_NAME, ServiceType.SingleTenant);
+        service.addCluster(createCluster("snapshot-cluster1", "snapshot-member1"));
+        service.addCluster(createCluster("snapshot-cluster2", "snapshot-member2"));
+        TopologyManager.getTopology().addService(service);
+        TopologySnapshotPublisher.topologyUpdated();
+    }
+
+    @After
+    public void tearDown() {
+        TopologyManager.getTopology().removeService(SERVICE_NAME);
+        TopologySnapshotPublisher.topologyUpdated();
+    }
+
+    @Test
+    public final void testClusterUpdated() {
+        TopologySnapshot snapshot = TopologyManager.getTopologySnapshot();
+        assertNotNull(snapshot.getService(SERVICE_NAME));
+        assertEquals(SERVICE_NAME, snapshot.findMember("snapshot-member1").getServiceName());
+        ClusterSnapshot cluster2 = snapshot.getCluster("snapshot-cluster2");
+
+        // Published snapshots are not affected by topology changes
+        service.getCluster("snapshot-cluster1").addMember(createMember("snapshot-cluster1", "snapshot-member3"));
+        assertNull(snapshot.findMember("snapshot-member3"));
+        assertSame(snapshot, TopologyManager.getTopologySnapshot());
+
+        TopologySnapshotPublisher.clusterUpdated(null, "snapshot-cluster1");
+        TopologySnapshot updatedSnapshot = TopologyManager.getTopologySnapshot();
+        assertEquals("snapshot-cluster1", updatedSnapshot.findMember("snapshot-member3").getClusterId());
+        assertEquals(2, updatedSnapshot.getCluster("snapshot-cluster1").getMembers().size());
+        assertEquals(1, snapshot.getCluster("snapshot-cluster1").getMembers().size());
+        // Clusters not changed are shared with the previous snapshot
+        assertSame(cluster2, updatedSnapshot.getCluster("snapshot-cluster2"));
+    }
+
+    @Test
+    public final void testClusterRemoved() {
+        service.removeCluster("snapshot-cluster2");
+        TopologySnapshotPublisher.clusterUpdated(SERVICE_NAME, "snapshot-cluster2");
+
+        TopologySnapshot snapshot = TopologyManager.getTopologySnapshot();
+        assertNull(snapshot.getCluster("snapshot-cluster2"));
+        assertNull(snapshot.findMember("snapshot-member2"));
+        assertEquals(1, snapshot.getService(SERVICE_NAME).getClusters().size());
+    }
+
+    @Test
+    public final void testServiceRemoved() {
+        TopologyManager.getTopology().removeService(SERVICE_NAME);
+        TopologySnapshotPublisher.topologyUpdated();
+
+        TopologySnapshot snapshot = TopologyManager.getTopologySnapshot();
+        assertNull(snapshot.getService(SERVICE_NAME));
+        assertNull(snapshot.getCluster("snapshot-cluster1"));
+    }
+
+    private static Cluster createCluster(String clusterId, String memberId) {
+        Cluster cluster = new Cluster(SERVICE_NAME, clusterId, "deployment-policy1", "autoscale-policy1", "app1");
+        cluster.addMember(createMember(clusterId, memberId));
+        return cluster;
+    }
+
+    private static Member createMember(String clusterId, String memberId) {
+        return new Member(SERVICE_NAME, clusterId, memberId, "cluster-instance1", "network-partition1",
+                "partition1", LoadBalancingIPType.Private, System.currentTimeMillis());
+    }
+}
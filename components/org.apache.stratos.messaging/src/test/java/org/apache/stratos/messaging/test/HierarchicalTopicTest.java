@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+import org.apache.stratos.messaging.event.topology.MemberActivatedEvent;
+import org.apache.stratos.messaging.event.topology.ServiceRemovedEvent;
+import org.apache.stratos.messaging.util.MessagingConstants;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hierarchical topology topic tests.
+ */
+@RunWith(JUnit4.class)
+public class HierarchicalTopicTest {
+
+    private static final String HIERARCHICAL_TOPICS_ENABLED_PROPERTY = "stratos.messaging.hierarchicalTopics.enabled";
+
+    @Before
+    public void setUp() {
+        System.setProperty(MessagingConstants.MESSAGING_TRANSPORT, MessagingConstants.MQTT);
+        System.setProperty(HIERARCHICAL_TOPICS_ENABLED_PROPERTY, "true");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(MessagingConstants.MESSAGING_TRANSPORT);
+        System.clearProperty(HIERARCHICAL_TOPICS_ENABLED_PROPERTY);
+    }
+
+    @Test
+    public void testSubTopicName() {
+        MemberActivatedEvent memberActivatedEvent = new MemberActivatedEvent("php", "app1.php1.php.domain",
+                "instance-1", "member-1", "network-partition-1", "partition-1");
+        String topicName = MessagingUtil.getMessageSubTopicName(memberActivatedEvent);
+        assertEquals("topology/MemberActivatedEvent/php/app1_php1_php_domain/network-partition-1", topicName);
+        assertEquals(MemberActivatedEvent.class.getName(), MessagingUtil.getEventClassNameForTopic(topicName));
+
+        assertEquals("topology/ServiceRemovedEvent/php",
+                MessagingUtil.getMessageSubTopicName(new ServiceRemovedEvent("php")));
+        assertEquals("topology/CompleteTopologyEvent",
+                MessagingUtil.getMessageSubTopicName(new CompleteTopologyEvent(null)));
+
+        System.clearProperty(HIERARCHICAL_TOPICS_ENABLED_PROPERTY);
+        assertEquals("topology/MemberActivatedEvent", MessagingUtil.getMessageSubTopicName(memberActivatedEvent));
+    }
+
+    @Test
+    public void testSubscriptionTopicNames() {
+        List<String> topicNames = MessagingUtil.getTopologySubTopicNames(Arrays.asList("php"),
+                Collections.<String>emptyList(), Arrays.asList("network-partition-1"));
+        assertEquals(Arrays.asList("topology/+", "topology/+/php", "topology/+/php/+",
+                "topology/+/php/+/network-partition-1"), topicNames);
+
+        topicNames = MessagingUtil.getTopologySubTopicNames(null, Arrays.asList("c1.domain", "c2.domain"), null);
+        assertEquals(6, topicNames.size());
+        assertTrue(topicNames.contains("topology/+/+/c1_domain/+"));
+        assertTrue(topicNames.contains("topology/+/+/c2_domain/+"));
+
+        System.setProperty(MessagingConstants.MESSAGING_TRANSPORT, MessagingConstants.AMQP);
+        topicNames = MessagingUtil.getTopologySubTopicNames(Arrays.asList("php"), null, null);
+        assertTrue(topicNames.contains("topology.*.php.*.*"));
+        assertEquals(MemberActivatedEvent.class.getName(),
+                MessagingUtil.getEventClassNameForTopic("topology.MemberActivatedEvent.php.c1_domain.np1"));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.ServiceType;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.topology.ClusterCreatedEvent;
+import org.apache.stratos.messaging.event.topology.ClusterRemovedEvent;
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Shared JSON codec tests.
+ */
+@RunWith(JUnit4.class)
+public class JsonCodecTest {
+
+    @Test
+    public final void testReadLongField() {
+        CompleteTopologyEvent event = createCompleteTopologyEvent(42);
+        String json = JsonCodec.toJson(event);
+        assertEquals(42, JsonCodec.readLongField(json, "revision"));
+        assertEquals(0, JsonCodec.readLongField(json, "unknown"));
+        assertEquals(0, JsonCodec.readLongField(JsonCodec.toJson(createCompleteTopologyEvent(0)), "revision"));
+    }
+
+    @Test
+    public final void testReadStringFields() {
+        String json = JsonCodec.toJson(new ClusterRemovedEvent("service1", "cluster1", "policy1", false));
+        String[] fields = JsonCodec.readStringFields(json, "clusterId", "serviceName", "cluster.clusterId");
+        assertArrayEquals(new String[]{"cluster1", "service1", null}, fields);
+
+        json = JsonCodec.toJson(new ClusterCreatedEvent(new Cluster("service2", "cluster2", "policy1", "policy2",
+                "app1")));
+        fields = JsonCodec.readStringFields(json, "clusterId", "cluster.serviceName", "cluster.clusterId");
+        assertArrayEquals(new String[]{null, "service2", "cluster2"}, fields);
+    }
+
+    @Test
+    public final void testParseFromMessagePayload() {
+        CompleteTopologyEvent event = createCompleteTopologyEvent(7);
+        byte[] payload = JsonCodec.toJson(event).getBytes(Charset.defaultCharset());
+        Message message = new Message(MessagingUtil.getMessageTopicName(event), payload);
+        assertEquals(CompleteTopologyEvent.class.getName(), message.getEventClassName());
+
+        CompleteTopologyEvent receivedEvent = JsonCodec.fromJson(message.getReader(), CompleteTopologyEvent.class);
+        assertEquals(7, receivedEvent.getRevision());
+        assertNotNull(receivedEvent.getTopology().getService("service1"));
+
+        // Message text is decoded on demand
+        CompleteTopologyEvent parsedEvent = (CompleteTopologyEvent) MessagingUtil.jsonToObject(message.getText(),
+                CompleteTopologyEvent.class);
+        assertEquals(7, parsedEvent.getRevision());
+    }
+
+    private static CompleteTopologyEvent createCompleteTopologyEvent(long revision) {
+        Topology topology = new Topology();
+        topology.addService(new Service("service1", ServiceType.SingleTenant));
+        CompleteTopologyEvent event = new CompleteTopologyEvent(topology);
+        event.setRevision(revision);
+        return event;
+    }
+}
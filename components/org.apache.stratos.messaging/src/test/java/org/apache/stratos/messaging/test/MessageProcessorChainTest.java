@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
+import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Message processor chain dispatch and statistics tests.
+ */
+@RunWith(JUnit4.class)
+public class MessageProcessorChainTest {
+
+    @Test
+    public void testDispatch() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+        assertTrue(chain.process("event2", "message", null));
+        assertTrue(chain.process("event2", "message", null));
+        assertFalse(chain.process("event1", "message", null));
+
+        // Messages are handed directly to their processors
+        assertEquals(2, chain.processor2.processedTypes.size());
+        assertEquals(1, chain.processor1.processedTypes.size());
+        assertEquals(0, chain.processor1.delegatedCount);
+
+        MessageProcessingStatistics statistics = chain.getStatistics().get("event2");
+        assertEquals(2, statistics.getProcessedCount());
+        assertEquals(0, statistics.getRejectedCount());
+        assertEquals(1, chain.getStatistics().get("event1").getRejectedCount());
+    }
+
+    @Test
+    public void testUnknownEventType() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+        try {
+            chain.process("event3", "message", null);
+            fail("Unknown event type was processed");
+        } catch (RuntimeException ignore) {
+        }
+        // Unknown event types are delegated to the head of the chain
+        assertEquals(1, chain.processor1.delegatedCount);
+        assertEquals(1, chain.getStatistics().get("event3").getRejectedCount());
+    }
+
+    private static class TestMessageProcessorChain extends MessageProcessorChain {
+
+        private TestMessageProcessor processor1;
+        private TestMessageProcessor processor2;
+
+        @Override
+        protected void initialize() {
+            processor1 = new TestMessageProcessor("event1", false);
+            add(processor1);
+            processor2 = new TestMessageProcessor("event2", true);
+            add(processor2);
+        }
+
+        @Override
+        public void addEventListener(EventListener eventListener) {
+        }
+
+        @Override
+        public void removeEventListener(EventListener eventListener) {
+        }
+    }
+
+    private static class TestMessageProcessor extends MessageProcessor {
+
+        private final String eventClassName;
+        private final boolean result;
+        private final List<String> processedTypes = new ArrayList<String>();
+        private MessageProcessor nextProcessor;
+        private int delegatedCount;
+
+        private TestMessageProcessor(String eventClassName, boolean result) {
+            this.eventClassName = eventClassName;
+            this.result = result;
+        }
+
+        @Override
+        public void setNext(MessageProcessor nextProcessor) {
+            this.nextProcessor = nextProcessor;
+        }
+
+        @Override
+        public String getEventClassName() {
+            return eventClassName;
+        }
+
+        @Override
+        public boolean process(String type, String message, Object object) {
+            if (eventClassName.equals(type)) {
+                processedTypes.add(type);
+                return result;
+            }
+            delegatedCount++;
+            if (nextProcessor != null) {
+                return nextProcessor.process(type, message, object);
+            }
+            throw new RuntimeException(String.format("Failed to process message: [type] %s", type));
+        }
+    }
+}
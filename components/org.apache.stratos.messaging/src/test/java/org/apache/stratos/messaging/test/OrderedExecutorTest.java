@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.message.receiver.OrderedExecutor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ordered executor tests.
+ */
+@RunWith(JUnit4.class)
+public class OrderedExecutorTest {
+
+    /**
+     * Test whether tasks of the same key are executed in the order they were submitted.
+     */
+    @Test
+    public void testOrderPerKey() {
+        OrderedExecutor executor = new OrderedExecutor("ordered.executor.test.order", 4);
+        final Map<String, List<Integer>> executedTasks = new HashMap<String, List<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            executedTasks.put("cluster-" + i, Collections.synchronizedList(new ArrayList<Integer>()));
+        }
+
+        for (int sequence = 0; sequence < 1000; sequence++) {
+            for (int i = 0; i < 10; i++) {
+                final List<Integer> tasks = executedTasks.get("cluster-" + i);
+                final int value = sequence;
+                executor.execute("cluster-" + i, new Runnable() {
+                    @Override
+                    public void run() {
+                        tasks.add(value);
+                    }
+                });
+            }
+        }
+        executor.awaitIdle();
+
+        for (Map.Entry<String, List<Integer>> entry : executedTasks.entrySet()) {
+            List<Integer> tasks = entry.getValue();
+            assertEquals(1000, tasks.size());
+            for (int sequence = 0; sequence < 1000; sequence++) {
+                assertEquals("Task executed out of order: " + entry.getKey(), sequence, (int) tasks.get(sequence));
+            }
+        }
+        executor.terminate();
+    }
+
+    /**
+     * Test whether a slow key does not block other keys and whether queue depths are reported.
+     */
+    @Test
+    public void testIndependentKeys() throws Exception {
+        OrderedExecutor executor = new OrderedExecutor("ordered.executor.test.independent", 2);
+        String blockedKey = "a";
+        String otherKey = "b";
+        assertTrue("Keys are expected in different shards",
+                (blockedKey.hashCode() % 2) != (otherKey.hashCode() % 2));
+
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch otherLatch = new CountDownLatch(1);
+        executor.execute(blockedKey, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        });
+        executor.execute(blockedKey, new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        executor.execute(otherKey, new Runnable() {
+            @Override
+            public void run() {
+                otherLatch.countDown();
+            }
+        });
+
+        assertTrue("Task was blocked by another key", otherLatch.await(10, TimeUnit.SECONDS));
+        int[] queueDepths = executor.getQueueDepths();
+        assertEquals(2, queueDepths.length);
+        assertEquals(1, queueDepths[blockedKey.hashCode() % 2]);
+
+        blockLatch.countDown();
+        executor.awaitIdle();
+        assertEquals(0, executor.getQueueDepths()[blockedKey.hashCode() % 2]);
+        executor.terminate();
+    }
+
+    /**
+     * Test whether tasks without a key are executed after all submitted tasks.
+     */
+    @Test
+    public void testExclusiveTask() {
+        OrderedExecutor executor = new OrderedExecutor("ordered.executor.test.exclusive", 4);
+        final AtomicInteger executedCount = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            executor.execute("cluster-" + i, new Runnable() {
+                @Override
+                public void run() {
+                    executedCount.incrementAndGet();
+                }
+            });
+        }
+
+        final int[] countSeen = new int[1];
+        executor.execute(null, new Runnable() {
+            @Override
+            public void run() {
+                countSeen[0] = executedCount.get();
+            }
+        });
+        assertEquals(100, countSeen[0]);
+        executor.terminate();
+    }
+}
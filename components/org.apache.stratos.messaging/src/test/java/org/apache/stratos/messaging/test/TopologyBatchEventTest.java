@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.event.topology.MemberActivatedEvent;
+import org.apache.stratos.messaging.event.topology.ServiceRemovedEvent;
+import org.apache.stratos.messaging.event.topology.TopologyBatchEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Topology batch event tests.
+ */
+@RunWith(JUnit4.class)
+public class TopologyBatchEventTest {
+
+    @Test
+    public final void testBatchEventJsonConversion() {
+        MemberActivatedEvent memberActivatedEvent = new MemberActivatedEvent("service1", "cluster1",
+                "cluster-instance1", "member1", "network-partition1", "partition1");
+        ServiceRemovedEvent serviceRemovedEvent = new ServiceRemovedEvent("service2");
+
+        TopologyBatchEvent batchEvent = new TopologyBatchEvent();
+        batchEvent.addEventMessage(MemberActivatedEvent.class.getName(),
+                MessagingUtil.ObjectToJson(memberActivatedEvent));
+        batchEvent.addEventMessage(ServiceRemovedEvent.class.getName(),
+                MessagingUtil.ObjectToJson(serviceRemovedEvent));
+
+        String json = MessagingUtil.ObjectToJson(batchEvent);
+        TopologyBatchEvent receivedEvent = (TopologyBatchEvent) MessagingUtil.jsonToObject(json,
+                TopologyBatchEvent.class);
+
+        List<TopologyBatchEvent.EventMessage> eventMessages = receivedEvent.getEventMessages();
+        assertEquals(2, eventMessages.size());
+        assertEquals(MemberActivatedEvent.class.getName(), eventMessages.get(0).getEventClassName());
+        assertEquals(ServiceRemovedEvent.class.getName(), eventMessages.get(1).getEventClassName());
+
+        MemberActivatedEvent receivedMemberActivatedEvent = (MemberActivatedEvent) MessagingUtil.jsonToObject(
+                eventMessages.get(0).getJson(), MemberActivatedEvent.class);
+        assertEquals("member1", receivedMemberActivatedEvent.getMemberId());
+        assertEquals("cluster1", receivedMemberActivatedEvent.getClusterId());
+
+        ServiceRemovedEvent receivedServiceRemovedEvent = (ServiceRemovedEvent) MessagingUtil.jsonToObject(
+                eventMessages.get(1).getJson(), ServiceRemovedEvent.class);
+        assertEquals("service2", receivedServiceRemovedEvent.getServiceName());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.domain.LoadBalancingIPType;
+import org.apache.stratos.common.serialization.CompactBinarySerializer;
+import org.apache.stratos.common.serialization.JavaSerializer;
+import org.apache.stratos.common.serialization.Serializer;
+import org.apache.stratos.messaging.domain.topology.*;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the size and the serialization time of a topology with 5000 members
+ * written using java serialization and compact binary serialization. The timing
+ * only runs when -Dstratos.benchmark=true is set.
+ */
+@RunWith(JUnit4.class)
+public class TopologySerializationBenchmarkTest {
+
+    private static final Log log = LogFactory.getLog(TopologySerializationBenchmarkTest.class);
+
+    private static final int SERVICE_COUNT = 10;
+    private static final int CLUSTERS_PER_SERVICE = 10;
+    private static final int MEMBERS_PER_CLUSTER = 50;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 10;
+
+    @Test
+    public void testTopologySerialization() throws Exception {
+        Topology topology = createTopology();
+        Serializer javaSerializer = new JavaSerializer();
+        Serializer compactSerializer = new CompactBinarySerializer();
+
+        byte[] compactBytes = compactSerializer.serialize(topology);
+        assertTrue("Compact binary topology is larger than java serialized topology",
+                compactBytes.length < javaSerializer.serialize(topology).length);
+
+        Topology copy = (Topology) compactSerializer.deserialize(compactBytes, getClass().getClassLoader());
+        assertEquals(SERVICE_COUNT, copy.getServices().size());
+        Cluster cluster = copy.getCluster("cluster-3-7");
+        assertNotNull(cluster);
+        assertEquals(MEMBERS_PER_CLUSTER, cluster.getMembers().size());
+        Member member = cluster.getMember("member-3-7-21");
+        assertNotNull(member);
+        assertEquals(MemberStatus.Active, member.getStatus());
+        assertEquals("10.3.7.21", member.getDefaultPrivateIP());
+        assertEquals(Arrays.asList("10.3.7.21"), member.getMemberPrivateIPs());
+        assertEquals(8280, member.getPort(80).getValue());
+        assertEquals(LoadBalancingIPType.Private, member.getLoadBalancingIPType());
+    }
+
+    @Test
+    public void testTopologySerializationTime() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("stratos.benchmark"));
+        Topology topology = createTopology();
+
+        long[] javaResult = benchmark(new JavaSerializer(), topology);
+        long[] compactResult = benchmark(new CompactBinarySerializer(), topology);
+        log.info(String.format("Topology serialization: [members] %d [serializer] java [bytes] %d " +
+                        "[serialize-ms] %d [deserialize-ms] %d", SERVICE_COUNT * CLUSTERS_PER_SERVICE *
+                        MEMBERS_PER_CLUSTER, javaResult[0], javaResult[1], javaResult[2]));
+        log.info(String.format("Topology serialization: [members] %d [serializer] compact [bytes] %d " +
+                        "[serialize-ms] %d [deserialize-ms] %d", SERVICE_COUNT * CLUSTERS_PER_SERVICE *
+                        MEMBERS_PER_CLUSTER, compactResult[0], compactResult[1], compactResult[2]));
+    }
+
+    /**
+     * Returns serialized size in bytes and average serialize and deserialize times in milliseconds.
+     */
+    private long[] benchmark(Serializer serializer, Topology topology) throws Exception {
+        byte[] bytes = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            bytes = serializer.serialize(topology);
+            serializer.deserialize(bytes, getClass().getClassLoader());
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = serializer.serialize(topology);
+        }
+        long serializeTime = (System.nanoTime() - startTime) / ITERATIONS / 1000000;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes, getClass().getClassLoader());
+        }
+        long deserializeTime = (System.nanoTime() - startTime) / ITERATIONS / 1000000;
+        return new long[]{bytes.length, serializeTime, deserializeTime};
+    }
+
+    private static Topology createTopology() {
+        Topology topology = new Topology();
+        for (int s = 0; s < SERVICE_COUNT; s++) {
+            Service service = new Service("service-" + s, ServiceType.SingleTenant);
+            service.addPort(new Port("http", 8280, 80));
+            for (int c = 0; c < CLUSTERS_PER_SERVICE; c++) {
+                String clusterId = "cluster-" + s + "-" + c;
+                Cluster cluster = new Cluster(service.getServiceName(), clusterId, "deployment-policy-1",
+                        "autoscaling-policy-1", "application-" + s);
+                cluster.addHostName(clusterId + ".stratos.org");
+                for (int m = 0; m < MEMBERS_PER_CLUSTER; m++) {
+                    Member member = new Member(service.getServiceName(), clusterId, "member-" + s + "-" + c + "-" + m,
+                            clusterId + "-1", "network-partition-1", "partition-1", LoadBalancingIPType.Private,
+                            System.currentTimeMillis());
+                    String ip = "10." + s + "." + c + "." + m;
+                    member.setDefaultPrivateIP(ip);
+                    member.setMemberPrivateIPs(Arrays.asList(ip));
+                    member.addPort(new Port("http", 8280, 80));
+                    member.setStatus(MemberStatus.Initialized);
+                    member.setStatus(MemberStatus.Active);
+                    cluster.addMember(member);
+                }
+                service.addCluster(cluster);
+                topology.addToCluterMap(cluster);
+            }
+            topology.addService(service);
+        }
+        return topology;
+    }
+}
@@ -17,6 +17,7 @@
 
 from Queue import Queue
 
+import json
 import threading
 import paho.mqtt.client as mqtt
 
@@ -193,19 +194,66 @@ class EventExecutor(threading.Thread):
         EventSubscriber.log.debug("Starting an EventExecutor")
         while True:
             event_msg = self.__event_queue.get()
-            event = event_msg.topic.rpartition('/')[2]
-            if event in self.__event_handlers:
-                handler = self.__event_handlers[event]
-                try:
-                    EventSubscriber.log.debug("Executing handler for event %r" % event)
-                    handler(event_msg)
-                except Exception as err:
-                    EventSubscriber.log.exception("Error processing %r event: %s" % (event, err))
+            event = EventExecutor.get_event_name(event_msg.topic)
+            if event == "TopologyBatchEvent":
+                self.execute_batch(event_msg)
             else:
-                EventSubscriber.log.debug("Event handler not found for event : %r" % event)
+                self.execute(event, event_msg)
+
+    def execute(self, event, event_msg):
+        if event in self.__event_handlers:
+            handler = self.__event_handlers[event]
+            try:
+                EventSubscriber.log.debug("Executing handler for event %r" % event)
+                handler(event_msg)
+            except Exception as err:
+                EventSubscriber.log.exception("Error processing %r event: %s" % (event, err))
+        else:
+            EventSubscriber.log.debug("Event handler not found for event : %r" % event)
+
+    def execute_batch(self, batch_msg):
+        """
+        Executes the event handlers of the events carried by a topology batch event, in the order
+        the events were published
+        :param batch_msg: topology batch event message
+        :return: void
+        """
+        try:
+            event_messages = json.loads(batch_msg.payload)["eventMessages"]
+        except Exception as err:
+            EventSubscriber.log.exception("Error reading topology batch event: %s" % err)
+            return
+
+        for event_message in event_messages:
+            event = event_message["eventClassName"].rpartition('.')[2]
+            self.execute(event, BatchedEventMessage(batch_msg.topic, event_message["json"]))
+
+    @staticmethod
+    def get_event_name(topic):
+        """
+        Returns the event name of the topic. Hierarchical topics carry topic levels after the event name,
+        e.g. topology/MemberActivatedEvent/php/php1_php_domain/network-partition-1
+        :param str topic: topic of the message
+        :return: event name
+        :rtype: str
+        """
+        for level in topic.split('/'):
+            if level[:1].isupper():
+                return level
+        return topic.rpartition('/')[2]
 
     def register_event_handler(self, event, handler):
         self.__event_handlers[event] = handler
 
     def terminate(self):
         self.terminate()
+
+
+class BatchedEventMessage(object):
+    """
+    Message of an event carried by a topology batch event, providing the topic and payload of the
+    batch message to event handlers
+    """
+    def __init__(self, topic, payload):
+        self.topic = topic
+        self.payload = payload
@@ -419,6 +419,8 @@ public class ObjectConverter {
         autoscalePolicy.setId(autoscalePolicyBean.getId());
         autoscalePolicy.setDescription(autoscalePolicyBean.getDescription());
         autoscalePolicy.setDisplayName(autoscalePolicyBean.getDisplayName());
+        autoscalePolicy.setScalingDecisionEngine(autoscalePolicyBean.getScalingDecisionEngine());
+        autoscalePolicy.setForecastingModel(autoscalePolicyBean.getForecastingModel());
 
         if (autoscalePolicyBean.getLoadThresholds() != null) {
 
@@ -444,6 +446,12 @@ public class ObjectConverter {
                         autoscalePolicyBean.getLoadThresholds().
                                 getMemoryConsumption().getThreshold());
             }
+            if (autoscalePolicyBean.getLoadThresholds().getRequestLatency() != null) {
+
+                //set request latency information
+                loadThresholds.setRequestLatencyThreshold(
+                        autoscalePolicyBean.getLoadThresholds().getRequestLatency().getThreshold());
+            }
 
             autoscalePolicy.setLoadThresholds(loadThresholds);
         }
@@ -875,6 +883,8 @@ public class ObjectConverter {
         autoscalePolicyBean.setDescription(autoscalePolicy.getDescription());
         autoscalePolicyBean.setDisplayName(autoscalePolicy.getDisplayName());
         autoscalePolicyBean.setDescription(autoscalePolicy.getDescription());
+        autoscalePolicyBean.setScalingDecisionEngine(autoscalePolicy.getScalingDecisionEngine());
+        autoscalePolicyBean.setForecastingModel(autoscalePolicy.getForecastingModel());
         if (autoscalePolicy.getLoadThresholds() != null) {
             autoscalePolicyBean.setLoadThresholds(convertStubLoadThresholdsToLoadThresholds(
                     autoscalePolicy.getLoadThresholds()));
@@ -902,6 +912,11 @@ public class ObjectConverter {
             requestsInFlight.setThreshold(loadThresholds.getRequestsInFlightThreshold());
             loadThresholdBean.setRequestsInFlight(requestsInFlight);
         }
+        if (loadThresholds.getRequestLatencyThreshold() != 0) {
+            RequestLatencyThresholdsBean requestLatency = new RequestLatencyThresholdsBean();
+            requestLatency.setThreshold(loadThresholds.getRequestLatencyThreshold());
+            loadThresholdBean.setRequestLatency(requestLatency);
+        }
 
         return loadThresholdBean;
     }
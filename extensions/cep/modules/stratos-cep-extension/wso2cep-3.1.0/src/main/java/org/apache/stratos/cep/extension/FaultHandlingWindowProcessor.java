@@ -17,6 +17,7 @@ import org.apache.log4j.Logger;
 import org.apache.stratos.messaging.broker.publish.EventPublisher;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.domain.topology.*;
+import org.apache.stratos.messaging.domain.topology.snapshot.MemberSnapshot;
 import org.apache.stratos.messaging.event.health.stat.MemberFaultEvent;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 import org.apache.stratos.messaging.util.MessagingUtil;
@@ -107,7 +108,7 @@ public class FaultHandlingWindowProcessor extends WindowProcessor implements Run
         //sometimes there can be a delay between publishing member terminated events
         //and actually terminating instances. Hence CEP might get events for already terminated members
         //so we are checking the topology for the member existence
-        Member member = getMemberFromId(id);
+        MemberSnapshot member = getMemberFromId(id);
         if (null == member) {
             log.warn("Member not found in the topology. Event rejected");
             return;
@@ -171,40 +172,18 @@ public class FaultHandlingWindowProcessor extends WindowProcessor implements Run
         return true;
     }
 
-    private Member getMemberFromId(String memberId) {
+    private MemberSnapshot getMemberFromId(String memberId) {
         if (StringUtils.isEmpty(memberId)) {
             return null;
         }
         if (TopologyManager.isInitialized()) {
-            try {
-                TopologyManager.acquireReadLock();
-                if (TopologyManager.getTopology().getServices() == null) {
-                    return null;
-                }
-                // TODO make this efficient by adding APIs to messaging component
-                for (Service service : TopologyManager.getTopology().getServices()) {
-                    if (service.getClusters() != null) {
-                        for (Cluster cluster : service.getClusters()) {
-                            if (cluster.getMembers() != null) {
-                                for (Member member : cluster.getMembers()) {
-                                    if (memberId.equals(member.getMemberId())) {
-                                        return member;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error while reading topology" + e);
-            } finally {
-                TopologyManager.releaseReadLock();
-            }
+            // Topology snapshots are read without acquiring topology locks
+            return TopologyManager.getTopologySnapshot().findMember(memberId);
         }
         return null;
     }
 
-    private void publishMemberFault(Member member) {
+    private void publishMemberFault(MemberSnapshot member) {
         if (member == null) {
             log.warn("Failed to publish member fault event. Member object is null");
             return;
@@ -241,7 +220,7 @@ public class FaultHandlingWindowProcessor extends WindowProcessor implements Run
 
                 if ((currentTime - eventTimeStamp) > TIME_OUT) {
                     String memberId = (String) pair.getKey();
-                    Member member = getMemberFromId(memberId);
+                    MemberSnapshot member = getMemberFromId(memberId);
                     if (member != null) {
                         log.info("Faulty member detected [member-id] " + pair.getKey() + " with [last time-stamp] " +
                                 eventTimeStamp + " [time-out] " + TIME_OUT + " milliseconds");
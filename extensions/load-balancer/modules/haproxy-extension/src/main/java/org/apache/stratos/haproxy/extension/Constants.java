@@ -30,6 +30,7 @@ public class Constants {
     public static final String SCRIPTS_PATH = "scripts.path";
     public static final String CONF_FILE_PATH = "conf.file.path";
     public static final String STATS_SOCKET_FILE_PATH = "stats.socket.file.path";
+    public static final String STATS_SOCKET_ADDRESS = "stats.socket.address";
     public static final String CEP_STATS_PUBLISHER_ENABLED = "cep.stats.publisher.enabled";
     public static final String THRIFT_RECEIVER_IP = "thrift.receiver.ip";
     public static final String THRIFT_RECEIVER_PORT = "thrift.receiver.port";
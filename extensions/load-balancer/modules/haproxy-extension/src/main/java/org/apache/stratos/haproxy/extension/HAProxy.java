@@ -22,7 +22,7 @@ package org.apache.stratos.haproxy.extension;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.util.CommandUtils;
-import org.apache.stratos.load.balancer.extension.api.LoadBalancer;
+import org.apache.stratos.load.balancer.extension.api.FileBasedLoadBalancer;
 import org.apache.stratos.load.balancer.extension.api.exception.LoadBalancerExtensionException;
 import org.apache.stratos.load.balancer.common.domain.Topology;
 
@@ -34,7 +34,7 @@ import java.util.Vector;
 /**
  * HAProxy load balancer life-cycle implementation.
  */
-public class HAProxy implements LoadBalancer {
+public class HAProxy implements FileBasedLoadBalancer {
 
     private static final Log log = LogFactory.getLog(HAProxy.class);
 
@@ -155,4 +155,13 @@ public class HAProxy implements LoadBalancer {
             }
         }
     }
+
+    /**
+     * Returns the path of the configuration file written in configure() method.
+     * @return configuration file path
+     */
+    @Override
+    public String getConfigurationFilePath() {
+        return confFilePath;
+    }
 }
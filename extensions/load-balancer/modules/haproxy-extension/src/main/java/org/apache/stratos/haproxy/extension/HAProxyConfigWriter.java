@@ -19,6 +19,7 @@
 
 package org.apache.stratos.haproxy.extension;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.load.balancer.common.domain.*;
@@ -60,6 +61,11 @@ public class HAProxyConfigWriter {
         StringBuilder globalParameters = new StringBuilder();
         globalParameters.append("stats socket ");
         globalParameters.append(statsSocketFilePath);
+        String statsSocketAddress = HAProxyContext.getInstance().getStatsSocketAddress();
+        if (StringUtils.isNotBlank(statsSocketAddress)) {
+            // TCP stats socket used by the statistics reader
+            globalParameters.append(NEW_LINE).append("    stats socket ipv4@").append(statsSocketAddress);
+        }
 
         StringBuilder frontendCollection = new StringBuilder();
         StringBuilder backendCollection = new StringBuilder();
@@ -129,7 +135,7 @@ public class HAProxyConfigWriter {
             frontendCollection.append("\tmode ").append(protocol).append(NEW_LINE);
 
             for (String hostname : cluster.getHostNames()) {
-                String backendId = hostname + "_" + protocol + "_" + port.getValue() + "_backend";
+                String backendId = getBackendId(hostname, protocol, port.getValue());
 
                 frontendCollection.append("\tacl ").append("is_").append(hostname).append(" hdr_beg(host) -i ")
                         .append(hostname).append(NEW_LINE);
@@ -149,4 +155,16 @@ public class HAProxyConfigWriter {
             }
         }
     }
+
+    /**
+     * Returns the backend id generated for the given hostname and port.
+     *
+     * @param hostname cluster hostname
+     * @param protocol port protocol
+     * @param port     member port
+     * @return backend id
+     */
+    static String getBackendId(String hostname, String protocol, int port) {
+        return hostname + "_" + protocol + "_" + port + "_backend";
+    }
 }
@@ -37,6 +37,7 @@ public class HAProxyContext {
     private String scriptsPath;
     private String confFilePath;
     private String statsSocketFilePath;
+    private String statsSocketAddress;
     private boolean cepStatsPublisherEnabled;
     private String thriftReceiverIp;
     private String thriftReceiverPort;
@@ -52,6 +53,7 @@ public class HAProxyContext {
         this.scriptsPath = System.getProperty(Constants.SCRIPTS_PATH);
         this.confFilePath = System.getProperty(Constants.CONF_FILE_PATH);
         this.statsSocketFilePath = System.getProperty(Constants.STATS_SOCKET_FILE_PATH);
+        this.statsSocketAddress = System.getProperty(Constants.STATS_SOCKET_ADDRESS);
         this.cepStatsPublisherEnabled = Boolean.getBoolean(Constants.CEP_STATS_PUBLISHER_ENABLED);
         this.thriftReceiverIp = System.getProperty(Constants.THRIFT_RECEIVER_IP);
         this.thriftReceiverPort = System.getProperty(Constants.THRIFT_RECEIVER_PORT);
@@ -67,6 +69,7 @@ public class HAProxyContext {
             log.debug(Constants.SCRIPTS_PATH + " = " + scriptsPath);
             log.debug(Constants.CONF_FILE_PATH + " = " + confFilePath);
             log.debug(Constants.STATS_SOCKET_FILE_PATH + " = " + statsSocketFilePath);
+            log.debug(Constants.STATS_SOCKET_ADDRESS + " = " + statsSocketAddress);
             log.debug(Constants.CEP_STATS_PUBLISHER_ENABLED + " = " + cepStatsPublisherEnabled);
             log.debug(Constants.THRIFT_RECEIVER_IP + " = " + thriftReceiverIp);
             log.debug(Constants.THRIFT_RECEIVER_PORT + " = " + thriftReceiverPort);
@@ -139,6 +142,14 @@ public class HAProxyContext {
         return statsSocketFilePath;
     }
 
+    /**
+     * Returns the TCP address of the stats socket in host:port format, null if
+     * only the UNIX stats socket is enabled.
+     */
+    public String getStatsSocketAddress() {
+        return statsSocketAddress;
+    }
+
     public boolean isCEPStatsPublisherEnabled() {
         return cepStatsPublisherEnabled;
     }
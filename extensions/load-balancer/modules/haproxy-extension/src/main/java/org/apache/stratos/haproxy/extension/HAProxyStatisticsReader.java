@@ -19,6 +19,7 @@
 
 package org.apache.stratos.haproxy.extension;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.constants.StratosConstants;
@@ -30,25 +31,65 @@ import org.apache.stratos.load.balancer.common.domain.Service;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
 import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * HAProxy statistics reader.
+ * HAProxy statistics reader. Statistics of all backends are read using a single "show stat" command
+ * via the stats socket and the current and queued sessions of each backend are added to the
+ * in-flight request count of the cluster the backend belongs to.
  */
 public class HAProxyStatisticsReader implements LoadBalancerStatisticsReader {
 
     private static final Log log = LogFactory.getLog(HAProxyStatisticsReader.class);
 
+    private static final String SHOW_STAT_COMMAND = "show stat";
+    private static final String BACKEND = "BACKEND";
+    private static final int SOCKET_TIMEOUT = 5000;
+    /* Statistics are reused within this period so that the in-flight request counts of all
+       clusters are found using a single command in each statistics notifier cycle */
+    private static final long STATISTICS_CACHE_TIMEOUT = 1000;
+
     private String scriptsPath;
     private String statsSocketFilePath;
+    private InetSocketAddress statsSocketAddress;
     private TopologyProvider topologyProvider;
     private String clusterInstanceId;
 
+    private Map<String, String> backendIdToClusterIdMap;
+    private Map<String, Integer> clusterIdToInFlightRequestCountMap;
+    private long statisticsReadTime;
+
     public HAProxyStatisticsReader(TopologyProvider topologyProvider) {
-        this.scriptsPath = HAProxyContext.getInstance().getScriptsPath();
-        this.statsSocketFilePath = HAProxyContext.getInstance().getStatsSocketFilePath();
+        this(topologyProvider, HAProxyContext.getInstance().getScriptsPath(),
+                HAProxyContext.getInstance().getStatsSocketFilePath(),
+                HAProxyContext.getInstance().getStatsSocketAddress());
+    }
+
+    /**
+     * @param topologyProvider    topology provider used for mapping backends to clusters
+     * @param scriptsPath         path of the get-stats.sh script used with the UNIX stats socket
+     * @param statsSocketFilePath UNIX stats socket file path
+     * @param statsSocketAddress  TCP stats socket address in host:port format, null if not enabled
+     */
+    HAProxyStatisticsReader(TopologyProvider topologyProvider, String scriptsPath, String statsSocketFilePath,
+                            String statsSocketAddress) {
+        this.scriptsPath = scriptsPath;
+        this.statsSocketFilePath = statsSocketFilePath;
+        this.statsSocketAddress = parseSocketAddress(statsSocketAddress);
         this.topologyProvider = topologyProvider;
         this.clusterInstanceId = System.getProperty(StratosConstants.CLUSTER_INSTANCE_ID, StratosConstants.NOT_DEFINED);
+        this.backendIdToClusterIdMap = new HashMap<String, String>();
+        this.clusterIdToInFlightRequestCountMap = Collections.emptyMap();
     }
 
     @Override
@@ -58,51 +99,194 @@ public class HAProxyStatisticsReader implements LoadBalancerStatisticsReader {
 
     @Override
     public int getInFlightRequestCount(String clusterId) {
-        String frontendId, backendId, command, output;
-        String[] array;
-        int totalWeight, weight;
+        Integer count = getInFlightRequestCounts().get(clusterId);
+        int inFlightRequestCount = (count == null) ? 0 : count;
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Cluster in-flight request count found: [cluster] %s [count] %d", clusterId,
+                    inFlightRequestCount));
+        }
+        return inFlightRequestCount;
+    }
+
+    private synchronized Map<String, Integer> getInFlightRequestCounts() {
+        long currentTime = System.currentTimeMillis();
+        if ((currentTime - statisticsReadTime) < STATISTICS_CACHE_TIMEOUT) {
+            return clusterIdToInFlightRequestCountMap;
+        }
+
+        Reader reader = null;
+        try {
+            reader = readStatistics();
+            clusterIdToInFlightRequestCountMap = calculateInFlightRequestCounts(new BufferedReader(reader));
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Could not read haproxy statistics", e);
+            }
+            clusterIdToInFlightRequestCountMap = Collections.emptyMap();
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+        statisticsReadTime = currentTime;
+        return clusterIdToInFlightRequestCountMap;
+    }
 
+    /**
+     * Execute show stat command via the TCP stats socket if it is enabled, otherwise via the UNIX
+     * stats socket using socat since UNIX sockets cannot be accessed directly from java.
+     *
+     * @return reader for the statistics in CSV format
+     * @throws IOException if the statistics could not be read
+     */
+    private Reader readStatistics() throws IOException {
+        if (statsSocketAddress != null) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(statsSocketAddress, SOCKET_TIMEOUT);
+                socket.setSoTimeout(SOCKET_TIMEOUT);
+                OutputStream outputStream = socket.getOutputStream();
+                outputStream.write((SHOW_STAT_COMMAND + "\n").getBytes("UTF-8"));
+                outputStream.flush();
+                // HAProxy closes the connection once the response is written
+                return new SocketReader(socket);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        // echo "show stat" | socat stdio <stats-socket>
+        String command = String.format("%s/get-stats.sh %s", scriptsPath, statsSocketFilePath);
+        String output = CommandUtils.executeCommand(command);
+        return new StringReader((output == null) ? "" : output);
+    }
+
+    /**
+     * Parse statistics in CSV format and calculate in-flight request count of each cluster.
+     *
+     * @param reader statistics reader
+     * @return cluster id to in-flight request count map
+     * @throws IOException if the statistics could not be read
+     */
+    private Map<String, Integer> calculateInFlightRequestCounts(BufferedReader reader) throws IOException {
+        // Header: # pxname,svname,qcur,qmax,scur,smax,...
+        String header = reader.readLine();
+        if ((header == null) || !header.startsWith("#")) {
+            throw new IOException(String.format("Invalid haproxy statistics header: %s", header));
+        }
+        String[] columns = header.substring(1).trim().split(",");
+        int backendIdIndex = indexOf(columns, "pxname");
+        int serverIdIndex = indexOf(columns, "svname");
+        int queuedIndex = indexOf(columns, "qcur");
+        int sessionsIndex = indexOf(columns, "scur");
+
+        Map<String, Integer> backendIdToCountMap = new HashMap<String, Integer>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] values = line.split(",", -1);
+            if ((values.length <= sessionsIndex) || !BACKEND.equals(values[serverIdIndex])) {
+                continue;
+            }
+            backendIdToCountMap.put(values[backendIdIndex],
+                    parseInt(values[sessionsIndex]) + parseInt(values[queuedIndex]));
+        }
+
+        if (!backendIdToClusterIdMap.keySet().containsAll(backendIdToCountMap.keySet())) {
+            // Haproxy has been reconfigured since the backend mapping was created
+            backendIdToClusterIdMap = createBackendIdToClusterIdMap();
+        }
+
+        Map<String, Integer> clusterIdToCountMap = new HashMap<String, Integer>();
+        for (Map.Entry<String, Integer> entry : backendIdToCountMap.entrySet()) {
+            String clusterId = backendIdToClusterIdMap.get(entry.getKey());
+            if (clusterId == null) {
+                continue;
+            }
+            Integer count = clusterIdToCountMap.get(clusterId);
+            clusterIdToCountMap.put(clusterId, ((count == null) ? 0 : count) + entry.getValue());
+        }
+        return clusterIdToCountMap;
+    }
+
+    /**
+     * Create backend id to cluster id map using the topology in the same way backends are
+     * generated by the haproxy configuration writer.
+     *
+     * @return backend id to cluster id map
+     */
+    private Map<String, String> createBackendIdToClusterIdMap() {
+        Map<String, String> backendIdToClusterIdMap = new HashMap<String, String>();
         for (Service service : topologyProvider.getTopology().getServices()) {
             for (Cluster cluster : service.getClusters()) {
-                if (cluster.getClusterId().equals(clusterId)) {
-                    totalWeight = 0;
-                    if ((service.getPorts() == null) || (service.getPorts().size() == 0)) {
-                        throw new RuntimeException(String.format("No ports found in service: %s", service.getServiceName()));
-                    }
-
-                    for (Port port : service.getPorts()) {
-                        for(String hostname : cluster.getHostNames()) {
-                            backendId = hostname+"-http-members";
-                            for (Member member : cluster.getMembers()) {
-                                // echo "get weight <backend>/<server>" | socat stdio <stats-socket>
-                                command = String.format("%s/get-weight.sh %s %s %s", scriptsPath, backendId, member.getMemberId(), statsSocketFilePath);
-                                try {
-                                    output = CommandUtils.executeCommand(command);
-                                    if ((output != null) && (output.length() > 0)) {
-                                        array = output.split(" ");
-                                        if ((array != null) && (array.length > 0)) {
-                                            weight = Integer.parseInt(array[0]);
-                                            if (log.isDebugEnabled()) {
-                                                log.debug(String.format("Member weight found: [cluster] %s [member] %s [weight] %d", member.getClusterId(), member.getMemberId(), weight));
-                                            }
-                                            totalWeight += weight;
-                                        }
-                                    }
-                                } catch (IOException e) {
-                                    if (log.isErrorEnabled()) {
-                                        log.error(e);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    if (log.isInfoEnabled()) {
-                        log.info(String.format("Cluster weight found: [cluster] %s [weight] %d", cluster.getClusterId(), totalWeight));
+                if ((cluster.getMembers() == null) || (cluster.getMembers().size() == 0)) {
+                    continue;
+                }
+                // Backends are created for the ports of the first member
+                Member firstMember = (Member) cluster.getMembers().toArray()[0];
+                for (Object object : firstMember.getPorts()) {
+                    Port port = (Port) object;
+                    for (String hostname : cluster.getHostNames()) {
+                        backendIdToClusterIdMap.put(HAProxyConfigWriter.getBackendId(hostname, port.getProtocol(),
+                                port.getValue()), cluster.getClusterId());
                     }
-                    return totalWeight;
                 }
             }
         }
-        return 0;
+        return backendIdToClusterIdMap;
+    }
+
+    private static int indexOf(String[] columns, String column) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (column.equals(columns[i])) {
+                return i;
+            }
+        }
+        throw new IOException(String.format("Column not found in haproxy statistics: %s", column));
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return StringUtils.isBlank(value) ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static InetSocketAddress parseSocketAddress(String address) {
+        if (StringUtils.isBlank(address)) {
+            return null;
+        }
+        int index = address.lastIndexOf(':');
+        if (index <= 0) {
+            throw new RuntimeException(String.format("Invalid stats socket address, expected host:port: %s",
+                    address));
+        }
+        return new InetSocketAddress(address.substring(0, index), Integer.parseInt(address.substring(index + 1)));
+    }
+
+    /**
+     * Reader which closes the underlying socket on close.
+     */
+    private static class SocketReader extends InputStreamReader {
+
+        private final Socket socket;
+
+        public SocketReader(Socket socket) throws IOException {
+            super(socket.getInputStream(), "UTF-8");
+            this.socket = socket;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                socket.close();
+            }
+        }
     }
 }
@@ -20,4 +20,4 @@
 #
 # --------------------------------------------------------------
 
-echo "get weight $1/$2" | socat stdio $3
\ No newline at end of file
+echo "show stat" | socat stdio $1
\ No newline at end of file
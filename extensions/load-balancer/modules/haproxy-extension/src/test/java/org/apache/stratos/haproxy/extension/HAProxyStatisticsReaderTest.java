@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.stratos.load.balancer.common.domain.Cluster;
+import org.apache.stratos.load.balancer.common.domain.Member;
+import org.apache.stratos.load.balancer.common.domain.Port;
+import org.apache.stratos.load.balancer.common.domain.Service;
+import org.apache.stratos.load.balancer.common.topology.TopologyProvider;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HAProxy statistics reader tests. haproxy-show-stat.csv is the output of the "show stat" command
+ * of a haproxy load balancing a php cluster with two ports and a tomcat cluster, it also contains
+ * the stats backend and a backend of a cluster which has been removed from the topology.
+ */
+@RunWith(JUnit4.class)
+public class HAProxyStatisticsReaderTest {
+
+    private static final String STATISTICS_FILE_NAME = "haproxy-show-stat.csv";
+    private static final String PHP_CLUSTER_ID = "php.cluster1";
+    private static final String TOMCAT_CLUSTER_ID = "tomcat.cluster1";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test whether the current and queued sessions of the backend rows are added to the in-flight
+     * request count of the cluster each backend belongs to when statistics are read via the UNIX
+     * stats socket using the get-stats.sh script.
+     */
+    @Test
+    public void testReadStatisticsViaUnixSocket() throws Exception {
+        HAProxyStatisticsReader statisticsReader = new HAProxyStatisticsReader(createTopologyProvider(),
+                createScriptsPath(), getStatisticsFile().getAbsolutePath(), null);
+
+        // php: http backend 5 current + 2 queued, https backend 3 current + 0 queued
+        Assert.assertEquals(10, statisticsReader.getInFlightRequestCount(PHP_CLUSTER_ID));
+        // tomcat: http backend 4 current + 1 queued
+        Assert.assertEquals(5, statisticsReader.getInFlightRequestCount(TOMCAT_CLUSTER_ID));
+        Assert.assertEquals(0, statisticsReader.getInFlightRequestCount("removed.cluster1"));
+    }
+
+    /**
+     * Test whether the show stat command is sent to the TCP stats socket when its address is given
+     * and the response is parsed in the same way.
+     */
+    @Test
+    public void testReadStatisticsViaTcpSocket() throws Exception {
+        final String statistics = FileUtils.readFileToString(getStatisticsFile(), "UTF-8");
+        final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        final AtomicReference<String> command = new AtomicReference<String>();
+        Thread statsSocketThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Socket socket = null;
+                try {
+                    socket = serverSocket.accept();
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                            "UTF-8"));
+                    command.set(reader.readLine());
+                    OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(statistics.getBytes("UTF-8"));
+                    outputStream.flush();
+                } catch (Exception ignore) {
+                } finally {
+                    IOUtils.closeQuietly(socket);
+                }
+            }
+        });
+        statsSocketThread.start();
+
+        try {
+            HAProxyStatisticsReader statisticsReader = new HAProxyStatisticsReader(createTopologyProvider(),
+                    null, null, "127.0.0.1:" + serverSocket.getLocalPort());
+            Assert.assertEquals(10, statisticsReader.getInFlightRequestCount(PHP_CLUSTER_ID));
+            Assert.assertEquals(5, statisticsReader.getInFlightRequestCount(TOMCAT_CLUSTER_ID));
+            statsSocketThread.join(5000);
+            Assert.assertEquals("show stat", command.get());
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    /**
+     * Test whether the pxname, svname, scur and qcur columns are found using the header instead of
+     * fixed positions, and whether server and frontend rows are ignored.
+     */
+    @Test
+    public void testStatisticsColumnsFoundByHeader() throws Exception {
+        File statisticsFile = temporaryFolder.newFile("reordered-show-stat.csv");
+        FileUtils.writeStringToFile(statisticsFile,
+                "# svname,scur,status,pxname,qcur,\n" +
+                        "FRONTEND,40,OPEN,http_8280_frontend,,\n" +
+                        "php-member1,20,no check,php.stratos.org_http_8280_backend,3,\n" +
+                        "BACKEND,20,UP,php.stratos.org_http_8280_backend,3,\n" +
+                        "BACKEND,8,UP,tomcat.stratos.org_http_8080_backend,,\n", "UTF-8");
+        HAProxyStatisticsReader statisticsReader = new HAProxyStatisticsReader(createTopologyProvider(),
+                createScriptsPath(), statisticsFile.getAbsolutePath(), null);
+
+        Assert.assertEquals(23, statisticsReader.getInFlightRequestCount(PHP_CLUSTER_ID));
+        Assert.assertEquals(8, statisticsReader.getInFlightRequestCount(TOMCAT_CLUSTER_ID));
+    }
+
+    /**
+     * Test whether no in-flight requests are reported if the statistics header is not valid.
+     */
+    @Test
+    public void testInvalidStatisticsHeader() throws Exception {
+        File statisticsFile = temporaryFolder.newFile("invalid-show-stat.csv");
+        FileUtils.writeStringToFile(statisticsFile,
+                "Unknown command. Please enter one of the following commands only :\n", "UTF-8");
+        HAProxyStatisticsReader statisticsReader = new HAProxyStatisticsReader(createTopologyProvider(),
+                createScriptsPath(), statisticsFile.getAbsolutePath(), null);
+
+        Assert.assertEquals(0, statisticsReader.getInFlightRequestCount(PHP_CLUSTER_ID));
+    }
+
+    private File getStatisticsFile() throws Exception {
+        return new File(getClass().getClassLoader().getResource(STATISTICS_FILE_NAME).toURI());
+    }
+
+    /**
+     * Create a get-stats.sh script which prints the file given as the stats socket instead of
+     * invoking socat.
+     */
+    private String createScriptsPath() throws Exception {
+        File scriptsFolder = temporaryFolder.newFolder("scripts");
+        File script = new File(scriptsFolder, "get-stats.sh");
+        FileUtils.writeStringToFile(script, "#!/bin/bash\ncat $1\n", "UTF-8");
+        Assert.assertTrue("Could not make get-stats.sh executable", script.setExecutable(true));
+        return scriptsFolder.getAbsolutePath();
+    }
+
+    private static TopologyProvider createTopologyProvider() {
+        TopologyProvider topologyProvider = new TopologyProvider();
+
+        topologyProvider.addService(new Service("php"));
+        Cluster phpCluster = new Cluster("php", PHP_CLUSTER_ID);
+        phpCluster.addHostName("php.stratos.org");
+        topologyProvider.addCluster(phpCluster);
+        topologyProvider.addMember(createMember("php", PHP_CLUSTER_ID, "php-member1", "10.0.0.1",
+                new Port("http", 8280, 80), new Port("https", 8243, 443)));
+        topologyProvider.addMember(createMember("php", PHP_CLUSTER_ID, "php-member2", "10.0.0.2",
+                new Port("http", 8280, 80), new Port("https", 8243, 443)));
+
+        topologyProvider.addService(new Service("tomcat"));
+        Cluster tomcatCluster = new Cluster("tomcat", TOMCAT_CLUSTER_ID);
+        tomcatCluster.addHostName("tomcat.stratos.org");
+        topologyProvider.addCluster(tomcatCluster);
+        topologyProvider.addMember(createMember("tomcat", TOMCAT_CLUSTER_ID, "tomcat-member1", "10.0.1.1",
+                new Port("http", 8080, 80)));
+        return topologyProvider;
+    }
+
+    private static Member createMember(String serviceName, String clusterId, String memberId, String hostName,
+                                       Port... ports) {
+        Member member = new Member(serviceName, clusterId, memberId, hostName);
+        for (Port port : ports) {
+            member.addPort(port);
+        }
+        return member;
+    }
+}
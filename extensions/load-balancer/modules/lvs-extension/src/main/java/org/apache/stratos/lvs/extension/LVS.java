@@ -22,7 +22,7 @@ package org.apache.stratos.lvs.extension;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.util.CommandUtils;
-import org.apache.stratos.load.balancer.extension.api.LoadBalancer;
+import org.apache.stratos.load.balancer.extension.api.FileBasedLoadBalancer;
 import org.apache.stratos.load.balancer.extension.api.exception.LoadBalancerExtensionException;
 import org.apache.stratos.load.balancer.common.domain.Topology;
 
@@ -31,7 +31,7 @@ import java.io.File;
 /**
  * Lvs load balancer life-cycle implementation.
  */
-public class LVS implements LoadBalancer {
+public class LVS implements FileBasedLoadBalancer {
 
     private static final Log log = LogFactory.getLog(LVS.class);
 
@@ -155,4 +155,13 @@ public class LVS implements LoadBalancer {
             throw new LoadBalancerExtensionException(e);
         }
     }
+
+    /**
+     * Returns the path of the configuration file written in configure() method.
+     * @return configuration file path
+     */
+    @Override
+    public String getConfigurationFilePath() {
+        return confFilePath;
+    }
 }